@@ -1,5 +1,7 @@
 package com.buschmais.jqassistant.core.analysis.api;
 
+import java.io.File;
+
 import com.buschmais.jqassistant.core.rule.api.executor.RuleSetExecutorConfiguration;
 
 /**
@@ -9,6 +11,14 @@ public class AnalyzerConfiguration {
 
     private boolean executeAppliedConcepts = false;
 
+    private Integer maxResultRows = null;
+
+    private boolean incremental = false;
+
+    private File metricsFile = null;
+
+    private int slowestRules = 0;
+
     private RuleSetExecutorConfiguration ruleSetExecutorConfiguration = new RuleSetExecutorConfiguration();
 
     public boolean isExecuteAppliedConcepts() {
@@ -19,6 +29,69 @@ public class AnalyzerConfiguration {
         this.executeAppliedConcepts = executeAppliedConcepts;
     }
 
+    /**
+     * Return the maximum number of rows retained for the result of a rule.
+     *
+     * If set the rows of query results are verified while they are streamed, rows
+     * exceeding the limit are counted but not retained. By default no limit is
+     * applied.
+     *
+     * @return The maximum number of rows or <code>null</code> if all rows shall
+     *         be retained.
+     */
+    public Integer getMaxResultRows() {
+        return maxResultRows;
+    }
+
+    public void setMaxResultRows(Integer maxResultRows) {
+        this.maxResultRows = maxResultRows;
+    }
+
+    /**
+     * Return if incremental analysis is enabled.
+     *
+     * If enabled the results of rules are persisted in the store together with a
+     * fingerprint of the rule and the graph elements it touches. As long as the
+     * fingerprint does not change the persisted result is reported instead of
+     * executing the rule again. Applied concepts are always reported.
+     *
+     * @return <code>true</code> if incremental analysis is enabled.
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * Return the file for writing the {@link RuleMetrics} of all executed rules
+     * as JSON.
+     *
+     * @return The file or <code>null</code> if no metrics shall be written.
+     */
+    public File getMetricsFile() {
+        return metricsFile;
+    }
+
+    public void setMetricsFile(File metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    /**
+     * Return the number of slowest rules to be logged after the analysis.
+     *
+     * @return The number of rules, 0 if no rules shall be logged.
+     */
+    public int getSlowestRules() {
+        return slowestRules;
+    }
+
+    public void setSlowestRules(int slowestRules) {
+        this.slowestRules = slowestRules;
+    }
+
     public RuleSetExecutorConfiguration getRuleSetExecutorConfiguration() {
         return ruleSetExecutorConfiguration;
     }
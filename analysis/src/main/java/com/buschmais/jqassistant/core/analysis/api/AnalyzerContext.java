@@ -48,6 +48,47 @@ public interface AnalyzerContext {
      */
     <T extends ExecutableRule<?>> Result.Status verify(T executable, List<String> columnNames, List<Map<String, Object>> rows) throws RuleException;
 
+    /**
+     * Return the {@link AnalyzerConfiguration}.
+     *
+     * The default implementation returns the default configuration.
+     *
+     * @return The {@link AnalyzerConfiguration}.
+     */
+    default AnalyzerConfiguration getConfiguration() {
+        return new AnalyzerConfiguration();
+    }
+
+    /**
+     * Create a {@link ResultVerifier} for incrementally verifying the rows returned
+     * by a cypher query for an executable.
+     *
+     * @param <T>
+     *            The type of the executable.
+     * @param executable
+     *            The executable.
+     * @param columnNames
+     *            The column names.
+     * @return The {@link ResultVerifier}.
+     * @throws RuleException
+     *             If no valid verification strategy can be found.
+     */
+    <T extends ExecutableRule<?>> ResultVerifier createVerifier(T executable, List<String> columnNames) throws RuleException;
+
+    /**
+     * Return the {@link RuleMetrics} for recording metrics while executing a rule.
+     *
+     * The default implementation returns new {@link RuleMetrics} which are not
+     * recorded.
+     *
+     * @param rule
+     *            The rule.
+     * @return The {@link RuleMetrics}.
+     */
+    default RuleMetrics getMetrics(ExecutableRule<?> rule) {
+        return new RuleMetrics(rule);
+    }
+
     /**
      * Verifies the rows returned by a cypher query for an executable.
      *
@@ -0,0 +1,29 @@
+package com.buschmais.jqassistant.core.analysis.api;
+
+import com.buschmais.jqassistant.core.report.api.model.Result;
+import com.buschmais.jqassistant.core.rule.api.model.RuleException;
+
+/**
+ * Verifies the rows returned by an executable rule incrementally, i.e. without
+ * retaining them.
+ */
+public interface ResultVerifier {
+
+    /**
+     * Verify a row.
+     *
+     * @param row
+     *            The values of the row in the order of the column names.
+     * @throws RuleException
+     *             If the row cannot be verified.
+     */
+    void verify(Object[] row) throws RuleException;
+
+    /**
+     * Return the status for all rows which have been verified.
+     *
+     * @return The status.
+     */
+    Result.Status getStatus();
+
+}
@@ -0,0 +1,172 @@
+package com.buschmais.jqassistant.core.analysis.api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.rule.api.model.ExecutableRule;
+
+/**
+ * The metrics recorded while executing and reporting a rule.
+ *
+ * All durations are measured in nanoseconds.
+ */
+public class RuleMetrics {
+
+    private final String ruleType;
+
+    private final String ruleId;
+
+    private long executionTime;
+
+    private long queryTime;
+
+    private long verificationTime;
+
+    private long rowsFetched;
+
+    private long rowsSuppressed;
+
+    private long retainedBytes;
+
+    private long commitTime;
+
+    private final Map<String, Long> reportTimes = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param rule
+     *            The {@link ExecutableRule}.
+     */
+    public RuleMetrics(ExecutableRule<?> rule) {
+        this.ruleType = rule.getClass().getSimpleName();
+        this.ruleId = rule.getId();
+    }
+
+    /**
+     * Return the type of the rule, e.g. "Concept" or "Constraint".
+     *
+     * @return The type of the rule.
+     */
+    public String getRuleType() {
+        return ruleType;
+    }
+
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    /**
+     * Return the time spent for executing the rule including query and
+     * verification.
+     *
+     * @return The execution time.
+     */
+    public synchronized long getExecutionTime() {
+        return executionTime;
+    }
+
+    public synchronized void addExecutionTime(long executionTime) {
+        this.executionTime += executionTime;
+    }
+
+    /**
+     * Return the time spent for executing the query and fetching its rows.
+     *
+     * @return The query time.
+     */
+    public synchronized long getQueryTime() {
+        return queryTime;
+    }
+
+    public synchronized void addQueryTime(long queryTime) {
+        this.queryTime += queryTime;
+    }
+
+    public synchronized long getVerificationTime() {
+        return verificationTime;
+    }
+
+    public synchronized void addVerificationTime(long verificationTime) {
+        this.verificationTime += verificationTime;
+    }
+
+    /**
+     * Return the number of rows fetched from the store, including suppressed rows.
+     *
+     * @return The number of fetched rows.
+     */
+    public synchronized long getRowsFetched() {
+        return rowsFetched;
+    }
+
+    public synchronized void addRowsFetched(long rowsFetched) {
+        this.rowsFetched += rowsFetched;
+    }
+
+    public synchronized long getRowsSuppressed() {
+        return rowsSuppressed;
+    }
+
+    public synchronized void addRowsSuppressed(long rowsSuppressed) {
+        this.rowsSuppressed += rowsSuppressed;
+    }
+
+    /**
+     * Return the estimated size of the rows retained in the result.
+     *
+     * @return The estimated size in bytes.
+     */
+    public synchronized long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    public synchronized void addRetainedBytes(long retainedBytes) {
+        this.retainedBytes += retainedBytes;
+    }
+
+    /**
+     * Return the time spent for committing the transactions of the rule.
+     *
+     * @return The commit time.
+     */
+    public synchronized long getCommitTime() {
+        return commitTime;
+    }
+
+    public synchronized void addCommitTime(long commitTime) {
+        this.commitTime += commitTime;
+    }
+
+    /**
+     * Return the time spent in the report plugins.
+     *
+     * @return The times identified by the report plugins.
+     */
+    public synchronized Map<String, Long> getReportTimes() {
+        return new LinkedHashMap<>(reportTimes);
+    }
+
+    public synchronized void addReportTime(String reportPlugin, long reportTime) {
+        reportTimes.merge(reportPlugin, reportTime, Long::sum);
+    }
+
+    /**
+     * Return the total time spent for the rule, i.e. execution, reports and
+     * commits.
+     *
+     * @return The total time.
+     */
+    public synchronized long getTotalTime() {
+        long totalTime = executionTime + commitTime;
+        for (Long reportTime : reportTimes.values()) {
+            totalTime += reportTime;
+        }
+        return totalTime;
+    }
+
+    @Override
+    public String toString() {
+        return "RuleMetrics{" + "ruleType='" + ruleType + '\'' + ", ruleId='" + ruleId + '\'' + '}';
+    }
+}
@@ -0,0 +1,23 @@
+package com.buschmais.jqassistant.core.analysis.api;
+
+import java.util.List;
+
+import com.buschmais.jqassistant.core.rule.api.model.RuleException;
+
+/**
+ * Listener which is notified about the {@link RuleMetrics} of an analysis.
+ */
+public interface RuleMetricsListener {
+
+    /**
+     * Called after all rules of an analysis have been executed.
+     *
+     * @param ruleMetrics
+     *            The {@link RuleMetrics} of all rules in the order of their
+     *            execution.
+     * @throws RuleException
+     *             If the metrics cannot be processed.
+     */
+    void analyzed(List<RuleMetrics> ruleMetrics) throws RuleException;
+
+}
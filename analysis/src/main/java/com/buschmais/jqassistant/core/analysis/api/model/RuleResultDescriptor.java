@@ -0,0 +1,39 @@
+package com.buschmais.jqassistant.core.analysis.api.model;
+
+import com.buschmais.jqassistant.core.report.api.model.Result;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.neo4j.api.annotation.Indexed;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+/**
+ * Describes the persisted result of an executed rule for incremental analysis.
+ *
+ * The rows are represented by nodes with the label "RuleResultRow".
+ */
+@Label("RuleResult")
+public interface RuleResultDescriptor extends Descriptor {
+
+    @Indexed
+    String getRuleId();
+
+    void setRuleId(String ruleId);
+
+    /**
+     * The fingerprint of the rule and the graph it has been executed on.
+     */
+    String getFingerprint();
+
+    void setFingerprint(String fingerprint);
+
+    Result.Status getStatus();
+
+    void setStatus(Result.Status status);
+
+    String[] getColumnNames();
+
+    void setColumnNames(String[] columnNames);
+
+    int getRowCount();
+
+    void setRowCount(int rowCount);
+}
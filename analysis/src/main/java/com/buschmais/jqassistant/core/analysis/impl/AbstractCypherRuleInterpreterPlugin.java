@@ -1,13 +1,16 @@
 package com.buschmais.jqassistant.core.analysis.impl;
 
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import com.buschmais.jqassistant.core.analysis.api.AnalyzerConfiguration;
 import com.buschmais.jqassistant.core.analysis.api.AnalyzerContext;
+import com.buschmais.jqassistant.core.analysis.api.ResultVerifier;
 import com.buschmais.jqassistant.core.analysis.api.RuleInterpreterPlugin;
+import com.buschmais.jqassistant.core.analysis.api.RuleMetrics;
 import com.buschmais.jqassistant.core.report.api.model.Result;
+import com.buschmais.jqassistant.core.report.api.model.RowTable;
 import com.buschmais.jqassistant.core.report.api.model.Suppress;
 import com.buschmais.jqassistant.core.rule.api.model.ExecutableRule;
 import com.buschmais.jqassistant.core.rule.api.model.RuleException;
@@ -21,38 +24,163 @@ import static java.util.Collections.unmodifiableList;
  * Abstract base class for {@link RuleInterpreterPlugin}s executing cypher
  * queries.
  *
- * The
+ * The rows of a query result are processed while they are streamed from the
+ * store. If {@link AnalyzerConfiguration#getMaxResultRows()} is set the rows
+ * are verified incrementally and only up to the given number of rows is
+ * retained, further rows are counted only. Otherwise all rows are retained and
+ * verified using {@link #getStatus(ExecutableRule, List, List, AnalyzerContext)}.
+ * This also applies if a sub-class overrides
+ * {@link #getStatus(ExecutableRule, List, List, AnalyzerContext)}, as the
+ * overridden verification requires all rows.
+ *
+ * The query time, the number of fetched and suppressed rows and the estimated
+ * size of the retained rows are recorded in the {@link RuleMetrics} of the rule.
  */
 public abstract class AbstractCypherRuleInterpreterPlugin implements RuleInterpreterPlugin {
 
+    private static final int ARRAY_SIZE = 16;
+
+    private static final int REFERENCE_SIZE = 8;
+
+    private static final int STRING_SIZE = 40;
+
+    private static final int BOXED_SIZE = 16;
+
+    /**
+     * <code>true</code> if a sub-class overrides
+     * {@link #getStatus(ExecutableRule, List, List, AnalyzerContext)}.
+     */
+    private final boolean statusOverridden = isStatusOverridden();
+
     protected <T extends ExecutableRule<?>> Result<T> execute(String cypher, T executableRule, Map<String, Object> parameters, Severity severity,
             AnalyzerContext context) throws RuleException {
-        List<Map<String, Object>> rows = new LinkedList<>();
+        RowTable rows = null;
         context.getLogger().debug("Executing query '" + cypher + "' with parameters [" + parameters + "]");
-        String primaryColumn = null;
+        Integer maxResultRows = getMaxResultRows(context);
+        if (maxResultRows != null && statusOverridden) {
+            context.getLogger().debug("Retaining all rows of '" + executableRule.getId() + "' for verification by " + getClass().getName() + ".");
+            maxResultRows = null;
+        }
+        ResultVerifier verifier = null;
+        int rowCount = 0;
+        int rowsFetched = 0;
+        long retainedBytes = 0;
+        int primaryColumn = -1;
         List<String> columnNames = null;
+        RuleMetrics ruleMetrics = getMetrics(executableRule, context);
+        long start = System.nanoTime();
         try (Query.Result<Query.Result.CompositeRowObject> compositeRowObjects = context.getStore().executeQuery(cypher, parameters)) {
             for (Query.Result.CompositeRowObject rowObject : compositeRowObjects) {
                 if (columnNames == null) {
                     columnNames = unmodifiableList(rowObject.getColumns());
-                    primaryColumn = executableRule.getReport().getPrimaryColumn();
-                    if (primaryColumn == null) {
-                        primaryColumn = columnNames.get(0);
+                    rows = new RowTable(columnNames);
+                    String primaryColumnName = executableRule.getReport().getPrimaryColumn();
+                    primaryColumn = primaryColumnName != null ? rows.getColumnIndex(primaryColumnName) : 0;
+                    if (maxResultRows != null) {
+                        verifier = context.createVerifier(executableRule, columnNames);
                     }
                 }
-                Map<String, Object> row = new LinkedHashMap<>();
-                for (String columnName : columnNames) {
-                    row.put(columnName, rowObject.get(columnName, Object.class));
+                rowsFetched++;
+                Object[] row = new Object[columnNames.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = rowObject.get(columnNames.get(i), Object.class);
                 }
-                if (!isSuppressedRow(executableRule.getId(), row, primaryColumn)) {
-                    rows.add(row);
+                if (primaryColumn < 0 || !isSuppressedRow(executableRule.getId(), row[primaryColumn])) {
+                    rowCount++;
+                    if (verifier != null) {
+                        verifier.verify(row);
+                    }
+                    if (maxResultRows == null || rows.size() < maxResultRows) {
+                        rows.addRow(row);
+                        retainedBytes += estimateSize(row);
+                    }
                 }
             }
+        } catch (RuleException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuleException("Cannot execute query for rule '" + executableRule + "'.", e);
+        } finally {
+            ruleMetrics.addQueryTime(System.nanoTime() - start);
+        }
+        ruleMetrics.addRowsFetched(rowsFetched);
+        ruleMetrics.addRowsSuppressed(rowsFetched - rowCount);
+        ruleMetrics.addRetainedBytes(retainedBytes);
+        if (rows == null) {
+            rows = new RowTable(Collections.emptyList());
+        } else if (rowCount > rows.size()) {
+            context.getLogger().warn("Result of '" + executableRule.getId() + "' contains " + rowCount + " rows, retained " + rows.size() + ".");
+        }
+        long verificationStart = System.nanoTime();
+        Status status = verifier != null ? verifier.getStatus() : getStatus(executableRule, columnNames, rows, context);
+        ruleMetrics.addVerificationTime(System.nanoTime() - verificationStart);
+        return Result.<T> builder().rule(executableRule).status(status).severity(severity).columnNames(columnNames).rows(rows).rowCount(rowCount).build();
+    }
+
+    /**
+     * Determine the maximum number of rows to retain.
+     *
+     * @param context
+     *            The {@link AnalyzerContext}.
+     * @return The maximum number of rows or <code>null</code> if all rows shall be
+     *         retained.
+     */
+    private Integer getMaxResultRows(AnalyzerContext context) {
+        AnalyzerConfiguration configuration = context.getConfiguration();
+        return configuration != null ? configuration.getMaxResultRows() : null;
+    }
+
+    /**
+     * Determine the {@link RuleMetrics} for recording the execution of a rule.
+     *
+     * @param executableRule
+     *            The rule.
+     * @param context
+     *            The {@link AnalyzerContext}.
+     * @return The {@link RuleMetrics}, metrics which are not recorded if the
+     *         context does not provide them.
+     */
+    private RuleMetrics getMetrics(ExecutableRule<?> executableRule, AnalyzerContext context) {
+        RuleMetrics ruleMetrics = context.getMetrics(executableRule);
+        return ruleMetrics != null ? ruleMetrics : new RuleMetrics(executableRule);
+    }
+
+    /**
+     * Determine if a sub-class overrides
+     * {@link #getStatus(ExecutableRule, List, List, AnalyzerContext)}.
+     *
+     * @return <code>true</code> if the method is overridden.
+     */
+    private boolean isStatusOverridden() {
+        for (Class<?> type = getClass(); !AbstractCypherRuleInterpreterPlugin.class.equals(type); type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod("getStatus", ExecutableRule.class, List.class, List.class, AnalyzerContext.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // continue with the super class
+            }
         }
-        Status status = getStatus(executableRule, columnNames, rows, context);
-        return Result.<T> builder().rule(executableRule).status(status).severity(severity).columnNames(columnNames).rows(rows).build();
+        return false;
+    }
+
+    /**
+     * Estimates the heap size of a retained row, values which are not owned by the
+     * row (e.g. nodes) are counted as references.
+     *
+     * @param row
+     *            The row.
+     * @return The estimated size in bytes.
+     */
+    private long estimateSize(Object[] row) {
+        long size = ARRAY_SIZE + (long) REFERENCE_SIZE * row.length;
+        for (Object value : row) {
+            if (value instanceof String) {
+                size += STRING_SIZE + 2L * ((String) value).length();
+            } else if (value instanceof Number || value instanceof Boolean) {
+                size += BOXED_SIZE;
+            }
+        }
+        return size;
     }
 
     /**
@@ -63,14 +191,11 @@ public abstract class AbstractCypherRuleInterpreterPlugin implements RuleInterpr
      *
      * @param ruleId
      *            The rule id.
-     * @param row
-     *            The row.
-     * @param primaryColumn
-     *            The name of the primary column.
+     * @param primaryValue
+     *            The value of the primary column.
      * @return <code>true</code> if the row shall be suppressed.
      */
-    private boolean isSuppressedRow(String ruleId, Map<String, Object> row, String primaryColumn) {
-        Object primaryValue = row.get(primaryColumn);
+    private boolean isSuppressedRow(String ruleId, Object primaryValue) {
         if (primaryValue != null && Suppress.class.isAssignableFrom(primaryValue.getClass())) {
             Suppress suppress = (Suppress) primaryValue;
             for (String suppressId : suppress.getSuppressIds()) {
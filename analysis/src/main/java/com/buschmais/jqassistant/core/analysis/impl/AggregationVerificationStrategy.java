@@ -3,7 +3,9 @@ package com.buschmais.jqassistant.core.analysis.impl;
 import java.util.List;
 import java.util.Map;
 
+import com.buschmais.jqassistant.core.analysis.api.ResultVerifier;
 import com.buschmais.jqassistant.core.report.api.model.Result;
+import com.buschmais.jqassistant.core.report.api.model.RowTable;
 import com.buschmais.jqassistant.core.rule.api.model.ExecutableRule;
 import com.buschmais.jqassistant.core.rule.api.model.RuleException;
 import com.buschmais.jqassistant.core.rule.api.reader.AggregationVerification;
@@ -27,6 +29,49 @@ public class AggregationVerificationStrategy extends AbstractMinMaxVerificationS
         if (rows.isEmpty()) {
             return getStatus(executable, 0, verification.getMin(), verification.getMax());
         }
+        String column = getColumn(verification, columnNames);
+        RowTable rowTable = RowTable.of(columnNames, rows);
+        int columnIndex = rowTable.getColumnIndex(column);
+        for (int row = 0; row < rowTable.size(); row++) {
+            Object value = columnIndex >= 0 ? rowTable.getValue(row, columnIndex) : null;
+            if (Result.Status.FAILURE.equals(verify(executable, verification, column, value))) {
+                return Result.Status.FAILURE;
+            }
+        }
+        return Result.Status.SUCCESS;
+    }
+
+    @Override
+    public <T extends ExecutableRule> ResultVerifier createVerifier(T executable, AggregationVerification verification, List<String> columnNames) {
+        return new ResultVerifier() {
+
+            private String column = null;
+
+            private int columnIndex;
+
+            private Result.Status status = null;
+
+            @Override
+            public void verify(Object[] row) throws RuleException {
+                if (column == null) {
+                    column = getColumn(verification, columnNames);
+                    columnIndex = columnNames.indexOf(column);
+                    status = Result.Status.SUCCESS;
+                }
+                Object value = columnIndex >= 0 ? row[columnIndex] : null;
+                if (Result.Status.FAILURE.equals(AggregationVerificationStrategy.this.verify(executable, verification, column, value))) {
+                    status = Result.Status.FAILURE;
+                }
+            }
+
+            @Override
+            public Result.Status getStatus() {
+                return status != null ? status : AggregationVerificationStrategy.this.getStatus(executable, 0, verification.getMin(), verification.getMax());
+            }
+        };
+    }
+
+    private String getColumn(AggregationVerification verification, List<String> columnNames) throws RuleException {
         if (columnNames.isEmpty()) {
             throw new RuleException("Result contains no columns, at least one with a numeric value is expected.");
         }
@@ -35,19 +80,17 @@ public class AggregationVerificationStrategy extends AbstractMinMaxVerificationS
             column = columnNames.get(0);
             LOGGER.debug("No aggregation column specified, using " + column);
         }
-        for (Map<String, Object> row : rows) {
-            Object value = row.get(column);
-            if (value == null) {
-                throw new RuleException("The result does not contain a column '" + column);
-            } else if (!Number.class.isAssignableFrom(value.getClass())) {
-                throw new RuleException("The value in column '" + column + "' must be a numeric value but was '" + value + "'");
-            }
-            int aggregationValue = ((Number) value).intValue();
-            Result.Status status = getStatus(executable, aggregationValue, verification.getMin(), verification.getMax());
-            if (Result.Status.FAILURE.equals(status)) {
-                return Result.Status.FAILURE;
-            }
+        return column;
+    }
+
+    private <T extends ExecutableRule> Result.Status verify(T executable, AggregationVerification verification, String column, Object value)
+            throws RuleException {
+        if (value == null) {
+            throw new RuleException("The result does not contain a column '" + column);
+        } else if (!Number.class.isAssignableFrom(value.getClass())) {
+            throw new RuleException("The value in column '" + column + "' must be a numeric value but was '" + value + "'");
         }
-        return Result.Status.SUCCESS;
+        int aggregationValue = ((Number) value).intValue();
+        return getStatus(executable, aggregationValue, verification.getMin(), verification.getMax());
     }
 }
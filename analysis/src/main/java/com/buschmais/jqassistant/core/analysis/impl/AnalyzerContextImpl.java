@@ -1,9 +1,11 @@
 package com.buschmais.jqassistant.core.analysis.impl;
 
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
+import com.buschmais.jqassistant.core.analysis.api.AnalyzerConfiguration;
 import com.buschmais.jqassistant.core.analysis.api.AnalyzerContext;
+import com.buschmais.jqassistant.core.analysis.api.ResultVerifier;
+import com.buschmais.jqassistant.core.analysis.api.RuleMetrics;
 import com.buschmais.jqassistant.core.report.api.model.Result;
 import com.buschmais.jqassistant.core.rule.api.model.ExecutableRule;
 import com.buschmais.jqassistant.core.rule.api.model.RuleException;
@@ -21,15 +23,21 @@ public class AnalyzerContextImpl implements AnalyzerContext {
 
     private static final Verification DEFAULT_VERIFICATION = RowCountVerification.builder().build();
 
+    private AnalyzerConfiguration configuration;
+
     private Store store;
 
     private Logger logger;
 
     private Map<Class<? extends Verification>, VerificationStrategy> verificationStrategies;
 
+    private final Map<String, RuleMetrics> ruleMetrics = new LinkedHashMap<>();
+
     /**
      * Constructor.
      *
+     * @param configuration
+     *            The {@link AnalyzerConfiguration}.
      * @param store
      *            The {@link Store}.
      * @param logger
@@ -37,7 +45,9 @@ public class AnalyzerContextImpl implements AnalyzerContext {
      * @param verificationStrategies
      *            The {@link VerificationStrategy}s.
      */
-    AnalyzerContextImpl(Store store, Logger logger, Map<Class<? extends Verification>, VerificationStrategy> verificationStrategies) {
+    AnalyzerContextImpl(AnalyzerConfiguration configuration, Store store, Logger logger,
+            Map<Class<? extends Verification>, VerificationStrategy> verificationStrategies) {
+        this.configuration = configuration;
         this.store = store;
         this.logger = logger;
         this.verificationStrategies = verificationStrategies;
@@ -53,24 +63,63 @@ public class AnalyzerContextImpl implements AnalyzerContext {
         return logger;
     }
 
+    @Override
+    public AnalyzerConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    @Override
+    public <T extends ExecutableRule<?>> ResultVerifier createVerifier(T executable, List<String> columnNames) throws RuleException {
+        Verification verification = getVerification(executable);
+        return getStrategy(verification).createVerifier(executable, verification, columnNames);
+    }
+
+    @Override
+    public RuleMetrics getMetrics(ExecutableRule<?> rule) {
+        synchronized (ruleMetrics) {
+            return ruleMetrics.computeIfAbsent(rule.getClass().getName() + ":" + rule.getId(), key -> new RuleMetrics(rule));
+        }
+    }
+
+    /**
+     * Return the {@link RuleMetrics} recorded since the last call and reset them.
+     *
+     * @return The {@link RuleMetrics} in the order of the first access.
+     */
+    List<RuleMetrics> removeMetrics() {
+        synchronized (ruleMetrics) {
+            List<RuleMetrics> result = new ArrayList<>(ruleMetrics.values());
+            ruleMetrics.clear();
+            return result;
+        }
+    }
+
     @Override
     public <T extends ExecutableRule<?>> Result.Status verify(T executable, List<String> columnNames, List<Map<String, Object>> rows) throws RuleException {
+        return verify(executable, columnNames, rows, getVerification(executable));
+    }
+
+    @Override
+    public <T extends ExecutableRule<?>> Result.Status verify(T executable, List<String> columnNames, List<Map<String, Object>> rows, Verification verification)
+            throws RuleException {
+        return getStrategy(verification).verify(executable, verification, columnNames, rows);
+    }
+
+    private <T extends ExecutableRule<?>> Verification getVerification(T executable) {
         Verification verification = executable.getVerification();
         if (verification == null) {
             getLogger().debug("Using default verification for '{}'." + executable);
             verification = DEFAULT_VERIFICATION;
         }
-        return verify(executable, columnNames, rows, verification);
+        return verification;
     }
 
-    @Override
-    public <T extends ExecutableRule<?>> Result.Status verify(T executable, List<String> columnNames, List<Map<String, Object>> rows, Verification verification)
-            throws RuleException {
+    private VerificationStrategy getStrategy(Verification verification) throws RuleException {
         VerificationStrategy strategy = verificationStrategies.get(verification.getClass());
         if (strategy == null) {
             throw new RuleException("Result verification not supported: " + verification.getClass().getName());
         }
-        return strategy.verify(executable, verification, columnNames, rows);
+        return strategy;
     }
 
     @Override
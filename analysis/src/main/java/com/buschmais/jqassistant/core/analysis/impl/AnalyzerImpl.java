@@ -1,13 +1,12 @@
 package com.buschmais.jqassistant.core.analysis.impl;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 import com.buschmais.jqassistant.core.analysis.api.Analyzer;
 import com.buschmais.jqassistant.core.analysis.api.AnalyzerConfiguration;
-import com.buschmais.jqassistant.core.analysis.api.AnalyzerContext;
 import com.buschmais.jqassistant.core.analysis.api.RuleInterpreterPlugin;
+import com.buschmais.jqassistant.core.analysis.api.RuleMetrics;
+import com.buschmais.jqassistant.core.analysis.api.RuleMetricsListener;
 import com.buschmais.jqassistant.core.report.api.ReportPlugin;
 import com.buschmais.jqassistant.core.rule.api.executor.RuleSetExecutor;
 import com.buschmais.jqassistant.core.rule.api.executor.RuleVisitor;
@@ -26,10 +25,11 @@ public class AnalyzerImpl implements Analyzer {
 
     private final AnalyzerConfiguration configuration;
 
-    private final AnalyzerContext analyzerContext;
+    private final AnalyzerContextImpl analyzerContext;
 
     private final Map<String, Collection<RuleInterpreterPlugin>> ruleInterpreterPlugins;
     private final ReportPlugin reportPlugin;
+    private final List<RuleMetricsListener> ruleMetricsListeners;
 
     /**
      * Constructor.
@@ -47,18 +47,57 @@ public class AnalyzerImpl implements Analyzer {
      */
     public AnalyzerImpl(AnalyzerConfiguration configuration, Store store, Map<String, Collection<RuleInterpreterPlugin>> ruleInterpreterPlugins,
             ReportPlugin reportPlugin, Logger log) {
+        this(configuration, store, ruleInterpreterPlugins, reportPlugin, log, Collections.emptyList());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param configuration
+     *            The configuration.
+     * @param store
+     *            The store
+     * @param ruleInterpreterPlugins
+     *            The {@link RuleInterpreterPlugin}s.
+     * @param reportPlugin
+     *            The report wrtier.
+     * @param log
+     *            The {@link Logger}.
+     * @param ruleMetricsListeners
+     *            The {@link RuleMetricsListener}s to notify after each analysis
+     *            in addition to the ones enabled by the configuration.
+     */
+    public AnalyzerImpl(AnalyzerConfiguration configuration, Store store, Map<String, Collection<RuleInterpreterPlugin>> ruleInterpreterPlugins,
+            ReportPlugin reportPlugin, Logger log, List<RuleMetricsListener> ruleMetricsListeners) {
         this.configuration = configuration;
-        this.analyzerContext = new AnalyzerContextImpl(store, log, initVerificationStrategies());
+        this.analyzerContext = new AnalyzerContextImpl(configuration, store, log, initVerificationStrategies());
         this.ruleInterpreterPlugins = ruleInterpreterPlugins;
         this.reportPlugin = reportPlugin;
+        this.ruleMetricsListeners = initRuleMetricsListeners(ruleMetricsListeners, log);
     }
 
     @Override
     public void execute(RuleSet ruleSet, RuleSelection ruleSelection, Map<String, String> ruleParameters) throws RuleException {
         RuleVisitor visitor = new TransactionalRuleVisitor(
-                new AnalyzerRuleVisitor(configuration, analyzerContext, ruleParameters, ruleInterpreterPlugins, reportPlugin), analyzerContext.getStore());
+                new AnalyzerRuleVisitor(configuration, analyzerContext, ruleParameters, ruleInterpreterPlugins, reportPlugin), analyzerContext);
         RuleSetExecutor executor = new RuleSetExecutor(visitor, configuration.getRuleSetExecutorConfiguration());
+        analyzerContext.removeMetrics();
         executor.execute(ruleSet, ruleSelection);
+        List<RuleMetrics> ruleMetrics = analyzerContext.removeMetrics();
+        for (RuleMetricsListener ruleMetricsListener : ruleMetricsListeners) {
+            ruleMetricsListener.analyzed(ruleMetrics);
+        }
+    }
+
+    private List<RuleMetricsListener> initRuleMetricsListeners(List<RuleMetricsListener> ruleMetricsListeners, Logger log) {
+        List<RuleMetricsListener> listeners = new ArrayList<>(ruleMetricsListeners);
+        if (configuration.getMetricsFile() != null) {
+            listeners.add(new JsonRuleMetricsWriter(configuration.getMetricsFile()));
+        }
+        if (configuration.getSlowestRules() > 0) {
+            listeners.add(new SlowestRulesReport(configuration.getSlowestRules(), log));
+        }
+        return listeners;
     }
 
     private Map<Class<? extends Verification>, VerificationStrategy> initVerificationStrategies() {
@@ -7,10 +7,14 @@ import java.util.Map;
 import com.buschmais.jqassistant.core.analysis.api.AnalyzerConfiguration;
 import com.buschmais.jqassistant.core.analysis.api.AnalyzerContext;
 import com.buschmais.jqassistant.core.analysis.api.RuleInterpreterPlugin;
+import com.buschmais.jqassistant.core.analysis.api.RuleMetrics;
 import com.buschmais.jqassistant.core.analysis.api.model.ConceptDescriptor;
 import com.buschmais.jqassistant.core.report.api.ReportPlugin;
 import com.buschmais.jqassistant.core.report.api.model.Result;
+import com.buschmais.jqassistant.core.report.impl.CompositeReportPlugin;
 import com.buschmais.jqassistant.core.rule.api.executor.AbstractRuleVisitor;
+import com.buschmais.jqassistant.core.rule.api.executor.ConcurrentRuleVisitor;
+import com.buschmais.jqassistant.core.rule.api.executor.DeferredVisit;
 import com.buschmais.jqassistant.core.rule.api.model.Concept;
 import com.buschmais.jqassistant.core.rule.api.model.Constraint;
 import com.buschmais.jqassistant.core.rule.api.model.Executable;
@@ -23,13 +27,14 @@ import com.buschmais.jqassistant.core.rule.api.model.Severity;
 /**
  * Implementation of a rule visitor for analysis execution.
  */
-public class AnalyzerRuleVisitor extends AbstractRuleVisitor {
+public class AnalyzerRuleVisitor extends AbstractRuleVisitor implements ConcurrentRuleVisitor {
 
     private AnalyzerConfiguration configuration;
     private AnalyzerContext analyzerContext;
     private Map<String, String> ruleParameters;
     private ReportPlugin reportPlugin;
     private Map<String, Collection<RuleInterpreterPlugin>> ruleInterpreterPlugins;
+    private RuleResultCache ruleResultCache;
 
     /**
      * Constructor.
@@ -50,64 +55,113 @@ public class AnalyzerRuleVisitor extends AbstractRuleVisitor {
         this.ruleParameters = ruleParameters;
         this.ruleInterpreterPlugins = ruleInterpreterPlugins;
         this.reportPlugin = reportPlugin;
+        this.ruleResultCache = new RuleResultCache(analyzerContext);
     }
 
     @Override
     public void beforeRules() throws RuleException {
+        if (configuration.isIncremental()) {
+            ruleResultCache.begin();
+        }
         reportPlugin.begin();
     }
 
     @Override
     public void afterRules() throws RuleException {
         reportPlugin.end();
+        if (configuration.isIncremental()) {
+            ruleResultCache.end();
+        }
     }
 
     @Override
     public boolean visitConcept(Concept concept, Severity effectiveSeverity) throws RuleException {
         ConceptDescriptor conceptDescriptor = analyzerContext.getStore().find(ConceptDescriptor.class, concept.getId());
         Result.Status status;
-        if (conceptDescriptor == null || configuration.isExecuteAppliedConcepts()) {
+        if (conceptDescriptor == null || configuration.isExecuteAppliedConcepts() || configuration.isIncremental()) {
             analyzerContext.getLogger()
                     .info("Applying concept '" + concept.getId() + "' with severity: '" + concept.getSeverity().getInfo(effectiveSeverity) + "'" + ".");
-            reportPlugin.beginConcept(concept);
+            report(concept, () -> reportPlugin.beginConcept(concept));
             Result<Concept> result = execute(concept, effectiveSeverity);
-            reportPlugin.setResult(result);
+            report(concept, () -> reportPlugin.setResult(result));
             status = result.getStatus();
             if (conceptDescriptor == null) {
                 conceptDescriptor = analyzerContext.getStore().create(ConceptDescriptor.class);
                 conceptDescriptor.setId(concept.getId());
                 conceptDescriptor.setStatus(status);
             }
-            reportPlugin.endConcept();
+            report(concept, reportPlugin::endConcept);
         } else {
             status = conceptDescriptor.getStatus();
         }
         return Result.Status.SUCCESS.equals(status);
     }
 
+    @Override
+    public DeferredVisit<Boolean> applyConcept(Concept concept, Severity effectiveSeverity) throws RuleException {
+        ConceptDescriptor conceptDescriptor = analyzerContext.getStore().find(ConceptDescriptor.class, concept.getId());
+        if (conceptDescriptor == null || configuration.isExecuteAppliedConcepts() || configuration.isIncremental()) {
+            analyzerContext.getLogger()
+                    .info("Applying concept '" + concept.getId() + "' with severity: '" + concept.getSeverity().getInfo(effectiveSeverity) + "'" + ".");
+            Result<Concept> result = execute(concept, effectiveSeverity);
+            Result.Status status = result.getStatus();
+            if (conceptDescriptor == null) {
+                conceptDescriptor = analyzerContext.getStore().create(ConceptDescriptor.class);
+                conceptDescriptor.setId(concept.getId());
+                conceptDescriptor.setStatus(status);
+            }
+            return DeferredVisit.of(Result.Status.SUCCESS.equals(status), () -> report(concept, () -> {
+                reportPlugin.beginConcept(concept);
+                reportPlugin.setResult(result);
+                reportPlugin.endConcept();
+            }));
+        }
+        return DeferredVisit.of(Result.Status.SUCCESS.equals(conceptDescriptor.getStatus()), () -> {
+        });
+    }
+
     @Override
     public void skipConcept(Concept concept, Severity effectiveSeverity) throws RuleException {
-        reportPlugin.beginConcept(concept);
         Result<Concept> result = Result.<Concept> builder().rule(concept).status(Result.Status.SKIPPED).severity(effectiveSeverity).build();
-        reportPlugin.setResult(result);
-        reportPlugin.endConcept();
+        report(concept, () -> {
+            reportPlugin.beginConcept(concept);
+            reportPlugin.setResult(result);
+            reportPlugin.endConcept();
+        });
     }
 
     @Override
     public void visitConstraint(Constraint constraint, Severity effectiveSeverity) throws RuleException {
         analyzerContext.getLogger()
                 .info("Validating constraint '" + constraint.getId() + "' with severity: '" + constraint.getSeverity().getInfo(effectiveSeverity) + "'.");
-        reportPlugin.beginConstraint(constraint);
-        reportPlugin.setResult(execute(constraint, effectiveSeverity));
-        reportPlugin.endConstraint();
+        report(constraint, () -> reportPlugin.beginConstraint(constraint));
+        Result<Constraint> result = execute(constraint, effectiveSeverity);
+        report(constraint, () -> {
+            reportPlugin.setResult(result);
+            reportPlugin.endConstraint();
+        });
+    }
+
+    @Override
+    public DeferredVisit<Void> validateConstraint(Constraint constraint, Severity effectiveSeverity) throws RuleException {
+        analyzerContext.getLogger()
+                .info("Validating constraint '" + constraint.getId() + "' with severity: '" + constraint.getSeverity().getInfo(effectiveSeverity) + "'.");
+        Result<Constraint> result = execute(constraint, effectiveSeverity);
+        return DeferredVisit.of(null, () -> report(constraint, () -> {
+            reportPlugin.beginConstraint(constraint);
+            reportPlugin.setResult(result);
+            reportPlugin.endConstraint();
+        }));
     }
 
     @Override
     public void skipConstraint(Constraint constraint, Severity effectiveSeverity) throws RuleException {
-        reportPlugin.beginConstraint(constraint);
         Result<Constraint> result = Result.<Constraint> builder().rule(constraint).status(Result.Status.SKIPPED).severity(effectiveSeverity).build();
-        reportPlugin.setResult(result);
-        reportPlugin.endConstraint();
+        report(constraint, () -> {
+            reportPlugin.beginConstraint(constraint);
+            reportPlugin.setResult(result);
+            reportPlugin.endConstraint();
+        });
     }
 
     @Override
@@ -121,8 +175,55 @@ public class AnalyzerRuleVisitor extends AbstractRuleVisitor {
         reportPlugin.endGroup();
     }
 
+    /**
+     * Executes a report operation for a rule and records the time spent in the
+     * {@link ReportPlugin}s.
+     *
+     * @param rule
+     *            The rule.
+     * @param operation
+     *            The operation.
+     * @throws RuleException
+     *             If the report fails.
+     */
+    private void report(ExecutableRule<?> rule, DeferredVisit.Report operation) throws RuleException {
+        long start = System.nanoTime();
+        operation.report();
+        RuleMetrics ruleMetrics = analyzerContext.getMetrics(rule);
+        if (reportPlugin instanceof CompositeReportPlugin) {
+            ((CompositeReportPlugin) reportPlugin).pollReportTimes().forEach(ruleMetrics::addReportTime);
+        } else {
+            ruleMetrics.addReportTime(reportPlugin.getClass().getSimpleName(), System.nanoTime() - start);
+        }
+    }
+
     private <T extends ExecutableRule> Result<T> execute(T executableRule, Severity severity) throws RuleException {
+        long start = System.nanoTime();
+        try {
+            return executeOrReplay(executableRule, severity);
+        } finally {
+            analyzerContext.getMetrics(executableRule).addExecutionTime(System.nanoTime() - start);
+        }
+    }
+
+    private <T extends ExecutableRule> Result<T> executeOrReplay(T executableRule, Severity severity) throws RuleException {
         Map<String, Object> ruleParameters = getRuleParameters(executableRule);
+        if (!configuration.isIncremental()) {
+            return execute(executableRule, ruleParameters, severity);
+        }
+        String fingerprint = ruleResultCache.getFingerprint(executableRule, ruleParameters, severity);
+        Result<T> result = ruleResultCache.get(executableRule, severity, fingerprint);
+        if (result != null) {
+            analyzerContext.getLogger().info("Rule '" + executableRule.getId() + "' is unchanged, reporting persisted result.");
+            return result;
+        }
+        result = execute(executableRule, ruleParameters, severity);
+        ruleResultCache.put(result, fingerprint);
+        ruleResultCache.executed(executableRule);
+        return result;
+    }
+
+    private <T extends ExecutableRule> Result<T> execute(T executableRule, Map<String, Object> ruleParameters, Severity severity) throws RuleException {
         Executable<?> executable = executableRule.getExecutable();
         Collection<RuleInterpreterPlugin> languagePlugins = ruleInterpreterPlugins.get(executable.getLanguage());
         if (languagePlugins == null) {
@@ -0,0 +1,116 @@
+package com.buschmais.jqassistant.core.analysis.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.analysis.api.RuleMetrics;
+import com.buschmais.jqassistant.core.analysis.api.RuleMetricsListener;
+import com.buschmais.jqassistant.core.rule.api.model.RuleException;
+
+/**
+ * {@link RuleMetricsListener} writing a JSON summary of the {@link RuleMetrics}
+ * to a file.
+ *
+ * All durations are written in nanoseconds, sizes in bytes.
+ */
+public class JsonRuleMetricsWriter implements RuleMetricsListener {
+
+    private final File file;
+
+    /**
+     * Constructor.
+     *
+     * @param file
+     *            The file to write.
+     */
+    public JsonRuleMetricsWriter(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void analyzed(List<RuleMetrics> ruleMetrics) throws RuleException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null) {
+            directory.mkdirs();
+        }
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(toJson(ruleMetrics));
+        } catch (IOException e) {
+            throw new RuleException("Cannot write rule metrics to " + file, e);
+        }
+    }
+
+    /**
+     * Convert the {@link RuleMetrics} to JSON.
+     *
+     * @param ruleMetrics
+     *            The {@link RuleMetrics}.
+     * @return The JSON representation.
+     */
+    String toJson(List<RuleMetrics> ruleMetrics) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"rules\": [");
+        for (int i = 0; i < ruleMetrics.size(); i++) {
+            RuleMetrics metrics = ruleMetrics.get(i);
+            json.append(i > 0 ? ",\n" : "\n");
+            json.append("    {");
+            json.append("\"type\": ").append(quote(metrics.getRuleType()));
+            json.append(", \"id\": ").append(quote(metrics.getRuleId()));
+            json.append(", \"totalTime\": ").append(metrics.getTotalTime());
+            json.append(", \"executionTime\": ").append(metrics.getExecutionTime());
+            json.append(", \"queryTime\": ").append(metrics.getQueryTime());
+            json.append(", \"verificationTime\": ").append(metrics.getVerificationTime());
+            json.append(", \"commitTime\": ").append(metrics.getCommitTime());
+            json.append(", \"rowsFetched\": ").append(metrics.getRowsFetched());
+            json.append(", \"rowsSuppressed\": ").append(metrics.getRowsSuppressed());
+            json.append(", \"retainedBytes\": ").append(metrics.getRetainedBytes());
+            json.append(", \"reportTimes\": {");
+            boolean first = true;
+            for (Map.Entry<String, Long> entry : metrics.getReportTimes().entrySet()) {
+                json.append(first ? "" : ", ").append(quote(entry.getKey())).append(": ").append(entry.getValue());
+                first = false;
+            }
+            json.append("}}");
+        }
+        json.append(ruleMetrics.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+        return json.toString();
+    }
+
+    private String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+            case '"':
+                quoted.append("\\\"");
+                break;
+            case '\\':
+                quoted.append("\\\\");
+                break;
+            case '\n':
+                quoted.append("\\n");
+                break;
+            case '\r':
+                quoted.append("\\r");
+                break;
+            case '\t':
+                quoted.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    quoted.append(String.format("\\u%04x", (int) c));
+                } else {
+                    quoted.append(c);
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
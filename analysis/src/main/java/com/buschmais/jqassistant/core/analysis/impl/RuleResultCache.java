@@ -0,0 +1,342 @@
+package com.buschmais.jqassistant.core.analysis.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+import com.buschmais.jqassistant.core.analysis.api.AnalyzerContext;
+import com.buschmais.jqassistant.core.analysis.api.model.RuleResultDescriptor;
+import com.buschmais.jqassistant.core.report.api.model.Result;
+import com.buschmais.jqassistant.core.report.api.model.RowTable;
+import com.buschmais.jqassistant.core.rule.api.model.Concept;
+import com.buschmais.jqassistant.core.rule.api.model.Executable;
+import com.buschmais.jqassistant.core.rule.api.model.ExecutableRule;
+import com.buschmais.jqassistant.core.rule.api.model.Severity;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.xo.api.CompositeObject;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.neo4j.api.model.Neo4jNode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Persists the results of executed rules in the store for incremental
+ * analysis.
+ *
+ * A result is stored together with a fingerprint of the rule (type, id,
+ * executable, parameters, severity, verification and primary column) and of
+ * the graph, i.e. the epoch of the graph when the analysis started (see
+ * {@link Store#getModificationEpoch()}) and the concepts which have been
+ * executed before the rule within the analysis. As long as the fingerprint does
+ * not change the persisted result is replayed instead of executing the rule.
+ *
+ * After each analysis the epoch of the graph is recorded. The epoch of the
+ * graph is carried over to the next analysis if no other transaction has been
+ * committed in between, i.e. the writes of the analysis itself do not
+ * invalidate the persisted results. Any other modification of the graph (e.g.
+ * a scan or a changed property) leads to a new epoch. If the store does not
+ * provide a modification epoch results are not cached.
+ *
+ * Only results containing primitive values, strings or nodes can be persisted,
+ * nodes are referenced by their ids.
+ */
+class RuleResultCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleResultCache.class);
+
+    private static final String VALUE_PREFIX = "value";
+
+    private static final String NODE_COLUMNS = "nodeColumns";
+
+    private static final String NODE_IDS = "nodeIds";
+
+    static final String READ_EPOCH = "OPTIONAL MATCH (epoch:RuleResultEpoch) RETURN epoch.base AS base, epoch.expected AS expected";
+
+    static final String WRITE_EPOCH = "MERGE (epoch:RuleResultEpoch) SET epoch.base = $base, epoch.expected = $expected";
+
+    private static final String WRITE_ROWS = "MATCH (result:RuleResult) WHERE id(result) = $result UNWIND $rows AS row "
+            + "CREATE (result)-[:HAS_RESULT_ROW]->(resultRow:RuleResultRow) SET resultRow += row";
+
+    private static final String READ_ROWS = "MATCH (result:RuleResult)-[:HAS_RESULT_ROW]->(resultRow:RuleResultRow) WHERE id(result) = $result "
+            + "OPTIONAL MATCH (n) WHERE id(n) IN resultRow.nodeIds WITH resultRow, collect(id(n)) AS ids, collect(n) AS nodes "
+            + "RETURN properties(resultRow) AS row, ids, nodes ORDER BY resultRow.index";
+
+    private static final String DELETE_ROWS = "MATCH (result:RuleResult)-[:HAS_RESULT_ROW]->(resultRow:RuleResultRow) WHERE id(result) = $result "
+            + "DETACH DELETE resultRow";
+
+    private final AnalyzerContext analyzerContext;
+
+    /**
+     * The epoch of the graph when the analysis started, <code>null</code> if
+     * results are not cached.
+     */
+    private String baseEpoch;
+
+    /**
+     * The epoch of the graph including the concepts executed so far.
+     */
+    private volatile String epoch;
+
+    RuleResultCache(AnalyzerContext analyzerContext) {
+        this.analyzerContext = analyzerContext;
+    }
+
+    /**
+     * Determine the epoch of the graph before executing the rules.
+     */
+    void begin() {
+        Store store = analyzerContext.getStore();
+        OptionalLong modificationEpoch = store.getModificationEpoch();
+        if (!modificationEpoch.isPresent()) {
+            LOGGER.warn("The store does not provide a modification epoch, results of rules are not cached.");
+            baseEpoch = null;
+        } else {
+            Query.Result.CompositeRowObject recordedEpoch;
+            try (Query.Result<Query.Result.CompositeRowObject> result = store.executeQuery(READ_EPOCH)) {
+                recordedEpoch = result.getSingleResult();
+            }
+            String base = recordedEpoch.get("base", String.class);
+            Long expected = recordedEpoch.get("expected", Long.class);
+            if (base != null && expected != null && expected == modificationEpoch.getAsLong()) {
+                baseEpoch = base;
+            } else {
+                LOGGER.debug("The graph has been modified since the last analysis, persisted results are not used.");
+                baseEpoch = Long.toString(modificationEpoch.getAsLong());
+            }
+        }
+        epoch = baseEpoch;
+    }
+
+    /**
+     * Record a rule which has been executed, i.e. its result has not been
+     * replayed. A concept may modify the graph, so the epoch for the following
+     * rules changes.
+     *
+     * @param executableRule
+     *            The rule.
+     */
+    void executed(ExecutableRule<?> executableRule) {
+        if (epoch != null && executableRule instanceof Concept) {
+            epoch = epoch + "+" + executableRule.getId();
+        }
+    }
+
+    /**
+     * Record the epoch of the graph after executing the rules.
+     *
+     * The epoch is written within the current transaction, i.e. its commit is
+     * expected to be the next modification of the graph.
+     */
+    void end() {
+        if (baseEpoch != null) {
+            OptionalLong modificationEpoch = analyzerContext.getStore().getModificationEpoch();
+            if (modificationEpoch.isPresent()) {
+                Map<String, Object> parameters = new HashMap<>();
+                parameters.put("base", baseEpoch);
+                parameters.put("expected", modificationEpoch.getAsLong() + 1);
+                execute(WRITE_EPOCH, parameters);
+            }
+        }
+    }
+
+    /**
+     * Determine the fingerprint of a rule for the current epoch of the graph.
+     *
+     * @param executableRule
+     *            The rule.
+     * @param ruleParameters
+     *            The rule parameters.
+     * @param severity
+     *            The effective severity.
+     * @return The fingerprint or <code>null</code> if results are not cached.
+     */
+    <T extends ExecutableRule> String getFingerprint(T executableRule, Map<String, Object> ruleParameters, Severity severity) {
+        String currentEpoch = epoch;
+        if (currentEpoch == null) {
+            return null;
+        }
+        Executable<?> executable = executableRule.getExecutable();
+        String source = String.valueOf(executable.getSource());
+        StringBuilder builder = new StringBuilder();
+        builder.append(executableRule.getClass().getName()).append('\n');
+        builder.append(executableRule.getId()).append('\n');
+        builder.append(executable.getLanguage()).append('\n');
+        builder.append(source).append('\n');
+        builder.append(new TreeMap<>(ruleParameters)).append('\n');
+        builder.append(severity).append('\n');
+        builder.append(executableRule.getVerification()).append('\n');
+        builder.append(executableRule.getReport() != null ? executableRule.getReport().getPrimaryColumn() : null).append('\n');
+        builder.append(currentEpoch).append('\n');
+        return digest(builder.toString());
+    }
+
+    /**
+     * Return the persisted result of a rule if the fingerprint did not change.
+     *
+     * @param executableRule
+     *            The rule.
+     * @param severity
+     *            The effective severity.
+     * @param fingerprint
+     *            The current fingerprint of the rule, may be <code>null</code>.
+     * @return The persisted result or <code>null</code>.
+     */
+    <T extends ExecutableRule> Result<T> get(T executableRule, Severity severity, String fingerprint) {
+        if (fingerprint == null) {
+            return null;
+        }
+        Store store = analyzerContext.getStore();
+        RuleResultDescriptor ruleResultDescriptor = store.find(RuleResultDescriptor.class, executableRule.getId());
+        if (ruleResultDescriptor == null || !fingerprint.equals(ruleResultDescriptor.getFingerprint())) {
+            return null;
+        }
+        String[] storedColumnNames = ruleResultDescriptor.getColumnNames();
+        List<String> columnNames = storedColumnNames != null ? asList(storedColumnNames) : null;
+        RowTable rows = new RowTable(columnNames != null ? columnNames : emptyList());
+        try (Query.Result<Query.Result.CompositeRowObject> result = store.executeQuery(READ_ROWS, singletonMap("result", ruleResultDescriptor.getId()))) {
+            for (Query.Result.CompositeRowObject resultRow : result) {
+                Map<String, Object> values = resultRow.get("row", Map.class);
+                Map<Number, Object> nodes = new HashMap<>();
+                List<Number> ids = resultRow.get("ids", List.class);
+                List<Object> nodeList = resultRow.get("nodes", List.class);
+                for (int i = 0; i < ids.size(); i++) {
+                    nodes.put(ids.get(i).longValue(), nodeList.get(i));
+                }
+                Object[] row = new Object[rows.getColumnNames().size()];
+                for (int column = 0; column < row.length; column++) {
+                    row[column] = values.get(VALUE_PREFIX + column);
+                }
+                long[] nodeIds = toLongArray(values.get(NODE_IDS));
+                long[] nodeColumns = toLongArray(values.get(NODE_COLUMNS));
+                for (int i = 0; i < nodeIds.length; i++) {
+                    row[(int) nodeColumns[i]] = nodes.get(nodeIds[i]);
+                }
+                rows.addRow(row);
+            }
+        }
+        return Result.<T> builder().rule(executableRule).status(ruleResultDescriptor.getStatus()).severity(severity).columnNames(columnNames).rows(rows)
+                .rowCount(ruleResultDescriptor.getRowCount()).build();
+    }
+
+    /**
+     * Persist the result of a rule.
+     *
+     * @param result
+     *            The {@link Result}.
+     * @param fingerprint
+     *            The fingerprint of the rule determined before execution, may be
+     *            <code>null</code>.
+     */
+    <T extends ExecutableRule> void put(Result<T> result, String fingerprint) {
+        if (fingerprint == null) {
+            return;
+        }
+        Store store = analyzerContext.getStore();
+        String ruleId = result.getRule().getId();
+        RuleResultDescriptor ruleResultDescriptor = store.find(RuleResultDescriptor.class, ruleId);
+        if (ruleResultDescriptor != null) {
+            execute(DELETE_ROWS, singletonMap("result", ruleResultDescriptor.getId()));
+        }
+        List<Map<String, Object>> rows = toRows(result);
+        if (rows == null) {
+            LOGGER.debug("Result of '{}' contains values which cannot be persisted, it will be executed again.", ruleId);
+            if (ruleResultDescriptor != null) {
+                store.delete(ruleResultDescriptor);
+            }
+            return;
+        }
+        if (ruleResultDescriptor == null) {
+            ruleResultDescriptor = store.create(RuleResultDescriptor.class);
+            ruleResultDescriptor.setRuleId(ruleId);
+        }
+        ruleResultDescriptor.setFingerprint(fingerprint);
+        ruleResultDescriptor.setStatus(result.getStatus());
+        List<String> columnNames = result.getColumnNames();
+        ruleResultDescriptor.setColumnNames(columnNames != null ? columnNames.toArray(new String[columnNames.size()]) : null);
+        ruleResultDescriptor.setRowCount(result.getRowCount());
+        if (!rows.isEmpty()) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("result", ruleResultDescriptor.getId());
+            parameters.put("rows", rows);
+            execute(WRITE_ROWS, parameters);
+        }
+    }
+
+    /**
+     * Convert the rows of a {@link Result} to parameters for persisting them.
+     *
+     * @param result
+     *            The {@link Result}.
+     * @return The rows or <code>null</code> if the result contains values which
+     *         cannot be persisted.
+     */
+    private List<Map<String, Object>> toRows(Result<?> result) {
+        RowTable rowTable = RowTable.of(result.getColumnNames(), result.getRows());
+        int columnCount = rowTable.getColumnNames().size();
+        List<Map<String, Object>> rows = new ArrayList<>(rowTable.size());
+        for (int index = 0; index < rowTable.size(); index++) {
+            Map<String, Object> row = new HashMap<>();
+            List<Long> nodeColumns = new ArrayList<>();
+            List<Long> nodeIds = new ArrayList<>();
+            for (int column = 0; column < columnCount; column++) {
+                Object value = rowTable.getValue(index, column);
+                if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+                    row.put(VALUE_PREFIX + column, value);
+                } else if (value instanceof CompositeObject && ((CompositeObject) value).getDelegate() instanceof Neo4jNode) {
+                    nodeColumns.add((long) column);
+                    nodeIds.add(((Number) ((CompositeObject) value).getId()).longValue());
+                } else if (value != null) {
+                    return null;
+                }
+            }
+            row.put("index", index);
+            if (!nodeIds.isEmpty()) {
+                row.put(NODE_COLUMNS, nodeColumns);
+                row.put(NODE_IDS, nodeIds);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private long[] toLongArray(Object value) {
+        if (value == null) {
+            return new long[0];
+        } else if (value instanceof long[]) {
+            return (long[]) value;
+        }
+        List<?> values = value instanceof List ? (List<?>) value : asList((Object[]) value);
+        long[] result = new long[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((Number) values.get(i)).longValue();
+        }
+        return result;
+    }
+
+    private void execute(String query, Map<String, Object> parameters) {
+        try (Query.Result<Query.Result.CompositeRowObject> result = analyzerContext.getStore().executeQuery(query, parameters)) {
+            // consume the result to make sure the statement has been executed
+            result.iterator().hasNext();
+        }
+    }
+
+    private String digest(String value) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot create message digest.", e);
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        for (byte b : messageDigest.digest(value.getBytes(StandardCharsets.UTF_8))) {
+            fingerprint.append(String.format("%02x", b));
+        }
+        return fingerprint.toString();
+    }
+}
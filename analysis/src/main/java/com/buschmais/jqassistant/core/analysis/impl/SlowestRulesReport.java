@@ -0,0 +1,77 @@
+package com.buschmais.jqassistant.core.analysis.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.analysis.api.RuleMetrics;
+import com.buschmais.jqassistant.core.analysis.api.RuleMetricsListener;
+
+import org.slf4j.Logger;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * {@link RuleMetricsListener} logging the rules with the highest total time.
+ */
+public class SlowestRulesReport implements RuleMetricsListener {
+
+    private final int count;
+
+    private final Logger logger;
+
+    /**
+     * Constructor.
+     *
+     * @param count
+     *            The number of rules to report.
+     * @param logger
+     *            The {@link Logger}.
+     */
+    public SlowestRulesReport(int count, Logger logger) {
+        this.count = count;
+        this.logger = logger;
+    }
+
+    @Override
+    public void analyzed(List<RuleMetrics> ruleMetrics) {
+        List<RuleMetrics> slowestRules = getSlowestRules(ruleMetrics);
+        if (slowestRules.isEmpty()) {
+            return;
+        }
+        logger.info("Slowest rules:");
+        for (int i = 0; i < slowestRules.size(); i++) {
+            RuleMetrics metrics = slowestRules.get(i);
+            long reportTime = 0;
+            for (Long time : metrics.getReportTimes().values()) {
+                reportTime += time;
+            }
+            logger.info(String.format(
+                    "%3d. %s '%s': %d ms (query: %d ms, verification: %d ms, report: %d ms, commit: %d ms, rows: %d, suppressed: %d, retained: %d KiB)", i + 1, metrics.getRuleType(), metrics.getRuleId(), toMillis(metrics.getTotalTime()), toMillis(metrics.getQueryTime()),
+                    toMillis(metrics.getVerificationTime()), toMillis(reportTime), toMillis(metrics.getCommitTime()), metrics.getRowsFetched(),
+                    metrics.getRowsSuppressed(), metrics.getRetainedBytes() / 1024));
+            for (Map.Entry<String, Long> entry : metrics.getReportTimes().entrySet()) {
+                logger.debug(String.format("       report '%s': %d ms", entry.getKey(), toMillis(entry.getValue())));
+            }
+        }
+    }
+
+    /**
+     * Determine the rules with the highest total time.
+     *
+     * @param ruleMetrics
+     *            The {@link RuleMetrics} of all rules.
+     * @return The {@link RuleMetrics} of the slowest rules, ordered by descending
+     *         total time.
+     */
+    List<RuleMetrics> getSlowestRules(List<RuleMetrics> ruleMetrics) {
+        List<RuleMetrics> sorted = new ArrayList<>(ruleMetrics);
+        sorted.sort(Comparator.comparingLong(RuleMetrics::getTotalTime).reversed());
+        return sorted.subList(0, Math.min(count, sorted.size()));
+    }
+
+    private long toMillis(long nanos) {
+        return NANOSECONDS.toMillis(nanos);
+    }
+}
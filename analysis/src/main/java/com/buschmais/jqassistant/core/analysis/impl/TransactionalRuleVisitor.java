@@ -1,65 +1,178 @@
 package com.buschmais.jqassistant.core.analysis.impl;
 
+import com.buschmais.jqassistant.core.analysis.api.AnalyzerContext;
+import com.buschmais.jqassistant.core.rule.api.executor.ConcurrentRuleVisitor;
+import com.buschmais.jqassistant.core.rule.api.executor.DeferredVisit;
 import com.buschmais.jqassistant.core.rule.api.executor.RuleVisitor;
 import com.buschmais.jqassistant.core.rule.api.model.*;
 import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreSession;
 import com.buschmais.xo.api.XOException;
 
 /**
  * A delegating visitor that provides a transactional context.
+ *
+ * For parallel execution the execution of a rule and its deferred report are
+ * performed in separate transactions. Constraints are validated by worker
+ * threads, each validation opens its own {@link StoreSession} which is closed
+ * after the deferred report.
+ *
+ * If an {@link AnalyzerContext} is provided the time spent for committing the
+ * transactions of a rule is recorded in its
+ * {@link com.buschmais.jqassistant.core.analysis.api.RuleMetrics}.
  */
-public class TransactionalRuleVisitor implements RuleVisitor {
+public class TransactionalRuleVisitor implements ConcurrentRuleVisitor {
 
     private final RuleVisitor delegate;
     private final Store store;
+    private final AnalyzerContext analyzerContext;
 
     public TransactionalRuleVisitor(RuleVisitor delegate, Store store) {
         this.delegate = delegate;
         this.store = store;
+        this.analyzerContext = null;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate
+     *            The delegate {@link RuleVisitor}.
+     * @param analyzerContext
+     *            The {@link AnalyzerContext} providing the {@link Store} and the
+     *            metrics of the rules.
+     */
+    public TransactionalRuleVisitor(RuleVisitor delegate, AnalyzerContext analyzerContext) {
+        this.delegate = delegate;
+        this.store = analyzerContext.getStore();
+        this.analyzerContext = analyzerContext;
     }
 
     @Override
     public void beforeRules() throws RuleException {
-        doInXOTransaction(() -> delegate.beforeRules());
+        doInXOTransaction(null, () -> delegate.beforeRules());
     }
 
     @Override
     public void afterRules() throws RuleException {
-        doInXOTransaction(() -> delegate.afterRules());
+        doInXOTransaction(null, () -> delegate.afterRules());
     }
 
     @Override
     public boolean visitConcept(Concept concept, Severity effectiveSeverity) throws RuleException {
-        return doInXOTransaction(() -> delegate.visitConcept(concept, effectiveSeverity));
+        return doInXOTransaction(concept, () -> delegate.visitConcept(concept, effectiveSeverity));
+    }
+
+    @Override
+    public DeferredVisit<Boolean> applyConcept(Concept concept, Severity effectiveSeverity) throws RuleException {
+        if (delegate instanceof ConcurrentRuleVisitor) {
+            return transactional(concept, doInXOTransaction(concept, () -> ((ConcurrentRuleVisitor) delegate).applyConcept(concept, effectiveSeverity)));
+        }
+        boolean result = visitConcept(concept, effectiveSeverity);
+        return DeferredVisit.of(result, () -> {
+        });
     }
 
     @Override
     public void skipConcept(Concept concept, Severity effectiveSeverity) throws RuleException {
-        doInXOTransaction(() -> delegate.skipConcept(concept, effectiveSeverity));
+        doInXOTransaction(concept, () -> delegate.skipConcept(concept, effectiveSeverity));
     }
 
     @Override
     public void visitConstraint(Constraint constraint, Severity effectiveSeverity) throws RuleException {
-        doInXOTransaction(() -> delegate.visitConstraint(constraint, effectiveSeverity));
+        doInXOTransaction(constraint, () -> delegate.visitConstraint(constraint, effectiveSeverity));
+    }
+
+    @Override
+    public DeferredVisit<Void> validateConstraint(Constraint constraint, Severity effectiveSeverity) throws RuleException {
+        StoreSession session = store.openSession();
+        try {
+            DeferredVisit<Void> deferredVisit;
+            if (delegate instanceof ConcurrentRuleVisitor) {
+                deferredVisit = transactional(constraint,
+                        doInXOTransaction(constraint, () -> ((ConcurrentRuleVisitor) delegate).validateConstraint(constraint, effectiveSeverity)));
+            } else {
+                deferredVisit = DeferredVisit.of(null, () -> visitConstraint(constraint, effectiveSeverity));
+            }
+            return closing(deferredVisit, session);
+        } catch (RuleException | RuntimeException e) {
+            session.close();
+            throw e;
+        }
     }
 
     @Override
     public void skipConstraint(Constraint constraint, Severity effectiveSeverity) throws RuleException {
-        doInXOTransaction(() -> delegate.skipConstraint(constraint, effectiveSeverity));
+        doInXOTransaction(constraint, () -> delegate.skipConstraint(constraint, effectiveSeverity));
     }
 
     @Override
     public void beforeGroup(Group group, Severity effectiveSeverity) throws RuleException {
-        doInXOTransaction(() -> delegate.beforeGroup(group, effectiveSeverity));
+        doInXOTransaction(null, () -> delegate.beforeGroup(group, effectiveSeverity));
     }
 
     @Override
     public void afterGroup(Group group) throws RuleException {
-        doInXOTransaction(() -> delegate.afterGroup(group));
+        doInXOTransaction(null, () -> delegate.afterGroup(group));
     }
 
-    private void doInXOTransaction(TransactionalAction transactionalAction) throws RuleException {
-        doInXOTransaction((TransactionalSupplier<Void>) () -> {
+    /**
+     * Wraps a {@link DeferredVisit} such that its report is executed within a
+     * transaction.
+     *
+     * @param rule
+     *            The rule.
+     * @param deferredVisit
+     *            The {@link DeferredVisit}.
+     * @param <T>
+     *            The result type.
+     * @return The transactional {@link DeferredVisit}.
+     */
+    private <T> DeferredVisit<T> transactional(ExecutableRule<?> rule, DeferredVisit<T> deferredVisit) {
+        return DeferredVisit.of(deferredVisit.getResult(), () -> doInXOTransaction(rule, deferredVisit::report));
+    }
+
+    /**
+     * Wraps a {@link DeferredVisit} such that the given {@link StoreSession} is
+     * closed after it has been reported or discarded.
+     *
+     * @param deferredVisit
+     *            The {@link DeferredVisit}.
+     * @param session
+     *            The {@link StoreSession}.
+     * @param <T>
+     *            The result type.
+     * @return The wrapped {@link DeferredVisit}.
+     */
+    private <T> DeferredVisit<T> closing(DeferredVisit<T> deferredVisit, StoreSession session) {
+        return new DeferredVisit<T>() {
+            @Override
+            public T getResult() {
+                return deferredVisit.getResult();
+            }
+
+            @Override
+            public void report() throws RuleException {
+                try {
+                    deferredVisit.report();
+                } finally {
+                    session.close();
+                }
+            }
+
+            @Override
+            public void discard() {
+                try {
+                    deferredVisit.discard();
+                } finally {
+                    session.close();
+                }
+            }
+        };
+    }
+
+    private void doInXOTransaction(ExecutableRule<?> rule, TransactionalAction transactionalAction) throws RuleException {
+        doInXOTransaction(rule, (TransactionalSupplier<Void>) () -> {
             transactionalAction.execute();
             return null;
         });
@@ -68,6 +181,8 @@ public class TransactionalRuleVisitor implements RuleVisitor {
     /**
      * Executes a {@link TransactionalSupplier} within a transaction.
      *
+     * @param rule
+     *            The rule to record the commit time for, may be <code>null</code>.
      * @param txSupplier
      *            The {@link TransactionalSupplier}.
      * @param <T>
@@ -77,11 +192,15 @@ public class TransactionalRuleVisitor implements RuleVisitor {
      *             If the transaction failed due to an underlying
      *             {@link XOException}.
      */
-    private <T> T doInXOTransaction(TransactionalSupplier<T> txSupplier) throws RuleException {
+    private <T> T doInXOTransaction(ExecutableRule<?> rule, TransactionalSupplier<T> txSupplier) throws RuleException {
         try {
             store.beginTransaction();
             T result = txSupplier.execute();
+            long start = System.nanoTime();
             store.commitTransaction();
+            if (rule != null && analyzerContext != null) {
+                analyzerContext.getMetrics(rule).addCommitTime(System.nanoTime() - start);
+            }
             return result;
         } catch (RuleException e) {
             throw e;
@@ -3,6 +3,7 @@ package com.buschmais.jqassistant.core.analysis.impl;
 import java.util.List;
 import java.util.Map;
 
+import com.buschmais.jqassistant.core.analysis.api.ResultVerifier;
 import com.buschmais.jqassistant.core.report.api.model.Result;
 import com.buschmais.jqassistant.core.rule.api.model.ExecutableRule;
 import com.buschmais.jqassistant.core.rule.api.model.RuleException;
@@ -19,4 +20,19 @@ public interface VerificationStrategy<V extends Verification> {
     <T extends ExecutableRule> Result.Status verify(T executable, V verification, List<String> columnNames, List<Map<String, Object>> rows)
             throws RuleException;
 
+    /**
+     * Create a {@link ResultVerifier} for incrementally verifying rows.
+     *
+     * @param executable
+     *            The executable.
+     * @param verification
+     *            The verification.
+     * @param columnNames
+     *            The column names.
+     * @param <T>
+     *            The type of the executable.
+     * @return The {@link ResultVerifier}.
+     */
+    <T extends ExecutableRule> ResultVerifier createVerifier(T executable, V verification, List<String> columnNames);
+
 }
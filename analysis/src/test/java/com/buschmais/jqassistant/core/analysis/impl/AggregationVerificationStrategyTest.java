@@ -5,6 +5,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.buschmais.jqassistant.core.analysis.api.ResultVerifier;
 import com.buschmais.jqassistant.core.rule.api.model.Concept;
 import com.buschmais.jqassistant.core.rule.api.model.Constraint;
 import com.buschmais.jqassistant.core.rule.api.model.RuleException;
@@ -114,6 +115,18 @@ public class AggregationVerificationStrategyTest {
         assertThat(strategy.verify(constraint, aggregationVerification, COLUMN_NAMES, result), equalTo(SUCCESS));
     }
 
+    @Test
+    public void verifier() throws RuleException {
+        AggregationVerification aggregationVerification = AggregationVerification.builder().max(1).build();
+        ResultVerifier verifier = strategy.createVerifier(constraint, aggregationVerification, COLUMN_NAMES);
+        assertThat(verifier.getStatus(), equalTo(SUCCESS));
+        verifier.verify(new Object[] { 1, 0 });
+        assertThat(verifier.getStatus(), equalTo(SUCCESS));
+        verifier.verify(new Object[] { 2, 0 });
+        verifier.verify(new Object[] { 0, 0 });
+        assertThat(verifier.getStatus(), equalTo(FAILURE));
+    }
+
     private Map<String, Object> createRow(int... values) {
         Map<String, Object> row = new LinkedHashMap<>();
         for (int i = 0; i < values.length; i++) {
@@ -2,11 +2,14 @@ package com.buschmais.jqassistant.core.analysis.impl;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.buschmais.jqassistant.core.analysis.api.AnalyzerConfiguration;
 import com.buschmais.jqassistant.core.analysis.api.AnalyzerContext;
 import com.buschmais.jqassistant.core.analysis.api.RuleInterpreterPlugin;
+import com.buschmais.jqassistant.core.analysis.api.RuleMetrics;
 import com.buschmais.jqassistant.core.analysis.api.model.ConceptDescriptor;
+import com.buschmais.jqassistant.core.analysis.api.model.RuleResultDescriptor;
 import com.buschmais.jqassistant.core.report.api.ReportPlugin;
 import com.buschmais.jqassistant.core.report.api.model.Result;
 import com.buschmais.jqassistant.core.rule.api.model.*;
@@ -26,12 +29,16 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.slf4j.Logger;
 
+import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Matchers.anyMap;
 import static org.mockito.Mockito.*;
 
@@ -90,6 +97,11 @@ public class AnalyzerRuleVisitorTest {
 
         doReturn(store).when(analyzerContext).getStore();
         doReturn(logger).when(analyzerContext).getLogger();
+        Map<String, RuleMetrics> ruleMetrics = new HashMap<>();
+        doAnswer(invocation -> {
+            ExecutableRule<?> rule = invocation.getArgument(0);
+            return ruleMetrics.computeIfAbsent(rule.getId(), id -> new RuleMetrics(rule));
+        }).when(analyzerContext).getMetrics(any(ExecutableRule.class));
 
         List<RuleInterpreterPlugin> languagePlugins = new ArrayList<>();
         languagePlugins.add(new CypherRuleInterpreterPlugin());
@@ -179,6 +191,122 @@ public class AnalyzerRuleVisitorTest {
         verify(reportWriter).endConstraint();
     }
 
+    @Test
+    public void maxResultRows() throws RuleException {
+        ResultIterator<Query.Result.CompositeRowObject> iterator = store.executeQuery(statement, Collections.emptyMap()).iterator();
+        when(iterator.hasNext()).thenReturn(true, true, true, false);
+        AnalyzerConfiguration analyzerConfiguration = new AnalyzerConfiguration();
+        analyzerConfiguration.setMaxResultRows(1);
+        doReturn(analyzerConfiguration).when(analyzerContext).getConfiguration();
+        doReturn(new RowCountVerificationStrategy().createVerifier(constraint, ROW_COUNT_VERIFICATION, columnNames)).when(analyzerContext)
+                .createVerifier(eq(constraint), anyList());
+
+        analyzerRuleVisitor.visitConstraint(constraint, Severity.BLOCKER);
+
+        verify(analyzerContext, never()).verify(eq(constraint), anyList(), anyList());
+        ArgumentCaptor<Result> resultCaptor = ArgumentCaptor.forClass(Result.class);
+        verify(reportWriter).setResult(resultCaptor.capture());
+        Result result = resultCaptor.getValue();
+        assertThat(result.getStatus(), equalTo(Result.Status.FAILURE));
+        assertThat(result.getRows().size(), equalTo(1));
+        assertThat(result.getRowCount(), equalTo(3));
+    }
+
+    @Test
+    public void executeWithoutMetrics() throws RuleException {
+        doReturn(null).when(analyzerContext).getMetrics(any(ExecutableRule.class));
+        doReturn(Result.Status.SUCCESS).when(analyzerContext).verify(eq(constraint), anyList(), anyList());
+
+        Result<Constraint> result = new CypherRuleInterpreterPlugin().execute(constraint, Collections.emptyMap(), Severity.BLOCKER, analyzerContext);
+
+        assertThat(result.getStatus(), equalTo(Result.Status.SUCCESS));
+        assertThat(result.getRows().size(), equalTo(1));
+    }
+
+    @Test
+    public void maxResultRowsWithOverriddenStatus() throws RuleException {
+        ResultIterator<Query.Result.CompositeRowObject> iterator = store.executeQuery(statement, Collections.emptyMap()).iterator();
+        when(iterator.hasNext()).thenReturn(true, true, true, false);
+        AnalyzerConfiguration analyzerConfiguration = new AnalyzerConfiguration();
+        analyzerConfiguration.setMaxResultRows(1);
+        doReturn(analyzerConfiguration).when(analyzerContext).getConfiguration();
+        ruleInterpreterPlugins.put("cypher", singletonList(new CypherRuleInterpreterPlugin() {
+            @Override
+            protected <T extends ExecutableRule<?>> Result.Status getStatus(T executableRule, List<String> columnNames, List<Map<String, Object>> rows,
+                    AnalyzerContext context) {
+                return rows.size() == 3 ? Result.Status.SKIPPED : Result.Status.FAILURE;
+            }
+        }));
+        analyzerRuleVisitor = new AnalyzerRuleVisitor(configuration, analyzerContext, ruleParameters, ruleInterpreterPlugins, reportWriter);
+
+        analyzerRuleVisitor.visitConstraint(constraint, Severity.BLOCKER);
+
+        verify(analyzerContext, never()).createVerifier(any(ExecutableRule.class), anyList());
+        ArgumentCaptor<Result> resultCaptor = ArgumentCaptor.forClass(Result.class);
+        verify(reportWriter).setResult(resultCaptor.capture());
+        Result result = resultCaptor.getValue();
+        assertThat(result.getStatus(), equalTo(Result.Status.SKIPPED));
+        assertThat(result.getRows().size(), equalTo(3));
+    }
+
+    @Test
+    public void incrementalConstraint() throws RuleException {
+        mockRuleResultCache();
+
+        analyzeIncrementally(10);
+        // the commit of the first analysis is the only modification of the graph
+        analyzeIncrementally(11);
+
+        verify(store, times(1)).executeQuery(eq(statement), anyMap());
+        ArgumentCaptor<Result> resultCaptor = ArgumentCaptor.forClass(Result.class);
+        verify(reportWriter, times(2)).setResult(resultCaptor.capture());
+        Result result = resultCaptor.getAllValues().get(1);
+        assertThat(result.getStatus(), equalTo(Result.Status.FAILURE));
+        assertThat(result.getColumnNames(), equalTo(columnNames));
+    }
+
+    @Test
+    public void incrementalConstraintAfterPropertyChange() throws RuleException {
+        mockRuleResultCache();
+
+        analyzeIncrementally(10);
+        // another transaction changed a property after the commit of the first analysis
+        analyzeIncrementally(12);
+
+        verify(store, times(2)).executeQuery(eq(statement), anyMap());
+    }
+
+    @Test
+    public void incrementalConstraintWithoutModificationEpoch() throws RuleException {
+        mockRuleResultCache();
+        doReturn(OptionalLong.empty()).when(store).getModificationEpoch();
+
+        for (int i = 0; i < 2; i++) {
+            analyzerRuleVisitor.beforeRules();
+            analyzerRuleVisitor.visitConstraint(constraint, Severity.BLOCKER);
+            analyzerRuleVisitor.afterRules();
+        }
+
+        verify(store, times(2)).executeQuery(eq(statement), anyMap());
+        verify(store, never()).create(RuleResultDescriptor.class);
+    }
+
+    @Test
+    public void metrics() throws RuleException {
+        doReturn(Result.Status.FAILURE).when(analyzerContext).verify(eq(constraint), anyList(), anyList());
+
+        analyzerRuleVisitor.visitConstraint(constraint, Severity.BLOCKER);
+
+        RuleMetrics ruleMetrics = analyzerContext.getMetrics(constraint);
+        assertThat(ruleMetrics.getRuleType(), equalTo("Constraint"));
+        assertThat(ruleMetrics.getRuleId(), equalTo(constraint.getId()));
+        assertThat(ruleMetrics.getRowsFetched(), equalTo(1L));
+        assertThat(ruleMetrics.getRowsSuppressed(), equalTo(0L));
+        assertThat(ruleMetrics.getRetainedBytes() > 0, equalTo(true));
+        assertThat(ruleMetrics.getExecutionTime() >= ruleMetrics.getQueryTime(), equalTo(true));
+        assertThat(ruleMetrics.getReportTimes().keySet(), equalTo(Collections.singleton(reportWriter.getClass().getSimpleName())));
+    }
+
     @Test
     public void skipConstraint() throws RuleException {
         analyzerRuleVisitor.skipConstraint(constraint, Severity.BLOCKER);
@@ -275,6 +403,49 @@ public class AnalyzerRuleVisitorTest {
                 .severity(Severity.MAJOR).executable(executable).parameters(parameters).verification(ROW_COUNT_VERIFICATION).report(report).build();
     }
 
+    /**
+     * Mocks the nodes persisted by the {@link RuleResultCache}, i.e. the result of
+     * the constraint and the recorded epoch of the graph.
+     */
+    private void mockRuleResultCache() {
+        doReturn(true).when(configuration).isIncremental();
+        doReturn(Result.Status.FAILURE).when(analyzerContext).verify(eq(constraint), anyList(), anyList());
+        Query.Result<Query.Result.CompositeRowObject> emptyResult = mock(Query.Result.class);
+        ResultIterator<Query.Result.CompositeRowObject> emptyIterator = mock(ResultIterator.class);
+        doReturn(emptyIterator).when(emptyResult).iterator();
+        doReturn(emptyResult).when(store).executeQuery(startsWith("MATCH (result:RuleResult)"), anyMap());
+        Map<String, Object> recordedEpoch = new HashMap<>();
+        Query.Result.CompositeRowObject epochRow = mock(Query.Result.CompositeRowObject.class);
+        doAnswer(invocation -> recordedEpoch.get("base")).when(epochRow).get("base", String.class);
+        doAnswer(invocation -> recordedEpoch.get("expected")).when(epochRow).get("expected", Long.class);
+        Query.Result<Query.Result.CompositeRowObject> epochResult = mock(Query.Result.class);
+        doReturn(epochRow).when(epochResult).getSingleResult();
+        doReturn(epochResult).when(store).executeQuery(RuleResultCache.READ_EPOCH);
+        doAnswer(invocation -> {
+            Map<String, Object> parameters = invocation.getArgument(1);
+            recordedEpoch.putAll(parameters);
+            return emptyResult;
+        }).when(store).executeQuery(eq(RuleResultCache.WRITE_EPOCH), anyMap());
+        RuleResultDescriptor ruleResultDescriptor = mock(RuleResultDescriptor.class);
+        doReturn(ruleResultDescriptor).when(store).create(RuleResultDescriptor.class);
+        AtomicReference<String> fingerprint = new AtomicReference<>();
+        doAnswer(invocation -> {
+            fingerprint.set(invocation.getArgument(0));
+            return null;
+        }).when(ruleResultDescriptor).setFingerprint(anyString());
+        doAnswer(invocation -> fingerprint.get()).when(ruleResultDescriptor).getFingerprint();
+        doAnswer(invocation -> fingerprint.get() != null ? ruleResultDescriptor : null).when(store).find(RuleResultDescriptor.class, constraint.getId());
+        doReturn(Result.Status.FAILURE).when(ruleResultDescriptor).getStatus();
+        doReturn(columnNames.toArray(new String[0])).when(ruleResultDescriptor).getColumnNames();
+    }
+
+    private void analyzeIncrementally(long modificationEpoch) throws RuleException {
+        doReturn(OptionalLong.of(modificationEpoch)).when(store).getModificationEpoch();
+        analyzerRuleVisitor.beforeRules();
+        analyzerRuleVisitor.visitConstraint(constraint, Severity.BLOCKER);
+        analyzerRuleVisitor.afterRules();
+    }
+
     private Query.Result<Query.Result.CompositeRowObject> createResult(List<String> columnNames) {
         Query.Result.CompositeRowObject row = mock(Query.Result.CompositeRowObject.class);
         when(row.getColumns()).thenReturn(columnNames);
@@ -1,11 +1,13 @@
 package com.buschmais.jqassistant.core.analysis.impl;
 
+import com.buschmais.jqassistant.core.rule.api.executor.DeferredVisit;
 import com.buschmais.jqassistant.core.rule.api.executor.RuleVisitor;
 import com.buschmais.jqassistant.core.rule.api.model.Concept;
 import com.buschmais.jqassistant.core.rule.api.model.Constraint;
 import com.buschmais.jqassistant.core.rule.api.model.Group;
 import com.buschmais.jqassistant.core.rule.api.model.RuleException;
 import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreSession;
 import com.buschmais.xo.api.XOException;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -113,6 +115,33 @@ public class TransactionalVisitorTest {
         verifySuccessfulTransaction();
     }
 
+    @Test
+    public void validateConstraint() throws RuleException {
+        Constraint constraint = mock(Constraint.class);
+        StoreSession session = mock(StoreSession.class);
+        doReturn(session).when(store).openSession();
+
+        DeferredVisit<Void> deferredVisit = visitor.validateConstraint(constraint, MINOR);
+        verify(session, never()).close();
+        deferredVisit.report();
+
+        verify(delegate).visitConstraint(constraint, MINOR);
+        verify(session).close();
+        verifySuccessfulTransaction();
+    }
+
+    @Test
+    public void discardValidatedConstraint() throws RuleException {
+        Constraint constraint = mock(Constraint.class);
+        StoreSession session = mock(StoreSession.class);
+        doReturn(session).when(store).openSession();
+
+        visitor.validateConstraint(constraint, MINOR).discard();
+
+        verify(delegate, never()).visitConstraint(constraint, MINOR);
+        verify(session).close();
+    }
+
     @Test
     public void skipConstraint() throws RuleException {
         Constraint constraint = mock(Constraint.class);
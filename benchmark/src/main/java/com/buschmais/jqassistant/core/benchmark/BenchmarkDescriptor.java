@@ -0,0 +1,25 @@
+package com.buschmais.jqassistant.core.benchmark;
+
+import java.util.List;
+
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+
+/**
+ * A node of the synthetic graph used by the benchmarks.
+ */
+@Label("Benchmark")
+public interface BenchmarkDescriptor extends Descriptor {
+
+    String getName();
+
+    void setName(String name);
+
+    long getValue();
+
+    void setValue(long value);
+
+    @Relation("DEPENDS_ON")
+    List<BenchmarkDescriptor> getDependencies();
+}
@@ -0,0 +1,138 @@
+package com.buschmais.jqassistant.core.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreConfiguration;
+import com.buschmais.jqassistant.core.store.impl.EmbeddedGraphStore;
+import com.buschmais.jqassistant.core.store.spi.StorePluginRepository;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+/**
+ * Provides an embedded store in a temporary directory and creates synthetic
+ * graphs.
+ */
+final class BenchmarkStore {
+
+    /**
+     * The number of nodes created per transaction while creating a graph.
+     */
+    private static final int BATCH_SIZE = 10000;
+
+    private final File directory;
+
+    private final Store store;
+
+    private BenchmarkStore(File directory, Store store) {
+        this.directory = directory;
+        this.store = store;
+    }
+
+    /**
+     * Create and start an embedded store using the default configuration.
+     *
+     * @return The {@link BenchmarkStore}.
+     * @throws IOException
+     *             If the directory of the store cannot be created.
+     */
+    static BenchmarkStore start() throws IOException {
+        return start(StoreConfiguration.builder());
+    }
+
+    /**
+     * Create and start an embedded store.
+     *
+     * @param builder
+     *            The {@link StoreConfiguration.StoreConfigurationBuilder}, the URI
+     *            is set to a temporary directory.
+     * @return The {@link BenchmarkStore}.
+     * @throws IOException
+     *             If the directory of the store cannot be created.
+     */
+    static BenchmarkStore start(StoreConfiguration.StoreConfigurationBuilder builder) throws IOException {
+        File directory = Files.createTempDirectory("jqassistant-benchmark").toFile();
+        StoreConfiguration configuration = builder.uri(directory.toURI()).build();
+        Store store = new EmbeddedGraphStore(configuration, new StorePluginRepository() {
+            @Override
+            public List<Class<?>> getDescriptorTypes() {
+                return singletonList(BenchmarkDescriptor.class);
+            }
+
+            @Override
+            public List<Class<?>> getProcedureTypes() {
+                return emptyList();
+            }
+
+            @Override
+            public List<Class<?>> getFunctionTypes() {
+                return emptyList();
+            }
+        });
+        store.start();
+        return new BenchmarkStore(directory, store);
+    }
+
+    File getDirectory() {
+        return directory;
+    }
+
+    Store getStore() {
+        return store;
+    }
+
+    /**
+     * Create a synthetic graph, i.e. a chain of {@link BenchmarkDescriptor}s
+     * where each node depends on its successor.
+     *
+     * @param nodes
+     *            The number of nodes.
+     */
+    void createGraph(int nodes) {
+        for (int offset = 0; offset < nodes; offset += BATCH_SIZE) {
+            List<Map<String, Object>> properties = new ArrayList<>();
+            for (int i = offset; i < Math.min(offset + BATCH_SIZE, nodes); i++) {
+                Map<String, Object> nodeProperties = new HashMap<>();
+                nodeProperties.put("name", "node-" + i);
+                nodeProperties.put("value", (long) i);
+                properties.add(nodeProperties);
+            }
+            store.beginTransaction();
+            store.createAll(BenchmarkDescriptor.class, properties);
+            store.commitTransaction();
+        }
+        store.beginTransaction();
+        store.executeQuery("MATCH (n:Benchmark) WITH n ORDER BY n.value WITH collect(n) AS nodes "
+                + "UNWIND range(0, size(nodes) - 2) AS i WITH nodes[i] AS n, nodes[i + 1] AS m CREATE (n)-[:DEPENDS_ON]->(m) "
+                + "RETURN count(*) AS relations").getSingleResult();
+        store.commitTransaction();
+    }
+
+    /**
+     * Stop the store and delete its directory.
+     *
+     * @throws IOException
+     *             If the directory cannot be deleted.
+     */
+    void stop() throws IOException {
+        store.stop();
+        Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
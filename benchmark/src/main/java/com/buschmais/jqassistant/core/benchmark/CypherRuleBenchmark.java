@@ -0,0 +1,92 @@
+package com.buschmais.jqassistant.core.benchmark;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import com.buschmais.jqassistant.core.analysis.api.Analyzer;
+import com.buschmais.jqassistant.core.analysis.api.AnalyzerConfiguration;
+import com.buschmais.jqassistant.core.analysis.api.RuleInterpreterPlugin;
+import com.buschmais.jqassistant.core.analysis.impl.AnalyzerImpl;
+import com.buschmais.jqassistant.core.analysis.impl.CypherRuleInterpreterPlugin;
+import com.buschmais.jqassistant.core.report.api.ReportPlugin;
+import com.buschmais.jqassistant.core.report.api.model.Result;
+import com.buschmais.jqassistant.core.rule.api.model.*;
+import com.buschmais.jqassistant.core.rule.api.reader.RowCountVerification;
+
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Measures the execution of a Cypher constraint returning one row per node of a
+ * synthetic graph.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class CypherRuleBenchmark {
+
+    private static final String CONSTRAINT_ID = "benchmark:Dependencies";
+
+    private static final String CYPHER = "MATCH (n:Benchmark)-[:DEPENDS_ON]->(m:Benchmark) RETURN n, m.name AS name, m.value AS value";
+
+    /**
+     * The number of nodes of the graph.
+     */
+    @Param({ "10000", "100000" })
+    private int nodes;
+
+    /**
+     * The maximum number of retained rows (see
+     * {@link AnalyzerConfiguration#getMaxResultRows()}), 0 for all rows.
+     */
+    @Param({ "0", "1000" })
+    private int maxResultRows;
+
+    private BenchmarkStore benchmarkStore;
+
+    private Analyzer analyzer;
+
+    private RuleSet ruleSet;
+
+    private RuleSelection ruleSelection;
+
+    private Result<? extends ExecutableRule> result;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, RuleException {
+        benchmarkStore = BenchmarkStore.start();
+        benchmarkStore.createGraph(nodes);
+        AnalyzerConfiguration configuration = new AnalyzerConfiguration();
+        configuration.setMaxResultRows(maxResultRows > 0 ? maxResultRows : null);
+        Map<String, Collection<RuleInterpreterPlugin>> ruleInterpreterPlugins = singletonMap("cypher", singletonList(new CypherRuleInterpreterPlugin()));
+        analyzer = new AnalyzerImpl(configuration, benchmarkStore.getStore(), ruleInterpreterPlugins, new ReportPlugin() {
+            @Override
+            public void setResult(Result<? extends ExecutableRule> result) {
+                CypherRuleBenchmark.this.result = result;
+            }
+        }, LoggerFactory.getLogger(CypherRuleBenchmark.class));
+        Constraint constraint = Constraint.builder().id(CONSTRAINT_ID).description("Benchmark constraint").severity(Severity.MINOR)
+                .executable(new CypherExecutable(CYPHER)).verification(RowCountVerification.builder().build()).report(Report.builder().build()).build();
+        ruleSet = RuleSetBuilder.newInstance().addConstraint(constraint).getRuleSet();
+        ruleSelection = RuleSelection.builder().constraintId(CONSTRAINT_ID).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        benchmarkStore.stop();
+    }
+
+    @Benchmark
+    public Result<? extends ExecutableRule> execute() throws RuleException {
+        analyzer.execute(ruleSet, ruleSelection, emptyMap());
+        return result;
+    }
+}
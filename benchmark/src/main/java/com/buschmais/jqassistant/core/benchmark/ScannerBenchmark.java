@@ -0,0 +1,166 @@
+package com.buschmais.jqassistant.core.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.buschmais.jqassistant.core.scanner.api.*;
+import com.buschmais.jqassistant.core.scanner.impl.ScannerContextImpl;
+import com.buschmais.jqassistant.core.scanner.impl.ScannerImpl;
+import com.buschmais.jqassistant.core.scanner.spi.ScannerPluginRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Measures the throughput of the dispatch of items to scanner plugins.
+ *
+ * Each plugin accepts items with a specific file extension, the items are
+ * distributed equally over all plugins. The plugins do not create any
+ * descriptors, so the measured time is spent on the dispatch.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ScannerBenchmark {
+
+    private static final int ITEMS = 1000;
+
+    /**
+     * The number of registered scanner plugins.
+     */
+    @Param({ "10", "100" })
+    private int plugins;
+
+    private BenchmarkStore benchmarkStore;
+
+    private Scanner scanner;
+
+    private List<String> paths;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        benchmarkStore = BenchmarkStore.start();
+        Map<String, ScannerPlugin<?, ?>> scannerPlugins = new LinkedHashMap<>();
+        for (int i = 0; i < plugins; i++) {
+            BenchmarkScannerPlugin scannerPlugin = new BenchmarkScannerPlugin("plugin-" + i, ".type" + i);
+            scannerPlugins.put(scannerPlugin.getName(), scannerPlugin);
+        }
+        ScannerContext scannerContext = new ScannerContextImpl(benchmarkStore.getStore(), benchmarkStore.getDirectory());
+        scanner = new ScannerImpl(new ScannerConfiguration(), emptyMap(), scannerContext, new BenchmarkScannerPluginRepository(scannerPlugins));
+        paths = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            paths.add("/item-" + i + ".type" + (i % plugins));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        benchmarkStore.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void scan(Blackhole blackhole) {
+        benchmarkStore.getStore().beginTransaction();
+        for (String path : paths) {
+            blackhole.consume(scanner.<String, BenchmarkDescriptor> scan(path, path, DefaultScope.NONE));
+        }
+        benchmarkStore.getStore().commitTransaction();
+    }
+
+    /**
+     * A scanner plugin accepting paths with a given extension.
+     */
+    private static class BenchmarkScannerPlugin implements ScannerPlugin<String, BenchmarkDescriptor> {
+
+        private final String name;
+
+        private final String extension;
+
+        private BenchmarkScannerPlugin(String name, String extension) {
+            this.name = name;
+            this.extension = extension;
+        }
+
+        @Override
+        public Class<? extends String> getType() {
+            return String.class;
+        }
+
+        @Override
+        public Class<BenchmarkDescriptor> getDescriptorType() {
+            return BenchmarkDescriptor.class;
+        }
+
+        @Override
+        public boolean accepts(String item, String path, Scope scope) {
+            return path.endsWith(extension);
+        }
+
+        @Override
+        public BenchmarkDescriptor scan(String item, String path, Scope scope, Scanner scanner) {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * A {@link ScannerPluginRepository} providing a fixed set of plugins.
+     */
+    private static class BenchmarkScannerPluginRepository implements ScannerPluginRepository {
+
+        private final Map<String, ScannerPlugin<?, ?>> scannerPlugins;
+
+        private BenchmarkScannerPluginRepository(Map<String, ScannerPlugin<?, ?>> scannerPlugins) {
+            this.scannerPlugins = scannerPlugins;
+        }
+
+        @Override
+        public Map<String, ScannerPlugin<?, ?>> getScannerPlugins(ScannerContext scannerContext, Map<String, Object> properties) {
+            return scannerPlugins;
+        }
+
+        @Override
+        public Scope getScope(String name) {
+            return DefaultScope.NONE;
+        }
+
+        @Override
+        public Map<String, Scope> getScopes() {
+            return emptyMap();
+        }
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.buschmais.jqassistant.core.benchmark;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreConfiguration;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the rate of descriptor creation, automatic commits are performed by
+ * the store according to its auto commit threshold.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class StoreBenchmark {
+
+    private static final int DESCRIPTORS = 10000;
+
+    /**
+     * Adapt the auto commit threshold to the measured commit duration and heap
+     * usage.
+     */
+    @Param({ "true", "false" })
+    private boolean adaptiveAutocommit;
+
+    private BenchmarkStore benchmarkStore;
+
+    private Store store;
+
+    private long count = 0;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        benchmarkStore = BenchmarkStore.start(StoreConfiguration.builder().adaptiveAutocommit(adaptiveAutocommit));
+        store = benchmarkStore.getStore();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        benchmarkStore.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DESCRIPTORS)
+    public void create() {
+        store.beginTransaction();
+        for (int i = 0; i < DESCRIPTORS; i++) {
+            BenchmarkDescriptor descriptor = store.create(BenchmarkDescriptor.class);
+            descriptor.setName("node-" + count);
+            descriptor.setValue(count++);
+        }
+        store.commitTransaction();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DESCRIPTORS)
+    public List<BenchmarkDescriptor> createAll() {
+        List<Map<String, Object>> properties = new ArrayList<>(DESCRIPTORS);
+        for (int i = 0; i < DESCRIPTORS; i++) {
+            Map<String, Object> descriptorProperties = new HashMap<>();
+            descriptorProperties.put("name", "node-" + count);
+            descriptorProperties.put("value", count++);
+            properties.add(descriptorProperties);
+        }
+        store.beginTransaction();
+        List<BenchmarkDescriptor> descriptors = store.createAll(BenchmarkDescriptor.class, properties);
+        store.commitTransaction();
+        return descriptors;
+    }
+}
@@ -0,0 +1,89 @@
+package com.buschmais.jqassistant.core.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import com.buschmais.jqassistant.core.report.api.ReportException;
+import com.buschmais.jqassistant.core.report.api.model.Result;
+import com.buschmais.jqassistant.core.report.api.model.RowTable;
+import com.buschmais.jqassistant.core.report.impl.ReportContextImpl;
+import com.buschmais.jqassistant.core.report.impl.XmlReportPlugin;
+import com.buschmais.jqassistant.core.rule.api.model.*;
+import com.buschmais.jqassistant.core.rule.api.reader.RowCountVerification;
+
+import org.openjdk.jmh.annotations.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Measures writing the XML report for a constraint with a large result.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class XmlReportBenchmark {
+
+    private static final String NAME = "name";
+
+    private static final String VALUE = "value";
+
+    /**
+     * The number of rows of the result.
+     */
+    @Param({ "1000", "100000" })
+    private int rows;
+
+    private File directory;
+
+    private Group group;
+
+    private Constraint constraint;
+
+    private Result<Constraint> result;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("jqassistant-benchmark").toFile();
+        constraint = Constraint.builder().id("benchmark:Constraint").description("Benchmark constraint").severity(Severity.MINOR)
+                .executable(new CypherExecutable("MATCH ...")).verification(RowCountVerification.builder().build()).report(Report.builder().build())
+                .build();
+        group = Group.builder().id("benchmark:Group").description("Benchmark group").constraints(singletonMap(constraint.getId(), null)).build();
+        // The rows are provided as RowTable like for results of Cypher rules
+        RowTable resultRows = new RowTable(asList(NAME, VALUE));
+        for (int i = 0; i < rows; i++) {
+            resultRows.addRow(new Object[] { "node-" + i, (long) i });
+        }
+        result = Result.<Constraint> builder().rule(constraint).status(Result.Status.FAILURE).severity(Severity.MINOR).columnNames(asList(NAME, VALUE))
+                .rows(resultRows).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public File write() throws ReportException {
+        XmlReportPlugin xmlReportPlugin = new XmlReportPlugin();
+        xmlReportPlugin.initialize();
+        xmlReportPlugin.configure(new ReportContextImpl(directory), emptyMap());
+        xmlReportPlugin.begin();
+        xmlReportPlugin.beginGroup(group);
+        xmlReportPlugin.beginConstraint(constraint);
+        xmlReportPlugin.setResult(result);
+        xmlReportPlugin.endConstraint();
+        xmlReportPlugin.endGroup();
+        xmlReportPlugin.end();
+        return xmlReportPlugin.getXmlReportFile();
+    }
+}
@@ -0,0 +1,88 @@
+package com.buschmais.jqassistant.core.plugin.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.plugin.api.PluginRepository;
+import com.buschmais.jqassistant.core.scanner.api.Scanner;
+import com.buschmais.jqassistant.core.scanner.api.ScannerConfiguration;
+import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.core.scanner.api.Scope;
+import com.buschmais.jqassistant.core.scanner.impl.ScannerContextImpl;
+import com.buschmais.jqassistant.core.scanner.impl.ScannerImpl;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreConfiguration;
+import com.buschmais.jqassistant.core.store.api.StoreFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.buschmais.jqassistant.core.plugin.impl.ShardedScanCoordinator.SCOPE_SEPARATOR;
+
+/**
+ * The worker process scanning the items of a shard into its own embedded
+ * store, started by the {@link ShardedScanCoordinator}.
+ *
+ * Arguments: the file containing the items (one per line), the file containing
+ * the serialized scanner configuration and plugin properties, the directory of
+ * the store and the output directory.
+ */
+public final class ShardWorker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardWorker.class);
+
+    private ShardWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            throw new IllegalArgumentException(
+                    "Usage: " + ShardWorker.class.getName() + " <items file> <configuration file> <store directory> <output directory>");
+        }
+        List<String> items = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+        ScannerConfiguration scannerConfiguration;
+        Map<String, Object> pluginProperties;
+        try (ObjectInputStream stream = new ObjectInputStream(Files.newInputStream(Paths.get(args[1])))) {
+            scannerConfiguration = (ScannerConfiguration) stream.readObject();
+            pluginProperties = (Map<String, Object>) stream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Cannot read configuration file " + args[1], e);
+        }
+        File storeDirectory = new File(args[2]);
+        File outputDirectory = new File(args[3]);
+        PluginRepository pluginRepository = new PluginRepositoryImpl(new PluginConfigurationReaderImpl());
+        pluginRepository.initialize();
+        try {
+            StoreConfiguration storeConfiguration = StoreConfiguration.builder().uri(storeDirectory.toURI()).build();
+            Store store = StoreFactory.getStore(storeConfiguration, pluginRepository.getStorePluginRepository());
+            store.start();
+            try {
+                ScannerContext scannerContext = new ScannerContextImpl(store, outputDirectory);
+                Scanner scanner = new ScannerImpl(scannerConfiguration, pluginProperties, scannerContext, pluginRepository.getScannerPluginRepository());
+                for (String item : items) {
+                    if (!item.isEmpty()) {
+                        scan(scanner, item);
+                    }
+                }
+            } finally {
+                store.stop();
+            }
+        } finally {
+            pluginRepository.destroy();
+        }
+    }
+
+    private static void scan(Scanner scanner, String item) {
+        int separator = item.indexOf(SCOPE_SEPARATOR);
+        Scope scope = scanner.resolveScope(separator >= 0 ? item.substring(0, separator) : null);
+        File file = new File(separator >= 0 ? item.substring(separator + SCOPE_SEPARATOR.length()) : item);
+        LOGGER.info("Scanning '{}' (scope={}).", file.getAbsolutePath(), scope);
+        scanner.scan(file, file.getAbsolutePath(), scope);
+    }
+}
@@ -0,0 +1,251 @@
+package com.buschmais.jqassistant.core.plugin.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import com.buschmais.jqassistant.core.scanner.api.ScannerConfiguration;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreConfiguration;
+import com.buschmais.jqassistant.core.store.api.StoreFactory;
+import com.buschmais.jqassistant.core.store.impl.StoreMerger;
+import com.buschmais.jqassistant.core.store.spi.StorePluginRepository;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coordinates a scan which is distributed over multiple local worker processes
+ * (shards).
+ *
+ * The items are partitioned by their size, each partition is scanned by a
+ * {@link ShardWorker} process into its own embedded store using the given
+ * scanner configuration and plugin properties. Afterwards the stores of the
+ * shards are merged into the target store using a {@link StoreMerger}, nodes
+ * having the same identifying label and full qualified name are reconciled.
+ *
+ * Items are given as paths of files or directories, optionally prefixed by the
+ * name of a scope, e.g. `java:classpath::target/classes`.
+ */
+public class ShardedScanCoordinator {
+
+    static final String SCOPE_SEPARATOR = "::";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardedScanCoordinator.class);
+
+    private static final int MERGE_BATCH_SIZE = 8192;
+
+    private final int shards;
+
+    private final File workDirectory;
+
+    private final String classPath;
+
+    private final List<String> jvmArguments;
+
+    private final ScannerConfiguration scannerConfiguration;
+
+    private final Map<String, Object> pluginProperties;
+
+    /**
+     * Constructor.
+     *
+     * @param shards
+     *            The number of worker processes.
+     * @param workDirectory
+     *            The directory for the stores, item lists and log files of the
+     *            shards.
+     * @param classPath
+     *            The class path of the worker processes including all plugins,
+     *            <code>null</code> for the class path of the current JVM.
+     * @param jvmArguments
+     *            Additional arguments of the worker JVMs, e.g. `-Xmx2g`.
+     * @param scannerConfiguration
+     *            The {@link ScannerConfiguration} of the workers.
+     * @param pluginProperties
+     *            The properties of the scanner plugins of the workers, the values
+     *            must be serializable.
+     */
+    public ShardedScanCoordinator(int shards, File workDirectory, String classPath, List<String> jvmArguments, ScannerConfiguration scannerConfiguration,
+            Map<String, Object> pluginProperties) {
+        this.shards = shards;
+        this.workDirectory = workDirectory;
+        this.classPath = classPath != null ? classPath : System.getProperty("java.class.path");
+        this.jvmArguments = jvmArguments;
+        this.scannerConfiguration = scannerConfiguration;
+        this.pluginProperties = pluginProperties;
+    }
+
+    /**
+     * Scan the given items and merge the results into the target store.
+     *
+     * @param items
+     *            The items.
+     * @param target
+     *            The target store, it must have been started.
+     * @param storePluginRepository
+     *            The {@link StorePluginRepository} for opening the stores of the
+     *            shards.
+     * @throws IOException
+     *             If a worker process fails.
+     * @throws InterruptedException
+     *             If the current thread has been interrupted while waiting for
+     *             the workers.
+     */
+    public void scan(List<String> items, Store target, StorePluginRepository storePluginRepository) throws IOException, InterruptedException {
+        List<List<String>> partitions = partition(items, shards, ShardedScanCoordinator::getSize);
+        List<Process> processes = new ArrayList<>(partitions.size());
+        try {
+            for (int shard = 0; shard < partitions.size(); shard++) {
+                processes.add(start(shard, partitions.get(shard)));
+            }
+            for (int shard = 0; shard < processes.size(); shard++) {
+                int exitCode = processes.get(shard).waitFor();
+                if (exitCode != 0) {
+                    throw new IOException("Shard " + shard + " failed with exit code " + exitCode + ", see '" + getLogFile(shard).getAbsolutePath() + "'.");
+                }
+            }
+        } finally {
+            for (Process process : processes) {
+                if (process.isAlive()) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+        StoreMerger storeMerger = new StoreMerger(target, MERGE_BATCH_SIZE, StoreMerger.getIdentifyingLabels(storePluginRepository.getDescriptorTypes()));
+        for (int shard = 0; shard < partitions.size(); shard++) {
+            LOGGER.info("Merging shard {}.", shard);
+            StoreConfiguration storeConfiguration = StoreConfiguration.builder().uri(getStoreDirectory(shard).toURI()).build();
+            Store shardStore = StoreFactory.getStore(storeConfiguration, storePluginRepository);
+            shardStore.start();
+            try {
+                storeMerger.merge(shardStore);
+            } finally {
+                shardStore.stop();
+            }
+        }
+    }
+
+    /**
+     * Partition the items into shards of similar size, the largest items are
+     * assigned first to the shard with the lowest total size.
+     *
+     * @param items
+     *            The items.
+     * @param shards
+     *            The maximum number of shards.
+     * @param sizes
+     *            The function providing the size of an item.
+     * @return The non-empty partitions.
+     */
+    static List<List<String>> partition(List<String> items, int shards, ToLongFunction<String> sizes) {
+        Map<String, Long> itemSizes = new HashMap<>();
+        for (String item : items) {
+            itemSizes.put(item, sizes.applyAsLong(item));
+        }
+        List<String> sortedItems = new ArrayList<>(items);
+        sortedItems.sort(Comparator.comparingLong((String item) -> itemSizes.get(item)).reversed());
+        int count = Math.max(1, Math.min(shards, items.size()));
+        List<List<String>> partitions = new ArrayList<>(count);
+        long[] partitionSizes = new long[count];
+        for (int i = 0; i < count; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (String item : sortedItems) {
+            int smallest = 0;
+            for (int i = 1; i < count; i++) {
+                if (partitionSizes[i] < partitionSizes[smallest]) {
+                    smallest = i;
+                }
+            }
+            partitions.get(smallest).add(item);
+            partitionSizes[smallest] += itemSizes.get(item);
+        }
+        partitions.removeIf(List::isEmpty);
+        return partitions;
+    }
+
+    /**
+     * Return the command for starting a worker.
+     *
+     * @param itemsFile
+     *            The file containing the items of the shard.
+     * @param configurationFile
+     *            The file containing the scanner configuration and the plugin
+     *            properties.
+     * @param storeDirectory
+     *            The directory of the store of the shard.
+     * @param outputDirectory
+     *            The output directory of the shard.
+     * @return The command.
+     */
+    List<String> getCommand(File itemsFile, File configurationFile, File storeDirectory, File outputDirectory) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArguments);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(ShardWorker.class.getName());
+        command.add(itemsFile.getAbsolutePath());
+        command.add(configurationFile.getAbsolutePath());
+        command.add(storeDirectory.getAbsolutePath());
+        command.add(outputDirectory.getAbsolutePath());
+        return command;
+    }
+
+    private Process start(int shard, List<String> items) throws IOException {
+        File shardDirectory = getShardDirectory(shard);
+        FileUtils.deleteDirectory(shardDirectory);
+        File outputDirectory = new File(shardDirectory, "output");
+        if (!outputDirectory.mkdirs()) {
+            throw new IOException("Cannot create directory '" + outputDirectory.getAbsolutePath() + "'.");
+        }
+        File itemsFile = new File(shardDirectory, "items.txt");
+        Files.write(itemsFile.toPath(), items, StandardCharsets.UTF_8);
+        File configurationFile = new File(shardDirectory, "configuration.ser");
+        try (ObjectOutputStream stream = new ObjectOutputStream(Files.newOutputStream(configurationFile.toPath()))) {
+            stream.writeObject(scannerConfiguration);
+            stream.writeObject(new HashMap<>(pluginProperties));
+        }
+        LOGGER.info("Starting shard {} with {} items.", shard, items.size());
+        ProcessBuilder processBuilder = new ProcessBuilder(getCommand(itemsFile, configurationFile, getStoreDirectory(shard), outputDirectory));
+        processBuilder.redirectErrorStream(true);
+        processBuilder.redirectOutput(getLogFile(shard));
+        return processBuilder.start();
+    }
+
+    private File getShardDirectory(int shard) {
+        return new File(workDirectory, "shard-" + shard);
+    }
+
+    private File getStoreDirectory(int shard) {
+        return new File(getShardDirectory(shard), "store");
+    }
+
+    private File getLogFile(int shard) {
+        return new File(getShardDirectory(shard), "shard.log");
+    }
+
+    /**
+     * Determine the size of an item, i.e. the size of a file or the total size of
+     * the files within a directory.
+     */
+    private static long getSize(String item) {
+        int separator = item.indexOf(SCOPE_SEPARATOR);
+        Path path = Paths.get(separator >= 0 ? item.substring(separator + SCOPE_SEPARATOR.length()) : item);
+        try (Stream<Path> files = Files.walk(path)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Cannot determine size of '{}'.", item, e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.buschmais.jqassistant.core.plugin.impl;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.scanner.api.ScannerConfiguration;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the functionality of the {@link ShardedScanCoordinator}.
+ */
+public class ShardedScanCoordinatorTest {
+
+    @Test
+    public void partition() {
+        Map<String, Long> sizes = new HashMap<>();
+        sizes.put("a.jar", 100L);
+        sizes.put("b.jar", 60L);
+        sizes.put("java:classpath::c", 50L);
+        sizes.put("d.jar", 40L);
+        sizes.put("e.jar", 10L);
+
+        List<List<String>> partitions = ShardedScanCoordinator.partition(asList("e.jar", "d.jar", "java:classpath::c", "b.jar", "a.jar"), 2, sizes::get);
+
+        assertThat(partitions).hasSize(2);
+        assertThat(partitions.get(0)).containsExactly("a.jar", "d.jar");
+        assertThat(partitions.get(1)).containsExactly("b.jar", "java:classpath::c", "e.jar");
+    }
+
+    @Test
+    public void partitionFewItems() {
+        assertThat(ShardedScanCoordinator.partition(singletonList("a.jar"), 4, item -> 0)).containsExactly(singletonList("a.jar"));
+        assertThat(ShardedScanCoordinator.partition(asList(), 4, item -> 0)).isEmpty();
+    }
+
+    @Test
+    public void command() {
+        ShardedScanCoordinator coordinator = new ShardedScanCoordinator(2, new File("target/shards"), "plugins.jar", singletonList("-Xmx1g"),
+                new ScannerConfiguration(), emptyMap());
+        File items = new File("items.txt");
+        File configuration = new File("configuration.ser");
+        File store = new File("store");
+        File output = new File("output");
+
+        List<String> command = coordinator.getCommand(items, configuration, store, output);
+
+        assertThat(command.get(0)).endsWith("java");
+        assertThat(command.subList(1, command.size())).containsExactly("-Xmx1g", "-cp", "plugins.jar", ShardWorker.class.getName(), items.getAbsolutePath(),
+                configuration.getAbsolutePath(), store.getAbsolutePath(), output.getAbsolutePath());
+    }
+}
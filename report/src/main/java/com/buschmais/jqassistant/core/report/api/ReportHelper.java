@@ -10,6 +10,7 @@ import java.util.stream.StreamSupport;
 
 import com.buschmais.jqassistant.core.report.api.model.LanguageElement;
 import com.buschmais.jqassistant.core.report.api.model.Result;
+import com.buschmais.jqassistant.core.report.api.model.RowTable;
 import com.buschmais.jqassistant.core.report.impl.InMemoryReportPlugin;
 import com.buschmais.jqassistant.core.rule.api.model.Concept;
 import com.buschmais.jqassistant.core.rule.api.model.Constraint;
@@ -219,15 +220,17 @@ public final class ReportHelper {
     private List<String> getResultRows(Result<?> result, boolean logResult) {
         List<String> rows = new ArrayList<>();
         if (logResult) {
-            for (Map<String, Object> columns : result.getRows()) {
+            RowTable rowTable = RowTable.of(result.getColumnNames(), result.getRows());
+            List<String> columnNames = rowTable.getColumnNames();
+            for (int rowIndex = 0; rowIndex < rowTable.size(); rowIndex++) {
                 StringBuilder row = new StringBuilder();
-                for (Map.Entry<String, Object> entry : columns.entrySet()) {
+                for (int column = 0; column < columnNames.size(); column++) {
                     if (row.length() > 0) {
                         row.append(", ");
                     }
-                    row.append(entry.getKey());
+                    row.append(columnNames.get(column));
                     row.append('=');
-                    String stringValue = getLabel(entry.getValue());
+                    String stringValue = getLabel(rowTable.getValue(rowIndex, column));
                     row.append(stringValue);
                 }
                 rows.add("  " + row.toString());
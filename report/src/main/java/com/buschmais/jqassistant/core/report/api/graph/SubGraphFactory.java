@@ -10,6 +10,7 @@ import com.buschmais.jqassistant.core.report.api.graph.model.Node;
 import com.buschmais.jqassistant.core.report.api.graph.model.Relationship;
 import com.buschmais.jqassistant.core.report.api.graph.model.SubGraph;
 import com.buschmais.jqassistant.core.report.api.model.Result;
+import com.buschmais.jqassistant.core.report.api.model.RowTable;
 import com.buschmais.jqassistant.core.rule.api.model.ExecutableRule;
 import com.buschmais.jqassistant.core.shared.annotation.ToBeRemovedInVersion;
 import com.buschmais.xo.api.CompositeObject;
@@ -53,9 +54,11 @@ public class SubGraphFactory {
     public SubGraph createSubGraph(Result<? extends ExecutableRule> result) throws ReportException {
         SubGraph graph = new SubGraph();
         graph.setId(subgraphId--);
-        for (Map<String, Object> row : result.getRows()) {
-            for (Object value : row.values()) {
-                addToValueGraph(graph, value);
+        RowTable rows = RowTable.of(result.getColumnNames(), result.getRows());
+        int columnCount = rows.getColumnNames().size();
+        for (int row = 0; row < rows.size(); row++) {
+            for (int column = 0; column < columnCount; column++) {
+                addToValueGraph(graph, rows.getValue(row, column));
             }
         }
         return graph;
@@ -49,10 +49,16 @@ public class Result<T extends ExecutableRule> {
     private List<String> columnNames;
 
     /**
-     * The returned rows.
+     * The returned rows, usually a {@link RowTable}.
      */
     private List<Map<String, Object>> rows;
 
+    /**
+     * The total number of rows, may be greater than the number of returned rows
+     * if these have been limited.
+     */
+    private Integer rowCount;
+
     public T getRule() {
         return rule;
     }
@@ -73,6 +79,19 @@ public class Result<T extends ExecutableRule> {
         return rows;
     }
 
+    /**
+     * Return the total number of rows of the result.
+     *
+     * @return The number of rows, including rows which have not been retained
+     *         due to a limit.
+     */
+    public int getRowCount() {
+        if (rowCount != null) {
+            return rowCount;
+        }
+        return rows != null ? rows.size() : 0;
+    }
+
     public boolean isEmpty() {
         return rows.isEmpty();
     }
@@ -0,0 +1,335 @@
+package com.buschmais.jqassistant.core.report.api.model;
+
+import java.util.*;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * A compact representation of the rows of a {@link Result}.
+ *
+ * The column names are shared by all rows. Rows added using
+ * {@link #addRow(Object[])} are stored as arrays of values in the order of the
+ * columns, rows added as {@link Map} are kept as they are. For compatibility
+ * the table provides a {@link List} view of the rows, each array row being
+ * represented as {@link Map} view (which is created on access).
+ */
+public class RowTable extends AbstractList<Map<String, Object>> {
+
+    /**
+     * Marker for a column which has been removed from an array row.
+     */
+    private static final Object ABSENT = new Object();
+
+    private final List<String> columnNames;
+
+    private final Map<String, Integer> columnIndex;
+
+    private final List<Object> rows;
+
+    /**
+     * Values of array rows which are not covered by the columns, created on
+     * demand.
+     */
+    private Map<Object[], Map<String, Object>> extraValues;
+
+    /**
+     * Constructor.
+     *
+     * @param columnNames
+     *            The column names.
+     */
+    public RowTable(List<String> columnNames) {
+        this(columnNames, new ArrayList<>());
+    }
+
+    private RowTable(List<String> columnNames, List<Object> rows) {
+        this.columnNames = unmodifiableList(new ArrayList<>(columnNames));
+        this.columnIndex = new HashMap<>();
+        for (int i = 0; i < this.columnNames.size(); i++) {
+            this.columnIndex.put(this.columnNames.get(i), i);
+        }
+        this.rows = rows;
+    }
+
+    /**
+     * Return a {@link RowTable} for the given rows.
+     *
+     * @param columnNames
+     *            The column names, if <code>null</code> they are determined from
+     *            the keys of the rows.
+     * @param rows
+     *            The rows, may be <code>null</code>.
+     * @return The rows if these are already a {@link RowTable}, otherwise a
+     *         {@link RowTable} backed by the given rows (i.e. neither the list
+     *         nor the rows are copied).
+     */
+    @SuppressWarnings("unchecked")
+    public static RowTable of(List<String> columnNames, List<Map<String, Object>> rows) {
+        if (rows instanceof RowTable) {
+            return (RowTable) rows;
+        }
+        if (rows == null) {
+            rows = Collections.emptyList();
+        }
+        if (columnNames == null) {
+            Set<String> keys = new LinkedHashSet<>();
+            for (Map<String, Object> row : rows) {
+                keys.addAll(row.keySet());
+            }
+            columnNames = new ArrayList<>(keys);
+        }
+        return new RowTable(columnNames, (List<Object>) (List<?>) rows);
+    }
+
+    /**
+     * Return the column names.
+     *
+     * @return The column names.
+     */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Return the index of a column.
+     *
+     * @param columnName
+     *            The column name.
+     * @return The index or -1 if the column does not exist.
+     */
+    public int getColumnIndex(String columnName) {
+        Integer index = columnIndex.get(columnName);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Add a row.
+     *
+     * @param values
+     *            The values in the order of the column names, the array is not
+     *            copied.
+     */
+    public void addRow(Object[] values) {
+        if (values.length != columnNames.size()) {
+            throw new IllegalArgumentException("Expecting " + columnNames.size() + " values but got " + values.length);
+        }
+        rows.add(values);
+        modCount++;
+    }
+
+    /**
+     * Return a value.
+     *
+     * @param row
+     *            The index of the row.
+     * @param column
+     *            The index of the column.
+     * @return The value or <code>null</code> if the row does not contain the
+     *         column.
+     */
+    @SuppressWarnings("unchecked")
+    public Object getValue(int row, int column) {
+        Object values = rows.get(row);
+        if (values instanceof Object[]) {
+            Object value = ((Object[]) values)[column];
+            return value != ABSENT ? value : null;
+        }
+        return ((Map<String, Object>) values).get(columnNames.get(column));
+    }
+
+    /**
+     * Return a value.
+     *
+     * @param row
+     *            The index of the row.
+     * @param columnName
+     *            The column name.
+     * @return The value or <code>null</code> if the column does not exist.
+     */
+    public Object getValue(int row, String columnName) {
+        int column = getColumnIndex(columnName);
+        return column >= 0 ? getValue(row, column) : null;
+    }
+
+    @Override
+    public Map<String, Object> get(int index) {
+        return toMap(rows.get(index));
+    }
+
+    @Override
+    public Map<String, Object> set(int index, Map<String, Object> row) {
+        return detach(rows.set(index, row));
+    }
+
+    @Override
+    public void add(int index, Map<String, Object> row) {
+        rows.add(index, row);
+        modCount++;
+    }
+
+    @Override
+    public Map<String, Object> remove(int index) {
+        modCount++;
+        return detach(rows.remove(index));
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toMap(Object row) {
+        return row instanceof Object[] ? new RowView((Object[]) row) : (Map<String, Object>) row;
+    }
+
+    /**
+     * Convert a row which is no longer part of the table to a {@link Map}.
+     */
+    private Map<String, Object> detach(Object row) {
+        Map<String, Object> map = toMap(row);
+        if (row instanceof Object[]) {
+            map = new LinkedHashMap<>(map);
+            if (extraValues != null) {
+                extraValues.remove(row);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * The {@link Map} view of an array row.
+     *
+     * Values for keys which are not a column of the table are stored separately.
+     */
+    private class RowView extends AbstractMap<String, Object> {
+
+        private final Object[] values;
+
+        private RowView(Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Integer index = columnIndex.get(key);
+            if (index != null) {
+                Object value = values[index];
+                return value != ABSENT ? value : null;
+            }
+            Map<String, Object> extra = getExtraValues(false);
+            return extra != null ? extra.get(key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            Integer index = columnIndex.get(key);
+            if (index != null) {
+                return values[index] != ABSENT;
+            }
+            Map<String, Object> extra = getExtraValues(false);
+            return extra != null && extra.containsKey(key);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            Integer index = columnIndex.get(key);
+            if (index == null) {
+                return getExtraValues(true).put(key, value);
+            }
+            Object previous = values[index];
+            values[index] = value;
+            return previous != ABSENT ? previous : null;
+        }
+
+        @Override
+        public Object remove(Object key) {
+            Integer index = columnIndex.get(key);
+            if (index == null) {
+                Map<String, Object> extra = getExtraValues(false);
+                return extra != null ? extra.remove(key) : null;
+            }
+            Object previous = values[index];
+            values[index] = ABSENT;
+            return previous != ABSENT ? previous : null;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (Object value : values) {
+                if (value != ABSENT) {
+                    size++;
+                }
+            }
+            Map<String, Object> extra = getExtraValues(false);
+            return extra != null ? size + extra.size() : size;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    List<Entry<String, Object>> entries = new ArrayList<>(values.length);
+                    for (int column = 0; column < values.length; column++) {
+                        if (values[column] != ABSENT) {
+                            int index = column;
+                            entries.add(new SimpleEntry<String, Object>(columnNames.get(index), values[index]) {
+                                @Override
+                                public Object setValue(Object value) {
+                                    values[index] = value;
+                                    return super.setValue(value);
+                                }
+                            });
+                        }
+                    }
+                    Map<String, Object> extra = getExtraValues(false);
+                    if (extra != null) {
+                        entries.addAll(extra.entrySet());
+                    }
+                    Iterator<Entry<String, Object>> iterator = entries.iterator();
+                    return new Iterator<Entry<String, Object>>() {
+
+                        private Entry<String, Object> current;
+
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            current = iterator.next();
+                            return current;
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (current == null) {
+                                throw new IllegalStateException();
+                            }
+                            RowView.this.remove(current.getKey());
+                            current = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return RowView.this.size();
+                }
+            };
+        }
+
+        private Map<String, Object> getExtraValues(boolean create) {
+            if (extraValues == null) {
+                if (!create) {
+                    return null;
+                }
+                extraValues = new IdentityHashMap<>();
+            }
+            return create ? extraValues.computeIfAbsent(values, key -> new LinkedHashMap<>()) : extraValues.get(values);
+        }
+    }
+}
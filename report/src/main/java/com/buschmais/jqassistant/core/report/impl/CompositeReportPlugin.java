@@ -5,6 +5,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.buschmais.jqassistant.core.report.api.ReportException;
 import com.buschmais.jqassistant.core.report.api.ReportPlugin;
@@ -23,6 +25,9 @@ import org.slf4j.LoggerFactory;
  * <p>
  * A rule (i.e. concept or concept) may explicitly select one or more reports by
  * their id to delegate to.
+ * <p>
+ * The time spent in each {@link ReportPlugin} for reporting concepts and
+ * constraints is recorded and can be retrieved using {@link #pollReportTimes()}.
  */
 public class CompositeReportPlugin implements ReportPlugin {
 
@@ -38,6 +43,8 @@ public class CompositeReportPlugin implements ReportPlugin {
 
     private Map<String, ReportPlugin> selectedReportPlugins = Collections.emptyMap();
 
+    private final AtomicReference<Map<String, Long>> reportTimes = new AtomicReference<>(new ConcurrentHashMap<>());
+
     public CompositeReportPlugin(Map<String, ReportPlugin> reportPlugins) {
         this(reportPlugins, null);
     }
@@ -72,7 +79,7 @@ public class CompositeReportPlugin implements ReportPlugin {
             public void run(ReportPlugin reportPlugin) throws ReportException {
                 reportPlugin.begin();
             }
-        });
+        }, false);
     }
 
     @Override
@@ -83,7 +90,7 @@ public class CompositeReportPlugin implements ReportPlugin {
             public void run(ReportPlugin reportPlugin) throws ReportException {
                 reportPlugin.end();
             }
-        });
+        }, false);
     }
 
     @Override
@@ -115,7 +122,7 @@ public class CompositeReportPlugin implements ReportPlugin {
             public void run(ReportPlugin reportPlugin) throws ReportException {
                 reportPlugin.beginGroup(group);
             }
-        });
+        }, false);
     }
 
     @Override
@@ -125,7 +132,7 @@ public class CompositeReportPlugin implements ReportPlugin {
             public void run(ReportPlugin reportPlugin) throws ReportException {
                 reportPlugin.endGroup();
             }
-        });
+        }, false);
     }
 
     @Override
@@ -169,9 +176,25 @@ public class CompositeReportPlugin implements ReportPlugin {
      *             If a problem is reported.
      */
     private void run(ReportOperation operation) throws ReportException {
+        run(operation, true);
+    }
+
+    /**
+     * Execute the {@link ReportOperation} on the selected and default
+     * {@link ReportPlugin}s.
+     *
+     * @param operation
+     *            The {@link ReportOperation}.
+     * @param recordTime
+     *            If <code>true</code> the time spent in each {@link ReportPlugin}
+     *            is recorded.
+     * @throws ReportException
+     *             If a problem is reported.
+     */
+    private void run(ReportOperation operation, boolean recordTime) throws ReportException {
         Set<String> executedPlugins = new HashSet<>();
-        run(selectedReportPlugins, operation, executedPlugins);
-        run(defaultReportPlugins, operation, executedPlugins);
+        run(selectedReportPlugins, operation, executedPlugins, recordTime);
+        run(defaultReportPlugins, operation, executedPlugins, recordTime);
     }
 
     /**
@@ -184,17 +207,36 @@ public class CompositeReportPlugin implements ReportPlugin {
      *            The {@link ReportOperation}.
      * @param executedPlugins
      *            The already executed {@link ReportPlugin}s.
+     * @param recordTime
+     *            If <code>true</code> the time spent in each {@link ReportPlugin}
+     *            is recorded.
      * @throws ReportException
      *             If a problem is reported.
      */
-    private void run(Map<String, ReportPlugin> reportPlugins, ReportOperation operation, Set<String> executedPlugins) throws ReportException {
+    private void run(Map<String, ReportPlugin> reportPlugins, ReportOperation operation, Set<String> executedPlugins, boolean recordTime)
+            throws ReportException {
         for (Map.Entry<String, ReportPlugin> entry : reportPlugins.entrySet()) {
             if (executedPlugins.add(entry.getKey())) {
+                long start = System.nanoTime();
                 operation.run(entry.getValue());
+                if (recordTime) {
+                    reportTimes.get().merge(entry.getKey(), System.nanoTime() - start, Long::sum);
+                }
             }
         }
     }
 
+    /**
+     * Return the time spent in each {@link ReportPlugin} for reporting concepts
+     * and constraints since the last call.
+     *
+     * @return The times in nanoseconds identified by the ids of the
+     *         {@link ReportPlugin}s.
+     */
+    public Map<String, Long> pollReportTimes() {
+        return reportTimes.getAndSet(new ConcurrentHashMap<>());
+    }
+
     /**
      * Select the report writers for the given rule.
      *
@@ -18,6 +18,7 @@ import com.buschmais.jqassistant.core.report.api.*;
 import com.buschmais.jqassistant.core.report.api.ReportPlugin.Default;
 import com.buschmais.jqassistant.core.report.api.model.LanguageElement;
 import com.buschmais.jqassistant.core.report.api.model.Result;
+import com.buschmais.jqassistant.core.report.api.model.RowTable;
 import com.buschmais.jqassistant.core.rule.api.model.*;
 import com.buschmais.xo.api.CompositeObject;
 
@@ -176,14 +177,17 @@ public class XmlReportPlugin implements ReportPlugin {
                         }
                         xmlStreamWriter.writeEndElement(); // columns
                         xmlStreamWriter.writeStartElement("rows");
-                        List<Map<String, Object>> rows = result.getRows();
+                        RowTable rows = RowTable.of(result.getColumnNames(), result.getRows());
+                        List<String> rowColumnNames = rows.getColumnNames();
                         xmlStreamWriter.writeAttribute("count", Integer.toString(rows.size()));
-                        for (Map<String, Object> row : rows) {
+                        if (result.getRowCount() > rows.size()) {
+                            // The rows have been limited
+                            xmlStreamWriter.writeAttribute("total", Integer.toString(result.getRowCount()));
+                        }
+                        for (int row = 0; row < rows.size(); row++) {
                             xmlStreamWriter.writeStartElement("row");
-                            for (Map.Entry<String, Object> rowEntry : row.entrySet()) {
-                                String columnName = rowEntry.getKey();
-                                Object value = rowEntry.getValue();
-                                writeColumn(columnName, value);
+                            for (int column = 0; column < rowColumnNames.size(); column++) {
+                                writeColumn(rowColumnNames.get(column), rows.getValue(row, column));
                             }
                             xmlStreamWriter.writeEndElement();
                         }
@@ -26,6 +26,8 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -157,6 +159,28 @@ public class CompositeReportPluginTest {
         }
     }
 
+    @Test
+    public void reportTimes() throws ReportException {
+        Concept concept = getRule(Concept.class, "selectablePlugin1");
+        Constraint constraint = getRule(Constraint.class);
+
+        write(concept, constraint);
+
+        Map<String, Long> reportTimes = compositeReportPlugin.pollReportTimes();
+        assertThat(reportTimes.keySet(), equalTo(new HashSet<>(asList("plugin1", "plugin2", "selectablePlugin1"))));
+        assertThat(compositeReportPlugin.pollReportTimes().isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void reportTimesOutsideOfRulesAreIgnored() throws ReportException {
+        compositeReportPlugin.begin();
+        compositeReportPlugin.beginGroup(group);
+        compositeReportPlugin.endGroup();
+        compositeReportPlugin.end();
+
+        assertThat(compositeReportPlugin.pollReportTimes().isEmpty(), equalTo(true));
+    }
+
     private void write(Concept concept, Constraint constraint) throws ReportException {
         compositeReportPlugin.begin();
 
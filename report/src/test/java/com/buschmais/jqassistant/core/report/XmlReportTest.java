@@ -48,6 +48,7 @@ public class XmlReportTest {
         verifyColumnHeader(columnHeaders.get(0), "c1", false);
         verifyColumnHeader(columnHeaders.get(1), "c2", true);
         assertThat(result.getRows().getCount()).isEqualTo(1);
+        assertThat(result.getRows().getTotal()).isNull();
         List<RowType> rows = result.getRows().getRow();
         assertThat(rows).hasSize(1);
         RowType rowType = rows.get(0);
@@ -86,6 +87,8 @@ public class XmlReportTest {
         List<ColumnHeaderType> columnHeaders = columnsHeader.getColumn();
         verifyColumnHeader(columnHeaders.get(0), "c1", true);
         verifyColumnHeader(columnHeaders.get(1), "c2", false);
+        assertThat(result.getRows().getCount()).isEqualTo(1);
+        assertThat(result.getRows().getTotal()).isEqualTo(3);
     }
 
     @Test
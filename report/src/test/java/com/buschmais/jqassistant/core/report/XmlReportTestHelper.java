@@ -107,7 +107,7 @@ public final class XmlReportTestHelper {
         List<Map<String, Object>> rows = new ArrayList<>();
         rows.add(createRow());
         Result<Constraint> result = Result.<Constraint> builder().rule(constraint).status(Result.Status.FAILURE).severity(Severity.CRITICAL)
-                .columnNames(Arrays.asList(C1, C2)).rows(rows).build();
+                .columnNames(Arrays.asList(C1, C2)).rows(rows).rowCount(3).build();
         xmlReportWriter.setResult(result);
         xmlReportWriter.endConstraint();
         xmlReportWriter.endGroup();
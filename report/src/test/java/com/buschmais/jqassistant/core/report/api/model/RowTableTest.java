@@ -0,0 +1,104 @@
+package com.buschmais.jqassistant.core.report.api.model;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RowTableTest {
+
+    @Test
+    public void rows() {
+        RowTable rowTable = new RowTable(asList("a", "b"));
+        rowTable.addRow(new Object[] { 1, "x" });
+        rowTable.addRow(new Object[] { 2, null });
+
+        assertThat(rowTable.size()).isEqualTo(2);
+        assertThat(rowTable.getColumnIndex("b")).isEqualTo(1);
+        assertThat(rowTable.getColumnIndex("c")).isEqualTo(-1);
+        assertThat(rowTable.getValue(0, 1)).isEqualTo("x");
+        assertThat(rowTable.getValue(1, "a")).isEqualTo(2);
+    }
+
+    @Test
+    public void mapView() {
+        RowTable rowTable = new RowTable(asList("a", "b"));
+        rowTable.addRow(new Object[] { 1, "x" });
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("a", 1);
+        expected.put("b", "x");
+
+        Map<String, Object> row = rowTable.get(0);
+
+        assertThat(row).isEqualTo(expected);
+        assertThat(new ArrayList<>(row.keySet())).containsExactly("a", "b");
+        row.put("b", "y");
+        assertThat(rowTable.getValue(0, "b")).isEqualTo("y");
+    }
+
+    @Test
+    public void ofRows() {
+        Map<String, Object> row1 = new HashMap<>();
+        row1.put("a", 1);
+        Map<String, Object> row2 = new HashMap<>();
+        row2.put("b", 2);
+
+        RowTable rowTable = RowTable.of(null, asList(row1, row2));
+
+        assertThat(rowTable.getColumnNames()).containsExactly("a", "b");
+        assertThat(rowTable.getValue(0, "a")).isEqualTo(1);
+        assertThat(rowTable.getValue(1, "a")).isNull();
+        assertThat(rowTable.getValue(1, "b")).isEqualTo(2);
+        assertThat(RowTable.of(null, rowTable)).isSameAs(rowTable);
+    }
+
+    @Test
+    public void ofRowsDoesNotCopy() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("a", 1);
+        row.put("extra", "e");
+        List<Map<String, Object>> rows = new ArrayList<>();
+        rows.add(row);
+
+        RowTable rowTable = RowTable.of(asList("a", "b"), rows);
+
+        assertThat(rowTable.get(0)).isSameAs(row);
+        assertThat(rowTable.get(0)).doesNotContainKey("b").containsEntry("extra", "e");
+        assertThat(rowTable.getValue(0, "b")).isNull();
+        rowTable.add(new HashMap<>());
+        assertThat(rows).hasSize(2);
+    }
+
+    @Test
+    public void mapViewBehavesLikeMap() {
+        RowTable rowTable = new RowTable(asList("a", "b"));
+        rowTable.addRow(new Object[] { 1, "x" });
+        Map<String, Object> row = rowTable.get(0);
+
+        assertThat(row.put("c", "z")).isNull();
+        assertThat(row.remove("a")).isEqualTo(1);
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("b", "x");
+        expected.put("c", "z");
+        assertThat(rowTable.get(0)).isEqualTo(expected).hasSize(2).doesNotContainKey("a");
+        assertThat(rowTable.getValue(0, "a")).isNull();
+        assertThat(rowTable.remove(0)).isEqualTo(expected);
+    }
+
+    @Test
+    public void addedRowsArePreserved() {
+        RowTable rowTable = new RowTable(asList("a", "b"));
+        Map<String, Object> row = new HashMap<>();
+        row.put("a", 1);
+        row.put("c", 3);
+
+        rowTable.add(row);
+
+        assertThat(rowTable.get(0)).isSameAs(row);
+        assertThat(rowTable.getValue(0, "a")).isEqualTo(1);
+        assertThat(rowTable.getValue(0, "b")).isNull();
+    }
+}
@@ -0,0 +1,54 @@
+package com.buschmais.jqassistant.core.rule.api.executor;
+
+import com.buschmais.jqassistant.core.rule.api.model.Concept;
+import com.buschmais.jqassistant.core.rule.api.model.Constraint;
+import com.buschmais.jqassistant.core.rule.api.model.RuleException;
+import com.buschmais.jqassistant.core.rule.api.model.Severity;
+
+/**
+ * A {@link RuleVisitor} supporting parallel execution of rules by the
+ * {@link RuleSetExecutor}.
+ *
+ * Executing a rule and reporting its result are separated, the
+ * {@link RuleSetExecutor} invokes {@link DeferredVisit#report()} in the same
+ * order as the sequential execution would report the rules. The report of a
+ * {@link DeferredVisit} is always invoked by the thread which created it.
+ * Durations measured between reporting callbacks therefore do not include the
+ * execution of the rule.
+ */
+public interface ConcurrentRuleVisitor extends RuleVisitor {
+
+    /**
+     * Apply a concept with the given severity, reporting the result is deferred.
+     *
+     * Concepts are applied sequentially.
+     *
+     * @param concept
+     *            The concept.
+     * @param effectiveSeverity
+     *            The severity to use.
+     * @return The {@link DeferredVisit} providing `true` if the concept could be
+     *         applied.
+     * @throws RuleException
+     *             If an error occurred.
+     */
+    DeferredVisit<Boolean> applyConcept(Concept concept, Severity effectiveSeverity) throws RuleException;
+
+    /**
+     * Validate a constraint with the given severity, reporting the result is
+     * deferred.
+     *
+     * This method is called concurrently by multiple threads after all concepts
+     * have been applied.
+     *
+     * @param constraint
+     *            The constraint.
+     * @param effectiveSeverity
+     *            The severity to use.
+     * @return The {@link DeferredVisit}.
+     * @throws RuleException
+     *             If an error occurred.
+     */
+    DeferredVisit<Void> validateConstraint(Constraint constraint, Severity effectiveSeverity) throws RuleException;
+
+}
@@ -0,0 +1,73 @@
+package com.buschmais.jqassistant.core.rule.api.executor;
+
+import com.buschmais.jqassistant.core.rule.api.model.RuleException;
+
+/**
+ * Represents a rule which has been executed by a {@link ConcurrentRuleVisitor}
+ * but whose result has not been reported yet.
+ *
+ * @param <T>
+ *            The type of the result which is provided to the
+ *            {@link RuleSetExecutor}.
+ */
+public interface DeferredVisit<T> {
+
+    /**
+     * Return the result of the rule execution.
+     *
+     * @return The result.
+     */
+    T getResult();
+
+    /**
+     * Report the result of the rule execution.
+     *
+     * @throws RuleException
+     *             If reporting failed.
+     */
+    void report() throws RuleException;
+
+    /**
+     * Discard the report, e.g. if the execution of the rules has been aborted.
+     *
+     * Either this method or {@link #report()} is invoked, this allows releasing
+     * resources held for the report.
+     */
+    default void discard() {
+    }
+
+    /**
+     * Create a {@link DeferredVisit}.
+     *
+     * @param result
+     *            The result.
+     * @param report
+     *            The {@link Report} to be performed.
+     * @param <T>
+     *            The result type.
+     * @return The {@link DeferredVisit}.
+     */
+    static <T> DeferredVisit<T> of(T result, Report report) {
+        return new DeferredVisit<T>() {
+            @Override
+            public T getResult() {
+                return result;
+            }
+
+            @Override
+            public void report() throws RuleException {
+                report.report();
+            }
+        };
+    }
+
+    /**
+     * The deferred report of a rule.
+     */
+    @FunctionalInterface
+    interface Report {
+
+        void report() throws RuleException;
+
+    }
+}
@@ -0,0 +1,230 @@
+package com.buschmais.jqassistant.core.rule.api.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.buschmais.jqassistant.core.rule.api.model.*;
+
+/**
+ * Parallel execution of rules for the {@link RuleSetExecutor}.
+ *
+ * While the {@link RuleSetExecutor} resolves the rules this visitor applies
+ * the concepts in the order of their dependencies and records all visits as
+ * steps. Afterwards all constraints are validated concurrently using an
+ * {@link ExecutorService}. The results of all steps are reported in the order
+ * they have been recorded, i.e. the order of a sequential execution.
+ */
+class ParallelRuleExecution implements RuleVisitor {
+
+    private final ConcurrentRuleVisitor visitor;
+
+    private final List<Step> steps = new ArrayList<>();
+
+    ParallelRuleExecution(ConcurrentRuleVisitor visitor) {
+        this.visitor = visitor;
+    }
+
+    @Override
+    public void beforeRules() {
+    }
+
+    @Override
+    public void afterRules() {
+    }
+
+    @Override
+    public boolean visitConcept(Concept concept, Severity effectiveSeverity) throws RuleException {
+        DeferredVisit<Boolean> deferredVisit = visitor.applyConcept(concept, effectiveSeverity);
+        steps.add(new Step(deferredVisit::report));
+        return deferredVisit.getResult();
+    }
+
+    @Override
+    public void skipConcept(Concept concept, Severity effectiveSeverity) {
+        steps.add(new Step(() -> visitor.skipConcept(concept, effectiveSeverity)));
+    }
+
+    @Override
+    public void visitConstraint(Constraint constraint, Severity effectiveSeverity) {
+        steps.add(new Step(constraint, effectiveSeverity));
+    }
+
+    @Override
+    public void skipConstraint(Constraint constraint, Severity effectiveSeverity) {
+        steps.add(new Step(() -> visitor.skipConstraint(constraint, effectiveSeverity)));
+    }
+
+    @Override
+    public void beforeGroup(Group group, Severity effectiveSeverity) {
+        steps.add(new Step(() -> visitor.beforeGroup(group, effectiveSeverity)));
+    }
+
+    @Override
+    public void afterGroup(Group group) {
+        steps.add(new Step(() -> visitor.afterGroup(group)));
+    }
+
+    /**
+     * Validates the recorded constraints and reports all steps.
+     *
+     * The validation of a constraint including its report is performed by a
+     * thread of the {@link ExecutorService}, all other steps are reported by the
+     * current thread.
+     *
+     * @param executorService
+     *            The {@link ExecutorService}.
+     * @throws RuleException
+     *             If a step failed.
+     */
+    void execute(ExecutorService executorService) throws RuleException {
+        Sequencer sequencer = new Sequencer();
+        List<Future<?>> validations = new ArrayList<>();
+        // Submit in order of the steps, so a validation waiting for its report never blocks a preceding one
+        for (int position = 0; position < steps.size(); position++) {
+            Step step = steps.get(position);
+            if (step.constraint != null) {
+                int constraintPosition = position;
+                validations.add(executorService.submit(() -> validate(step, constraintPosition, sequencer)));
+            }
+        }
+        try {
+            for (int position = 0; position < steps.size(); position++) {
+                Step step = steps.get(position);
+                if (step.constraint == null) {
+                    if (!sequencer.await(position)) {
+                        break;
+                    }
+                    report(step.report, sequencer);
+                }
+            }
+            sequencer.await(steps.size());
+        } finally {
+            sequencer.abort();
+        }
+        for (Future<?> validation : validations) {
+            getResult(validation);
+        }
+        if (sequencer.isInterrupted()) {
+            throw new RuleException("Interrupted while executing rules.");
+        }
+    }
+
+    private Void validate(Step step, int position, Sequencer sequencer) throws RuleException {
+        DeferredVisit<Void> deferredVisit;
+        try {
+            deferredVisit = visitor.validateConstraint(step.constraint, step.severity);
+        } catch (RuleException | RuntimeException e) {
+            // Preceding steps are reported before the failure
+            sequencer.await(position);
+            sequencer.abort();
+            throw e;
+        }
+        if (sequencer.await(position)) {
+            report(deferredVisit::report, sequencer);
+        } else {
+            deferredVisit.discard();
+        }
+        return null;
+    }
+
+    private void report(DeferredVisit.Report report, Sequencer sequencer) throws RuleException {
+        try {
+            report.report();
+        } catch (RuleException | RuntimeException e) {
+            sequencer.abort();
+            throw e;
+        }
+        sequencer.advance();
+    }
+
+    private void getResult(Future<?> validation) throws RuleException {
+        try {
+            validation.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuleException) {
+                throw (RuleException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuleException("Cannot validate constraint.", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuleException("Interrupted while validating constraints.", e);
+        }
+    }
+
+    /**
+     * A recorded step, either the validation of a constraint or the report of any
+     * other visit.
+     */
+    private static class Step {
+
+        private final DeferredVisit.Report report;
+
+        private final Constraint constraint;
+
+        private final Severity severity;
+
+        private Step(DeferredVisit.Report report) {
+            this.report = report;
+            this.constraint = null;
+            this.severity = null;
+        }
+
+        private Step(Constraint constraint, Severity severity) {
+            this.report = null;
+            this.constraint = constraint;
+            this.severity = severity;
+        }
+    }
+
+    /**
+     * Grants turns for reporting steps in the order of their positions.
+     */
+    private static class Sequencer {
+
+        private int turn = 0;
+
+        private boolean aborted = false;
+
+        private boolean interrupted = false;
+
+        /**
+         * Wait until it is the turn of the given position.
+         *
+         * @return `false` if the execution has been aborted.
+         */
+        synchronized boolean await(int position) {
+            while (turn < position && !aborted) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
+                    aborted = true;
+                }
+            }
+            return !aborted;
+        }
+
+        synchronized void advance() {
+            turn++;
+            notifyAll();
+        }
+
+        synchronized void abort() {
+            aborted = true;
+            notifyAll();
+        }
+
+        synchronized boolean isInterrupted() {
+            return interrupted;
+        }
+    }
+}
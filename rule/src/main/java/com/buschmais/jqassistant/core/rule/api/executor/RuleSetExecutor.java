@@ -1,6 +1,9 @@
 package com.buschmais.jqassistant.core.rule.api.executor;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.buschmais.jqassistant.core.rule.api.model.*;
 
@@ -20,6 +23,13 @@ import org.slf4j.LoggerFactory;
  * all concepts and nested concepts are applied. This allows for non-explicit
  * dependencies between rules, e.g. a constraint relying on a specific label may
  * include results of concepts that are not explicitly required.
+ * <p/>
+ * If parallel execution is enabled (see
+ * {@link RuleSetExecutorConfiguration#getParallelism()}) and the
+ * {@link RuleVisitor} is a {@link ConcurrentRuleVisitor} all concepts are
+ * applied first in the order of their dependencies, afterwards the (read-only)
+ * constraints are validated concurrently. The results are reported in the same
+ * order as for sequential execution.
  */
 public class RuleSetExecutor {
 
@@ -35,28 +45,94 @@ public class RuleSetExecutor {
 
     private RuleSetExecutorConfiguration configuration;
 
+    private ExecutorService executorService;
+
+    /**
+     * The visitor which is notified while resolving the rules, either the
+     * {@link RuleVisitor} or the {@link ParallelRuleExecution}.
+     */
+    private RuleVisitor visitor;
+
     public RuleSetExecutor(RuleVisitor ruleVisitor, RuleSetExecutorConfiguration configuration) {
+        this(ruleVisitor, configuration, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param ruleVisitor
+     *            The {@link RuleVisitor}.
+     * @param configuration
+     *            The {@link RuleSetExecutorConfiguration}.
+     * @param executorService
+     *            The {@link ExecutorService} for validating constraints in
+     *            parallel. If <code>null</code> a thread pool is created according
+     *            to {@link RuleSetExecutorConfiguration#getParallelism()}.
+     */
+    public RuleSetExecutor(RuleVisitor ruleVisitor, RuleSetExecutorConfiguration configuration, ExecutorService executorService) {
         this.ruleVisitor = ruleVisitor;
         this.configuration = configuration;
+        this.executorService = executorService;
     }
 
     public void execute(RuleSet ruleSet, RuleSelection ruleSelection) throws RuleException {
         this.ruleVisitor.beforeRules();
         try {
-            for (String conceptPattern : ruleSelection.getConceptIds()) {
-                applyConcepts(ruleSet, conceptPattern, null, null);
-            }
-            for (String groupPattern : ruleSelection.getGroupIds()) {
-                executeGroups(ruleSet, groupPattern, null, null);
-            }
-            for (String constraintPattern : ruleSelection.getConstraintIds()) {
-                validateConstraints(ruleSet, constraintPattern, null, null);
+            if (isParallel()) {
+                executeParallel(ruleSet, ruleSelection);
+            } else {
+                execute(ruleSet, ruleSelection, ruleVisitor);
             }
         } finally {
             this.ruleVisitor.afterRules();
         }
     }
 
+    private boolean isParallel() {
+        if (executorService == null && configuration.getParallelism() <= 1) {
+            return false;
+        }
+        if (!(ruleVisitor instanceof ConcurrentRuleVisitor)) {
+            LOGGER.warn("Parallel execution is not supported by {}, executing rules sequentially.", ruleVisitor.getClass().getName());
+            return false;
+        }
+        return true;
+    }
+
+    private void executeParallel(RuleSet ruleSet, RuleSelection ruleSelection) throws RuleException {
+        ParallelRuleExecution parallelRuleExecution = new ParallelRuleExecution((ConcurrentRuleVisitor) ruleVisitor);
+        execute(ruleSet, ruleSelection, parallelRuleExecution);
+        if (executorService != null) {
+            parallelRuleExecution.execute(executorService);
+        } else {
+            LOGGER.debug("Validating constraints using {} threads.", configuration.getParallelism());
+            AtomicInteger threadCount = new AtomicInteger();
+            ExecutorService threadPool = Executors.newFixedThreadPool(configuration.getParallelism(), runnable -> {
+                Thread thread = new Thread(runnable, "jqassistant-rule-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                parallelRuleExecution.execute(threadPool);
+            } finally {
+                threadPool.shutdownNow();
+            }
+        }
+    }
+
+    private void execute(RuleSet ruleSet, RuleSelection ruleSelection, RuleVisitor visitor) throws RuleException {
+        this.visitor = visitor;
+        for (String conceptPattern : ruleSelection.getConceptIds()) {
+            applyConcepts(ruleSet, conceptPattern, null, null);
+        }
+        for (String groupPattern : ruleSelection.getGroupIds()) {
+            executeGroups(ruleSet, groupPattern, null, null);
+        }
+        for (String constraintPattern : ruleSelection.getConstraintIds()) {
+            validateConstraints(ruleSet, constraintPattern, null, null);
+        }
+    }
+
     /**
      * Executes the given group.
      *
@@ -69,7 +145,7 @@ public class RuleSetExecutor {
      */
     private void executeGroup(RuleSet ruleSet, Group group, Severity parentSeverity) throws RuleException {
         if (!executedGroups.contains(group)) {
-            ruleVisitor.beforeGroup(group, getEffectiveSeverity(group, parentSeverity, parentSeverity));
+            visitor.beforeGroup(group, getEffectiveSeverity(group, parentSeverity, parentSeverity));
             for (Map.Entry<String, Severity> conceptEntry : group.getConcepts().entrySet()) {
                 applyConcepts(ruleSet, conceptEntry.getKey(), parentSeverity, conceptEntry.getValue());
             }
@@ -80,7 +156,7 @@ public class RuleSetExecutor {
             for (Map.Entry<String, Severity> constraintEntry : constraints.entrySet()) {
                 validateConstraints(ruleSet, constraintEntry.getKey(), parentSeverity, constraintEntry.getValue());
             }
-            ruleVisitor.afterGroup(group);
+            visitor.afterGroup(group);
             executedGroups.add(group);
         }
     }
@@ -150,9 +226,9 @@ public class RuleSetExecutor {
     private void validateConstraint(RuleSet ruleSet, Constraint constraint, Severity severity) throws RuleException {
         if (!executedConstraints.contains(constraint)) {
             if (applyRequiredConcepts(ruleSet, constraint, new LinkedHashSet<>())) {
-                ruleVisitor.visitConstraint(constraint, severity);
+                visitor.visitConstraint(constraint, severity);
             } else {
-                ruleVisitor.skipConstraint(constraint, severity);
+                visitor.skipConstraint(constraint, severity);
             }
             executedConstraints.add(constraint);
         }
@@ -179,9 +255,9 @@ public class RuleSetExecutor {
         if (result == null) {
             executionStack.add(concept);
             if (applyRequiredConcepts(ruleSet, concept, executionStack)) {
-                result = ruleVisitor.visitConcept(concept, severity);
+                result = visitor.visitConcept(concept, severity);
             } else {
-                ruleVisitor.skipConcept(concept, severity);
+                visitor.skipConcept(concept, severity);
                 result = false;
             }
             executionStack.remove(concept);
@@ -1,9 +1,13 @@
 package com.buschmais.jqassistant.core.rule.api.model;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import com.buschmais.jqassistant.core.rule.api.executor.ConcurrentRuleVisitor;
+import com.buschmais.jqassistant.core.rule.api.executor.DeferredVisit;
 import com.buschmais.jqassistant.core.rule.api.executor.RuleSetExecutor;
 import com.buschmais.jqassistant.core.rule.api.executor.RuleSetExecutorConfiguration;
 import com.buschmais.jqassistant.core.rule.api.executor.RuleVisitor;
@@ -16,6 +20,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.verification.VerificationMode;
 
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -147,6 +155,40 @@ public class RuleSetExecutorTest {
         inOrder.verify(visitor).visitConstraint(rootConstraint, null);
     }
 
+    @Test
+    public void parallelExecutionOrder() throws RuleException {
+        ConcurrentRuleVisitor concurrentVisitor = mock(ConcurrentRuleVisitor.class);
+        List<String> reports = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            Concept concept = invocation.getArgument(0);
+            return DeferredVisit.of(true, () -> reports.add(concept.getId()));
+        }).when(concurrentVisitor).applyConcept(any(Concept.class), any());
+        doAnswer(invocation -> {
+            Constraint constraint = invocation.getArgument(0);
+            return DeferredVisit.of(null, () -> reports.add(constraint.getId()));
+        }).when(concurrentVisitor).validateConstraint(any(Constraint.class), any());
+        doAnswer(invocation -> reports.add("before " + ((Group) invocation.getArgument(0)).getId())).when(concurrentVisitor).beforeGroup(any(Group.class),
+                any());
+        doAnswer(invocation -> reports.add("after " + ((Group) invocation.getArgument(0)).getId())).when(concurrentVisitor).afterGroup(any(Group.class));
+        Concept concept1 = Concept.builder().id("concept:1").build();
+        Concept concept2 = Concept.builder().id("concept:2").build();
+        Constraint constraint1 = Constraint.builder().id("constraint:1").build();
+        Constraint constraint2 = Constraint.builder().id("constraint:2").build();
+        Group group = Group.builder().id("group").concept("concept:1", null).constraint("constraint:1", null).constraint("constraint:2", null).build();
+        RuleSet ruleSet = RuleSetBuilder.newInstance().addConcept(concept1).addConcept(concept2).addConstraint(constraint1).addConstraint(constraint2)
+                .addGroup(group).getRuleSet();
+        RuleSelection ruleSelection = RuleSelection.builder().groupId("group").conceptId("concept:2").build();
+        configuration.setParallelism(4);
+
+        new RuleSetExecutor(concurrentVisitor, configuration).execute(ruleSet, ruleSelection);
+
+        assertThat(reports, equalTo(asList("concept:2", "before group", "concept:1", "constraint:1", "constraint:2", "after group")));
+        verify(concurrentVisitor).beforeRules();
+        verify(concurrentVisitor).afterRules();
+        verify(concurrentVisitor, never()).visitConcept(any(Concept.class), any());
+        verify(concurrentVisitor, never()).visitConstraint(any(Constraint.class), any());
+    }
+
     @Test
     public void wildcards() throws RuleException {
         Concept requiredConcept1 = Concept.builder().id("concept:Required1").build();
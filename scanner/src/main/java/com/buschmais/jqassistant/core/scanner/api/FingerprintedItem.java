@@ -0,0 +1,27 @@
+package com.buschmais.jqassistant.core.scanner.api;
+
+import java.io.IOException;
+
+/**
+ * Implemented by items which are able to provide a fingerprint of their
+ * content, e.g. a hash of the bytes of a file.
+ *
+ * The fingerprint is used by the scan cache (see
+ * {@link ScannerConfiguration#isScanCache()}) to detect unchanged items and by
+ * the deduplication (see {@link ScannerConfiguration#isDeduplicate()}) to
+ * detect items with identical content.
+ * Regular files ({@link java.io.File}) are supported by the scanner without
+ * implementing this interface.
+ */
+public interface FingerprintedItem {
+
+    /**
+     * Return the fingerprint of the content.
+     *
+     * @return The fingerprint or <code>null</code> if it cannot be determined.
+     * @throws IOException
+     *             If the content cannot be read.
+     */
+    String getFingerprint() throws IOException;
+
+}
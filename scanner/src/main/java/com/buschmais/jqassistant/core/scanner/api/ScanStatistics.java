@@ -0,0 +1,95 @@
+package com.buschmais.jqassistant.core.scanner.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * The statistics of a scan, see {@link Scanner#getStatistics()}.
+ *
+ * All durations are measured in nanoseconds.
+ */
+public class ScanStatistics {
+
+    private final long elapsedTime;
+
+    private final long items;
+
+    private final int maxDepth;
+
+    private final long descriptorsCreated;
+
+    private final List<ScannerPluginStatistics> pluginStatistics;
+
+    /**
+     * Constructor.
+     *
+     * @param elapsedTime
+     *            The time elapsed since the scanner has been created.
+     * @param items
+     *            The number of scanned items including nested items.
+     * @param maxDepth
+     *            The maximum nesting depth of scanned items.
+     * @param descriptorsCreated
+     *            The number of created descriptors.
+     * @param pluginStatistics
+     *            The {@link ScannerPluginStatistics}.
+     */
+    public ScanStatistics(long elapsedTime, long items, int maxDepth, long descriptorsCreated, List<ScannerPluginStatistics> pluginStatistics) {
+        this.elapsedTime = elapsedTime;
+        this.items = items;
+        this.maxDepth = maxDepth;
+        this.descriptorsCreated = descriptorsCreated;
+        this.pluginStatistics = unmodifiableList(new ArrayList<>(pluginStatistics));
+    }
+
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Return the number of scanned items including nested items, i.e. entries of
+     * archives.
+     *
+     * @return The number of items.
+     */
+    public long getItems() {
+        return items;
+    }
+
+    /**
+     * Return the number of scanned items per second of the elapsed time.
+     *
+     * @return The items per second.
+     */
+    public double getItemsPerSecond() {
+        return elapsedTime > 0 ? (double) items * SECONDS.toNanos(1) / elapsedTime : 0;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Return the number of descriptors created while scanning, including the
+     * descriptors created by workers of parallel scans.
+     *
+     * @return The number of descriptors.
+     */
+    public long getDescriptorsCreated() {
+        return descriptorsCreated;
+    }
+
+    /**
+     * Return the statistics of all plugins which have been asked to accept an
+     * item.
+     *
+     * @return The {@link ScannerPluginStatistics} ordered by descending scan
+     *         time.
+     */
+    public List<ScannerPluginStatistics> getPluginStatistics() {
+        return pluginStatistics;
+    }
+}
@@ -1,6 +1,9 @@
 package com.buschmais.jqassistant.core.scanner.api;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 
 import com.buschmais.jqassistant.core.store.api.model.Descriptor;
 
@@ -30,6 +33,62 @@ public interface Scanner {
 
     <I, D extends Descriptor> D scan(I item, D descriptor, String path, Scope scope);
 
+    /**
+     * Scan the given independent items, e.g. the files of a directory or the
+     * entries of an archive.
+     *
+     * Depending on {@link ScannerConfiguration#getParallelism()} the items are
+     * scanned sequentially or by multiple threads, each of them using its own
+     * {@link ScannerContext} and pipelines. In the latter case all store
+     * operations are serialized by a single writer, therefore plugins must access
+     * the store using the {@link ScannerContext} provided by
+     * {@link #getContext()} of the {@link Scanner} passed to them.
+     *
+     * If there is no active transaction (e.g. for top level items) the items are
+     * scanned within a new transaction. An active transaction of the caller (e.g.
+     * a plugin scanning its child items) is used by the workers but never
+     * committed, its thread executes their store operations until all items have
+     * been scanned. If an item fails during a parallel scan the data of all items
+     * is removed, with {@link ScannerConfiguration#isContinueOnError()} enabled
+     * the items are then scanned sequentially.
+     *
+     * The default implementation scans the items sequentially using
+     * {@link #scan(Object, String, Scope)}.
+     *
+     * @param items
+     *            The items.
+     * @param pathFunction
+     *            The function providing the path of an item to be passed to the
+     *            plugins.
+     * @param scope
+     *            The scope to passed to the plugins.
+     * @param <I>
+     *            The item type.
+     * @param <D>
+     *            The corresponding descriptor type.
+     * @return The {@link Descriptor}s as returned by the plugins, in the order of
+     *         the given items.
+     */
+    default <I, D extends Descriptor> List<D> scanAll(List<I> items, Function<? super I, String> pathFunction, Scope scope) {
+        List<D> descriptors = new ArrayList<>(items.size());
+        for (I item : items) {
+            descriptors.add(scan(item, pathFunction.apply(item), scope));
+        }
+        return descriptors;
+    }
+
+    /**
+     * Return the statistics recorded while scanning, i.e. the number of scanned
+     * items and the latencies of the plugins.
+     *
+     * @return The {@link ScanStatistics} or <code>null</code> if
+     *         {@link ScannerConfiguration#isStatistics()} is disabled or the
+     *         scanner does not record statistics.
+     */
+    default ScanStatistics getStatistics() {
+        return null;
+    }
+
     /**
      * Return an instance of the scanner context.
      * 
@@ -1,12 +1,46 @@
 package com.buschmais.jqassistant.core.scanner.api;
 
+import java.io.Serializable;
+
 /**
  * Represents the configuration of the scanner.
+ *
+ * The configuration is serializable, e.g. for passing it to the worker
+ * processes of a sharded scan.
  */
-public class ScannerConfiguration {
+public class ScannerConfiguration implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private boolean continueOnError = false;
 
+    private int parallelism = 1;
+
+    private boolean virtualThreads = false;
+
+    private boolean scanCache = false;
+
+    private boolean checkpoint = false;
+
+    private boolean resume = false;
+
+    private boolean deduplicate = false;
+
+    private boolean statistics = false;
+
+    private int progressInterval = 30;
+
+    /**
+     * Determines if scanning continues after an item could not be scanned.
+     *
+     * The nodes created for a failed nested item (e.g. an entry of an archive)
+     * are removed within the current transaction, i.e. the data of the other
+     * items is retained. Changes of the failed item to existing nodes (e.g.
+     * properties or relations) are not reverted. A failed top level item is
+     * rolled back.
+     *
+     * @return <code>true</code> if scanning shall continue on errors.
+     */
     public boolean isContinueOnError() {
         return continueOnError;
     }
@@ -14,4 +48,136 @@ public class ScannerConfiguration {
     public void setContinueOnError(boolean continueOnError) {
         this.continueOnError = continueOnError;
     }
+
+    /**
+     * Return the number of threads used for scanning the items passed to
+     * {@link Scanner#scanAll(java.util.List, java.util.function.Function, Scope)}.
+     *
+     * @return The parallelism, a value of 1 (default) means sequential scanning.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Determines if the items passed to
+     * {@link Scanner#scanAll(java.util.List, java.util.function.Function, Scope)}
+     * are scanned by virtual threads (requires Java 21 or later, otherwise
+     * platform threads are used). The parallelism limits the number of items
+     * being scanned concurrently.
+     *
+     * @return <code>true</code> if virtual threads shall be used.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Determines if the scan cache is enabled.
+     *
+     * If enabled the scanner records a fingerprint of the content of each
+     * scanned item (see {@link FingerprintedItem}) together with the descriptor
+     * created by each plugin in the data directory. On a re-scan against the
+     * same store the descriptors of unchanged items are re-used instead of
+     * scanning them again.
+     *
+     * @return <code>true</code> if the scan cache is enabled.
+     */
+    public boolean isScanCache() {
+        return scanCache;
+    }
+
+    public void setScanCache(boolean scanCache) {
+        this.scanCache = scanCache;
+    }
+
+    /**
+     * Determines if scan checkpoints are recorded.
+     *
+     * If enabled the completed top level items are recorded in the store within
+     * the same transactions as their data, including the transactions committed
+     * by auto commit.
+     *
+     * @return <code>true</code> if checkpoints are recorded.
+     */
+    public boolean isCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(boolean checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Determines if a scan resumes from the checkpoints of a previous scan which
+     * has been aborted, requires {@link #isCheckpoint()}.
+     *
+     * The data of a partially scanned item is removed from the store, completed
+     * top level items are skipped.
+     *
+     * @return <code>true</code> if the scan is resumed.
+     */
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    /**
+     * Determines if items with identical content are scanned only once.
+     *
+     * If enabled the scanner determines the fingerprint of each item (see
+     * {@link FingerprintedItem}) before passing it to the plugins. An item with
+     * the same content, type, scope and file extension as a previously scanned
+     * item is not scanned again, instead a descriptor of the same type is
+     * created for the duplicate and related to the descriptor of the first
+     * occurrence (`(duplicate)-[:DUPLICATE_OF]->(original)`).
+     *
+     * @return <code>true</code> if duplicates are detected.
+     */
+    public boolean isDeduplicate() {
+        return deduplicate;
+    }
+
+    public void setDeduplicate(boolean deduplicate) {
+        this.deduplicate = deduplicate;
+    }
+
+    /**
+     * Determines if statistics are recorded while scanning, see
+     * {@link Scanner#getStatistics()}.
+     *
+     * @return <code>true</code> if statistics are recorded.
+     */
+    public boolean isStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(boolean statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Return the interval for logging the progress of a scan, requires
+     * {@link #isStatistics()}.
+     *
+     * @return The interval in seconds, `0` disables logging.
+     */
+    public int getProgressInterval() {
+        return progressInterval;
+    }
+
+    public void setProgressInterval(int progressInterval) {
+        this.progressInterval = progressInterval;
+    }
 }
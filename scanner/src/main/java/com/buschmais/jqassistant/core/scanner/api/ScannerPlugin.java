@@ -42,6 +42,50 @@ public interface ScannerPlugin<I, D extends Descriptor> extends ContextualConfig
         Class<? extends Descriptor>[] value();
     }
 
+    /**
+     * Defines the annotation for declaring static criteria which must be matched
+     * by an item before {@link #accepts(Object, String, Scope)} of the plugin is
+     * invoked.
+     *
+     * The scanner uses these criteria to build an index for selecting the plugins
+     * which are asked to accept an item, plugins without this annotation are
+     * asked for every item. As {@link #accepts(Object, String, Scope)} is still
+     * invoked for matching items the criteria may be less strict than the
+     * implementation of the plugin but must never exclude an item which would be
+     * accepted.
+     *
+     * [source,java]
+     * ----
+     * @Accepts(paths = "*.xml", scopes = "java:classpath")
+     * public class MyPlugin implements ScannerPlugin&lt;FileResource, MyDescriptor&gt; {
+     *
+     *     ...
+     * }
+     * ----
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @Inherited
+    @interface Accepts {
+
+        /**
+         * The path patterns, matched ignoring case. A pattern supports the
+         * wildcards `*` (any characters except `/`), `**` (any characters) and `?`
+         * (one character). A pattern without `/` is matched against the last
+         * segment of the path, e.g. `*.xml` or `pom.xml`.
+         *
+         * @return The path patterns, if empty all paths are matched.
+         */
+        String[] paths() default {};
+
+        /**
+         * The names of the scopes, e.g. `java:classpath`.
+         *
+         * @return The scope names, if empty all scopes are matched.
+         */
+        String[] scopes() default {};
+    }
+
     @Override
     default void initialize() {
     }
@@ -0,0 +1,197 @@
+package com.buschmais.jqassistant.core.scanner.api;
+
+import java.util.Arrays;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * The statistics recorded for a {@link ScannerPlugin} while scanning.
+ *
+ * All durations are measured in nanoseconds.
+ */
+public class ScannerPluginStatistics {
+
+    private final String name;
+
+    private final Latency accepts;
+
+    private final Latency scans;
+
+    private final int maxDepth;
+
+    private final long descriptorsCreated;
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *            The name of the plugin.
+     * @param accepts
+     *            The {@link Latency} of
+     *            {@link ScannerPlugin#accepts(Object, String, Scope)}.
+     * @param scans
+     *            The {@link Latency} of
+     *            {@link ScannerPlugin#scan(Object, String, Scope, Scanner)}.
+     * @param maxDepth
+     *            The maximum nesting depth the plugin has been invoked at.
+     * @param descriptorsCreated
+     *            The number of descriptors created by the plugin.
+     */
+    public ScannerPluginStatistics(String name, Latency accepts, Latency scans, int maxDepth, long descriptorsCreated) {
+        this.name = name;
+        this.accepts = accepts;
+        this.scans = scans;
+        this.maxDepth = maxDepth;
+        this.descriptorsCreated = descriptorsCreated;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Return the {@link Latency} of
+     * {@link ScannerPlugin#accepts(Object, String, Scope)}.
+     *
+     * Only plugins matching the static accept criteria of an item are asked to
+     * accept it.
+     *
+     * @return The {@link Latency}.
+     */
+    public Latency getAccepts() {
+        return accepts;
+    }
+
+    /**
+     * Return the {@link Latency} of
+     * {@link ScannerPlugin#scan(Object, String, Scope, Scanner)}, the times
+     * include nested scans requested by the plugin.
+     *
+     * @return The {@link Latency}.
+     */
+    public Latency getScans() {
+        return scans;
+    }
+
+    /**
+     * Return the number of items scanned by the plugin per second of its scan
+     * time.
+     *
+     * @return The items per second.
+     */
+    public double getItemsPerSecond() {
+        return scans.getTotalTime() > 0 ? (double) scans.getCount() * SECONDS.toNanos(1) / scans.getTotalTime() : 0;
+    }
+
+    /**
+     * Return the maximum nesting depth the plugin has been invoked at, top level
+     * items have a depth of 1.
+     *
+     * @return The maximum depth.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Return the number of descriptors created by the plugin itself, i.e.
+     * excluding the descriptors created by plugins for nested items.
+     *
+     * Descriptors created by the workers of a parallel scan are only included in
+     * {@link ScanStatistics#getDescriptorsCreated()}.
+     *
+     * @return The number of descriptors.
+     */
+    public long getDescriptorsCreated() {
+        return descriptorsCreated;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d items (%.1f items/s), scan: %s, accepts: %s, max depth: %d, descriptors: %d", name, scans.getCount(), getItemsPerSecond(),
+                scans, accepts, maxDepth, descriptorsCreated);
+    }
+
+    /**
+     * The latency of an operation, percentiles are approximated using buckets
+     * with power of two boundaries.
+     */
+    public static class Latency {
+
+        private final long count;
+
+        private final long totalTime;
+
+        private final long maxTime;
+
+        private final long[] buckets;
+
+        /**
+         * Constructor.
+         *
+         * @param count
+         *            The number of invocations.
+         * @param totalTime
+         *            The cumulative time.
+         * @param maxTime
+         *            The maximum time.
+         * @param buckets
+         *            The number of invocations per bucket, bucket `i > 0` contains
+         *            the times from `2^(i-1)` to `2^i - 1`.
+         */
+        public Latency(long count, long totalTime, long maxTime, long[] buckets) {
+            this.count = count;
+            this.totalTime = totalTime;
+            this.maxTime = maxTime;
+            this.buckets = Arrays.copyOf(buckets, buckets.length);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalTime() {
+            return totalTime;
+        }
+
+        public long getMaxTime() {
+            return maxTime;
+        }
+
+        /**
+         * Return the approximated time the given percentage of invocations did not
+         * exceed.
+         *
+         * @param percentile
+         *            The percentile, e.g. `99.0`.
+         * @return The time, i.e. the upper bound of the bucket containing the
+         *         percentile (limited by the maximum time).
+         */
+        public long getPercentile(double percentile) {
+            long total = 0;
+            for (long bucket : buckets) {
+                total += bucket;
+            }
+            long rank = (long) Math.ceil(total * percentile / 100);
+            long current = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                current += buckets[i];
+                if (current >= rank && current > 0) {
+                    return i == 0 ? 0 : Math.min(i < 63 ? (1L << i) - 1 : Long.MAX_VALUE, maxTime);
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d ms (p50: %.3f ms, p90: %.3f ms, p99: %.3f ms, max: %.3f ms)", NANOSECONDS.toMillis(totalTime), toMillis(getPercentile(50)),
+                    toMillis(getPercentile(90)), toMillis(getPercentile(99)), toMillis(maxTime));
+        }
+
+        private double toMillis(long nanos) {
+            return nanos / 1_000_000d;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreListener;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.api.Query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Collections.singletonMap;
+
+/**
+ * Tracks the ids of the nodes created by the scanner thread, allowing to remove
+ * the nodes created for a failed item without rolling back the transaction
+ * which contains the data of other items.
+ *
+ * The ids are recorded in the order of creation, so the nodes created for an
+ * item are identified by the position ({@link #mark()}) before the item has
+ * been scanned.
+ *
+ * Only created nodes (including their relations) are removed: properties,
+ * labels or relations which have been added to already existing nodes by the
+ * failed item are not reverted.
+ */
+class CreatedNodeTracker implements StoreListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CreatedNodeTracker.class);
+
+    private static final String DELETE = "MATCH (n) WHERE id(n) IN $ids DETACH DELETE n RETURN count(n) AS nodes";
+
+    private static final int DELETE_BATCH_SIZE = 8192;
+
+    private long[] ids = new long[1024];
+
+    private int size = 0;
+
+    /**
+     * Return the current position.
+     *
+     * @return The position.
+     */
+    int mark() {
+        return size;
+    }
+
+    /**
+     * Delete the nodes which have been created after the given position within
+     * the current transaction.
+     *
+     * @param store
+     *            The store.
+     * @param mark
+     *            The position.
+     * @return <code>true</code> if the nodes have been deleted,
+     *         <code>false</code> if deleting failed, e.g. the transaction cannot
+     *         be used anymore.
+     */
+    boolean delete(Store store, int mark) {
+        long nodes = 0;
+        try {
+            for (int from = mark; from < size; from += DELETE_BATCH_SIZE) {
+                List<Long> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+                for (int i = from; i < Math.min(size, from + DELETE_BATCH_SIZE); i++) {
+                    batch.add(ids[i]);
+                }
+                try (Query.Result<Query.Result.CompositeRowObject> result = store.executeQuery(DELETE, singletonMap("ids", batch))) {
+                    for (Query.Result.CompositeRowObject row : result) {
+                        nodes += row.get("nodes", Long.class);
+                    }
+                }
+                // The descriptors of the deleted nodes must not be returned by the caches of the store anymore
+                store.evict(batch);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Cannot remove the nodes created for the failed item.", e);
+            return false;
+        } finally {
+            size = Math.min(size, mark);
+        }
+        LOGGER.info("Removed {} nodes created for the failed item.", nodes);
+        return true;
+    }
+
+    /**
+     * Forget the nodes which have been created after the given position.
+     *
+     * @param mark
+     *            The position.
+     */
+    void reset(int mark) {
+        size = Math.min(size, mark);
+    }
+
+    @Override
+    public void created(Descriptor descriptor) {
+        Object id = descriptor.getId();
+        if (id instanceof Number) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[size++] = ((Number) id).longValue();
+        }
+    }
+}
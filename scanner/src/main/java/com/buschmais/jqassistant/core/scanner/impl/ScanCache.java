@@ -0,0 +1,334 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.buschmais.jqassistant.core.scanner.api.FingerprintedItem;
+import com.buschmais.jqassistant.core.scanner.api.ScannerPlugin;
+import com.buschmais.jqassistant.core.scanner.api.Scope;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.api.Query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Collections.singletonMap;
+
+/**
+ * Cache recording the fingerprints of scanned items together with the ids of
+ * the descriptors created by the scanner plugins.
+ *
+ * The cache is persisted as a file in the data directory of the scanner. It is
+ * discarded if the set of scanner plugins or their versions change. Entries
+ * recorded during a scan are pending until the scan has been committed to the
+ * store.
+ *
+ * As node ids are re-used by the store the entries are only valid for the
+ * graph they have been recorded for: each transaction adding entries writes a
+ * new token to the `ScanCache` node which is saved together with the entries.
+ * If the token of the graph differs on lookup (e.g. after the store has been
+ * reset, restored from a snapshot or the transaction has been rolled back by
+ * the caller) all entries are discarded. Furthermore a descriptor is only
+ * re-used if it still has the expected type and its `fileName` (if any)
+ * matches the path of the item.
+ */
+class ScanCache {
+
+    static final String DIRECTORY = "scan-cache";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScanCache.class);
+
+    private static final String FILE_NAME = "scan-cache.tsv";
+
+    private static final String SIGNATURE_PREFIX = "# ";
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    static final String FIND_DESCRIPTOR = "MATCH (n) WHERE id(n) = $id OPTIONAL MATCH (scanCache:ScanCache) RETURN n, n.fileName AS fileName, scanCache.token AS token";
+
+    static final String WRITE_TOKEN = "MERGE (scanCache:ScanCache) SET scanCache.token = $token";
+
+    private final File file;
+
+    private final String signature;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, Entry> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The token of the graph including the pending entries.
+     */
+    private volatile String token;
+
+    /**
+     * The token of the graph for the committed entries.
+     */
+    private String committedToken;
+
+    /**
+     * Constructor.
+     *
+     * @param directory
+     *            The directory containing the cache file.
+     * @param scannerPlugins
+     *            The configured scanner plugins.
+     */
+    ScanCache(File directory, Collection<ScannerPlugin<?, ?>> scannerPlugins) {
+        this.file = new File(directory, FILE_NAME);
+        this.signature = getSignature(scannerPlugins);
+        load();
+    }
+
+    /**
+     * Determine the fingerprint of an item.
+     *
+     * @param item
+     *            The item.
+     * @return The fingerprint or <code>null</code> if the item does not support
+     *         fingerprints.
+     * @throws IOException
+     *             If the content of the item cannot be read.
+     */
+    static String getFingerprint(Object item) throws IOException {
+        if (item instanceof FingerprintedItem) {
+            return ((FingerprintedItem) item).getFingerprint();
+        } else if (item instanceof File && ((File) item).isFile()) {
+            MessageDigest digest = newDigest();
+            byte[] buffer = new byte[8192];
+            try (InputStream stream = new FileInputStream((File) item)) {
+                int length;
+                while ((length = stream.read(buffer)) >= 0) {
+                    digest.update(buffer, 0, length);
+                }
+            }
+            return toHex(digest.digest());
+        }
+        return null;
+    }
+
+    /**
+     * Return the descriptor which has been created by a plugin for an unchanged
+     * item.
+     *
+     * @param scannerPlugin
+     *            The plugin.
+     * @param path
+     *            The path of the item.
+     * @param scope
+     *            The scope.
+     * @param fingerprint
+     *            The current fingerprint of the item.
+     * @param store
+     *            The store.
+     * @param <D>
+     *            The descriptor type.
+     * @return The descriptor or <code>null</code> if the item has changed or the
+     *         descriptor does not exist anymore.
+     */
+    <D extends Descriptor> D get(ScannerPlugin<?, D> scannerPlugin, String path, Scope scope, String fingerprint, Store store) {
+        String key = getKey(scannerPlugin, path, scope);
+        Entry entry = pending.get(key);
+        if (entry == null) {
+            entry = entries.get(key);
+        }
+        if (entry == null || !entry.fingerprint.equals(fingerprint)) {
+            return null;
+        }
+        String expectedToken = token;
+        try (Query.Result<Query.Result.CompositeRowObject> result = store.executeQuery(FIND_DESCRIPTOR, singletonMap("id", entry.descriptorId))) {
+            Iterator<Query.Result.CompositeRowObject> iterator = result.iterator();
+            if (iterator.hasNext()) {
+                Query.Result.CompositeRowObject row = iterator.next();
+                if (!Objects.equals(expectedToken, row.get("token", String.class))) {
+                    invalidate(expectedToken);
+                    return null;
+                }
+                Descriptor descriptor = row.get("n", Descriptor.class);
+                String fileName = row.get("fileName", String.class);
+                // Ids of deleted nodes may be re-used, therefore verify the type and the file name
+                if (scannerPlugin.getDescriptorType().isInstance(descriptor) && (fileName == null || fileName.equals(path))) {
+                    return scannerPlugin.getDescriptorType().cast(descriptor);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Record the descriptor created by a plugin for an item.
+     *
+     * @param scannerPlugin
+     *            The plugin.
+     * @param path
+     *            The path of the item.
+     * @param scope
+     *            The scope.
+     * @param fingerprint
+     *            The fingerprint of the item.
+     * @param descriptor
+     *            The descriptor.
+     * @param store
+     *            The store, the first pending entry writes a new token to the
+     *            current transaction.
+     */
+    synchronized void put(ScannerPlugin<?, ?> scannerPlugin, String path, Scope scope, String fingerprint, Descriptor descriptor, Store store) {
+        Object id = descriptor.getId();
+        if (id instanceof Number) {
+            if (pending.isEmpty()) {
+                String newToken = UUID.randomUUID().toString();
+                store.executeQuery(WRITE_TOKEN, singletonMap("token", newToken)).close();
+                token = newToken;
+            }
+            pending.put(getKey(scannerPlugin, path, scope), new Entry(fingerprint, ((Number) id).longValue()));
+        }
+    }
+
+    /**
+     * Take over the pending entries after the scan has been committed and write
+     * the cache file.
+     */
+    synchronized void commit() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        entries.putAll(pending);
+        pending.clear();
+        committedToken = token;
+        save();
+    }
+
+    /**
+     * Discard the pending entries after the scan has been rolled back.
+     */
+    synchronized void rollback() {
+        pending.clear();
+        token = committedToken;
+    }
+
+    /**
+     * Discard all entries as the graph does not match the token they have been
+     * recorded for.
+     *
+     * @param expectedToken
+     *            The expected token.
+     */
+    private synchronized void invalidate(String expectedToken) {
+        if (Objects.equals(expectedToken, token)) {
+            LOGGER.info("Store has changed since the last scan, discarding scan cache '{}'.", file.getAbsolutePath());
+            entries.clear();
+            pending.clear();
+            token = null;
+            committedToken = null;
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            String[] headerValues = header != null ? header.split("\t", 2) : new String[0];
+            if (headerValues.length != 2 || !headerValues[0].equals(SIGNATURE_PREFIX + signature)) {
+                LOGGER.info("Scanner plugins have changed, discarding scan cache '{}'.", file.getAbsolutePath());
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split("\t", 3);
+                if (values.length == 3) {
+                    entries.put(values[2], new Entry(values[0], Long.parseLong(values[1])));
+                }
+            }
+            token = headerValues[1];
+            committedToken = token;
+            LOGGER.debug("Loaded {} entries from scan cache '{}'.", entries.size(), file.getAbsolutePath());
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.warn("Cannot read scan cache '" + file.getAbsolutePath() + "', discarding it.", e);
+            entries.clear();
+            token = null;
+            committedToken = null;
+        }
+    }
+
+    private void save() {
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                writer.write(SIGNATURE_PREFIX + signature + "\t" + committedToken);
+                writer.newLine();
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    writer.write(entry.getValue().fingerprint + "\t" + entry.getValue().descriptorId + "\t" + entry.getKey());
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot write scan cache '" + file.getAbsolutePath() + "'.", e);
+        }
+    }
+
+    private String getKey(ScannerPlugin<?, ?> scannerPlugin, String path, Scope scope) {
+        String scopeName = scope != null ? scope.getPrefix() + ":" + scope.getName() : "";
+        return scannerPlugin.getName() + "\t" + scopeName + "\t" + path;
+    }
+
+    /**
+     * Determine the signature of the scanner plugins from their names, classes
+     * and versions.
+     */
+    private static String getSignature(Collection<ScannerPlugin<?, ?>> scannerPlugins) {
+        SortedSet<String> plugins = new TreeSet<>();
+        for (ScannerPlugin<?, ?> scannerPlugin : scannerPlugins) {
+            Class<?> pluginClass = scannerPlugin.getClass();
+            Package pluginPackage = pluginClass.getPackage();
+            String version = pluginPackage != null ? pluginPackage.getImplementationVersion() : null;
+            plugins.add(scannerPlugin.getName() + "=" + pluginClass.getName() + ":" + (version != null ? version : ""));
+        }
+        MessageDigest digest = newDigest();
+        for (String plugin : plugins) {
+            digest.update(plugin.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Digest algorithm " + DIGEST_ALGORITHM + " is not available.", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * The fingerprint of an item and the id of the descriptor created for it.
+     */
+    private static class Entry {
+
+        private final String fingerprint;
+
+        private final long descriptorId;
+
+        private Entry(String fingerprint, long descriptorId) {
+            this.fingerprint = fingerprint;
+            this.descriptorId = descriptorId;
+        }
+    }
+}
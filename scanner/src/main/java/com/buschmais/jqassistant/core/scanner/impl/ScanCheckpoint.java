@@ -0,0 +1,206 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.util.*;
+
+import com.buschmais.jqassistant.core.scanner.api.Scope;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreListener;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.api.Query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Records the progress of a scan in the store.
+ *
+ * Completed top level items are stored as `ScanCheckpointItem` nodes. The ids
+ * of the nodes created for the item currently being scanned are recorded by a
+ * `ScanCheckpointBatch` node before each commit of the store (including auto
+ * commits), i.e. the checkpoint is always consistent with the committed data.
+ * The batches are removed if the item is completed. If a scan is resumed the
+ * nodes of the remaining batches are deleted and the completed items are
+ * skipped.
+ */
+class ScanCheckpoint implements StoreListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScanCheckpoint.class);
+
+    private static final String APPEND_PENDING = "CREATE (:ScanCheckpointBatch{ids:$ids})";
+
+    private static final String COMPLETE = "UNWIND $keys AS key CREATE (:ScanCheckpointItem{key:key})";
+
+    private static final String DELETE_PENDING = "MATCH (batch:ScanCheckpointBatch) UNWIND batch.ids AS id MATCH (n) WHERE id(n) = id DETACH DELETE n RETURN count(n) AS nodes";
+
+    private static final String CLEAR_PENDING = "MATCH (batch:ScanCheckpointBatch) DELETE batch";
+
+    private static final String COMPLETED_ITEMS = "MATCH (item:ScanCheckpointItem) RETURN item.key AS key";
+
+    private static final String DELETE = "MATCH (n) WHERE n:ScanCheckpointBatch OR n:ScanCheckpointItem DETACH DELETE n";
+
+    private final Store store;
+
+    private final Set<String> completedItems = new HashSet<>();
+
+    private long[] createdNodeIds = new long[64];
+
+    private int createdNodeCount = 0;
+
+    private boolean inProgress = false;
+
+    /**
+     * Constructor.
+     *
+     * The checkpoint must be registered as {@link StoreListener} while items are
+     * scanned.
+     *
+     * @param store
+     *            The store.
+     * @param resume
+     *            If <code>true</code> the data of a partially scanned item is
+     *            removed and the completed items are loaded, otherwise existing
+     *            checkpoints are deleted.
+     */
+    ScanCheckpoint(Store store, boolean resume) {
+        this.store = store;
+        inTransaction(store, () -> {
+            if (resume) {
+                deletePending(store);
+                try (Query.Result<Query.Result.CompositeRowObject> result = store.executeQuery(COMPLETED_ITEMS)) {
+                    for (Query.Result.CompositeRowObject row : result) {
+                        completedItems.add(row.get("key", String.class));
+                    }
+                }
+                LOGGER.info("Resuming scan, skipping {} completed items.", completedItems.size());
+            } else {
+                execute(store, DELETE, emptyMap());
+            }
+        });
+    }
+
+    /**
+     * Return the key of a top level item.
+     *
+     * @param path
+     *            The path.
+     * @param scope
+     *            The scope.
+     * @return The key.
+     */
+    static String getKey(String path, Scope scope) {
+        return scope != null ? scope.getPrefix() + ":" + scope.getName() + "::" + path : path;
+    }
+
+    /**
+     * Determine if an item has been completed by a previous scan.
+     *
+     * @param key
+     *            The key of the item.
+     * @return <code>true</code> if the item has been completed.
+     */
+    synchronized boolean isCompleted(String key) {
+        return completedItems.contains(key);
+    }
+
+    /**
+     * Start tracking the nodes created for top level items.
+     */
+    synchronized void begin() {
+        inProgress = true;
+        createdNodeCount = 0;
+    }
+
+    /**
+     * Record items as completed within the current transaction.
+     *
+     * @param transactionStore
+     *            The store executing the current transaction.
+     * @param keys
+     *            The keys of the items.
+     */
+    void complete(Store transactionStore, Collection<String> keys) {
+        // The store may be a StoreWriter notifying this listener from its thread, so don't hold the lock
+        execute(transactionStore, CLEAR_PENDING, emptyMap());
+        execute(transactionStore, COMPLETE, singletonMap("keys", new ArrayList<>(keys)));
+        synchronized (this) {
+            completedItems.addAll(keys);
+            inProgress = false;
+            createdNodeCount = 0;
+        }
+    }
+
+    /**
+     * Remove the nodes which have already been committed for the items in
+     * progress, the current transaction must have been rolled back.
+     *
+     * @param transactionStore
+     *            The store executing the transactions.
+     */
+    void rollback(Store transactionStore) {
+        synchronized (this) {
+            inProgress = false;
+            createdNodeCount = 0;
+        }
+        inTransaction(transactionStore, () -> deletePending(transactionStore));
+    }
+
+    @Override
+    public synchronized void created(Descriptor descriptor) {
+        Object id = descriptor.getId();
+        if (inProgress && id instanceof Number) {
+            if (createdNodeCount == createdNodeIds.length) {
+                createdNodeIds = Arrays.copyOf(createdNodeIds, createdNodeIds.length * 2);
+            }
+            createdNodeIds[createdNodeCount++] = ((Number) id).longValue();
+        }
+    }
+
+    @Override
+    public synchronized void beforeCommit() {
+        if (createdNodeCount > 0) {
+            List<Long> ids = new ArrayList<>(createdNodeCount);
+            for (int i = 0; i < createdNodeCount; i++) {
+                ids.add(createdNodeIds[i]);
+            }
+            // The listener is invoked by the thread owning the transaction
+            execute(store, APPEND_PENDING, singletonMap("ids", ids));
+            createdNodeCount = 0;
+        }
+    }
+
+    @Override
+    public synchronized void afterRollback() {
+        createdNodeCount = 0;
+    }
+
+    private void deletePending(Store transactionStore) {
+        try (Query.Result<Query.Result.CompositeRowObject> result = transactionStore.executeQuery(DELETE_PENDING)) {
+            Iterator<Query.Result.CompositeRowObject> iterator = result.iterator();
+            Long nodes = iterator.hasNext() ? iterator.next().get("nodes", Long.class) : null;
+            if (nodes != null && nodes > 0) {
+                LOGGER.info("Removed {} nodes of partially scanned items.", nodes);
+            }
+        }
+        execute(transactionStore, CLEAR_PENDING, emptyMap());
+    }
+
+    private void execute(Store transactionStore, String statement, Map<String, Object> parameters) {
+        try (Query.Result<Query.Result.CompositeRowObject> result = transactionStore.executeQuery(statement, parameters)) {
+            result.iterator().hasNext();
+        }
+    }
+
+    private void inTransaction(Store transactionStore, Runnable operation) {
+        boolean activeTransaction = transactionStore.hasActiveTransaction();
+        if (!activeTransaction) {
+            transactionStore.beginTransaction();
+        }
+        operation.run();
+        if (!activeTransaction) {
+            transactionStore.commitTransaction();
+        }
+    }
+}
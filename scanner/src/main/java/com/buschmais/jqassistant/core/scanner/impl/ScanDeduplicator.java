@@ -0,0 +1,130 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.buschmais.jqassistant.core.scanner.api.Scope;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+
+/**
+ * Detects items with identical content, e.g. archives which are contained
+ * multiple times in a build.
+ *
+ * Items are identified by their fingerprint (see
+ * {@link ScanCache#getFingerprint(Object)}), their type, scope and file
+ * extension as these determine the plugins which are selected for scanning. A
+ * duplicate is not scanned again, instead a separate descriptor of the same
+ * type is created for each occurrence and related to the descriptor of the
+ * first occurrence which holds the content (`DUPLICATE_OF`). So the requesting
+ * plugin can set path related properties (e.g. the file name) on the returned
+ * descriptor without affecting the first occurrence. Entries are pending until
+ * the first occurrence has been committed to the store.
+ */
+class ScanDeduplicator {
+
+    static final String DUPLICATE_OF = "MATCH (duplicate), (original) WHERE id(duplicate) = $duplicate AND id(original) = $original CREATE (duplicate)-[:DUPLICATE_OF]->(original)";
+
+    private final Map<String, Original> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, Original> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Determine the key identifying items with the same content.
+     *
+     * @param item
+     *            The item.
+     * @param path
+     *            The path of the item.
+     * @param scope
+     *            The scope.
+     * @param fingerprint
+     *            The fingerprint of the item.
+     * @return The key.
+     */
+    static String getKey(Object item, String path, Scope scope, String fingerprint) {
+        String scopeName = scope != null ? scope.getPrefix() + ":" + scope.getName() : "";
+        int separator = path != null ? Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) : -1;
+        int extension = path != null ? path.lastIndexOf('.') : -1;
+        String extensionName = extension > separator ? path.substring(extension).toLowerCase() : "";
+        return item.getClass().getName() + "\t" + scopeName + "\t" + extensionName + "\t" + fingerprint;
+    }
+
+    /**
+     * Create a descriptor for a duplicate of a previously scanned item and
+     * relate it to the descriptor of the first occurrence.
+     *
+     * @param key
+     *            The key.
+     * @param store
+     *            The store.
+     * @param <D>
+     *            The descriptor type.
+     * @return The descriptor of the duplicate or <code>null</code> if no item
+     *         with the same key has been scanned.
+     */
+    <D extends Descriptor> D createDuplicate(String key, Store store) {
+        Original original = pending.get(key);
+        if (original == null) {
+            original = entries.get(key);
+        }
+        if (original == null) {
+            return null;
+        }
+        D duplicate = (D) store.create(original.type);
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("duplicate", duplicate.getId());
+        parameters.put("original", original.id);
+        store.executeQuery(DUPLICATE_OF, parameters).close();
+        return duplicate;
+    }
+
+    /**
+     * Record the descriptor of the first occurrence of an item.
+     *
+     * @param key
+     *            The key.
+     * @param type
+     *            The type of the descriptor, i.e. the descriptor type of the
+     *            last plugin which scanned the item.
+     * @param descriptor
+     *            The descriptor.
+     */
+    void put(String key, Class<? extends Descriptor> type, Descriptor descriptor) {
+        Object id = descriptor.getId();
+        if (type != null && id instanceof Number && !entries.containsKey(key)) {
+            pending.putIfAbsent(key, new Original(type, ((Number) id).longValue()));
+        }
+    }
+
+    /**
+     * Take over the pending entries after the scan has been committed.
+     */
+    void commit() {
+        entries.putAll(pending);
+        pending.clear();
+    }
+
+    /**
+     * Discard the pending entries after the scan has been rolled back.
+     */
+    void rollback() {
+        pending.clear();
+    }
+
+    /**
+     * The type and id of the descriptor of a first occurrence.
+     */
+    private static final class Original {
+
+        private final Class<? extends Descriptor> type;
+
+        private final long id;
+
+        private Original(Class<? extends Descriptor> type, long id) {
+            this.type = type;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.buschmais.jqassistant.core.scanner.api.ScanStatistics;
+import com.buschmais.jqassistant.core.scanner.api.ScannerPlugin;
+import com.buschmais.jqassistant.core.scanner.api.ScannerPluginStatistics;
+import com.buschmais.jqassistant.core.store.api.StoreListener;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Records the {@link ScanStatistics} of a scanner and its workers.
+ *
+ * The collector is registered as {@link StoreListener} for counting created
+ * descriptors, they are attributed to the plugin currently scanning on the
+ * notifying thread. A progress message is logged from the scanning threads if
+ * the progress interval has elapsed, i.e. no additional thread is required.
+ */
+class ScanStatisticsCollector implements StoreListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScanStatisticsCollector.class);
+
+    /**
+     * The number of plugins listed in the progress message.
+     */
+    private static final int SLOWEST_PLUGINS = 3;
+
+    private final long start = System.nanoTime();
+
+    private final long progressInterval;
+
+    private final AtomicLong nextProgress;
+
+    private final Map<ScannerPlugin<?, ?>, PluginCounters> pluginCounters = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<ArrayDeque<PluginCounters>> running = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final LongAdder items = new LongAdder();
+
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    private final LongAdder descriptorsCreated = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param progressInterval
+     *            The interval in seconds for logging the progress, `0` disables
+     *            logging.
+     */
+    ScanStatisticsCollector(int progressInterval) {
+        this.progressInterval = SECONDS.toNanos(progressInterval);
+        this.nextProgress = new AtomicLong(start + this.progressInterval);
+    }
+
+    /**
+     * Record an item which is about to be dispatched to the plugins.
+     *
+     * @param depth
+     *            The nesting depth of the item.
+     */
+    void item(int depth) {
+        items.increment();
+        maxDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    /**
+     * Record the invocation of {@link ScannerPlugin#accepts}.
+     *
+     * @param plugin
+     *            The plugin.
+     * @param time
+     *            The time spent.
+     */
+    void accepted(ScannerPlugin<?, ?> plugin, long time) {
+        getCounters(plugin).accepts.record(time);
+    }
+
+    /**
+     * Marks the start of {@link ScannerPlugin#scan} on the current thread.
+     *
+     * @param plugin
+     *            The plugin.
+     * @param depth
+     *            The nesting depth of the item.
+     * @return The {@link PluginCounters} to be passed to
+     *         {@link #scanned(PluginCounters, long)}.
+     */
+    PluginCounters beginScan(ScannerPlugin<?, ?> plugin, int depth) {
+        PluginCounters counters = getCounters(plugin);
+        counters.maxDepth.accumulateAndGet(depth, Math::max);
+        running.get().push(counters);
+        return counters;
+    }
+
+    /**
+     * Marks the end of {@link ScannerPlugin#scan} on the current thread.
+     *
+     * @param counters
+     *            The {@link PluginCounters} returned by
+     *            {@link #beginScan(ScannerPlugin, int)}.
+     * @param time
+     *            The time spent.
+     */
+    void scanned(PluginCounters counters, long time) {
+        running.get().pop();
+        counters.scans.record(time);
+        if (progressInterval > 0) {
+            long now = System.nanoTime();
+            long next = nextProgress.get();
+            if (now - next >= 0 && nextProgress.compareAndSet(next, now + progressInterval)) {
+                logProgress();
+            }
+        }
+    }
+
+    @Override
+    public void created(Descriptor descriptor) {
+        descriptorsCreated.increment();
+        // Notifications from the writer thread of a parallel scan cannot be attributed
+        PluginCounters counters = running.get().peek();
+        if (counters != null) {
+            counters.descriptorsCreated.increment();
+        }
+    }
+
+    /**
+     * Return the statistics recorded so far.
+     *
+     * @return The {@link ScanStatistics}.
+     */
+    ScanStatistics getStatistics() {
+        List<ScannerPluginStatistics> pluginStatistics = new ArrayList<>(pluginCounters.size());
+        for (PluginCounters counters : pluginCounters.values()) {
+            pluginStatistics.add(counters.getStatistics());
+        }
+        pluginStatistics.sort(Comparator.comparingLong((ScannerPluginStatistics statistics) -> statistics.getScans().getTotalTime()).reversed());
+        return new ScanStatistics(System.nanoTime() - start, items.sum(), maxDepth.get(), descriptorsCreated.sum(), pluginStatistics);
+    }
+
+    private void logProgress() {
+        ScanStatistics statistics = getStatistics();
+        StringBuilder slowestPlugins = new StringBuilder();
+        List<ScannerPluginStatistics> pluginStatistics = statistics.getPluginStatistics();
+        for (int i = 0; i < Math.min(SLOWEST_PLUGINS, pluginStatistics.size()); i++) {
+            ScannerPluginStatistics plugin = pluginStatistics.get(i);
+            slowestPlugins.append(i > 0 ? ", " : "").append(plugin.getName()).append(" (").append(NANOSECONDS.toMillis(plugin.getScans().getTotalTime()))
+                    .append(" ms)");
+        }
+        LOGGER.info(String.format("Scanned %d items in %d s (%.1f items/s, max depth: %d, descriptors: %d), slowest plugins: %s", statistics.getItems(),
+                NANOSECONDS.toSeconds(statistics.getElapsedTime()), statistics.getItemsPerSecond(), statistics.getMaxDepth(),
+                statistics.getDescriptorsCreated(), slowestPlugins));
+    }
+
+    private PluginCounters getCounters(ScannerPlugin<?, ?> plugin) {
+        PluginCounters counters = pluginCounters.get(plugin);
+        return counters != null ? counters : pluginCounters.computeIfAbsent(plugin, key -> new PluginCounters(key.getName()));
+    }
+
+    /**
+     * The counters of a plugin, updated concurrently by the workers of parallel
+     * scans.
+     */
+    static final class PluginCounters {
+
+        private final String name;
+
+        private final LatencyHistogram accepts = new LatencyHistogram();
+
+        private final LatencyHistogram scans = new LatencyHistogram();
+
+        private final AtomicInteger maxDepth = new AtomicInteger();
+
+        private final LongAdder descriptorsCreated = new LongAdder();
+
+        private PluginCounters(String name) {
+            this.name = name;
+        }
+
+        private ScannerPluginStatistics getStatistics() {
+            return new ScannerPluginStatistics(name, accepts.getLatency(), scans.getLatency(), maxDepth.get(), descriptorsCreated.sum());
+        }
+    }
+
+    /**
+     * Histogram using buckets with power of two boundaries, see
+     * {@link ScannerPluginStatistics.Latency}.
+     */
+    static final class LatencyHistogram {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+
+        private final LongAdder totalTime = new LongAdder();
+
+        private final AtomicLong maxTime = new AtomicLong();
+
+        void record(long time) {
+            long value = Math.max(time, 0);
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+            totalTime.add(value);
+            if (value > maxTime.get()) {
+                maxTime.accumulateAndGet(value, Math::max);
+            }
+        }
+
+        ScannerPluginStatistics.Latency getLatency() {
+            long[] counts = new long[buckets.length()];
+            long count = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+                count += counts[i];
+            }
+            return new ScannerPluginStatistics.Latency(count, totalTime.sum(), maxTime.get(), counts);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Structured execution of scan tasks.
+ *
+ * All tasks forked within a scope are joined before the scope is left, i.e.
+ * before the scanner returns to the plugin which requested the scan of the
+ * items. The first failing task cancels all other tasks. The number of tasks
+ * running concurrently is limited by the parallelism of the scope.
+ *
+ * The tasks are either executed by a pool of platform threads or, if requested
+ * and supported by the JVM (Java 21 or later), each of them by its own virtual
+ * thread.
+ *
+ * @param <T>
+ *            The result type of the tasks.
+ */
+class ScanTaskScope<T> implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScanTaskScope.class);
+
+    private static final String THREAD_NAME_PREFIX = "jqassistant-scanner-";
+
+    private final ExecutorService executorService;
+
+    private final CompletionService<T> completionService;
+
+    private final Semaphore permits;
+
+    private final List<Future<T>> futures = new ArrayList<>();
+
+    private volatile boolean failed = false;
+
+    /**
+     * Constructor.
+     *
+     * @param parallelism
+     *            The maximum number of tasks running concurrently.
+     * @param virtualThreads
+     *            If <code>true</code> virtual threads are used if available.
+     */
+    ScanTaskScope(int parallelism, boolean virtualThreads) {
+        ExecutorService virtualThreadExecutor = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (virtualThreadExecutor != null) {
+            this.executorService = virtualThreadExecutor;
+            this.permits = new Semaphore(parallelism);
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executorService = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.permits = null;
+        }
+        this.completionService = new ExecutorCompletionService<>(executorService);
+    }
+
+    /**
+     * Fork a task.
+     *
+     * @param task
+     *            The task.
+     * @return The {@link Future} providing the result of the task after
+     *         {@link #join()}.
+     */
+    Future<T> fork(Callable<T> task) {
+        Future<T> future = completionService.submit(() -> {
+            if (permits != null) {
+                permits.acquire();
+            }
+            try {
+                return task.call();
+            } catch (Exception | Error e) {
+                failed = true;
+                throw e;
+            } finally {
+                if (permits != null) {
+                    permits.release();
+                }
+            }
+        });
+        futures.add(future);
+        return future;
+    }
+
+    /**
+     * Determine if all forked tasks have been completed or one of them failed,
+     * i.e. {@link #join()} returns without waiting.
+     *
+     * @return <code>true</code> if the tasks have been completed.
+     */
+    boolean isCompleted() {
+        if (failed) {
+            return true;
+        }
+        for (Future<T> future : futures) {
+            if (!future.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Wait until all forked tasks have been completed.
+     *
+     * @throws ExecutionException
+     *             If a task failed, all other tasks are cancelled.
+     * @throws InterruptedException
+     *             If the current thread has been interrupted, all tasks are
+     *             cancelled.
+     */
+    void join() throws ExecutionException, InterruptedException {
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                completionService.take().get();
+            }
+        } catch (ExecutionException | InterruptedException e) {
+            cancel();
+            throw e;
+        }
+    }
+
+    /**
+     * Cancels all tasks which are still running and shuts down the threads.
+     */
+    @Override
+    public void close() {
+        cancel();
+        executorService.shutdownNow();
+    }
+
+    private void cancel() {
+        for (Future<T> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Determine if virtual threads are supported by the JVM.
+     *
+     * @return <code>true</code> if virtual threads are supported.
+     */
+    static boolean isVirtualThreadSupported() {
+        return VirtualThreads.NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor starting a virtual thread for each task.
+     *
+     * @return The {@link ExecutorService} or <code>null</code> if virtual threads
+     *         are not supported.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (VirtualThreads.NEW_THREAD_PER_TASK_EXECUTOR == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) VirtualThreads.NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, VirtualThreads.THREAD_FACTORY);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warn("Cannot create virtual thread executor, using platform threads.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Resolves the virtual thread API once using reflection, as the scanner is
+     * compiled for Java 8.
+     */
+    private static final class VirtualThreads {
+
+        private static ThreadFactory THREAD_FACTORY;
+
+        private static Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+        static {
+            try {
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX + "virtual-", 1L);
+                THREAD_FACTORY = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+                NEW_THREAD_PER_TASK_EXECUTOR = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOGGER.warn("Virtual threads are not supported by this JVM (Java 21 or later is required), using platform threads.");
+                THREAD_FACTORY = null;
+                NEW_THREAD_PER_TASK_EXECUTOR = null;
+            }
+        }
+    }
+}
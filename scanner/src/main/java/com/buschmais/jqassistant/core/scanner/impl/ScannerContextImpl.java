@@ -1,30 +1,63 @@
 package com.buschmais.jqassistant.core.scanner.impl;
 
 import java.io.File;
-import java.util.Deque;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Map;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
 import com.buschmais.jqassistant.core.store.api.Store;
 import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.jqassistant.core.store.impl.StoreWriter;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Implementation of the scanner context.
+ *
+ * The values are held in frames, i.e. one {@link ArrayDeque} per key. The keys
+ * are mapped to the index of their frame using a {@link ClassValue}, so pushing
+ * and popping values does not allocate. As {@link ArrayDeque}s do not permit
+ * `null` a sentinel is stored instead.
+ *
+ * A context used by a worker thread of a parallel scan is created from a
+ * read-only {@link Snapshot} of the parent context, values not pushed by the
+ * worker itself are resolved from it. {@link Descriptor}s of the parent context
+ * are wrapped by the {@link StoreWriter} of the workers.
  */
 @Slf4j
 public class ScannerContextImpl implements ScannerContext {
 
+    /**
+     * The frame index used for the `null` key.
+     */
+    private static final int NULL_KEY = 0;
+
+    private static final AtomicInteger FRAME_COUNT = new AtomicInteger(NULL_KEY + 1);
+
+    private static final ClassValue<Integer> FRAME_INDEX = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return FRAME_COUNT.getAndIncrement();
+        }
+    };
+
+    /**
+     * Represents a `null` value in a frame.
+     */
+    private static final Object NULL = new Object();
+
     private final Store store;
 
     private final File dataDirectory;
 
+    private final ScannerContext parent;
+
+    private final Object[] parentValues;
+
     private Descriptor current;
 
-    private final Map<Class<?>, Deque<?>> contextValuesPerKey = new HashMap<>();
+    private ArrayDeque<Object>[] frames = new ArrayDeque[16];
 
     /**
      * Constructor.
@@ -37,16 +70,62 @@ public class ScannerContextImpl implements ScannerContext {
     public ScannerContextImpl(Store store, File outputDirectory) {
         this.store = store;
         this.dataDirectory = new File(outputDirectory, DATA_DIRECTORY);
+        this.parent = null;
+        this.parentValues = new Object[0];
+    }
+
+    /**
+     * Constructor for a context used by a worker thread of a parallel scan.
+     *
+     * The values of the parent are available read-only, values pushed by the
+     * worker are not visible to the parent. Data directories are resolved by the
+     * parent.
+     *
+     * @param store
+     *            The (thread-safe) store to be used by the worker.
+     * @param snapshot
+     *            The {@link Snapshot} of the parent context.
+     */
+    ScannerContextImpl(Store store, Snapshot snapshot) {
+        this.store = store;
+        this.dataDirectory = null;
+        this.parent = snapshot.context;
+        this.parentValues = snapshot.values;
+    }
+
+    /**
+     * Creates a read-only snapshot of the current values of a context, i.e. the
+     * top value of each frame.
+     *
+     * The snapshot must be created by the thread owning the context.
+     *
+     * @param context
+     *            The context.
+     * @return The {@link Snapshot}.
+     */
+    static Snapshot snapshot(ScannerContext context) {
+        if (!(context instanceof ScannerContextImpl)) {
+            return new Snapshot(context, new Object[0]);
+        }
+        ScannerContextImpl contextImpl = (ScannerContextImpl) context;
+        Object[] values = Arrays.copyOf(contextImpl.parentValues, Math.max(contextImpl.parentValues.length, contextImpl.frames.length));
+        for (int i = 0; i < contextImpl.frames.length; i++) {
+            ArrayDeque<Object> frame = contextImpl.frames[i];
+            if (frame != null && !frame.isEmpty()) {
+                values[i] = frame.peek();
+            }
+        }
+        return new Snapshot(context, values);
     }
 
     @Override
     public <T> void push(Class<T> key, T value) {
-        getValues(key).push(value);
+        getFrame(key).push(value != null ? value : NULL);
     }
 
     @Override
     public <T> T peek(Class<T> key) {
-        T value = getValues(key).peek();
+        T value = getValue(key);
         if (value == null) {
             throw new IllegalStateException("Cannot find a value for '" + key.getName() + "' in the context");
         }
@@ -55,13 +134,13 @@ public class ScannerContextImpl implements ScannerContext {
 
     @Override
     public <T> T peekOrDefault(Class<T> key, T defaultValue) {
-        T value = getValues(key).peek();
+        T value = getValue(key);
         return value != null ? value : defaultValue;
     }
 
     @Override
     public <T> T pop(Class<T> key) {
-        return getValues(key).pop();
+        return unmask(getFrame(key).pop());
     }
 
     @Override
@@ -75,21 +154,46 @@ public class ScannerContextImpl implements ScannerContext {
     }
 
     /**
-     * Determine the stack for the given key.
+     * Determine the current value for the given key, falling back to the values
+     * of the parent.
+     */
+    private <T> T getValue(Class<T> key) {
+        int index = getIndex(key);
+        ArrayDeque<Object> frame = index < frames.length ? frames[index] : null;
+        if (frame != null && !frame.isEmpty()) {
+            return unmask(frame.peek());
+        }
+        return index < parentValues.length ? unmask(parentValues[index]) : null;
+    }
+
+    /**
+     * Determine the frame for the given key.
      *
      * @param key
      *            The key.
      * @param <T>
-     *            The key key.
-     * @return The stack.
+     *            The key type.
+     * @return The frame.
      */
-    private <T> Deque<T> getValues(Class<T> key) {
-        Deque<T> values = (Deque<T>) contextValuesPerKey.get(key);
-        if (values == null) {
-            values = new LinkedList<>();
-            contextValuesPerKey.put(key, values);
+    private <T> ArrayDeque<Object> getFrame(Class<T> key) {
+        int index = getIndex(key);
+        if (index >= frames.length) {
+            frames = Arrays.copyOf(frames, Math.max(index + 1, frames.length * 2));
+        }
+        ArrayDeque<Object> frame = frames[index];
+        if (frame == null) {
+            frame = new ArrayDeque<>();
+            frames[index] = frame;
         }
-        return values;
+        return frame;
+    }
+
+    private int getIndex(Class<?> key) {
+        return key != null ? FRAME_INDEX.get(key) : NULL_KEY;
+    }
+
+    private <T> T unmask(Object value) {
+        return value == NULL ? null : (T) value;
     }
 
     @Override
@@ -99,10 +203,44 @@ public class ScannerContextImpl implements ScannerContext {
 
     @Override
     public File getDataDirectory(String path) {
+        if (parent != null) {
+            return parent.getDataDirectory(path);
+        }
         File directory = new File(dataDirectory, path);
         if (directory.mkdirs()) {
             log.debug("Created data directory '{}'.", directory.getAbsolutePath());
         }
         return directory;
     }
+
+    /**
+     * A read-only snapshot of the values of a context.
+     */
+    static final class Snapshot {
+
+        private final ScannerContext context;
+
+        private final Object[] values;
+
+        private Snapshot(ScannerContext context, Object[] values) {
+            this.context = context;
+            this.values = values;
+        }
+
+        /**
+         * Wraps the {@link Descriptor} values using a {@link StoreWriter}, so they
+         * can be used by the worker threads.
+         *
+         * @param storeWriter
+         *            The {@link StoreWriter} used by the workers.
+         * @return The {@link Snapshot} containing the wrapped values.
+         */
+        Snapshot wrap(StoreWriter storeWriter) {
+            Object[] wrappedValues = new Object[values.length];
+            for (int i = 0; i < values.length; i++) {
+                wrappedValues[i] = values[i] instanceof Descriptor ? storeWriter.wrap(values[i]) : values[i];
+            }
+            return new Snapshot(context, wrappedValues);
+        }
+    }
 }
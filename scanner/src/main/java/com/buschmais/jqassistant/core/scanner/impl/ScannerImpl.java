@@ -2,19 +2,22 @@ package com.buschmais.jqassistant.core.scanner.impl;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
 
 import com.buschmais.jqassistant.core.scanner.api.*;
 import com.buschmais.jqassistant.core.scanner.api.Scanner;
 import com.buschmais.jqassistant.core.scanner.spi.ScannerPluginRepository;
 import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreListener;
 import com.buschmais.jqassistant.core.store.api.model.Descriptor;
-import com.buschmais.xo.spi.reflection.DependencyResolver;
+import com.buschmais.jqassistant.core.store.impl.StoreWriter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static com.buschmais.jqassistant.core.scanner.api.ScannerPlugin.Requires;
-import static com.buschmais.xo.spi.reflection.DependencyResolver.DependencyProvider;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 
 /**
  * Implementation of the {@link Scanner}.
@@ -31,10 +34,32 @@ public class ScannerImpl implements Scanner {
 
     private final Map<String, ScannerPlugin<?, ?>> scannerPlugins;
 
-    private final Map<Class<?>, List<ScannerPlugin<?, ?>>> scannerPluginsPerType = new HashMap<>();
+    private final ScannerPluginDispatchTable dispatchTable;
 
     private final Map<Object, Set<ScannerPlugin<?, ?>>> pipelines = new IdentityHashMap<>();
 
+    private final boolean worker;
+
+    private final ScanCache scanCache;
+
+    private final ScanCheckpoint scanCheckpoint;
+
+    private final ScanDeduplicator deduplicator;
+
+    private final ScanStatisticsCollector statistics;
+
+    private final CreatedNodeTracker createdNodeTracker;
+
+    /**
+     * The listeners which are registered at the store while a top level item is
+     * scanned.
+     */
+    private final List<StoreListener> listeners;
+
+    private int depth;
+
+    private boolean batch = false;
+
     /**
      * Constructor.
      *  @param configuration
@@ -51,6 +76,56 @@ public class ScannerImpl implements Scanner {
         this.scannerContext = scannerContext;
         this.scannerPluginRepository = scannerPluginRepository;
         this.scannerPlugins = scannerPluginRepository.getScannerPlugins(scannerContext, pluginProperties);
+        this.dispatchTable = new ScannerPluginDispatchTable(scannerPlugins.values());
+        this.worker = false;
+        this.scanCache = configuration.isScanCache() ? new ScanCache(scannerContext.getDataDirectory(ScanCache.DIRECTORY), scannerPlugins.values()) : null;
+        this.scanCheckpoint = configuration.isCheckpoint() ? new ScanCheckpoint(scannerContext.getStore(), configuration.isResume()) : null;
+        this.deduplicator = configuration.isDeduplicate() ? new ScanDeduplicator() : null;
+        this.statistics = configuration.isStatistics() ? new ScanStatisticsCollector(configuration.getProgressInterval()) : null;
+        this.createdNodeTracker = configuration.isContinueOnError() ? new CreatedNodeTracker() : null;
+        this.listeners = new ArrayList<>();
+        if (createdNodeTracker != null) {
+            listeners.add(createdNodeTracker);
+        }
+        if (scanCheckpoint != null) {
+            listeners.add(scanCheckpoint);
+        }
+        if (statistics != null) {
+            listeners.add(statistics);
+        }
+        this.depth = 0;
+        this.scannerContext.push(Scope.class, null);
+    }
+
+    /**
+     * Constructor for a scanner used by a worker thread of a parallel scan.
+     *
+     * The configured plugins are shared with the parent scanner, pipelines and the
+     * context are owned by the worker.
+     *
+     * @param parent
+     *            The parent scanner.
+     * @param scannerContext
+     *            The scanner context of the worker.
+     * @param depth
+     *            The nesting depth of the items scanned by the worker.
+     */
+    private ScannerImpl(ScannerImpl parent, ScannerContext scannerContext, int depth) {
+        this.configuration = parent.configuration;
+        this.scannerContext = scannerContext;
+        this.scannerPluginRepository = parent.scannerPluginRepository;
+        this.scannerPlugins = parent.scannerPlugins;
+        this.dispatchTable = parent.dispatchTable;
+        this.worker = true;
+        this.scanCache = parent.scanCache;
+        this.scanCheckpoint = null;
+        this.deduplicator = parent.deduplicator;
+        this.statistics = parent.statistics;
+        // Nodes are created by the writer thread, so they cannot be assigned to the failed item
+        this.createdNodeTracker = null;
+        // The listeners of the parent are registered at the store writer
+        this.listeners = emptyList();
+        this.depth = depth;
         this.scannerContext.push(Scope.class, null);
     }
 
@@ -61,6 +136,16 @@ public class ScannerImpl implements Scanner {
 
     @Override
     public <I, D extends Descriptor> D scan(I item, D descriptor, String path, Scope scope) {
+        // The scan cache and checkpoints are committed for top level items
+        boolean topLevel = depth == 0 && !worker;
+        String checkpointKey = topLevel && scanCheckpoint != null ? ScanCheckpoint.getKey(path, scope) : null;
+        if (checkpointKey != null) {
+            if (scanCheckpoint.isCompleted(checkpointKey)) {
+                LOGGER.info("Skipping '{}' which has been completed by a previous scan.", path);
+                return descriptor;
+            }
+            scanCheckpoint.begin();
+        }
         // Each item may be scanned by multiple plugins, therefore track all plugins
         // that already processed that item in a pipeline
         boolean pipelineCreated;
@@ -73,33 +158,72 @@ public class ScannerImpl implements Scanner {
             pipelineCreated = false;
         }
         Store store = scannerContext.getStore();
+        boolean beginTransaction = !store.hasActiveTransaction();
+        int createdNodesMark = createdNodeTracker != null ? createdNodeTracker.mark() : 0;
+        if (topLevel) {
+            // The store is observed (e.g. created nodes are tracked) while a top level item is scanned
+            listeners.forEach(store::addListener);
+        }
+        depth++;
         try {
-            if (!store.hasActiveTransaction()) {
+            if (beginTransaction) {
                 // Begin a new transaction if no transaction is active
                 store.beginTransaction();
                 descriptor = scan(item, descriptor, path, scope, pipeline);
+                completeCheckpoint(store, checkpointKey);
                 store.commitTransaction();
             } else {
                 // Re-use an existing transaction
                 descriptor = scan(item, descriptor, path, scope, pipeline);
+                completeCheckpoint(store, checkpointKey);
+            }
+            // The entries stay pending if the transaction of the caller has been re-used
+            if (topLevel && !batch && beginTransaction) {
+                commitCaches();
             }
         } catch (UnrecoverableScannerException e) {
             // The exception is thrown by a nested scanner invocation, just pass it through
             throw e;
         } catch (RuntimeException e) {
-            // An unexpected problem occurred, try to handle it gracefully according to the setting of continueOnError
-            if (store.hasActiveTransaction()) {
+            // An unexpected problem occurred, try to handle it gracefully according to the setting of continueOnError:
+            // if the transaction contains data of other items only the nodes created for this item are removed
+            boolean isolated = !beginTransaction && createdNodeTracker != null && store.hasActiveTransaction()
+                    && createdNodeTracker.delete(store, createdNodesMark);
+            if (isolated) {
+                // Pending entries of the caches may refer to the deleted nodes
+                rollbackCaches();
+            }
+            // (the transaction of a worker is shared with all other workers and must not be rolled back)
+            if (!isolated && !worker && store.hasActiveTransaction()) {
                 store.rollbackTransaction();
+                rollbackCaches();
+            }
+            if (checkpointKey != null) {
+                // Remove the data of the item which has already been committed by auto commits
+                scanCheckpoint.rollback(store);
             }
             String message = "Unexpected problem encountered while scanning: item='" + item + "', path='" + path + "', scope='" + scope + "', pipeline='"
                     + pipeline + "'. Please report this error including the full stacktrace (continueOnError=" + configuration.isContinueOnError() + ").";
-            if (configuration.isContinueOnError()) {
+            // A worker cannot isolate the failed item, the parallel scan is repeated sequentially
+            if (configuration.isContinueOnError() && !worker) {
                 LOGGER.error(message, e);
-                LOGGER.info("Continuing scan after error. NOTE: Data might be inconsistent.");
+                if (isolated) {
+                    LOGGER.info("Continuing scan after error.");
+                } else {
+                    LOGGER.info("Continuing scan after error. NOTE: Data might be inconsistent.");
+                }
             } else {
                 throw new UnrecoverableScannerException(message, e);
             }
         } finally {
+            depth--;
+            if (topLevel) {
+                if (createdNodeTracker != null) {
+                    // The nodes of completed top level items are not required anymore
+                    createdNodeTracker.reset(createdNodesMark);
+                }
+                listeners.forEach(store::removeListener);
+            }
             if (pipelineCreated) {
                 pipelines.remove(item);
             }
@@ -107,44 +231,356 @@ public class ScannerImpl implements Scanner {
         return descriptor;
     }
 
+    /**
+     * Take over the entries of the scan cache and the deduplicator after the
+     * scanned items have been committed.
+     */
+    private void commitCaches() {
+        if (scanCache != null) {
+            scanCache.commit();
+        }
+        if (deduplicator != null) {
+            deduplicator.commit();
+        }
+    }
+
+    private void rollbackCaches() {
+        if (scanCache != null) {
+            scanCache.rollback();
+        }
+        if (deduplicator != null) {
+            deduplicator.rollback();
+        }
+    }
+
+    private void completeCheckpoint(Store store, String checkpointKey) {
+        if (checkpointKey != null) {
+            scanCheckpoint.complete(store, singletonList(checkpointKey));
+        }
+    }
+
+    @Override
+    public <I, D extends Descriptor> List<D> scanAll(List<I> items, Function<? super I, String> pathFunction, Scope scope) {
+        int parallelism = Math.min(configuration.getParallelism(), items.size());
+        if (worker || parallelism <= 1) {
+            return scanSequentially(items, pathFunction, scope);
+        }
+        // The transaction of the caller (e.g. a plugin scanning child items) must not be committed on behalf of it
+        List<D> descriptors = scannerContext.getStore().hasActiveTransaction() ? scanParallelInTransaction(items, pathFunction, scope, parallelism)
+                : scanParallel(items, pathFunction, scope, parallelism);
+        return descriptors != null ? descriptors : scanSequentially(items, pathFunction, scope);
+    }
+
+    private <I, D extends Descriptor> List<D> scanSequentially(List<I> items, Function<? super I, String> pathFunction, Scope scope) {
+        List<D> descriptors = new ArrayList<>(items.size());
+        // Commit the scan cache once for all items
+        boolean outerBatch = batch;
+        batch = true;
+        try {
+            for (I item : items) {
+                descriptors.add(scan(item, pathFunction.apply(item), scope));
+            }
+        } finally {
+            batch = outerBatch;
+        }
+        if (!outerBatch && depth == 0 && !worker && !scannerContext.getStore().hasActiveTransaction()) {
+            commitCaches();
+        }
+        return descriptors;
+    }
+
+    /**
+     * Scans the given items using worker threads (platform or virtual threads, see
+     * {@link ScanTaskScope}).
+     *
+     * Each worker uses its own {@link ScannerImpl} and {@link ScannerContext}, all
+     * store operations are executed within one transaction by a
+     * {@link StoreWriter}. All workers are joined before the method returns.
+     *
+     * If an item fails the transaction is rolled back, as the nodes created by
+     * the workers cannot be assigned to the failed item. Depending on
+     * {@link ScannerConfiguration#isContinueOnError()} the failure is either
+     * thrown or the items must be scanned sequentially.
+     *
+     * @return The descriptors or <code>null</code> if the items must be scanned
+     *         sequentially.
+     */
+    private <I, D extends Descriptor> List<D> scanParallel(List<I> items, Function<? super I, String> pathFunction, Scope scope, int parallelism) {
+        LOGGER.debug("Scanning {} items using {} threads.", items.size(), parallelism);
+        Store store = scannerContext.getStore();
+        ScanTaskScope<D> scanTaskScope = new ScanTaskScope<>(parallelism, configuration.isVirtualThreads());
+        // Checkpoints are recorded for all items of a top level batch after they have been scanned
+        boolean checkpoint = scanCheckpoint != null && depth == 0;
+        try (StoreWriter storeWriter = new StoreWriter(store)) {
+            // The workers get a read-only view of the values pushed to the context so far
+            ScannerContextImpl.Snapshot snapshot = ScannerContextImpl.snapshot(scannerContext).wrap(storeWriter);
+            int workerDepth = depth;
+            ThreadLocal<ScannerImpl> workerScanners = ThreadLocal
+                    .withInitial(() -> new ScannerImpl(this, new ScannerContextImpl(storeWriter, snapshot), workerDepth));
+            if (checkpoint) {
+                scanCheckpoint.begin();
+                storeWriter.addListener(scanCheckpoint);
+            }
+            if (statistics != null) {
+                storeWriter.addListener(statistics);
+            }
+            try {
+                storeWriter.beginTransaction();
+                List<Future<D>> futures = new ArrayList<>(items.size());
+                List<String> checkpointKeys = new ArrayList<>();
+                for (I item : items) {
+                    if (checkpoint) {
+                        String checkpointKey = ScanCheckpoint.getKey(pathFunction.apply(item), scope);
+                        if (scanCheckpoint.isCompleted(checkpointKey)) {
+                            futures.add(null);
+                            continue;
+                        }
+                        checkpointKeys.add(checkpointKey);
+                    }
+                    futures.add(scanTaskScope.fork(() -> workerScanners.get().scan(item, pathFunction.apply(item), scope)));
+                }
+                if (checkpoint && checkpointKeys.size() < items.size()) {
+                    LOGGER.info("Skipping {} items which have been completed by a previous scan.", items.size() - checkpointKeys.size());
+                }
+                List<D> descriptors = new ArrayList<>(items.size());
+                try {
+                    // Join all tasks before returning to the plugin which requested the scan
+                    scanTaskScope.join();
+                    for (Future<D> future : futures) {
+                        descriptors.add(future != null ? StoreWriter.unwrap(future.get()) : null);
+                    }
+                } catch (ExecutionException | InterruptedException e) {
+                    if (storeWriter.hasActiveTransaction()) {
+                        storeWriter.rollbackTransaction();
+                    }
+                    rollbackCaches();
+                    if (checkpoint) {
+                        scanCheckpoint.rollback(storeWriter);
+                    }
+                    if (e instanceof ExecutionException && configuration.isContinueOnError()) {
+                        LOGGER.warn("Parallel scan of {} items failed, scanning them sequentially.", items.size(), e.getCause());
+                        return null;
+                    }
+                    throw toRuntimeException(e);
+                }
+                if (checkpoint) {
+                    scanCheckpoint.complete(storeWriter, checkpointKeys);
+                }
+                storeWriter.commitTransaction();
+                commitCaches();
+                return descriptors;
+            } finally {
+                if (checkpoint) {
+                    storeWriter.removeListener(scanCheckpoint);
+                }
+                if (statistics != null) {
+                    storeWriter.removeListener(statistics);
+                }
+            }
+        } finally {
+            scanTaskScope.close();
+        }
+    }
+
+    /**
+     * Scans the given items using worker threads within the active transaction
+     * of the current thread, e.g. the child items of an item scanned by a plugin.
+     *
+     * The transaction is bound to the current thread, therefore the store
+     * operations of the workers are executed by the current thread using a
+     * {@link StoreWriter} while it waits for the workers. The transaction is
+     * never committed.
+     *
+     * If an item fails and the nodes created by the workers can be removed (see
+     * {@link ScannerConfiguration#isContinueOnError()}) the items must be scanned
+     * sequentially, otherwise the transaction is rolled back and the failure is
+     * thrown.
+     *
+     * @return The descriptors or <code>null</code> if the items must be scanned
+     *         sequentially.
+     */
+    private <I, D extends Descriptor> List<D> scanParallelInTransaction(List<I> items, Function<? super I, String> pathFunction, Scope scope,
+            int parallelism) {
+        LOGGER.debug("Scanning {} items using {} threads within the active transaction.", items.size(), parallelism);
+        Store store = scannerContext.getStore();
+        // The listeners are registered by the top level item if the items are nested
+        boolean topLevel = depth == 0;
+        boolean checkpoint = scanCheckpoint != null && topLevel;
+        int createdNodesMark = createdNodeTracker != null ? createdNodeTracker.mark() : 0;
+        if (topLevel) {
+            listeners.forEach(store::addListener);
+        }
+        if (checkpoint) {
+            scanCheckpoint.begin();
+        }
+        try (ScanTaskScope<D> scanTaskScope = new ScanTaskScope<>(parallelism, configuration.isVirtualThreads());
+                StoreWriter storeWriter = StoreWriter.forCurrentThread(store)) {
+            ScannerContextImpl.Snapshot snapshot = ScannerContextImpl.snapshot(scannerContext).wrap(storeWriter);
+            int workerDepth = depth;
+            ThreadLocal<ScannerImpl> workerScanners = ThreadLocal
+                    .withInitial(() -> new ScannerImpl(this, new ScannerContextImpl(storeWriter, snapshot), workerDepth));
+            List<Future<D>> futures = new ArrayList<>(items.size());
+            List<String> checkpointKeys = new ArrayList<>();
+            for (I item : items) {
+                if (checkpoint) {
+                    String checkpointKey = ScanCheckpoint.getKey(pathFunction.apply(item), scope);
+                    if (scanCheckpoint.isCompleted(checkpointKey)) {
+                        futures.add(null);
+                        continue;
+                    }
+                    checkpointKeys.add(checkpointKey);
+                }
+                futures.add(scanTaskScope.fork(() -> workerScanners.get().scan(item, pathFunction.apply(item), scope)));
+            }
+            List<D> descriptors = new ArrayList<>(items.size());
+            try {
+                // The current thread executes the store operations of the workers until all of them have been completed
+                storeWriter.await(scanTaskScope::isCompleted);
+                scanTaskScope.join();
+                for (Future<D> future : futures) {
+                    descriptors.add(future != null ? StoreWriter.unwrap(future.get()) : null);
+                }
+            } catch (ExecutionException | InterruptedException e) {
+                if (e instanceof ExecutionException && createdNodeTracker != null && createdNodeTracker.delete(store, createdNodesMark)) {
+                    // Pending entries of the caches may refer to the deleted nodes
+                    rollbackCaches();
+                    LOGGER.warn("Parallel scan of {} items failed, scanning them sequentially.", items.size(), e.getCause());
+                    return null;
+                }
+                // The same as for a failed item which is scanned sequentially within the transaction
+                if (store.hasActiveTransaction()) {
+                    store.rollbackTransaction();
+                    rollbackCaches();
+                }
+                if (checkpoint) {
+                    scanCheckpoint.rollback(store);
+                }
+                throw toRuntimeException(e);
+            }
+            if (checkpoint) {
+                scanCheckpoint.complete(store, checkpointKeys);
+            }
+            return descriptors;
+        } finally {
+            if (topLevel) {
+                if (createdNodeTracker != null) {
+                    createdNodeTracker.reset(createdNodesMark);
+                }
+                listeners.forEach(store::removeListener);
+            }
+        }
+    }
+
+    private RuntimeException toRuntimeException(Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+            return new UnrecoverableScannerException("Interrupted while waiting for parallel scan.", e);
+        }
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new UnrecoverableScannerException("Parallel scan failed.", cause);
+    }
+
     private <I, D extends Descriptor> D scan(I item, D descriptor, String path, Scope scope, Set<ScannerPlugin<?, ?>> pipeline) {
         Class<?> itemClass = item.getClass();
         Class<D> type = null;
-        for (ScannerPlugin<?, ?> scannerPlugin : getScannerPluginsForType(itemClass)) {
-            ScannerPlugin<I, D> selectedPlugin = (ScannerPlugin<I, D>) scannerPlugin;
-            if (!pipeline.contains(selectedPlugin) && accepts(selectedPlugin, item, path, scope) && satisfies(selectedPlugin, descriptor)) {
+        String fingerprint = null;
+        boolean fingerprinted = false;
+        if (statistics != null) {
+            statistics.item(depth);
+        }
+        String duplicateKey = null;
+        if (deduplicator != null && descriptor == null) {
+            fingerprint = getFingerprint(item, path);
+            fingerprinted = true;
+            if (fingerprint != null) {
+                duplicateKey = ScanDeduplicator.getKey(item, path, scope, fingerprint);
+                D duplicate = deduplicator.createDuplicate(duplicateKey, scannerContext.getStore());
+                if (duplicate != null) {
+                    LOGGER.debug("Skipping '{}' which has the same content as a previously scanned item.", path);
+                    return duplicate;
+                }
+            }
+        }
+        // Only plugins matching the static criteria are asked to accept the item
+        for (ScannerPluginIndex.Candidate candidate : dispatchTable.get(itemClass).getCandidates(path, scope)) {
+            ScannerPlugin<I, D> selectedPlugin = (ScannerPlugin<I, D>) candidate.getPlugin();
+            if (!pipeline.contains(selectedPlugin) && candidate.isSatisfiedBy(descriptor) && accepts(selectedPlugin, item, path, scope)) {
                 pipeline.add(selectedPlugin);
+                if (scanCache != null && !fingerprinted) {
+                    fingerprint = getFingerprint(item, path);
+                    fingerprinted = true;
+                }
                 pushDesriptor(type, descriptor);
                 D newDescriptor = null;
+                ScanStatisticsCollector.PluginCounters pluginCounters = statistics != null ? statistics.beginScan(selectedPlugin, depth) : null;
+                long start = pluginCounters != null ? System.nanoTime() : 0;
                 try {
-                    newDescriptor = selectedPlugin.scan(item, path, scope, this);
+                    newDescriptor = scan(selectedPlugin, item, path, scope, scanCache != null ? fingerprint : null);
                 } catch (IOException e) {
                     LOGGER.warn("Cannot scan item " + path, e);
                 } finally {
+                    if (pluginCounters != null) {
+                        statistics.scanned(pluginCounters, System.nanoTime() - start);
+                    }
                     popDescriptor(type, descriptor);
                     descriptor = newDescriptor;
                     type = selectedPlugin.getDescriptorType();
                 }
             }
         }
+        if (duplicateKey != null && descriptor != null) {
+            deduplicator.put(duplicateKey, type, descriptor);
+        }
         return descriptor;
     }
 
     /**
-     * Verifies if the selected plugin requires a descriptor.
+     * Scans an item using the given plugin or re-uses the descriptor from the
+     * scan cache if the item has not changed.
      *
      * @param selectedPlugin
-     *            The selected plugin.
-     * @param descriptor
-     *            The descriptor.
-     * @param <I>
-     *            The item type of the plugin.
-     * @param <D>
-     *            The descriptor type of the plugin.
-     * @return <code>true</code> if the selected plugin can be used.
+     *            The plugin.
+     * @param item
+     *            The item.
+     * @param path
+     *            The path.
+     * @param scope
+     *            The scope.
+     * @param fingerprint
+     *            The fingerprint of the item, <code>null</code> if the scan cache
+     *            is not used.
+     * @return The descriptor.
+     * @throws IOException
+     *             If scanning fails.
      */
-    private <I, D extends Descriptor> boolean satisfies(ScannerPlugin<I, D> selectedPlugin, D descriptor) {
-        return !(selectedPlugin.getClass().isAnnotationPresent(Requires.class) && descriptor == null);
+    private <I, D extends Descriptor> D scan(ScannerPlugin<I, D> selectedPlugin, I item, String path, Scope scope, String fingerprint) throws IOException {
+        if (fingerprint == null) {
+            return selectedPlugin.scan(item, path, scope, this);
+        }
+        D descriptor = scanCache.get(selectedPlugin, path, scope, fingerprint, scannerContext.getStore());
+        if (descriptor != null) {
+            LOGGER.debug("Re-using descriptor of unchanged item '{}' for plugin '{}'.", path, selectedPlugin.getName());
+            return descriptor;
+        }
+        descriptor = selectedPlugin.scan(item, path, scope, this);
+        if (descriptor != null) {
+            scanCache.put(selectedPlugin, path, scope, fingerprint, descriptor, scannerContext.getStore());
+        }
+        return descriptor;
+    }
+
+    private String getFingerprint(Object item, String path) {
+        try {
+            return ScanCache.getFingerprint(item);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot determine fingerprint of item " + path, e);
+            return null;
+        }
     }
 
     /**
@@ -164,11 +600,16 @@ public class ScannerImpl implements Scanner {
      */
     protected <I> boolean accepts(ScannerPlugin<I, ?> selectedPlugin, I item, String path, Scope scope) {
         boolean accepted = false;
+        long start = statistics != null ? System.nanoTime() : 0;
 
         try {
             accepted = selectedPlugin.accepts(item, path, scope);
         } catch (IOException e) {
             LOGGER.error("Plugin " + selectedPlugin + " failed to check whether it can accept item " + path, e);
+        } finally {
+            if (statistics != null) {
+                statistics.accepted(selectedPlugin, System.nanoTime() - start);
+            }
         }
 
         return accepted;
@@ -204,6 +645,11 @@ public class ScannerImpl implements Scanner {
         }
     }
 
+    @Override
+    public ScanStatistics getStatistics() {
+        return statistics != null ? statistics.getStatistics() : null;
+    }
+
     @Override
     public ScannerContext getContext() {
         return scannerContext;
@@ -222,58 +668,4 @@ public class ScannerImpl implements Scanner {
         }
         return scope;
     }
-
-    /**
-     * Determine the list of scanner plugins that handle the given type.
-     *
-     * @param type
-     *            The type.
-     * @return The list of plugins.
-     */
-    private List<ScannerPlugin<?, ?>> getScannerPluginsForType(final Class<?> type) {
-        List<ScannerPlugin<?, ?>> plugins = scannerPluginsPerType.get(type);
-        if (plugins == null) {
-            // The list of all scanner plugins which accept the given type
-            final List<ScannerPlugin<?, ?>> candidates = new LinkedList<>();
-            // The map of scanner plugins which produce a descriptor type
-            Map<Class<? extends Descriptor>, Set<ScannerPlugin<?, ?>>> pluginsByDescriptor = new HashMap<>();
-            for (ScannerPlugin<?, ?> scannerPlugin : scannerPlugins.values()) {
-                Class<?> scannerPluginType = scannerPlugin.getType();
-                if (scannerPluginType.isAssignableFrom(type)) {
-                    Class<? extends Descriptor> descriptorType = scannerPlugin.getDescriptorType();
-                    Set<ScannerPlugin<?, ?>> pluginsForDescriptorType = pluginsByDescriptor.get(descriptorType);
-                    if (pluginsForDescriptorType == null) {
-                        pluginsForDescriptorType = new HashSet<>();
-                        pluginsByDescriptor.put(descriptorType, pluginsForDescriptorType);
-                    }
-                    pluginsForDescriptorType.add(scannerPlugin);
-                    candidates.add(scannerPlugin);
-                }
-            }
-            // Order plugins by the values of their optional @Requires
-            // annotation
-            plugins = DependencyResolver.newInstance(candidates, new DependencyProvider<ScannerPlugin<?, ?>>() {
-                @Override
-                public Set<ScannerPlugin<?, ?>> getDependencies(ScannerPlugin<?, ?> dependent) {
-                    Set<ScannerPlugin<?, ?>> dependencies = new HashSet<>();
-                    Requires annotation = dependent.getClass().getAnnotation(Requires.class);
-                    if (annotation != null) {
-                        for (Class<? extends Descriptor> descriptorType : annotation.value()) {
-                            Set<ScannerPlugin<?, ?>> pluginsByDescriptorType = pluginsByDescriptor.get(descriptorType);
-                            if (pluginsByDescriptorType != null) {
-                                for (ScannerPlugin<?, ?> scannerPlugin : pluginsByDescriptorType) {
-                                    if (!scannerPlugin.equals(dependent)) {
-                                        dependencies.add(scannerPlugin);
-                                    }
-                                }
-                            }
-                        }
-                    }
-                    return dependencies;
-                }
-            }).resolve();
-            scannerPluginsPerType.put(type, plugins);
-        }
-        return plugins;
-    }
 }
@@ -0,0 +1,175 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.buschmais.jqassistant.core.scanner.api.ScannerPlugin;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.spi.reflection.DependencyResolver;
+
+import static com.buschmais.jqassistant.core.scanner.api.ScannerPlugin.Accepts;
+import static com.buschmais.jqassistant.core.scanner.api.ScannerPlugin.Requires;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * The dispatch table providing the ordered scanner plugins for item types.
+ *
+ * The plugin indexes for all item types declared by the plugins (see
+ * {@link ScannerPlugin#getType()}) are computed when the table is created. An
+ * item class which has not been declared by a plugin (e.g. an implementation
+ * of an interface) is resolved to the index of the declared types it is
+ * assignable to, the result is remembered per class. Indexes for the same set
+ * of plugins are shared, i.e. plugin ordering is only computed once per set.
+ *
+ * The table may be shared between threads.
+ */
+class ScannerPluginDispatchTable {
+
+    /**
+     * The annotation metadata of plugin classes, evaluated once per class.
+     */
+    private static final ClassValue<Metadata> METADATA = new ClassValue<Metadata>() {
+        @Override
+        protected Metadata computeValue(Class<?> pluginClass) {
+            return new Metadata(pluginClass.getAnnotation(Accepts.class), pluginClass.getAnnotation(Requires.class));
+        }
+    };
+
+    private final List<ScannerPlugin<?, ?>> plugins;
+
+    private final Map<Class<?>, ScannerPluginIndex> indexesPerDeclaredType;
+
+    private final Map<BitSet, ScannerPluginIndex> indexesPerPlugins = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, ScannerPluginIndex> indexesPerType = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param plugins
+     *            The configured scanner plugins.
+     */
+    ScannerPluginDispatchTable(Collection<ScannerPlugin<?, ?>> plugins) {
+        this.plugins = unmodifiableList(new ArrayList<>(plugins));
+        Map<Class<?>, ScannerPluginIndex> indexes = new HashMap<>();
+        for (ScannerPlugin<?, ?> plugin : this.plugins) {
+            indexes.computeIfAbsent(plugin.getType(), this::resolve);
+        }
+        this.indexesPerDeclaredType = unmodifiableMap(indexes);
+    }
+
+    /**
+     * Return the annotation metadata of a scanner plugin class.
+     *
+     * @param pluginClass
+     *            The plugin class.
+     * @return The {@link Metadata}.
+     */
+    static Metadata getMetadata(Class<?> pluginClass) {
+        return METADATA.get(pluginClass);
+    }
+
+    /**
+     * Return the index of the scanner plugins that handle the given type.
+     *
+     * @param type
+     *            The type.
+     * @return The {@link ScannerPluginIndex}.
+     */
+    ScannerPluginIndex get(Class<?> type) {
+        ScannerPluginIndex index = indexesPerDeclaredType.get(type);
+        if (index == null) {
+            index = indexesPerType.computeIfAbsent(type, this::resolve);
+        }
+        return index;
+    }
+
+    /**
+     * Return the item types declared by the plugins.
+     *
+     * @return The item types.
+     */
+    Set<Class<?>> getDeclaredTypes() {
+        return indexesPerDeclaredType.keySet();
+    }
+
+    private ScannerPluginIndex resolve(Class<?> type) {
+        BitSet candidates = new BitSet(plugins.size());
+        for (int i = 0; i < plugins.size(); i++) {
+            if (plugins.get(i).getType().isAssignableFrom(type)) {
+                candidates.set(i);
+            }
+        }
+        return indexesPerPlugins.computeIfAbsent(candidates, this::createIndex);
+    }
+
+    private ScannerPluginIndex createIndex(BitSet candidates) {
+        List<ScannerPlugin<?, ?>> candidatePlugins = new ArrayList<>(candidates.cardinality());
+        // The map of scanner plugins which produce a descriptor type
+        Map<Class<? extends Descriptor>, Set<ScannerPlugin<?, ?>>> pluginsByDescriptor = new HashMap<>();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            ScannerPlugin<?, ?> plugin = plugins.get(i);
+            pluginsByDescriptor.computeIfAbsent(plugin.getDescriptorType(), key -> new HashSet<>()).add(plugin);
+            candidatePlugins.add(plugin);
+        }
+        // Order plugins by the values of their optional @Requires annotation
+        List<ScannerPlugin<?, ?>> orderedPlugins = DependencyResolver.newInstance(candidatePlugins, dependent -> {
+            Set<ScannerPlugin<?, ?>> dependencies = new HashSet<>();
+            for (Class<? extends Descriptor> descriptorType : getMetadata(dependent.getClass()).getRequiredDescriptorTypes()) {
+                for (ScannerPlugin<?, ?> plugin : pluginsByDescriptor.getOrDefault(descriptorType, emptySet())) {
+                    if (!plugin.equals(dependent)) {
+                        dependencies.add(plugin);
+                    }
+                }
+            }
+            return dependencies;
+        }).resolve();
+        return new ScannerPluginIndex(orderedPlugins);
+    }
+
+    /**
+     * The metadata declared by the annotations of a scanner plugin class.
+     */
+    static final class Metadata {
+
+        private final Accepts accepts;
+
+        private final List<Class<? extends Descriptor>> requiredDescriptorTypes;
+
+        private Metadata(Accepts accepts, Requires requires) {
+            this.accepts = accepts;
+            this.requiredDescriptorTypes = requires != null ? unmodifiableList(Arrays.asList(requires.value())) : null;
+        }
+
+        /**
+         * Return the {@link Accepts} annotation.
+         *
+         * @return The annotation or <code>null</code>.
+         */
+        Accepts getAccepts() {
+            return accepts;
+        }
+
+        /**
+         * Determine if the plugin is annotated with {@link Requires}, i.e. it needs
+         * a descriptor.
+         *
+         * @return <code>true</code> if the plugin requires a descriptor.
+         */
+        boolean isRequiresDescriptor() {
+            return requiredDescriptorTypes != null;
+        }
+
+        /**
+         * Return the descriptor types declared by {@link Requires}.
+         *
+         * @return The descriptor types.
+         */
+        List<Class<? extends Descriptor>> getRequiredDescriptorTypes() {
+            return requiredDescriptorTypes != null ? requiredDescriptorTypes : emptyList();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import com.buschmais.jqassistant.core.scanner.api.ScannerPlugin;
+import com.buschmais.jqassistant.core.scanner.api.Scope;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+
+import static com.buschmais.jqassistant.core.scanner.api.ScannerPlugin.Accepts;
+import static com.buschmais.jqassistant.core.scanner.api.ScannerPlugin.Requires;
+
+/**
+ * Index of the ordered scanner plugins for an item type.
+ *
+ * The index selects the plugins which are asked to accept an item using the
+ * static criteria declared by {@link Accepts}. Path patterns of the form
+ * `*.xml` and plain file names are resolved using hash lookups, all other
+ * patterns are evaluated as regular expressions. The index is immutable except
+ * for the lazily computed scope matches and may be shared between threads.
+ */
+class ScannerPluginIndex {
+
+    private final List<Candidate> candidates = new ArrayList<>();
+
+    /**
+     * The plugins without path criteria.
+     */
+    private final BitSet anyPath = new BitSet();
+
+    private final Map<String, BitSet> suffixes = new HashMap<>();
+
+    private final Map<String, BitSet> fileNames = new HashMap<>();
+
+    private final List<PathPattern> pathPatterns = new ArrayList<>();
+
+    private final Map<Scope, BitSet> scopeMatches = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param plugins
+     *            The plugins in the order of their execution.
+     */
+    ScannerPluginIndex(List<ScannerPlugin<?, ?>> plugins) {
+        for (ScannerPlugin<?, ?> plugin : plugins) {
+            int index = candidates.size();
+            ScannerPluginDispatchTable.Metadata metadata = ScannerPluginDispatchTable.getMetadata(plugin.getClass());
+            Accepts accepts = metadata.getAccepts();
+            Set<String> scopes = null;
+            if (accepts != null && accepts.scopes().length > 0) {
+                scopes = new HashSet<>();
+                for (String scope : accepts.scopes()) {
+                    scopes.add(scope.toLowerCase());
+                }
+            }
+            candidates.add(new Candidate(plugin, metadata.isRequiresDescriptor(), scopes));
+            if (accepts == null || accepts.paths().length == 0) {
+                anyPath.set(index);
+            } else {
+                for (String path : accepts.paths()) {
+                    addPath(path.toLowerCase(), index);
+                }
+            }
+        }
+    }
+
+    private void addPath(String path, int index) {
+        if (path.indexOf('/') < 0) {
+            String suffix = path.startsWith("*") ? path.substring(1) : null;
+            if (!hasWildcards(path)) {
+                fileNames.computeIfAbsent(path, key -> new BitSet()).set(index);
+                return;
+            } else if (suffix != null && suffix.startsWith(".") && !hasWildcards(suffix)) {
+                suffixes.computeIfAbsent(suffix, key -> new BitSet()).set(index);
+                return;
+            }
+        }
+        pathPatterns.add(new PathPattern(path, index));
+    }
+
+    private boolean hasWildcards(String path) {
+        return path.indexOf('*') >= 0 || path.indexOf('?') >= 0;
+    }
+
+    /**
+     * Return the candidates which match the given path and scope in the order of
+     * their execution.
+     *
+     * @param path
+     *            The path, if <code>null</code> path criteria are ignored.
+     * @param scope
+     *            The scope, if <code>null</code> scope criteria are ignored.
+     * @return The matching candidates.
+     */
+    List<Candidate> getCandidates(String path, Scope scope) {
+        BitSet matches;
+        if (path == null) {
+            matches = new BitSet();
+            matches.set(0, candidates.size());
+        } else {
+            matches = (BitSet) anyPath.clone();
+            String lowerCasePath = path.toLowerCase();
+            String fileName = lowerCasePath.substring(lowerCasePath.lastIndexOf('/') + 1);
+            or(matches, fileNames.get(fileName));
+            for (int i = fileName.indexOf('.'); i >= 0; i = fileName.indexOf('.', i + 1)) {
+                or(matches, suffixes.get(fileName.substring(i)));
+            }
+            for (PathPattern pathPattern : pathPatterns) {
+                if (!matches.get(pathPattern.index) && pathPattern.matches(lowerCasePath, fileName)) {
+                    matches.set(pathPattern.index);
+                }
+            }
+        }
+        if (scope != null) {
+            matches.and(scopeMatches.computeIfAbsent(scope, this::matchScope));
+        }
+        List<Candidate> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(candidates.get(i));
+        }
+        return result;
+    }
+
+    private void or(BitSet matches, BitSet plugins) {
+        if (plugins != null) {
+            matches.or(plugins);
+        }
+    }
+
+    private BitSet matchScope(Scope scope) {
+        String scopeName = (scope.getPrefix() + ":" + scope.getName()).toLowerCase();
+        BitSet matches = new BitSet();
+        for (int i = 0; i < candidates.size(); i++) {
+            Set<String> scopes = candidates.get(i).scopes;
+            if (scopes == null || scopes.contains(scopeName)) {
+                matches.set(i);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * A scanner plugin together with its static criteria.
+     */
+    static class Candidate {
+
+        private final ScannerPlugin<?, ?> plugin;
+
+        private final boolean requiresDescriptor;
+
+        private final Set<String> scopes;
+
+        private Candidate(ScannerPlugin<?, ?> plugin, boolean requiresDescriptor, Set<String> scopes) {
+            this.plugin = plugin;
+            this.requiresDescriptor = requiresDescriptor;
+            this.scopes = scopes;
+        }
+
+        ScannerPlugin<?, ?> getPlugin() {
+            return plugin;
+        }
+
+        /**
+         * Verifies if the plugin can be executed for the given descriptor, i.e. a
+         * plugin annotated with {@link Requires} needs a descriptor.
+         *
+         * @param descriptor
+         *            The descriptor, may be <code>null</code>.
+         * @return <code>true</code> if the plugin can be executed.
+         */
+        boolean isSatisfiedBy(Descriptor descriptor) {
+            return !requiresDescriptor || descriptor != null;
+        }
+    }
+
+    /**
+     * A path pattern which is evaluated as regular expression.
+     */
+    private static class PathPattern {
+
+        private final Pattern pattern;
+
+        private final boolean fileName;
+
+        private final int index;
+
+        private PathPattern(String glob, int index) {
+            this.pattern = Pattern.compile(toRegex(glob));
+            this.fileName = glob.indexOf('/') < 0;
+            this.index = index;
+        }
+
+        private boolean matches(String path, String name) {
+            return pattern.matcher(fileName ? name : path).matches();
+        }
+
+        private static String toRegex(String glob) {
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            for (int i = 0; i < glob.length(); i++) {
+                char c = glob.charAt(i);
+                if (c == '*' || c == '?') {
+                    if (literal.length() > 0) {
+                        regex.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    if (c == '?') {
+                        regex.append("[^/]");
+                    } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                        regex.append(".*");
+                        i++;
+                    } else {
+                        regex.append("[^/]*");
+                    }
+                } else {
+                    literal.append(c);
+                }
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+            }
+            return regex.toString();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.buschmais.jqassistant.core.scanner.api;
+
+import java.util.List;
+
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies the default implementation of {@link Scanner#scanAll}.
+ */
+class ScannerTest {
+
+    @Test
+    void scanAllScansItemsSequentially() {
+        Scanner scanner = mock(Scanner.class, CALLS_REAL_METHODS);
+        Descriptor first = mock(Descriptor.class);
+        Descriptor second = mock(Descriptor.class);
+        doReturn(first).when(scanner).scan("a", "/a", DefaultScope.NONE);
+        doReturn(second).when(scanner).scan("b", "/b", DefaultScope.NONE);
+
+        List<Descriptor> descriptors = scanner.scanAll(asList("a", "b"), item -> "/" + item, DefaultScope.NONE);
+
+        assertThat(descriptors).containsExactly(first, second);
+        InOrder inOrder = inOrder(scanner);
+        inOrder.verify(scanner).scan("a", "/a", DefaultScope.NONE);
+        inOrder.verify(scanner).scan("b", "/b", DefaultScope.NONE);
+    }
+}
@@ -0,0 +1,49 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.io.IOException;
+
+import com.buschmais.jqassistant.core.scanner.api.Scanner;
+import com.buschmais.jqassistant.core.scanner.api.ScannerPlugin;
+import com.buschmais.jqassistant.core.scanner.api.Scope;
+
+import static com.buschmais.jqassistant.core.scanner.api.ScannerPlugin.Accepts;
+
+/**
+ * Test plugin: declares static accept criteria and counts the invocations of
+ * {@link #accepts(TestItem, String, Scope)}.
+ */
+@Accepts(paths = "*.test", scopes = "test:test")
+public class FilteredTestItemScannerPlugin implements ScannerPlugin<TestItem, TestItemDescriptor> {
+
+    private int acceptsCount = 0;
+
+    @Override
+    public Class<? extends TestItem> getType() {
+        return TestItem.class;
+    }
+
+    @Override
+    public Class<TestItemDescriptor> getDescriptorType() {
+        return TestItemDescriptor.class;
+    }
+
+    @Override
+    public boolean accepts(TestItem item, String path, Scope scope) throws IOException {
+        acceptsCount++;
+        return true;
+    }
+
+    @Override
+    public TestItemDescriptor scan(TestItem item, String path, Scope scope, Scanner scanner) throws IOException {
+        return scanner.getContext().getStore().create(TestItemDescriptor.class);
+    }
+
+    @Override
+    public String getName() {
+        return FilteredTestItemScannerPlugin.class.getSimpleName();
+    }
+
+    public int getAcceptsCount() {
+        return acceptsCount;
+    }
+}
@@ -0,0 +1,319 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.buschmais.jqassistant.core.scanner.api.*;
+import com.buschmais.jqassistant.core.scanner.spi.ScannerPluginRepository;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreConfiguration;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.jqassistant.core.store.impl.EmbeddedGraphStore;
+import com.buschmais.jqassistant.core.store.impl.StoreWriter;
+import com.buschmais.jqassistant.core.store.spi.StorePluginRepository;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies the transaction handling of parallel scans using an embedded store.
+ */
+class ParallelScanStoreTest {
+
+    private static final File DIRECTORY = new File("target/parallel-scan-store");
+
+    private static final String FAILING_PATH = "/item-3";
+
+    private Store store;
+
+    private ScannerContext scannerContext;
+
+    private ScannerPluginRepository scannerPluginRepository;
+
+    private ScannerConfiguration configuration;
+
+    private final Set<Thread> scanningThreads = ConcurrentHashMap.newKeySet();
+
+    private final List<NestedTestItemDescriptor> contextParents = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        FileUtils.deleteDirectory(DIRECTORY);
+        StoreConfiguration storeConfiguration = StoreConfiguration.builder().uri(DIRECTORY.toURI()).build();
+        store = new EmbeddedGraphStore(storeConfiguration, new StorePluginRepository() {
+            @Override
+            public List<Class<?>> getDescriptorTypes() {
+                return asList(TestItemDescriptor.class, NestedTestItemDescriptor.class);
+            }
+
+            @Override
+            public List<Class<?>> getProcedureTypes() {
+                return emptyList();
+            }
+
+            @Override
+            public List<Class<?>> getFunctionTypes() {
+                return emptyList();
+            }
+        });
+        store.start();
+        scannerContext = new ScannerContextImpl(store, DIRECTORY);
+        Map<String, ScannerPlugin<?, ?>> scannerPlugins = new HashMap<>();
+        scannerPlugins.put("FailingTestScanner", new FailingTestItemScannerPlugin(scanningThreads, contextParents));
+        scannerPlugins.put("ParentTestScanner", new ParentTestItemScannerPlugin());
+        scannerPluginRepository = mock(ScannerPluginRepository.class);
+        doReturn(scannerPlugins).when(scannerPluginRepository).getScannerPlugins(scannerContext, emptyMap());
+        configuration = new ScannerConfiguration();
+        configuration.setParallelism(4);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.stop();
+        FileUtils.deleteDirectory(DIRECTORY);
+    }
+
+    @Test
+    void continueOnErrorRollsBackFailedItem() {
+        configuration.setContinueOnError(true);
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), scannerContext, scannerPluginRepository);
+
+        List<Descriptor> descriptors = scanner.scanAll(getItems(), item -> item, DefaultScope.NONE);
+
+        assertThat(descriptors).hasSize(8);
+        assertThat(descriptors.get(3)).isNull();
+        assertThat(store.hasActiveTransaction()).isFalse();
+        assertThat(countItems()).isEqualTo(7L);
+    }
+
+    @Test
+    void failOnErrorRollsBackAllItems() {
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), scannerContext, scannerPluginRepository);
+
+        assertThatThrownBy(() -> scanner.scanAll(getItems(), item -> item, DefaultScope.NONE)).isInstanceOf(UnrecoverableScannerException.class);
+
+        assertThat(store.hasActiveTransaction()).isFalse();
+        assertThat(countItems()).isEqualTo(0L);
+    }
+
+    @Test
+    void transactionOfCallerIsNotCommitted() {
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), scannerContext, scannerPluginRepository);
+        List<String> items = getItems();
+        items.remove(FAILING_PATH);
+        store.beginTransaction();
+
+        scanner.scanAll(items, item -> item, DefaultScope.NONE);
+
+        assertThat(store.hasActiveTransaction()).isTrue();
+        store.rollbackTransaction();
+        assertThat(countItems()).isEqualTo(0L);
+    }
+
+    @Test
+    void childItemsAreScannedWithinTransactionOfParent() {
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), scannerContext, scannerPluginRepository);
+        List<String> children = getItems();
+        children.remove(FAILING_PATH);
+
+        Descriptor parent = scanner.scan(new ParentTestItem(children), "/parent", DefaultScope.NONE);
+
+        assertThat(parent).isInstanceOf(NestedTestItemDescriptor.class);
+        assertThat(scanningThreads).isNotEmpty().doesNotContain(Thread.currentThread());
+        // The workers use the descriptor of the parent from the context by the store writer
+        assertThat(contextParents).hasSize(7);
+        for (NestedTestItemDescriptor contextParent : contextParents) {
+            assertThat(StoreWriter.unwrap(contextParent)).isSameAs(parent);
+        }
+        assertThat(store.hasActiveTransaction()).isFalse();
+        assertThat(countItems()).isEqualTo(7L);
+        assertThat(countParents()).isEqualTo(1L);
+    }
+
+    @Test
+    void continueOnErrorRemovesFailedChildItem() {
+        configuration.setContinueOnError(true);
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), scannerContext, scannerPluginRepository);
+
+        Descriptor parent = scanner.scan(new ParentTestItem(getItems()), "/parent", DefaultScope.NONE);
+
+        // The children are scanned sequentially after the parallel scan failed, only the failed child is removed
+        assertThat(parent).isInstanceOf(NestedTestItemDescriptor.class);
+        assertThat(store.hasActiveTransaction()).isFalse();
+        assertThat(countItems()).isEqualTo(7L);
+        assertThat(countParents()).isEqualTo(1L);
+    }
+
+    @Test
+    void failedChildItemRollsBackParent() {
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), scannerContext, scannerPluginRepository);
+
+        assertThatThrownBy(() -> scanner.scan(new ParentTestItem(getItems()), "/parent", DefaultScope.NONE))
+                .isInstanceOf(UnrecoverableScannerException.class);
+
+        assertThat(store.hasActiveTransaction()).isFalse();
+        assertThat(countItems()).isEqualTo(0L);
+        assertThat(countParents()).isEqualTo(0L);
+    }
+
+    private List<String> getItems() {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            items.add("/item-" + i);
+        }
+        return items;
+    }
+
+    private long countItems() {
+        return count("MATCH (item:Item) RETURN count(item) AS count");
+    }
+
+    private long countParents() {
+        return count("MATCH (parent:Nested) RETURN count(parent) AS count");
+    }
+
+    private long count(String query) {
+        store.beginTransaction();
+        try {
+            return store.executeQuery(query).getSingleResult().get("count", Long.class);
+        } finally {
+            store.commitTransaction();
+        }
+    }
+
+    /**
+     * Creates a {@link TestItemDescriptor} for each path and fails afterwards
+     * for {@link #FAILING_PATH}.
+     */
+    private static class FailingTestItemScannerPlugin implements ScannerPlugin<String, TestItemDescriptor> {
+
+        private final Set<Thread> scanningThreads;
+
+        private final List<NestedTestItemDescriptor> contextParents;
+
+        private FailingTestItemScannerPlugin(Set<Thread> scanningThreads, List<NestedTestItemDescriptor> contextParents) {
+            this.scanningThreads = scanningThreads;
+            this.contextParents = contextParents;
+        }
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void configure(ScannerContext scannerContext, Map<String, Object> properties) {
+        }
+
+        @Override
+        public Class<? extends String> getType() {
+            return String.class;
+        }
+
+        @Override
+        public Class<TestItemDescriptor> getDescriptorType() {
+            return TestItemDescriptor.class;
+        }
+
+        @Override
+        public boolean accepts(String item, String path, Scope scope) {
+            return true;
+        }
+
+        @Override
+        public TestItemDescriptor scan(String item, String path, Scope scope, Scanner scanner) {
+            scanningThreads.add(Thread.currentThread());
+            NestedTestItemDescriptor parent = scanner.getContext().peekOrDefault(NestedTestItemDescriptor.class, null);
+            if (parent != null) {
+                assertThat(parent.getId()).isNotNull();
+                contextParents.add(parent);
+            }
+            TestItemDescriptor descriptor = scanner.getContext().getStore().create(TestItemDescriptor.class);
+            if (FAILING_PATH.equals(path)) {
+                throw new IllegalStateException("Cannot scan " + path);
+            }
+            return descriptor;
+        }
+
+        @Override
+        public String getName() {
+            return FailingTestItemScannerPlugin.class.getSimpleName();
+        }
+    }
+
+    /**
+     * An item providing the paths of its children.
+     */
+    private static class ParentTestItem {
+
+        private final List<String> children;
+
+        private ParentTestItem(List<String> children) {
+            this.children = children;
+        }
+    }
+
+    /**
+     * Creates a {@link NestedTestItemDescriptor} for a {@link ParentTestItem} and
+     * scans its children using {@link Scanner#scanAll(List, java.util.function.Function, Scope)}.
+     */
+    private static class ParentTestItemScannerPlugin implements ScannerPlugin<ParentTestItem, NestedTestItemDescriptor> {
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void configure(ScannerContext scannerContext, Map<String, Object> properties) {
+        }
+
+        @Override
+        public Class<? extends ParentTestItem> getType() {
+            return ParentTestItem.class;
+        }
+
+        @Override
+        public Class<NestedTestItemDescriptor> getDescriptorType() {
+            return NestedTestItemDescriptor.class;
+        }
+
+        @Override
+        public boolean accepts(ParentTestItem item, String path, Scope scope) {
+            return true;
+        }
+
+        @Override
+        public NestedTestItemDescriptor scan(ParentTestItem item, String path, Scope scope, Scanner scanner) {
+            NestedTestItemDescriptor descriptor = scanner.getContext().getStore().create(NestedTestItemDescriptor.class);
+            scanner.getContext().push(NestedTestItemDescriptor.class, descriptor);
+            try {
+                List<TestItemDescriptor> children = scanner.scanAll(item.children, child -> child, scope);
+                assertThat(children).hasSize(item.children.size());
+            } finally {
+                scanner.getContext().pop(NestedTestItemDescriptor.class);
+            }
+            return descriptor;
+        }
+
+        @Override
+        public String getName() {
+            return ParentTestItemScannerPlugin.class.getSimpleName();
+        }
+    }
+}
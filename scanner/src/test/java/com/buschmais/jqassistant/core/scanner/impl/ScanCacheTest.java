@@ -0,0 +1,169 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.scanner.api.ScannerPlugin;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.api.Query;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies the functionality of the {@link ScanCache}.
+ */
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class ScanCacheTest {
+
+    private static final File DIRECTORY = new File("target/scan-cache");
+
+    @Mock
+    private Store store;
+
+    @Mock
+    private TestItemDescriptor descriptor;
+
+    @Mock
+    private Query.Result.CompositeRowObject row;
+
+    private String token;
+
+    private final ScannerPlugin<?, ?> scannerPlugin = new TestItemScannerPlugin();
+
+    private File item;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        FileUtils.deleteDirectory(DIRECTORY);
+        DIRECTORY.mkdirs();
+        item = new File(DIRECTORY, "item.txt");
+        FileUtils.writeStringToFile(item, "content", StandardCharsets.UTF_8);
+        doReturn(42L).when(descriptor).getId();
+        doReturn(descriptor).when(row).get("n", Descriptor.class);
+        doReturn("/item.txt").when(row).get("fileName", String.class);
+        // The store keeps the last token written by the scan cache
+        doAnswer(invocation -> token).when(row).get("token", String.class);
+        Query.Result<Query.Result.CompositeRowObject> result = mock(Query.Result.class);
+        List<Query.Result.CompositeRowObject> rows = singletonList(row);
+        doAnswer(invocation -> rows.iterator()).when(result).iterator();
+        doReturn(result).when(store).executeQuery(eq(ScanCache.FIND_DESCRIPTOR), anyMap());
+        doAnswer(invocation -> {
+            token = (String) invocation.<Map<String, Object>> getArgument(1).get("token");
+            return mock(Query.Result.class);
+        }).when(store).executeQuery(eq(ScanCache.WRITE_TOKEN), anyMap());
+    }
+
+    @Test
+    public void fingerprint() throws IOException {
+        String fingerprint = ScanCache.getFingerprint(item);
+
+        assertThat(fingerprint).isEqualTo(ScanCache.getFingerprint(item));
+        assertThat(ScanCache.getFingerprint(DIRECTORY)).isNull();
+        assertThat(ScanCache.getFingerprint("item")).isNull();
+        FileUtils.writeStringToFile(item, "changed content", StandardCharsets.UTF_8);
+        assertThat(ScanCache.getFingerprint(item)).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    public void unchangedItem() throws IOException {
+        ScanCache scanCache = new ScanCache(DIRECTORY, singletonList(scannerPlugin));
+        String fingerprint = ScanCache.getFingerprint(item);
+        scanCache.put(scannerPlugin, "/item.txt", TestScope.TEST, fingerprint, descriptor, store);
+        scanCache.commit();
+
+        ScanCache reloadedScanCache = new ScanCache(DIRECTORY, singletonList(scannerPlugin));
+
+        assertThat(reloadedScanCache.get(getPlugin(), "/item.txt", TestScope.TEST, fingerprint, store)).isSameAs(descriptor);
+        assertThat(reloadedScanCache.get(getPlugin(), "/item.txt", TestScope.TEST, "changed", store)).isNull();
+        assertThat(reloadedScanCache.get(getPlugin(), "/other.txt", TestScope.TEST, fingerprint, store)).isNull();
+        verify(store).executeQuery(eq(ScanCache.WRITE_TOKEN), anyMap());
+        verify(store).executeQuery(eq(ScanCache.FIND_DESCRIPTOR), anyMap());
+    }
+
+    @Test
+    public void changedStore() throws IOException {
+        ScanCache scanCache = new ScanCache(DIRECTORY, singletonList(scannerPlugin));
+        String fingerprint = ScanCache.getFingerprint(item);
+        scanCache.put(scannerPlugin, "/item.txt", TestScope.TEST, fingerprint, descriptor, store);
+        scanCache.commit();
+        // e.g. the store has been reset and the id has been re-used
+        token = null;
+
+        ScanCache reloadedScanCache = new ScanCache(DIRECTORY, singletonList(scannerPlugin));
+
+        assertThat(reloadedScanCache.get(getPlugin(), "/item.txt", TestScope.TEST, fingerprint, store)).isNull();
+        token = "restored";
+        assertThat(reloadedScanCache.get(getPlugin(), "/item.txt", TestScope.TEST, fingerprint, store)).isNull();
+        verify(store, times(1)).executeQuery(eq(ScanCache.FIND_DESCRIPTOR), anyMap());
+    }
+
+    @Test
+    public void reusedId() throws IOException {
+        ScanCache scanCache = new ScanCache(DIRECTORY, singletonList(scannerPlugin));
+        String fingerprint = ScanCache.getFingerprint(item);
+        scanCache.put(scannerPlugin, "/item.txt", TestScope.TEST, fingerprint, descriptor, store);
+        scanCache.commit();
+        doReturn("/other.txt").when(row).get("fileName", String.class);
+
+        assertThat(scanCache.get(getPlugin(), "/item.txt", TestScope.TEST, fingerprint, store)).isNull();
+    }
+
+    @Test
+    public void rollbackOfCallerTransaction() throws IOException {
+        ScanCache scanCache = new ScanCache(DIRECTORY, singletonList(scannerPlugin));
+        String fingerprint = ScanCache.getFingerprint(item);
+        scanCache.put(scannerPlugin, "/item.txt", TestScope.TEST, fingerprint, descriptor, store);
+        // The token written within the transaction of the caller is rolled back
+        token = null;
+        scanCache.commit();
+
+        assertThat(scanCache.get(getPlugin(), "/item.txt", TestScope.TEST, fingerprint, store)).isNull();
+    }
+
+    @Test
+    public void rollback() throws IOException {
+        ScanCache scanCache = new ScanCache(DIRECTORY, singletonList(scannerPlugin));
+        String fingerprint = ScanCache.getFingerprint(item);
+        scanCache.put(scannerPlugin, "/item.txt", TestScope.TEST, fingerprint, descriptor, store);
+        scanCache.rollback();
+
+        assertThat(scanCache.get(getPlugin(), "/item.txt", TestScope.TEST, fingerprint, store)).isNull();
+    }
+
+    @Test
+    public void changedPlugins() throws IOException {
+        ScanCache scanCache = new ScanCache(DIRECTORY, singletonList(scannerPlugin));
+        String fingerprint = ScanCache.getFingerprint(item);
+        scanCache.put(scannerPlugin, "/item.txt", TestScope.TEST, fingerprint, descriptor, store);
+        scanCache.commit();
+
+        Collection<ScannerPlugin<?, ?>> changedPlugins = asList(scannerPlugin, new NestedTestItemScannerPlugin());
+        ScanCache reloadedScanCache = new ScanCache(DIRECTORY, changedPlugins);
+
+        assertThat(reloadedScanCache.get(getPlugin(), "/item.txt", TestScope.TEST, fingerprint, store)).isNull();
+    }
+
+    private ScannerPlugin<TestItem, TestItemDescriptor> getPlugin() {
+        return (ScannerPlugin<TestItem, TestItemDescriptor>) scannerPlugin;
+    }
+}
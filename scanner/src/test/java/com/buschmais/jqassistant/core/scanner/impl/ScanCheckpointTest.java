@@ -0,0 +1,116 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.api.Query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies the functionality of the {@link ScanCheckpoint}.
+ */
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class ScanCheckpointTest {
+
+    @Mock
+    private Store store;
+
+    @Mock
+    private Query.Result<Query.Result.CompositeRowObject> emptyResult;
+
+    @BeforeEach
+    public void setUp() {
+        doAnswer(invocation -> Collections.emptyIterator()).when(emptyResult).iterator();
+        doReturn(emptyResult).when(store).executeQuery(anyString());
+        doReturn(emptyResult).when(store).executeQuery(anyString(), anyMap());
+    }
+
+    @Test
+    public void scan() {
+        ScanCheckpoint scanCheckpoint = new ScanCheckpoint(store, false);
+
+        verify(store).executeQuery(startsWith("MATCH (n) WHERE n:ScanCheckpointBatch OR n:ScanCheckpointItem DETACH DELETE n"), anyMap());
+        verify(store).beginTransaction();
+        verify(store).commitTransaction();
+        verify(store, never()).addListener(scanCheckpoint);
+        assertThat(scanCheckpoint.isCompleted("/a.jar")).isFalse();
+    }
+
+    @Test
+    public void resume() {
+        Query.Result.CompositeRowObject row = mock(Query.Result.CompositeRowObject.class);
+        doReturn("/a.jar").when(row).get("key", String.class);
+        Query.Result<Query.Result.CompositeRowObject> result = mock(Query.Result.class);
+        List<Query.Result.CompositeRowObject> rows = singletonList(row);
+        doAnswer(invocation -> rows.iterator()).when(result).iterator();
+        doReturn(result).when(store).executeQuery(startsWith("MATCH (item:ScanCheckpointItem)"));
+
+        ScanCheckpoint scanCheckpoint = new ScanCheckpoint(store, true);
+
+        verify(store).executeQuery(contains("DETACH DELETE n RETURN count(n) AS nodes"));
+        verify(store).executeQuery(startsWith("MATCH (batch:ScanCheckpointBatch) DELETE batch"), anyMap());
+        assertThat(scanCheckpoint.isCompleted("/a.jar")).isTrue();
+        assertThat(scanCheckpoint.isCompleted("/b.jar")).isFalse();
+    }
+
+    @Test
+    public void pendingNodes() {
+        ScanCheckpoint scanCheckpoint = new ScanCheckpoint(store, false);
+        scanCheckpoint.begin();
+        scanCheckpoint.created(descriptor(1L));
+        scanCheckpoint.created(descriptor(2L));
+
+        scanCheckpoint.beforeCommit();
+        scanCheckpoint.beforeCommit();
+
+        verify(store).executeQuery(contains("CREATE (:ScanCheckpointBatch{ids:$ids})"), eq(singletonMap("ids", asList(1L, 2L))));
+
+        scanCheckpoint.created(descriptor(3L));
+        scanCheckpoint.afterRollback();
+        scanCheckpoint.beforeCommit();
+        scanCheckpoint.created(descriptor(4L));
+        scanCheckpoint.beforeCommit();
+
+        // Each commit records its own batch
+        verify(store).executeQuery(contains("CREATE (:ScanCheckpointBatch{ids:$ids})"), eq(singletonMap("ids", singletonList(4L))));
+        verify(store, times(2)).executeQuery(contains("$ids"), anyMap());
+    }
+
+    @Test
+    public void complete() {
+        ScanCheckpoint scanCheckpoint = new ScanCheckpoint(store, false);
+        scanCheckpoint.begin();
+        scanCheckpoint.created(descriptor(1L));
+
+        scanCheckpoint.complete(store, singletonList("/a.jar"));
+        scanCheckpoint.created(descriptor(2L));
+        scanCheckpoint.beforeCommit();
+
+        verify(store).executeQuery(contains("CREATE (:ScanCheckpointItem{key:key})"), eq(singletonMap("keys", singletonList("/a.jar"))));
+        verify(store).executeQuery(startsWith("MATCH (batch:ScanCheckpointBatch) DELETE batch"), anyMap());
+        verify(store, never()).executeQuery(contains("$ids"), anyMap());
+        assertThat(scanCheckpoint.isCompleted("/a.jar")).isTrue();
+    }
+
+    private Descriptor descriptor(long id) {
+        Descriptor descriptor = mock(Descriptor.class);
+        doReturn(id).when(descriptor).getId();
+        return descriptor;
+    }
+}
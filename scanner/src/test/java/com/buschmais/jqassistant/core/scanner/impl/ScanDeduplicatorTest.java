@@ -0,0 +1,90 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.scanner.api.DefaultScope;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.api.Query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies the functionality of the {@link ScanDeduplicator}.
+ */
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class ScanDeduplicatorTest {
+
+    @Mock
+    private Store store;
+
+    @Mock
+    private TestItemDescriptor original;
+
+    @Mock
+    private TestItemDescriptor duplicate;
+
+    @Mock
+    private Query.Result<Query.Result.CompositeRowObject> result;
+
+    @BeforeEach
+    public void setUp() {
+        doReturn(42L).when(original).getId();
+        doReturn(43L).when(duplicate).getId();
+        doReturn(duplicate).when(store).create(TestItemDescriptor.class);
+        doReturn(result).when(store).executeQuery(anyString(), anyMap());
+    }
+
+    @Test
+    public void key() {
+        File item = new File("a.jar");
+        String key = ScanDeduplicator.getKey(item, "/lib/a.jar", TestScope.TEST, "1234");
+
+        assertThat(ScanDeduplicator.getKey(item, "/other/B.JAR", TestScope.TEST, "1234")).isEqualTo(key);
+        assertThat(ScanDeduplicator.getKey(item, "/lib/a.zip", TestScope.TEST, "1234")).isNotEqualTo(key);
+        assertThat(ScanDeduplicator.getKey(item, "/lib/a.jar", DefaultScope.NONE, "1234")).isNotEqualTo(key);
+        assertThat(ScanDeduplicator.getKey(item, "/lib/a.jar", TestScope.TEST, "5678")).isNotEqualTo(key);
+        assertThat(ScanDeduplicator.getKey(new TestItem(), "/lib/a.jar", TestScope.TEST, "1234")).isNotEqualTo(key);
+        assertThat(ScanDeduplicator.getKey(item, "/lib.d/a", TestScope.TEST, "1234")).endsWith("\t\t1234");
+    }
+
+    @Test
+    public void duplicate() {
+        ScanDeduplicator deduplicator = new ScanDeduplicator();
+        assertThat((Descriptor) deduplicator.createDuplicate("key", store)).isNull();
+
+        deduplicator.put("key", TestItemDescriptor.class, original);
+        assertThat((Descriptor) deduplicator.createDuplicate("key", store)).isSameAs(duplicate);
+        deduplicator.commit();
+        assertThat((Descriptor) deduplicator.createDuplicate("key", store)).isSameAs(duplicate);
+
+        verify(store, times(2)).create(TestItemDescriptor.class);
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("duplicate", 43L);
+        parameters.put("original", 42L);
+        verify(store, times(2)).executeQuery(ScanDeduplicator.DUPLICATE_OF, parameters);
+    }
+
+    @Test
+    public void rollback() {
+        ScanDeduplicator deduplicator = new ScanDeduplicator();
+        deduplicator.put("key", TestItemDescriptor.class, original);
+        deduplicator.rollback();
+
+        assertThat((Descriptor) deduplicator.createDuplicate("key", store)).isNull();
+        verify(store, never()).create(TestItemDescriptor.class);
+        verify(store, never()).executeQuery(anyString(), anyMap());
+    }
+}
@@ -0,0 +1,80 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import com.buschmais.jqassistant.core.scanner.api.ScanStatistics;
+import com.buschmais.jqassistant.core.scanner.api.ScannerPlugin;
+import com.buschmais.jqassistant.core.scanner.api.ScannerPluginStatistics;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies the functionality of the {@link ScanStatisticsCollector}.
+ */
+public class ScanStatisticsCollectorTest {
+
+    @Test
+    public void latency() {
+        ScanStatisticsCollector.LatencyHistogram histogram = new ScanStatisticsCollector.LatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+        histogram.record(1_000_000);
+
+        ScannerPluginStatistics.Latency latency = histogram.getLatency();
+
+        assertThat(latency.getCount()).isEqualTo(100);
+        assertThat(latency.getTotalTime()).isEqualTo(98 * 100 + 5000 + 1_000_000);
+        assertThat(latency.getMaxTime()).isEqualTo(1_000_000);
+        assertThat(latency.getPercentile(50)).isEqualTo(127);
+        assertThat(latency.getPercentile(99)).isEqualTo(8191);
+        assertThat(latency.getPercentile(100)).isEqualTo(1_000_000);
+    }
+
+    @Test
+    public void nestedScans() {
+        ScannerPlugin<?, ?> archivePlugin = plugin("archive");
+        ScannerPlugin<?, ?> filePlugin = plugin("file");
+        ScanStatisticsCollector collector = new ScanStatisticsCollector(0);
+
+        collector.item(1);
+        collector.accepted(archivePlugin, 10);
+        ScanStatisticsCollector.PluginCounters archive = collector.beginScan(archivePlugin, 1);
+        collector.created(mock(Descriptor.class));
+        collector.item(2);
+        collector.accepted(filePlugin, 10);
+        ScanStatisticsCollector.PluginCounters file = collector.beginScan(filePlugin, 2);
+        collector.created(mock(Descriptor.class));
+        collector.created(mock(Descriptor.class));
+        collector.scanned(file, 100);
+        collector.scanned(archive, 1000);
+        collector.created(mock(Descriptor.class));
+
+        ScanStatistics statistics = collector.getStatistics();
+
+        assertThat(statistics.getItems()).isEqualTo(2);
+        assertThat(statistics.getMaxDepth()).isEqualTo(2);
+        assertThat(statistics.getDescriptorsCreated()).isEqualTo(4);
+        assertThat(statistics.getPluginStatistics()).hasSize(2);
+        ScannerPluginStatistics archiveStatistics = statistics.getPluginStatistics().get(0);
+        assertThat(archiveStatistics.getName()).isEqualTo("archive");
+        assertThat(archiveStatistics.getDescriptorsCreated()).isEqualTo(1);
+        assertThat(archiveStatistics.getMaxDepth()).isEqualTo(1);
+        assertThat(archiveStatistics.getItemsPerSecond()).isEqualTo(1_000_000d);
+        ScannerPluginStatistics fileStatistics = statistics.getPluginStatistics().get(1);
+        assertThat(fileStatistics.getName()).isEqualTo("file");
+        assertThat(fileStatistics.getDescriptorsCreated()).isEqualTo(2);
+        assertThat(fileStatistics.getMaxDepth()).isEqualTo(2);
+        assertThat(fileStatistics.getScans().getTotalTime()).isEqualTo(100);
+    }
+
+    private ScannerPlugin<?, ?> plugin(String name) {
+        ScannerPlugin<?, ?> plugin = mock(ScannerPlugin.class);
+        doReturn(name).when(plugin).getName();
+        return plugin;
+    }
+}
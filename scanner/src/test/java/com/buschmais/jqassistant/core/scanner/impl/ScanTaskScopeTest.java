@@ -0,0 +1,63 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies the functionality of the {@link ScanTaskScope}.
+ */
+public class ScanTaskScopeTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    public void join(boolean virtualThreads) throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try (ScanTaskScope<Integer> scope = new ScanTaskScope<>(2, virtualThreads)) {
+            Future<Integer>[] futures = new Future[8];
+            for (int i = 0; i < futures.length; i++) {
+                int value = i;
+                futures[i] = scope.fork(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(10);
+                    running.decrementAndGet();
+                    return value;
+                });
+            }
+
+            scope.join();
+
+            for (int i = 0; i < futures.length; i++) {
+                assertThat(futures[i].isDone()).isTrue();
+                assertThat(futures[i].get()).isEqualTo(i);
+            }
+        }
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    public void failure(boolean virtualThreads) {
+        CountDownLatch blocked = new CountDownLatch(1);
+        try (ScanTaskScope<Integer> scope = new ScanTaskScope<>(2, virtualThreads)) {
+            Future<Integer> blocking = scope.fork(() -> {
+                blocked.await();
+                return 0;
+            });
+            scope.fork(() -> {
+                throw new IllegalStateException("Failure");
+            });
+
+            assertThatThrownBy(scope::join).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(blocking.isCancelled()).isTrue();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.buschmais.jqassistant.core.scanner.impl;
 
 import java.io.File;
+import java.util.NoSuchElementException;
 
 import com.buschmais.jqassistant.core.store.api.Store;
 
@@ -12,6 +13,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
@@ -65,6 +67,46 @@ public class ScannerContextImplTest {
         assertThat(scannerContext.peekOrDefault(String.class, "Bar"), equalTo("Bar"));
     }
 
+    @Test
+    public void nullValues() {
+        scannerContext.push(String.class, "Foo");
+        scannerContext.push(String.class, null);
+        assertThat(scannerContext.peekOrDefault(String.class, "Bar"), equalTo("Bar"));
+        assertThatThrownBy(() -> scannerContext.peek(String.class)).isInstanceOf(IllegalStateException.class);
+        assertThat(scannerContext.pop(String.class), nullValue());
+        assertThat(scannerContext.pop(String.class), equalTo("Foo"));
+        scannerContext.push(null, "Foo");
+        assertThat(scannerContext.pop(null), equalTo("Foo"));
+        assertThatThrownBy(() -> scannerContext.pop(String.class)).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    public void snapshot() {
+        scannerContext.push(String.class, "Foo");
+        scannerContext.push(Integer.class, 1);
+        scannerContext.push(Integer.class, 2);
+        ScannerContextImpl workerContext = new ScannerContextImpl(store, ScannerContextImpl.snapshot(scannerContext));
+        scannerContext.push(Long.class, 1L);
+
+        assertThat(workerContext.peek(String.class), equalTo("Foo"));
+        assertThat(workerContext.peek(Integer.class), equalTo(2));
+        assertThat(workerContext.peekOrDefault(Long.class, 0L), equalTo(0L));
+        workerContext.push(String.class, "Bar");
+        workerContext.push(Integer.class, null);
+        assertThat(workerContext.peek(String.class), equalTo("Bar"));
+        assertThat(workerContext.peekOrDefault(Integer.class, 0), equalTo(0));
+        ScannerContextImpl nestedWorkerContext = new ScannerContextImpl(store, ScannerContextImpl.snapshot(workerContext));
+        assertThat(nestedWorkerContext.peek(String.class), equalTo("Bar"));
+        assertThat(workerContext.pop(String.class), equalTo("Bar"));
+        assertThat(workerContext.peek(String.class), equalTo("Foo"));
+        assertThat(nestedWorkerContext.peek(String.class), equalTo("Bar"));
+
+        assertThat(scannerContext.pop(Integer.class), equalTo(2));
+        assertThat(scannerContext.pop(String.class), equalTo("Foo"));
+        assertThat(workerContext.peek(String.class), equalTo("Foo"));
+        assertThat(workerContext.getDataDirectory("test").getAbsoluteFile(), equalTo(new File(OUTPUT_DIRECTORY, "data/test").getAbsoluteFile()));
+    }
+
     @Test
     public void dataDirectory() {
         File test = scannerContext.getDataDirectory("test");
@@ -2,14 +2,20 @@ package com.buschmais.jqassistant.core.scanner.impl;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.buschmais.jqassistant.core.scanner.api.*;
 import com.buschmais.jqassistant.core.scanner.spi.ScannerPluginRepository;
 import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreListener;
 import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.api.Query;
 
 import org.junit.Assert;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,7 +28,10 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.mockito.stubbing.Answer;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyIterator;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.fail;
@@ -49,7 +58,7 @@ public class ScannerImplTest {
 
     private ScannerContext context;
 
-    private boolean transaction = false;
+    private volatile boolean transaction = false;
 
     private ScannerConfiguration configuration;
 
@@ -151,6 +160,53 @@ public class ScannerImplTest {
         verify(store, never()).commitTransaction();
     }
 
+    @Test
+    public void continueOnErrorRemovesNodesOfFailedNestedItem() throws IOException {
+        List<StoreListener> listeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            listeners.add(invocation.getArgument(0));
+            return null;
+        }).when(store).addListener(any(StoreListener.class));
+        Query.Result<Query.Result.CompositeRowObject> result = mock(Query.Result.class);
+        doAnswer(invocation -> emptyIterator()).when(result).iterator();
+        doReturn(result).when(store).executeQuery(anyString(), anyMap());
+        configuration.setContinueOnError(true);
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), context, scannerPluginRepository);
+        doAnswer(invocation -> {
+            Scanner nestedScanner = invocation.getArgument(3);
+            created(listeners, 1L);
+            nestedScanner.scan("good", "good", scope);
+            nestedScanner.scan("bad", "bad", scope);
+            return mock(Descriptor.class);
+        }).when(scannerPlugin).scan(eq("archive"), anyString(), eq(scope), any(Scanner.class));
+        doAnswer(invocation -> {
+            created(listeners, 2L);
+            return mock(Descriptor.class);
+        }).when(scannerPlugin).scan(eq("good"), anyString(), eq(scope), any(Scanner.class));
+        doAnswer(invocation -> {
+            created(listeners, 3L);
+            created(listeners, 4L);
+            throw new IllegalStateException("Exception in plugin");
+        }).when(scannerPlugin).scan(eq("bad"), anyString(), eq(scope), any(Scanner.class));
+
+        Descriptor descriptor = scanner.scan("archive", "archive", scope);
+
+        assertThat(descriptor, notNullValue());
+        verify(store).executeQuery(contains("DETACH DELETE"), eq(singletonMap("ids", asList(3L, 4L))));
+        verify(store).evict(asList(3L, 4L));
+        verify(store).beginTransaction();
+        verify(store).commitTransaction();
+        verify(store, never()).rollbackTransaction();
+        assertThat(listeners.size(), equalTo(1));
+        verify(store).removeListener(listeners.get(0));
+    }
+
+    private void created(List<StoreListener> listeners, long id) {
+        Descriptor descriptor = mock(Descriptor.class);
+        doReturn(id).when(descriptor).getId();
+        listeners.forEach(listener -> listener.created(descriptor));
+    }
+
     private void stubExceptionDuringScan(Scanner scanner) throws IOException {
         doAnswer(invocation -> {
             assertThat(transaction, equalTo(true));
@@ -172,6 +228,107 @@ public class ScannerImplTest {
         verify(store, times(2)).rollbackTransaction();
     }
 
+    @Test
+    public void parallelScan() throws IOException {
+        configuration.setParallelism(4);
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), context, scannerPluginRepository);
+        List<String> items = asList("test1", "test2", "test3", "test4", "test5", "test6", "test7", "test8");
+
+        List<Descriptor> descriptors = scanner.scanAll(items, item -> item, scope);
+
+        assertThat(descriptors.size(), equalTo(items.size()));
+        for (Descriptor descriptor : descriptors) {
+            assertThat(descriptor, notNullValue());
+        }
+        verify(scannerPlugin, times(items.size())).scan(anyString(), anyString(), eq(scope), any(Scanner.class));
+        verify(store).beginTransaction();
+        verify(store).commitTransaction();
+        verify(store, never()).rollbackTransaction();
+        assertThat(transaction, equalTo(false));
+    }
+
+    @Test
+    public void parallelScanUsingVirtualThreads() throws IOException {
+        configuration.setParallelism(2);
+        configuration.setVirtualThreads(true);
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), context, scannerPluginRepository);
+        List<String> items = asList("test1", "test2", "test3", "test4");
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            threadNames.add(Thread.currentThread().getName());
+            return mock(Descriptor.class);
+        }).when(scannerPlugin).scan(anyString(), anyString(), any(Scope.class), any(Scanner.class));
+
+        List<Descriptor> descriptors = scanner.scanAll(items, item -> item, scope);
+
+        assertThat(descriptors.size(), equalTo(items.size()));
+        // Virtual threads require Java 21 or later, platform threads are used otherwise
+        assertThat(threadNames.isEmpty(), equalTo(false));
+        for (String threadName : threadNames) {
+            assertThat(threadName, startsWith("jqassistant-scanner-"));
+            assertThat(threadName.startsWith("jqassistant-scanner-virtual-"), equalTo(ScanTaskScope.isVirtualThreadSupported()));
+        }
+        verify(scannerPlugin, times(items.size())).scan(anyString(), anyString(), eq(scope), any(Scanner.class));
+        verify(store).commitTransaction();
+        assertThat(transaction, equalTo(false));
+    }
+
+    @Test
+    public void parallelScanFailOnError() throws IOException {
+        configuration.setParallelism(4);
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), context, scannerPluginRepository);
+        doThrow(new IllegalStateException("Exception in plugin")).when(scannerPlugin).scan(eq("test"), anyString(), eq(scope), any(Scanner.class));
+
+        try {
+            scanner.scanAll(asList("test1", "test", "test3"), item -> item, scope);
+            fail("Expecting an " + UnrecoverableScannerException.class.getName());
+        } catch (UnrecoverableScannerException e) {
+            assertThat(e.getMessage(), containsString("test"));
+        }
+
+        verify(store).beginTransaction();
+        verify(store).rollbackTransaction();
+        verify(store, never()).commitTransaction();
+        assertThat(transaction, equalTo(false));
+    }
+
+    @Test
+    public void parallelScanContinueOnError() throws IOException {
+        configuration.setParallelism(4);
+        configuration.setContinueOnError(true);
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), context, scannerPluginRepository);
+        doThrow(new IllegalStateException("Exception in plugin")).when(scannerPlugin).scan(eq("test"), anyString(), eq(scope), any(Scanner.class));
+
+        List<Descriptor> descriptors = scanner.scanAll(asList("test1", "test", "test3"), item -> item, scope);
+
+        // The parallel transaction is rolled back, afterwards each item is scanned within its own transaction
+        assertThat(descriptors.size(), equalTo(3));
+        assertThat(descriptors.get(0), notNullValue());
+        assertThat(descriptors.get(1), nullValue());
+        assertThat(descriptors.get(2), notNullValue());
+        verify(store, times(4)).beginTransaction();
+        verify(store, times(2)).rollbackTransaction();
+        verify(store, times(2)).commitTransaction();
+        assertThat(transaction, equalTo(false));
+    }
+
+    @Test
+    public void parallelScanWithinActiveTransaction() throws IOException {
+        configuration.setParallelism(4);
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), context, scannerPluginRepository);
+        transaction = true;
+
+        List<Descriptor> descriptors = scanner.scanAll(asList("test1", "test2", "test3"), item -> item, scope);
+
+        // The workers use the transaction of the caller, it is neither committed nor replaced
+        assertThat(descriptors.size(), equalTo(3));
+        verify(scannerPlugin, times(3)).scan(anyString(), anyString(), eq(scope), any(Scanner.class));
+        verify(store, never()).beginTransaction();
+        verify(store, never()).commitTransaction();
+        verify(store, never()).rollbackTransaction();
+        assertThat(transaction, equalTo(true));
+    }
+
     /**
      * Verifies correct execution of the pipeline for dependent and nested scanner
      * plugins:
@@ -212,4 +369,129 @@ public class ScannerImplTest {
         verify(store).addDescriptorType(any(TestItemDescriptor.class), eq(NestedTestItemDescriptor.class));
         verify(store).addDescriptorType(any(NestedTestItemDescriptor.class), eq(DependentTestItemDescriptor.class));
     }
+
+    @Test
+    public void acceptsCriteria() {
+        Store store = mock(Store.class);
+        ScannerContext scannerContext = new ScannerContextImpl(store, OUTPUT_DIRECTORY);
+        when(store.create(TestItemDescriptor.class)).thenReturn(mock(TestItemDescriptor.class));
+        FilteredTestItemScannerPlugin scannerPlugin = new FilteredTestItemScannerPlugin();
+        Map<String, ScannerPlugin<?, ?>> scannerPlugins = new HashMap<>();
+        scannerPlugins.put("FilteredTestScanner", scannerPlugin);
+        doReturn(scannerPlugins).when(scannerPluginRepository).getScannerPlugins(scannerContext, emptyMap());
+        Scanner scanner = new ScannerImpl(new ScannerConfiguration(), emptyMap(), scannerContext, scannerPluginRepository);
+
+        Descriptor otherPath = scanner.scan(new TestItem(), "/item.txt", TestScope.TEST);
+        Descriptor otherScope = scanner.scan(new TestItem(), "/item.test", DefaultScope.NONE);
+        assertThat(otherPath, nullValue());
+        assertThat(otherScope, nullValue());
+        assertThat(scannerPlugin.getAcceptsCount(), equalTo(0));
+
+        Descriptor descriptor = scanner.scan(new TestItem(), "/item.test", TestScope.TEST);
+        assertThat(descriptor, instanceOf(TestItemDescriptor.class));
+        assertThat(scannerPlugin.getAcceptsCount(), equalTo(1));
+    }
+
+    @Test
+    public void statistics() {
+        Store store = mock(Store.class);
+        List<StoreListener> listeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            listeners.add(invocation.getArgument(0));
+            return null;
+        }).when(store).addListener(any(StoreListener.class));
+        doAnswer(invocation -> {
+            listeners.remove(invocation.getArgument(0));
+            return null;
+        }).when(store).removeListener(any(StoreListener.class));
+        when(store.create(TestItemDescriptor.class)).thenAnswer(invocation -> {
+            TestItemDescriptor descriptor = mock(TestItemDescriptor.class);
+            listeners.forEach(listener -> listener.created(descriptor));
+            return descriptor;
+        });
+        ScannerContext scannerContext = new ScannerContextImpl(store, OUTPUT_DIRECTORY);
+        Map<String, ScannerPlugin<?, ?>> scannerPlugins = new HashMap<>();
+        scannerPlugins.put("TestScanner", new TestItemScannerPlugin());
+        doReturn(scannerPlugins).when(scannerPluginRepository).getScannerPlugins(scannerContext, emptyMap());
+        ScannerConfiguration configuration = new ScannerConfiguration();
+        configuration.setStatistics(true);
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), scannerContext, scannerPluginRepository);
+
+        scanner.scan(new TestItem(), "/a", DefaultScope.NONE);
+        scanner.scan(new TestItem(), "/b", DefaultScope.NONE);
+
+        ScanStatistics statistics = scanner.getStatistics();
+        assertThat(statistics.getItems(), equalTo(2L));
+        assertThat(statistics.getMaxDepth(), equalTo(1));
+        assertThat(statistics.getDescriptorsCreated(), equalTo(2L));
+        assertThat(statistics.getPluginStatistics().size(), equalTo(1));
+        ScannerPluginStatistics pluginStatistics = statistics.getPluginStatistics().get(0);
+        assertThat(pluginStatistics.getName(), equalTo(TestItemScannerPlugin.class.getSimpleName()));
+        assertThat(pluginStatistics.getAccepts().getCount(), equalTo(2L));
+        assertThat(pluginStatistics.getScans().getCount(), equalTo(2L));
+        assertThat(pluginStatistics.getMaxDepth(), equalTo(1));
+        assertThat(pluginStatistics.getDescriptorsCreated(), equalTo(2L));
+        // The listener is only registered while an item is scanned
+        assertThat(listeners.isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void statisticsDisabled() {
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), context, scannerPluginRepository);
+
+        scanner.scan("test", "test", scope);
+
+        assertThat(scanner.getStatistics(), nullValue());
+        verify(store, never()).addListener(any(StoreListener.class));
+    }
+
+    @Test
+    public void deduplicate() throws IOException {
+        Store store = mock(Store.class);
+        TestItemDescriptor original = mock(TestItemDescriptor.class);
+        doReturn(1L).when(original).getId();
+        TestItemDescriptor duplicate = mock(TestItemDescriptor.class);
+        doReturn(2L).when(duplicate).getId();
+        TestItemDescriptor other = mock(TestItemDescriptor.class);
+        doReturn(3L).when(other).getId();
+        when(store.create(TestItemDescriptor.class)).thenReturn(original, duplicate, other);
+        Query.Result<Query.Result.CompositeRowObject> result = mock(Query.Result.class);
+        doReturn(result).when(store).executeQuery(anyString(), anyMap());
+        ScannerContext scannerContext = new ScannerContextImpl(store, OUTPUT_DIRECTORY);
+        Map<String, ScannerPlugin<?, ?>> scannerPlugins = new HashMap<>();
+        TestItemScannerPlugin scannerPlugin = spy(new TestItemScannerPlugin());
+        scannerPlugins.put("TestScanner", scannerPlugin);
+        doReturn(scannerPlugins).when(scannerPluginRepository).getScannerPlugins(scannerContext, emptyMap());
+        ScannerConfiguration configuration = new ScannerConfiguration();
+        configuration.setDeduplicate(true);
+        Scanner scanner = new ScannerImpl(configuration, emptyMap(), scannerContext, scannerPluginRepository);
+
+        Descriptor first = scanner.scan(new FingerprintedTestItem("a"), "/a/test.jar", DefaultScope.NONE);
+        Descriptor second = scanner.scan(new FingerprintedTestItem("a"), "/b/test.jar", DefaultScope.NONE);
+        Descriptor otherContent = scanner.scan(new FingerprintedTestItem("b"), "/c/test.jar", DefaultScope.NONE);
+
+        assertThat(first, sameInstance(original));
+        assertThat(second, sameInstance(duplicate));
+        assertThat(otherContent, sameInstance(other));
+        verify(scannerPlugin, never()).scan(any(TestItem.class), eq("/b/test.jar"), any(Scope.class), any(Scanner.class));
+        verify(store, times(3)).create(TestItemDescriptor.class);
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("duplicate", 2L);
+        parameters.put("original", 1L);
+        verify(store).executeQuery(ScanDeduplicator.DUPLICATE_OF, parameters);
+    }
+
+    private static class FingerprintedTestItem extends TestItem implements FingerprintedItem {
+
+        private final String fingerprint;
+
+        private FingerprintedTestItem(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public String getFingerprint() {
+            return fingerprint;
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.util.List;
+
+import com.buschmais.jqassistant.core.scanner.api.ScannerPlugin;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies the functionality of {@link ScannerPluginDispatchTable}.
+ */
+public class ScannerPluginDispatchTableTest {
+
+    private final ScannerPlugin<?, ?> dependentPlugin = new DependentTestItemScannerPlugin();
+
+    private final ScannerPlugin<?, ?> testItemPlugin = new TestItemScannerPlugin();
+
+    private final ScannerPlugin<?, ?> objectPlugin = mock(ScannerPlugin.class);
+
+    @Test
+    public void declaredTypes() {
+        ScannerPluginDispatchTable dispatchTable = createDispatchTable();
+
+        assertThat(dispatchTable.getDeclaredTypes()).containsExactlyInAnyOrder(TestItem.class, Object.class);
+        assertThat(getPlugins(dispatchTable, TestItem.class)).containsExactly(testItemPlugin, dependentPlugin, objectPlugin);
+        assertThat(getPlugins(dispatchTable, Object.class)).containsExactly(objectPlugin);
+    }
+
+    @Test
+    public void subTypeSharesIndexOfDeclaredType() {
+        ScannerPluginDispatchTable dispatchTable = createDispatchTable();
+
+        assertThat(dispatchTable.get(SubTestItem.class)).isSameAs(dispatchTable.get(TestItem.class));
+        assertThat(dispatchTable.get(String.class)).isSameAs(dispatchTable.get(Object.class));
+    }
+
+    @Test
+    public void metadata() {
+        assertThat(ScannerPluginDispatchTable.getMetadata(DependentTestItemScannerPlugin.class).isRequiresDescriptor()).isTrue();
+        assertThat(ScannerPluginDispatchTable.getMetadata(DependentTestItemScannerPlugin.class).getRequiredDescriptorTypes())
+                .containsExactly(TestItemDescriptor.class);
+        assertThat(ScannerPluginDispatchTable.getMetadata(TestItemScannerPlugin.class).isRequiresDescriptor()).isFalse();
+        assertThat(ScannerPluginDispatchTable.getMetadata(TestItemScannerPlugin.class).getRequiredDescriptorTypes()).isEmpty();
+        assertThat(ScannerPluginDispatchTable.getMetadata(FilteredTestItemScannerPlugin.class).getAccepts()).isNotNull();
+    }
+
+    private ScannerPluginDispatchTable createDispatchTable() {
+        doReturn(Object.class).when(objectPlugin).getType();
+        doReturn(NestedTestItemDescriptor.class).when(objectPlugin).getDescriptorType();
+        return new ScannerPluginDispatchTable(asList(dependentPlugin, testItemPlugin, objectPlugin));
+    }
+
+    private List<ScannerPlugin<?, ?>> getPlugins(ScannerPluginDispatchTable dispatchTable, Class<?> type) {
+        return dispatchTable.get(type).getCandidates(null, null).stream().map(ScannerPluginIndex.Candidate::getPlugin).collect(toList());
+    }
+
+    private static class SubTestItem extends TestItem {
+    }
+}
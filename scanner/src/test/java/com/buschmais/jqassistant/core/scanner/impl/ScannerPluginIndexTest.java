@@ -0,0 +1,76 @@
+package com.buschmais.jqassistant.core.scanner.impl;
+
+import java.util.List;
+
+import com.buschmais.jqassistant.core.scanner.api.DefaultScope;
+import com.buschmais.jqassistant.core.scanner.api.ScannerPlugin;
+import com.buschmais.jqassistant.core.scanner.api.Scope;
+
+import org.junit.jupiter.api.Test;
+
+import static com.buschmais.jqassistant.core.scanner.api.ScannerPlugin.Accepts;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies the functionality of {@link ScannerPluginIndex}.
+ */
+public class ScannerPluginIndexTest {
+
+    private final ScannerPlugin<?, ?> anyPlugin = mock(ScannerPlugin.class);
+
+    private final ScannerPlugin<?, ?> filteredPlugin = new FilteredTestItemScannerPlugin();
+
+    private final ScannerPlugin<?, ?> fileNamePlugin = new FileNamePlugin();
+
+    private final ScannerPlugin<?, ?> globPlugin = new GlobPlugin();
+
+    private final ScannerPluginIndex index = new ScannerPluginIndex(asList(anyPlugin, filteredPlugin, fileNamePlugin, globPlugin));
+
+    @Test
+    public void suffix() {
+        assertThat(getPlugins("/a/b.test", TestScope.TEST)).containsExactly(anyPlugin, filteredPlugin);
+        assertThat(getPlugins("/a/b.TEST", TestScope.TEST)).containsExactly(anyPlugin, filteredPlugin);
+        assertThat(getPlugins("/a/b.test.txt", TestScope.TEST)).containsExactly(anyPlugin);
+    }
+
+    @Test
+    public void scope() {
+        assertThat(getPlugins("/a/b.test", DefaultScope.NONE)).containsExactly(anyPlugin);
+        assertThat(getPlugins("/a/b.test", null)).containsExactly(anyPlugin, filteredPlugin);
+    }
+
+    @Test
+    public void fileName() {
+        assertThat(getPlugins("/pom.xml", DefaultScope.NONE)).containsExactly(anyPlugin, fileNamePlugin);
+        assertThat(getPlugins("/a/POM.xml", DefaultScope.NONE)).containsExactly(anyPlugin, fileNamePlugin);
+        assertThat(getPlugins("/a/my-pom.xml", DefaultScope.NONE)).containsExactly(anyPlugin);
+    }
+
+    @Test
+    public void glob() {
+        assertThat(getPlugins("/META-INF/MANIFEST.MF", DefaultScope.NONE)).containsExactly(anyPlugin, globPlugin);
+        assertThat(getPlugins("/META-INF/a/b.xml", DefaultScope.NONE)).containsExactly(anyPlugin, globPlugin);
+        assertThat(getPlugins("/META-INF/a.txt", DefaultScope.NONE)).containsExactly(anyPlugin);
+        assertThat(getPlugins("/WEB-INF/a.xml", DefaultScope.NONE)).containsExactly(anyPlugin);
+    }
+
+    @Test
+    public void noPath() {
+        assertThat(getPlugins(null, DefaultScope.NONE)).containsExactly(anyPlugin, fileNamePlugin, globPlugin);
+    }
+
+    private List<ScannerPlugin<?, ?>> getPlugins(String path, Scope scope) {
+        return index.getCandidates(path, scope).stream().map(ScannerPluginIndex.Candidate::getPlugin).collect(toList());
+    }
+
+    @Accepts(paths = "pom.xml")
+    private static class FileNamePlugin extends FilteredTestItemScannerPlugin {
+    }
+
+    @Accepts(paths = { "/meta-inf/manifest.m?", "/META-INF/**.xml" })
+    private static class GlobPlugin extends FilteredTestItemScannerPlugin {
+    }
+}
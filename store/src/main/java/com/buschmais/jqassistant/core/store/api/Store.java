@@ -1,6 +1,13 @@
 package com.buschmais.jqassistant.core.store.api;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletionStage;
 
 import com.buschmais.jqassistant.core.shared.annotation.ToBeRemovedInVersion;
 import com.buschmais.jqassistant.core.store.api.model.Descriptor;
@@ -11,6 +18,9 @@ import com.buschmais.xo.api.Query.Result.CompositeRowObject;
 import com.buschmais.xo.api.XOManager;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import static java.util.Collections.emptyMap;
 
 /**
  * Defines the store for {@link Descriptor}s.
@@ -45,6 +55,36 @@ public interface Store {
      */
     void reset();
 
+    /**
+     * Write a snapshot of the database to a compressed and checksummed archive,
+     * e.g. for seeding subsequent builds. A started store is stopped while the
+     * snapshot is written.
+     *
+     * @param archive
+     *            The archive, an existing file is replaced.
+     * @throws UnsupportedOperationException
+     *             If the store does not support snapshots.
+     */
+    default void snapshot(File archive) {
+        throw new UnsupportedOperationException("Snapshots are not supported by " + getClass().getSimpleName() + ".");
+    }
+
+    /**
+     * Restore the database from a snapshot written by {@link #snapshot(File)}.
+     * The store must not be started, the existing database is only replaced if
+     * the snapshot is valid. Data kept outside of the database must be
+     * validated against the restored database (e.g. the scan cache verifies
+     * the token stored in the graph).
+     *
+     * @param archive
+     *            The archive.
+     * @throws UnsupportedOperationException
+     *             If the store does not support snapshots.
+     */
+    default void restore(File archive) {
+        throw new UnsupportedOperationException("Snapshots are not supported by " + getClass().getSimpleName() + ".");
+    }
+
     /**
      * Begin a transaction.
      *
@@ -72,6 +112,17 @@ public interface Store {
      */
     boolean hasActiveTransaction();
 
+    /**
+     * Return the modification epoch of the database, it changes whenever a
+     * transaction modifying the graph (including properties of existing nodes
+     * and relations) has been committed.
+     *
+     * @return The epoch or an empty value if it is not provided by the store.
+     */
+    default OptionalLong getModificationEpoch() {
+        return OptionalLong.empty();
+    }
+
     /**
      * Flush all pending data.
      *
@@ -79,6 +130,56 @@ public interface Store {
      */
     void flush();
 
+    /**
+     * Wait until all pending write operations have been executed.
+     *
+     * This is only required if the store executes write operations asynchronously
+     * (write-behind mode), afterwards all previously issued operations are applied
+     * and failures of them are reported.
+     */
+    default void barrier() {
+    }
+
+    /**
+     * Open a session for the current thread, e.g. a worker thread validating
+     * constraints in parallel.
+     *
+     * By default all threads share the session of the store, i.e. its
+     * {@link XOManager} and transaction. Until the returned session is closed
+     * the current thread uses its own {@link XOManager} and transactions
+     * instead. {@link Descriptor}s are bound to the session which loaded or
+     * created them and must not be used after it has been closed.
+     *
+     * @return The {@link StoreSession}, it must be closed by the current thread.
+     * @throws UnsupportedOperationException
+     *             If the store does not support sessions.
+     */
+    default StoreSession openSession() {
+        throw new UnsupportedOperationException("Sessions are not supported by " + getClass().getSimpleName() + ".");
+    }
+
+    /**
+     * Add a {@link StoreListener} for the transactions of the current session.
+     *
+     * Stores which do not support listeners ignore them, i.e. the listener is
+     * not notified.
+     *
+     * @param listener
+     *            The {@link StoreListener}.
+     */
+    default void addListener(StoreListener listener) {
+    }
+
+    /**
+     * Remove a {@link StoreListener} from the transactions of the current
+     * session.
+     *
+     * @param listener
+     *            The {@link StoreListener}.
+     */
+    default void removeListener(StoreListener listener) {
+    }
+
     /**
      * Creates a {@link Descriptor} of the given type.
      *
@@ -127,6 +228,93 @@ public interface Store {
      */
     <S extends Descriptor, R extends Descriptor, T extends Descriptor> R create(S source, Class<R> relationType, T target, Example<R> example);
 
+    /**
+     * Creates {@link Descriptor}s of the given type using bulk operations.
+     *
+     * The descriptors are created by a parameterized `UNWIND` statement per
+     * batch, this reduces the number of round trips to the store significantly.
+     * The default implementation creates them one by one using
+     * {@link #create(Class)} and sets their properties using a Cypher statement.
+     *
+     * @param type
+     *            The type.
+     * @param properties
+     *            The properties of the descriptors to create, one {@link Map} per
+     *            descriptor.
+     * @param <T>
+     *            The descriptor type.
+     * @return The created {@link Descriptor}s in the order of the given
+     *         properties.
+     */
+    default <T extends Descriptor> List<T> createAll(Class<T> type, List<Map<String, Object>> properties) {
+        List<T> descriptors = new ArrayList<>(properties.size());
+        for (Map<String, Object> descriptorProperties : properties) {
+            T descriptor = create(type);
+            if (!descriptorProperties.isEmpty()) {
+                Map<String, Object> parameters = new HashMap<>();
+                parameters.put("id", descriptor.getId());
+                parameters.put("properties", descriptorProperties);
+                try (Result<CompositeRowObject> result = executeQuery("MATCH (n) WHERE id(n) = $id SET n += $properties", parameters)) {
+                    result.iterator().hasNext();
+                }
+            }
+            descriptors.add(descriptor);
+        }
+        return descriptors;
+    }
+
+    /**
+     * Creates relations between {@link Descriptor}s using bulk operations.
+     *
+     * The relations are created by a parameterized `UNWIND` statement per batch,
+     * this reduces the number of round trips to the store significantly. The
+     * default implementation creates them one by one using
+     * {@link #create(Descriptor, Class, Descriptor)} and sets their properties
+     * using a Cypher statement.
+     *
+     * @param sources
+     *            The source descriptors.
+     * @param relationType
+     *            The relation type to create.
+     * @param targets
+     *            The target descriptors, the size must match the size of the
+     *            source descriptors.
+     * @param properties
+     *            The properties of the relations to create (one {@link Map} per
+     *            relation) or `null`.
+     * @param <S>
+     *            The source descriptor type.
+     * @param <R>
+     *            The relation type.
+     * @param <T>
+     *            The target descriptor type.
+     * @return The created relations in the order of the given source and target
+     *         descriptors.
+     */
+    default <S extends Descriptor, R extends Descriptor, T extends Descriptor> List<R> relateAll(List<S> sources, Class<R> relationType, List<T> targets,
+            List<Map<String, Object>> properties) {
+        if (sources.size() != targets.size() || (properties != null && properties.size() != sources.size())) {
+            throw new IllegalArgumentException("The number of sources, targets and properties must be equal.");
+        }
+        List<R> relations = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            S source = sources.get(i);
+            R relation = create(source, relationType, targets.get(i));
+            if (properties != null && !properties.get(i).isEmpty()) {
+                Map<String, Object> parameters = new HashMap<>();
+                parameters.put("source", source.getId());
+                parameters.put("id", relation.getId());
+                parameters.put("properties", properties.get(i));
+                try (Result<CompositeRowObject> result = executeQuery("MATCH (s)-[r]->() WHERE id(s) = $source AND id(r) = $id SET r += $properties",
+                        parameters)) {
+                    result.iterator().hasNext();
+                }
+            }
+            relations.add(relation);
+        }
+        return relations;
+    }
+
     /**
      * Creates a {@link Descriptor} of the given type with a full qualified name
      *
@@ -149,6 +337,17 @@ public interface Store {
      */
     <T extends Descriptor> void delete(T descriptor);
 
+    /**
+     * Evict the descriptors of nodes which have been deleted using a CYPHER query
+     * (see {@link #executeQuery(String, Map)}) from the caches of the store and
+     * the index of full qualified names.
+     *
+     * @param ids
+     *            The ids of the deleted nodes.
+     */
+    default void evict(Collection<Long> ids) {
+    }
+
     /**
      * Add a descriptor type to an existing descriptor.
      *
@@ -235,6 +434,28 @@ public interface Store {
      */
     Result<CompositeRowObject> executeQuery(String query);
 
+    /**
+     * Executes a CYPHER query asynchronously.
+     *
+     * The query is executed within its own transaction, i.e. independent of the
+     * transaction of the calling thread, so independent queries can be
+     * pipelined. Nodes and relations returned by the query are not bound to the
+     * calling thread, therefore the query should return scalar values (e.g. ids
+     * or properties).
+     *
+     * @param query
+     *            The CYPHER query.
+     * @param parameters
+     *            The parameters, they must not contain {@link Descriptor}s.
+     * @return The {@link CompletionStage} providing the rows, each row maps the
+     *         column names to their values.
+     * @throws UnsupportedOperationException
+     *             If the store does not support asynchronous queries.
+     */
+    default CompletionStage<List<Map<String, Object>>> executeQueryAsync(String query, Map<String, Object> parameters) {
+        throw new UnsupportedOperationException("Asynchronous queries are not supported by " + getClass().getSimpleName() + ".");
+    }
+
     /**
      * Executes a typed CYPHER query.
      *
@@ -268,4 +489,15 @@ public interface Store {
      *            The cache key.
      */
     void invalidateCache(String cacheKey);
+
+    /**
+     * Return the statistics of the caches, they are only recorded if enabled by
+     * the cache specification (see {@link StoreConfiguration#getCacheSpec()}).
+     *
+     * @return The {@link CacheStats} per cache key, empty if the store does not
+     *         provide statistics.
+     */
+    default Map<String, CacheStats> getCacheStatistics() {
+        return emptyMap();
+    }
 }
@@ -1,6 +1,8 @@
 package com.buschmais.jqassistant.core.store.api;
 
 import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 import com.buschmais.jqassistant.neo4j.backend.bootstrap.EmbeddedNeo4jConfiguration;
@@ -39,6 +41,126 @@ public class StoreConfiguration {
 
     private String trustCertificate;
 
+    /**
+     * The initial number of created nodes and relations after which a transaction
+     * is committed automatically, `null` for the default of the store.
+     */
+    private Integer autocommitThreshold;
+
+    /**
+     * Adapt the auto commit threshold to the measured commit duration and heap
+     * usage (opt-in), otherwise a fixed threshold is used.
+     */
+    private boolean adaptiveAutocommit;
+
+    /**
+     * The target duration of an automatic commit in milliseconds (adaptive auto
+     * commit).
+     */
+    @Default
+    private long autocommitTargetMillis = 2000;
+
+    /**
+     * The heap usage (0..1) after garbage collection which leads to an early
+     * commit (adaptive auto commit).
+     */
+    @Default
+    private double autocommitMaxHeapUsage = 0.8;
+
+    /**
+     * Execute write operations asynchronously on a dedicated writer thread.
+     *
+     * Descriptors created in write-behind mode are returned as proxies which
+     * only implement the requested descriptor type (and
+     * {@link com.buschmais.xo.api.CompositeObject}), type checks like
+     * `instanceof` or casts to other types require the descriptor resolved by
+     * {@link com.buschmais.jqassistant.core.store.impl.StoreWriter#unwrap(Object)}.
+     */
+    private boolean writeBehind;
+
+    /**
+     * The maximum number of pending asynchronous write operations before callers
+     * are blocked.
+     */
+    @Default
+    private int writeBehindCapacity = 4096;
+
+    /**
+     * The specification of the descriptor caches (see
+     * {@link Store#getCache(String)}) using the syntax of Caffeine, e.g.
+     * `maximumSize=100000,expireAfterAccess=10m,recordStats`. If a
+     * `maximumWeight` is specified entries are weighted by the length of their
+     * keys.
+     */
+    @Default
+    private String cacheSpec = "softValues";
+
+    /**
+     * Cache specifications per cache key, overriding {@link #cacheSpec}.
+     */
+    @Default
+    private Map<String, String> cacheSpecs = new HashMap<>();
+
+    /**
+     * The number of rows passed to one statement by the bulk operations (see
+     * {@link Store#createAll} and {@link Store#relateAll}).
+     */
+    @Default
+    private int bulkSize = 1000;
+
+    /**
+     * Maintain an in-process index of the full qualified names of the nodes
+     * which is used by {@link Store#find(Class, String)} without accessing the
+     * database. The index holds node ids only and is built from the graph for
+     * each registered descriptor type when the store is started, nodes which
+     * are changed without using the store (e.g. by Cypher queries) are not
+     * reflected.
+     */
+    private boolean fullQualifiedNameIndex;
+
+    /**
+     * Reset an embedded store by deleting and recreating its database instead of
+     * deleting all nodes and relations. The database is only recreated if the
+     * directory of the store contains a database, otherwise the nodes and
+     * relations are deleted.
+     */
+    @Default
+    private boolean recreateOnReset = true;
+
+    /**
+     * The number of threads deleting nodes and relations on reset.
+     */
+    @Default
+    private int resetParallelism = 4;
+
+    /**
+     * The maximum number of pooled connections used for asynchronous queries of
+     * a remote store, `null` for the default of the driver.
+     *
+     * The connection pool settings only apply to the driver executing
+     * asynchronous queries (see `Store#executeQueryAsync`), the connections of
+     * the XO session are configured using {@link #properties}.
+     */
+    private Integer maxConnectionPoolSize;
+
+    /**
+     * The maximum time in milliseconds to wait for a pooled connection of a
+     * remote store, `null` for the default of the driver.
+     */
+    private Long connectionAcquisitionTimeout;
+
+    /**
+     * The maximum lifetime in milliseconds of a pooled connection of a remote
+     * store, `null` for the default of the driver.
+     */
+    private Long maxConnectionLifetime;
+
+    /**
+     * The number of threads executing asynchronous queries of an embedded store.
+     */
+    @Default
+    private int asyncParallelism = 4;
+
     @Default
     private Properties properties = new Properties();
 
@@ -4,6 +4,7 @@ import java.net.URI;
 
 import com.buschmais.jqassistant.core.store.impl.EmbeddedGraphStore;
 import com.buschmais.jqassistant.core.store.impl.RemoteGraphStore;
+import com.buschmais.jqassistant.core.store.impl.StoreWriter;
 import com.buschmais.jqassistant.core.store.spi.StorePluginRepository;
 
 import org.slf4j.Logger;
@@ -27,14 +28,22 @@ public class StoreFactory {
         if (scheme == null) {
             throw new IllegalArgumentException("Cannot determine scheme from URI '" + uri + "'.");
         }
+        Store store;
         switch (scheme.toLowerCase()) {
         case "file":
         case "memory":
-            return new EmbeddedGraphStore(configuration, storePluginRepository);
+            store = new EmbeddedGraphStore(configuration, storePluginRepository);
+            break;
         case "bolt":
-            return new RemoteGraphStore(configuration, storePluginRepository);
+            store = new RemoteGraphStore(configuration, storePluginRepository);
+            break;
         default:
             throw new IllegalArgumentException("Cannot determine store type from URI '" + uri + "'.");
         }
+        if (configuration.isWriteBehind()) {
+            LOGGER.info("Using write-behind mode (capacity=" + configuration.getWriteBehindCapacity() + ").");
+            return new StoreWriter(store, configuration.getWriteBehindCapacity());
+        }
+        return store;
     }
 }
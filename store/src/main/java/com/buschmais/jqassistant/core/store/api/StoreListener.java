@@ -0,0 +1,35 @@
+package com.buschmais.jqassistant.core.store.api;
+
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+
+/**
+ * Listener which is notified about the write operations and transactions of a
+ * {@link Store}, see {@link Store#addListener(StoreListener)}.
+ *
+ * The listener is invoked by the thread executing the operation, i.e. it may
+ * use the store within the current transaction.
+ */
+public interface StoreListener {
+
+    /**
+     * A node has been created.
+     *
+     * @param descriptor
+     *            The {@link Descriptor} representing the node.
+     */
+    default void created(Descriptor descriptor) {
+    }
+
+    /**
+     * The current transaction is about to be committed, either explicitly or by
+     * an auto commit (see {@link Store#flush()}).
+     */
+    default void beforeCommit() {
+    }
+
+    /**
+     * The current transaction has been rolled back.
+     */
+    default void afterRollback() {
+    }
+}
@@ -0,0 +1,16 @@
+package com.buschmais.jqassistant.core.store.api;
+
+/**
+ * A session of a worker thread with a {@link Store}, see
+ * {@link Store#openSession()}.
+ */
+public interface StoreSession extends AutoCloseable {
+
+    /**
+     * Close the session, an active transaction is rolled back.
+     *
+     * This method must be called by the thread which opened the session.
+     */
+    @Override
+    void close();
+}
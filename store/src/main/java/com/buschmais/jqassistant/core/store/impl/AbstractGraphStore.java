@@ -1,10 +1,28 @@
 package com.buschmais.jqassistant.core.store.impl;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.buschmais.jqassistant.core.store.api.Store;
 import com.buschmais.jqassistant.core.store.api.StoreConfiguration;
+import com.buschmais.jqassistant.core.store.api.StoreListener;
+import com.buschmais.jqassistant.core.store.api.StoreSession;
 import com.buschmais.jqassistant.core.store.api.model.Descriptor;
 import com.buschmais.jqassistant.core.store.api.model.FullQualifiedNameDescriptor;
 import com.buschmais.jqassistant.core.store.spi.StorePluginRepository;
@@ -14,11 +32,15 @@ import com.buschmais.xo.api.ResultIterable;
 import com.buschmais.xo.api.ValidationMode;
 import com.buschmais.xo.api.XOManager;
 import com.buschmais.xo.api.XOManagerFactory;
+import com.buschmais.xo.api.XOTransaction;
 import com.buschmais.xo.api.bootstrap.XO;
 import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+import com.buschmais.xo.neo4j.api.annotation.Relation;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,20 +49,48 @@ import org.slf4j.LoggerFactory;
  *
  * Provides methods for managing the life packages of a store, transactions,
  * resolving descriptors and executing CYPHER queries.
+ *
+ * All threads share one {@link XOManager} unless a thread explicitly opens its
+ * own session (see {@link #openSession()}), e.g. for validating constraints in
+ * parallel. Such a session uses its own {@link XOManager} and transactions
+ * until it is closed.
  */
 public abstract class AbstractGraphStore implements Store {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractGraphStore.class);
 
-    private Map<String, Cache<?, ? extends Descriptor>> caches = new HashMap<>();
+    private static final int RESET_RELATIONS_BATCH_SIZE = 50000;
+
+    private static final int RESET_NODES_BATCH_SIZE = 10000;
+
+    private static final int RESET_MAX_ATTEMPTS = 5;
+
+    /**
+     * The caches per key, they are wrapped by proxies recording the entries which
+     * refer to descriptors created within the current transaction (see
+     * {@link CacheInvocationHandler}).
+     */
+    private Map<String, Cache<?, ? extends Descriptor>> caches = new ConcurrentHashMap<>();
+
+    private Map<Class<?>, String> labelsPerType = new ConcurrentHashMap<>();
+
+    private Map<Class<?>, Set<String>> labelSetsPerType = new ConcurrentHashMap<>();
+
+    /**
+     * The indexes of full qualified names per set of labels of the registered
+     * descriptor types (see {@link #getLabelSet(Class)}), `null` if disabled.
+     */
+    private Map<Set<String>, FullQualifiedNameIndex> fullQualifiedNameIndexes;
 
     protected final StoreConfiguration storeConfiguration;
 
     protected final StorePluginRepository storePluginRepository;
 
     private XOManagerFactory xoManagerFactory;
-    private XOManager xoManager;
-    private int created;
+    private Session session;
+    private final ThreadLocal<Session> workerSessions = new ThreadLocal<>();
+    private final Set<Session> openWorkerSessions = ConcurrentHashMap.newKeySet();
+    private ExecutorService asyncExecutor;
 
     protected AbstractGraphStore(StoreConfiguration configuration, StorePluginRepository storePluginRepository) {
         this.storeConfiguration = configuration;
@@ -55,61 +105,323 @@ public abstract class AbstractGraphStore implements Store {
         configure(builder, storeConfiguration);
         xoManagerFactory = XO.createXOManagerFactory(builder.build());
         initialize(xoManagerFactory);
-        xoManager = xoManagerFactory.createXOManager();
+        session = createSession();
+        if (storeConfiguration.isFullQualifiedNameIndex()) {
+            fullQualifiedNameIndexes = buildFullQualifiedNameIndexes();
+        }
+    }
+
+    /**
+     * Build the indexes of full qualified names from the nodes of the graph, one
+     * per set of labels of the registered {@link FullQualifiedNameDescriptor}
+     * types.
+     *
+     * @return The indexes.
+     */
+    private Map<Set<String>, FullQualifiedNameIndex> buildFullQualifiedNameIndexes() {
+        Map<Set<String>, FullQualifiedNameIndex> indexes = new HashMap<>();
+        XOTransaction transaction = session.xoManager.currentTransaction();
+        transaction.begin();
+        try {
+            for (Class<?> type : storePluginRepository.getDescriptorTypes()) {
+                Set<String> labels = getLabelSet(type);
+                if (FullQualifiedNameDescriptor.class.isAssignableFrom(type) && !labels.isEmpty() && !indexes.containsKey(labels)) {
+                    indexes.put(labels, buildFullQualifiedNameIndex(type));
+                }
+            }
+        } finally {
+            transaction.commit();
+        }
+        return Collections.unmodifiableMap(indexes);
+    }
+
+    /**
+     * Build the index of full qualified names for a descriptor type.
+     *
+     * @param type
+     *            The descriptor type.
+     * @return The index.
+     */
+    private FullQualifiedNameIndex buildFullQualifiedNameIndex(Class<?> type) {
+        FullQualifiedNameIndex index = new FullQualifiedNameIndex();
+        try (Result<Result.CompositeRowObject> result = session.xoManager
+                .createQuery("MATCH (n" + getLabels(type) + ") WHERE n.fqn IS NOT NULL RETURN id(n) AS id, n.fqn AS fqn").execute()) {
+            for (Result.CompositeRowObject row : result) {
+                index.put(row.get("fqn", String.class), row.get("id", Long.class));
+            }
+        }
+        LOGGER.info("Indexed {} full qualified names of type {}.", index.size(), type.getName());
+        return index;
+    }
+
+    private Session createSession() {
+        Integer autocommitThreshold = storeConfiguration.getAutocommitThreshold();
+        return new Session(xoManagerFactory.createXOManager(),
+                new AutoCommitController(autocommitThreshold != null ? autocommitThreshold : getAutocommitThreshold(), storeConfiguration.isAdaptiveAutocommit(),
+                        storeConfiguration.getAutocommitTargetMillis(), storeConfiguration.getAutocommitMaxHeapUsage()));
     }
 
     @Override
     public void stop() {
-        if (xoManager != null) {
-            if (xoManager.currentTransaction().isActive()) {
-                LOGGER.warn("Rolling back an active transaction.");
-                xoManager.currentTransaction().rollback();
-            }
-            xoManager.close();
+        logCacheStatistics();
+        // The cached descriptors belong to the sessions which are closed, e.g. before a snapshot is restored
+        for (Cache<?, ? extends Descriptor> cache : caches.values()) {
+            cache.invalidateAll();
         }
+        shutdownAsyncExecutor();
+        for (Session workerSession : openWorkerSessions) {
+            LOGGER.warn("Closing a session which has not been closed by its thread.");
+            workerSession.closed = true;
+            close(workerSession.xoManager);
+        }
+        openWorkerSessions.clear();
+        if (session != null) {
+            close(session.xoManager);
+            session = null;
+        }
+        fullQualifiedNameIndexes = null;
         if (xoManagerFactory != null) {
             xoManagerFactory.close();
         }
     }
 
+    private void close(XOManager xoManager) {
+        if (xoManager.currentTransaction().isActive()) {
+            LOGGER.warn("Rolling back an active transaction.");
+            xoManager.currentTransaction().rollback();
+        }
+        xoManager.close();
+    }
+
+    /**
+     * Return the {@link Session} of the current thread, i.e. the session opened
+     * by the thread or the shared session.
+     *
+     * @return The {@link Session}.
+     */
+    private Session session() {
+        Session workerSession = workerSessions.get();
+        return workerSession != null && !workerSession.closed ? workerSession : session;
+    }
+
+    @Override
+    public StoreSession openSession() {
+        if (session == null) {
+            throw new IllegalStateException("The store has not been started.");
+        }
+        Session current = workerSessions.get();
+        if (current != null && !current.closed) {
+            throw new IllegalStateException("The current thread has already opened a session.");
+        }
+        Session workerSession = createSession();
+        workerSessions.set(workerSession);
+        openWorkerSessions.add(workerSession);
+        Thread thread = Thread.currentThread();
+        return () -> {
+            if (Thread.currentThread() != thread) {
+                throw new IllegalStateException("A session must be closed by the thread which opened it.");
+            }
+            workerSessions.remove();
+            if (openWorkerSessions.remove(workerSession)) {
+                workerSession.closed = true;
+                close(workerSession.xoManager);
+            }
+        };
+    }
+
     @Override
     public XOManager getXOManager() {
-        return xoManager;
+        return session != null ? session().xoManager : null;
     }
 
     @Override
     public <T extends Descriptor> T create(Class<T> type) {
-        T descriptor = xoManager.create(type);
+        T descriptor = session().xoManager.create(type);
+        created(descriptor);
         autoCommit();
         return descriptor;
     }
 
     @Override
     public <T extends Descriptor> T create(Class<T> type, Example<T> example) {
-        T descriptor = xoManager.create(type, example);
+        T descriptor = session().xoManager.create(type, example);
+        created(descriptor);
         autoCommit();
         return descriptor;
     }
 
     @Override
     public <S extends Descriptor, R extends Descriptor, T extends Descriptor> R create(S source, Class<R> relationType, T target) {
-        R descriptor = xoManager.create(source, relationType, target);
+        R descriptor = session().xoManager.create(source, relationType, target);
+        autoCommit();
         return descriptor;
     }
 
     @Override
     public <S extends Descriptor, R extends Descriptor, T extends Descriptor> R create(S source, Class<R> relationType, T target, Example<R> example) {
-        R descriptor = xoManager.create(source, relationType, target, example);
+        R descriptor = session().xoManager.create(source, relationType, target, example);
+        autoCommit();
         return descriptor;
     }
 
+    @Override
+    public <T extends Descriptor> List<T> createAll(Class<T> type, List<Map<String, Object>> properties) {
+        String query = "UNWIND $rows AS row CREATE (n" + getLabels(type) + ") SET n = row RETURN n";
+        return executeBulk(query, properties, type, true);
+    }
+
+    @Override
+    public <S extends Descriptor, R extends Descriptor, T extends Descriptor> List<R> relateAll(List<S> sources, Class<R> relationType, List<T> targets,
+            List<Map<String, Object>> properties) {
+        if (sources.size() != targets.size() || (properties != null && properties.size() != sources.size())) {
+            throw new IllegalArgumentException("The number of sources, targets and properties must be equal.");
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("source", sources.get(i).getId());
+            row.put("target", targets.get(i).getId());
+            row.put("properties", properties != null ? properties.get(i) : Collections.emptyMap());
+            rows.add(row);
+        }
+        String query = "UNWIND $rows AS row MATCH (s) WHERE id(s) = row.source MATCH (t) WHERE id(t) = row.target CREATE (s)-[r:"
+                + getRelationType(relationType) + "]->(t) SET r = row.properties RETURN r";
+        return executeBulk(query, rows, relationType, false);
+    }
+
+    /**
+     * Executes a bulk statement for the given rows in batches of the configured
+     * bulk size.
+     *
+     * @param query
+     *            The query, it must return the created entities as first column.
+     * @param rows
+     *            The rows to be passed as parameter `rows`.
+     * @param type
+     *            The type of the created entities.
+     * @param nodes
+     *            `true` if the created entities are nodes.
+     * @param <T>
+     *            The type of the created entities.
+     * @return The created entities.
+     */
+    private <T extends Descriptor> List<T> executeBulk(String query, List<Map<String, Object>> rows, Class<T> type, boolean nodes) {
+        int bulkSize = storeConfiguration.getBulkSize();
+        if (bulkSize <= 0) {
+            throw new IllegalArgumentException("The bulk size must be greater than 0 but is " + bulkSize);
+        }
+        List<T> descriptors = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += bulkSize) {
+            List<Map<String, Object>> batch = rows.subList(from, Math.min(from + bulkSize, rows.size()));
+            List<T> created = new ArrayList<>(batch.size());
+            try (Result<Result.CompositeRowObject> result = executeQuery(query, Collections.singletonMap("rows", batch))) {
+                for (Result.CompositeRowObject row : result) {
+                    created.add(row.get(row.getColumns().get(0), type));
+                }
+            }
+            descriptors.addAll(created);
+            if (nodes) {
+                created.forEach(this::created);
+            }
+            for (int i = 0; i < created.size(); i++) {
+                autoCommit();
+            }
+        }
+        return descriptors;
+    }
+
+    /**
+     * Determine the labels of a descriptor type, i.e. the values of the
+     * {@link Label} annotations (or annotations annotated with {@link Label}) of
+     * the type and its super types.
+     *
+     * @param type
+     *            The descriptor type.
+     * @return The labels as Cypher expression, e.g. `:Java:Type`.
+     */
+    private String getLabels(Class<?> type) {
+        return labelsPerType.computeIfAbsent(type, key -> {
+            Set<String> labels = new LinkedHashSet<>();
+            collectLabels(key, labels);
+            if (labels.isEmpty()) {
+                throw new IllegalArgumentException("Cannot determine labels of type " + key.getName());
+            }
+            StringBuilder builder = new StringBuilder();
+            for (String label : labels) {
+                builder.append(":`").append(label).append('`');
+            }
+            return builder.toString();
+        });
+    }
+
+    /**
+     * Determine the set of labels of a descriptor type.
+     *
+     * @param type
+     *            The descriptor type.
+     * @return The labels.
+     */
+    private Set<String> getLabelSet(Class<?> type) {
+        return labelSetsPerType.computeIfAbsent(type, key -> {
+            Set<String> labels = new HashSet<>();
+            collectLabels(key, labels);
+            return Collections.unmodifiableSet(labels);
+        });
+    }
+
+    private void collectLabels(Class<?> type, Set<String> labels) {
+        for (Annotation annotation : type.getAnnotations()) {
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            if (annotation instanceof Label) {
+                String value = ((Label) annotation).value();
+                labels.add(value.isEmpty() ? type.getSimpleName() : value);
+            } else if (annotationType.isAnnotationPresent(Label.class)) {
+                String value = annotationType.getAnnotation(Label.class).value();
+                labels.add(value.isEmpty() ? annotationType.getSimpleName() : value);
+            }
+        }
+        for (Class<?> superType : type.getInterfaces()) {
+            collectLabels(superType, labels);
+        }
+    }
+
+    /**
+     * Determine the name of a relation type from its {@link Relation} annotation.
+     *
+     * @param relationType
+     *            The relation type.
+     * @return The name.
+     */
+    private String getRelationType(Class<?> relationType) {
+        Relation relation = relationType.getAnnotation(Relation.class);
+        if (relation == null || relation.value().isEmpty()) {
+            throw new IllegalArgumentException("Cannot determine relation name of type " + relationType.getName());
+        }
+        return "`" + relation.value() + "`";
+    }
+
+    /**
+     * Notifies the listeners of the current session about a created node.
+     *
+     * @param descriptor
+     *            The descriptor representing the node.
+     */
+    private void created(Descriptor descriptor) {
+        Session currentSession = session();
+        currentSession.createdDescriptors.put(descriptor.getId(), Collections.emptyList());
+        for (StoreListener listener : currentSession.listeners) {
+            listener.created(descriptor);
+        }
+    }
+
     /**
      * Verifies if the auto commit threshold has been reached. If yes the current
      * transaction is committed and a new one started.
+     *
+     * @see AutoCommitController
      */
     private void autoCommit() {
-        created++;
-        if (created == getAutocommitThreshold()) {
+        if (session().autoCommitController.created()) {
             flush();
         }
     }
@@ -124,69 +436,258 @@ public abstract class AbstractGraphStore implements Store {
     public <T extends FullQualifiedNameDescriptor> T create(Class<T> type, String fullQualifiedName) {
         T descriptor = create(type);
         descriptor.setFullQualifiedName(fullQualifiedName);
+        Object id = descriptor.getId();
+        if (fullQualifiedNameIndexes != null && fullQualifiedName != null && id instanceof Number) {
+            // Add the descriptor to the indexes of all types the node can be found by
+            Set<String> labels = getLabelSet(type);
+            long nodeId = ((Number) id).longValue();
+            for (Map.Entry<Set<String>, FullQualifiedNameIndex> entry : fullQualifiedNameIndexes.entrySet()) {
+                if (labels.containsAll(entry.getKey())) {
+                    FullQualifiedNameIndex index = entry.getValue();
+                    index.put(fullQualifiedName, nodeId);
+                    session().indexedNames.add(new IndexedName(index, fullQualifiedName, nodeId));
+                }
+            }
+        }
         return descriptor;
     }
 
     @Override
     public <T extends Descriptor> void delete(T descriptor) {
-        xoManager.delete(descriptor);
+        if (fullQualifiedNameIndexes != null && descriptor instanceof FullQualifiedNameDescriptor && descriptor.getId() instanceof Number) {
+            String fullQualifiedName = ((FullQualifiedNameDescriptor) descriptor).getFullQualifiedName();
+            if (fullQualifiedName != null) {
+                long id = ((Number) descriptor.getId()).longValue();
+                for (FullQualifiedNameIndex index : fullQualifiedNameIndexes.values()) {
+                    index.remove(fullQualifiedName, id);
+                }
+            }
+        }
+        session().xoManager.delete(descriptor);
+    }
+
+    @Override
+    public void evict(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> deletedIds = new HashSet<>(ids);
+        Map<Object, List<CacheEntry>> createdDescriptors = session().createdDescriptors;
+        Set<Long> committedIds = new HashSet<>();
+        for (Long id : deletedIds) {
+            List<CacheEntry> cacheEntries = createdDescriptors.remove(id);
+            if (cacheEntries != null) {
+                cacheEntries.forEach(CacheEntry::evict);
+            } else {
+                committedIds.add(id);
+            }
+        }
+        if (!committedIds.isEmpty()) {
+            // The cache entries of nodes which have been committed by a previous (auto) commit are not recorded
+            for (Cache<?, ? extends Descriptor> cache : caches.values()) {
+                cache.asMap().values().removeIf(descriptor -> isDeleted(descriptor, committedIds));
+            }
+        }
+        if (fullQualifiedNameIndexes != null) {
+            for (FullQualifiedNameIndex index : fullQualifiedNameIndexes.values()) {
+                index.removeAll(deletedIds);
+            }
+        }
+    }
+
+    /**
+     * Determine if a cached descriptor represents one of the given deleted nodes,
+     * a descriptor which cannot be resolved is considered as deleted.
+     */
+    private boolean isDeleted(Descriptor descriptor, Set<Long> deletedIds) {
+        try {
+            return deletedIds.contains(StoreWriter.unwrap(descriptor).getId());
+        } catch (RuntimeException e) {
+            return true;
+        }
     }
 
     @Override
     public <T extends Descriptor, N extends Descriptor> N addDescriptorType(T descriptor, Class<?> newDescriptorType, Class<N> as) {
-        return xoManager.migrate(descriptor).add(newDescriptorType).as(as);
+        return session().xoManager.migrate(descriptor).add(newDescriptorType).as(as);
     }
 
     @Override
     public <T extends Descriptor, N extends Descriptor> N addDescriptorType(T descriptor, Class<N> newDescriptorType) {
-        return xoManager.migrate(descriptor).add(newDescriptorType).as(newDescriptorType);
+        return session().xoManager.migrate(descriptor).add(newDescriptorType).as(newDescriptorType);
     }
 
     @Override
     public <T extends Descriptor, N extends Descriptor> N removeDescriptorType(T descriptor, Class<?> obsoleteDescriptorType, Class<N> as) {
-        return xoManager.migrate(descriptor).remove(obsoleteDescriptorType).as(as);
+        return session().xoManager.migrate(descriptor).remove(obsoleteDescriptorType).as(as);
     }
 
     @Override
     public <T extends Descriptor> T find(Class<T> type, String value) {
-        ResultIterable<T> result = xoManager.find(type, value);
+        if (fullQualifiedNameIndexes != null && value != null && FullQualifiedNameDescriptor.class.isAssignableFrom(type)) {
+            T descriptor = findIndexed(type, value);
+            if (descriptor != null) {
+                return descriptor;
+            }
+        }
+        ResultIterable<T> result = session().xoManager.find(type, value);
         return result.hasResult() ? result.getSingleResult() : null;
     }
 
+    /**
+     * Find a descriptor using the index of full qualified names, the descriptor
+     * is resolved by the id of its node.
+     *
+     * @param type
+     *            The descriptor type.
+     * @param value
+     *            The full qualified name.
+     * @param <T>
+     *            The descriptor type.
+     * @return The descriptor or `null` if the name is not indexed.
+     */
+    private <T extends Descriptor> T findIndexed(Class<T> type, String value) {
+        FullQualifiedNameIndex index = fullQualifiedNameIndexes.get(getLabelSet(type));
+        long id = index != null ? index.get(value) : FullQualifiedNameIndex.NOT_FOUND;
+        if (id == FullQualifiedNameIndex.NOT_FOUND) {
+            return null;
+        }
+        Object descriptor;
+        try {
+            descriptor = session().xoManager.findById(type, id);
+        } catch (RuntimeException e) {
+            // The node has been deleted without using the store
+            LOGGER.debug("Cannot resolve indexed node {} with full qualified name '{}'.", id, value, e);
+            index.remove(value, id);
+            return null;
+        }
+        // The indexed node may have been created using a type which does not extend the queried type
+        return type.isInstance(descriptor) ? type.cast(descriptor) : null;
+    }
+
     @Override
     public Result<Result.CompositeRowObject> executeQuery(String query, Map<String, Object> parameters) {
-        return xoManager.createQuery(query).withParameters(parameters).execute();
+        return session().xoManager.createQuery(query).withParameters(parameters).execute();
     }
 
     @Override
     public <Q> Result<Q> executeQuery(Class<Q> query, Map<String, Object> parameters) {
-        return xoManager.createQuery(query).withParameters(parameters).execute();
+        return session().xoManager.createQuery(query).withParameters(parameters).execute();
     }
 
     @Override
     public Result<Result.CompositeRowObject> executeQuery(String query) {
-        return xoManager.createQuery(query).execute();
+        return session().xoManager.createQuery(query).execute();
+    }
+
+    @Override
+    public CompletionStage<List<Map<String, Object>>> executeQueryAsync(String query, Map<String, Object> parameters) {
+        return CompletableFuture.supplyAsync(() -> executeInTransaction(query, parameters), getAsyncExecutor());
+    }
+
+    /**
+     * Executes a query within a new session and returns all rows.
+     */
+    private List<Map<String, Object>> executeInTransaction(String query, Map<String, Object> parameters) {
+        try (StoreSession workerSession = openSession()) {
+            beginTransaction();
+            try {
+                List<Map<String, Object>> rows = new ArrayList<>();
+                try (Result<Result.CompositeRowObject> result = executeQuery(query, parameters)) {
+                    for (Result.CompositeRowObject row : result) {
+                        Map<String, Object> values = new LinkedHashMap<>();
+                        for (String column : row.getColumns()) {
+                            values.put(column, row.get(column, Object.class));
+                        }
+                        rows.add(values);
+                    }
+                }
+                commitTransaction();
+                return rows;
+            } catch (RuntimeException e) {
+                if (hasActiveTransaction()) {
+                    rollbackTransaction();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private synchronized ExecutorService getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            asyncExecutor = Executors.newFixedThreadPool(Math.max(1, storeConfiguration.getAsyncParallelism()), runnable -> {
+                Thread thread = new Thread(runnable, "jqassistant-store-async");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return asyncExecutor;
+    }
+
+    private synchronized void shutdownAsyncExecutor() {
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+            try {
+                if (!asyncExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    LOGGER.warn("Asynchronous queries did not terminate in time.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            asyncExecutor = null;
+        }
     }
 
     @Override
     public void beginTransaction() {
-        xoManager.currentTransaction().begin();
-        created = 0;
+        Session currentSession = session();
+        currentSession.xoManager.currentTransaction().begin();
+        currentSession.autoCommitController.begin();
+        currentSession.createdDescriptors.clear();
+        currentSession.indexedNames.clear();
     }
 
     @Override
     public void commitTransaction() {
-        xoManager.currentTransaction().commit();
+        Session currentSession = session();
+        for (StoreListener listener : currentSession.listeners) {
+            listener.beforeCommit();
+        }
+        long start = System.nanoTime();
+        currentSession.xoManager.currentTransaction().commit();
+        currentSession.autoCommitController.committed(System.nanoTime() - start);
+        currentSession.createdDescriptors.clear();
+        currentSession.indexedNames.clear();
     }
 
     @Override
     public void rollbackTransaction() {
-        xoManager.currentTransaction().rollback();
+        Session currentSession = session();
+        currentSession.xoManager.currentTransaction().rollback();
+        evictCreatedDescriptors(currentSession.createdDescriptors);
+        for (IndexedName indexedName : currentSession.indexedNames) {
+            indexedName.index.remove(indexedName.name, indexedName.id);
+        }
+        currentSession.indexedNames.clear();
+        for (StoreListener listener : currentSession.listeners) {
+            listener.afterRollback();
+        }
+    }
+
+    @Override
+    public void addListener(StoreListener listener) {
+        session().listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(StoreListener listener) {
+        session().listeners.remove(listener);
     }
 
     @Override
     public boolean hasActiveTransaction() {
         boolean activeTx = false;
+        XOManager xoManager = session().xoManager;
 
         if (xoManager.currentTransaction() != null && xoManager.currentTransaction().isActive()) {
             activeTx = true;
@@ -198,26 +699,261 @@ public abstract class AbstractGraphStore implements Store {
     @Override
     public void reset() {
         LOGGER.info("Resetting store.");
-        long totalRelations = reset("MATCH ()-[r]-() WITH r LIMIT 50000 DELETE r RETURN count(r) as relations", "relations");
-        long totalNodes = reset("MATCH (n) WITH n LIMIT 10000 DELETE n RETURN count(n) as nodes", "nodes");
-        LOGGER.info("Reset finished (removed " + totalNodes + " nodes, " + totalRelations + " relations).");
+        for (Cache<?, ? extends Descriptor> cache : caches.values()) {
+            cache.invalidateAll();
+        }
+        if (fullQualifiedNameIndexes != null) {
+            fullQualifiedNameIndexes.values().forEach(FullQualifiedNameIndex::clear);
+        }
+        if (storeConfiguration.isRecreateOnReset() && openWorkerSessions.isEmpty() && !hasActiveTransaction() && isRecreatable() && recreate()) {
+            LOGGER.info("Reset finished (recreated database).");
+        } else {
+            long totalRelations = delete("relations", "MATCH ()-[r]->() RETURN count(r) AS count, min(id(r)) AS min, max(id(r)) AS max",
+                    "MATCH ()-[r]->() WHERE id(r) >= $from AND id(r) <= $to WITH r LIMIT $limit DELETE r RETURN count(r) AS count", RESET_RELATIONS_BATCH_SIZE);
+            long totalNodes = delete("nodes", "MATCH (n) RETURN count(n) AS count, min(id(n)) AS min, max(id(n)) AS max",
+                    "MATCH (n) WHERE id(n) >= $from AND id(n) <= $to WITH n LIMIT $limit DETACH DELETE n RETURN count(n) AS count", RESET_NODES_BATCH_SIZE);
+            LOGGER.info("Reset finished (removed " + totalNodes + " nodes, " + totalRelations + " relations).");
+        }
     }
 
-    private long reset(String query, String countColumn) {
-        long totalCount = 0;
+    /**
+     * Recreate the database by deleting its storage while the store is stopped.
+     *
+     * @return <code>true</code> if the database has been recreated.
+     */
+    private boolean recreate() {
+        return restart(() -> deleteStorage(), "Cannot delete the database of the store.");
+    }
+
+    /**
+     * Stop the store, execute the given operation on its storage and start it
+     * again. The listeners of the shared session are preserved.
+     *
+     * @param operation
+     *            The operation.
+     * @param message
+     *            The message of the exception if the operation fails.
+     * @return The result of the operation.
+     */
+    private boolean restart(StorageOperation operation, String message) {
+        List<StoreListener> listeners = new ArrayList<>(session.listeners);
+        stop();
+        try {
+            return operation.run();
+        } catch (IOException e) {
+            throw new IllegalStateException(message, e);
+        } finally {
+            start();
+            session.listeners.addAll(listeners);
+        }
+    }
+
+    @Override
+    public void snapshot(File archive) {
+        boolean written;
+        if (session == null) {
+            try {
+                written = writeSnapshot(archive);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot write snapshot " + archive.getAbsolutePath(), e);
+            }
+        } else {
+            if (!openWorkerSessions.isEmpty() || hasActiveTransaction()) {
+                throw new IllegalStateException("A snapshot can only be written without open sessions and active transactions.");
+            }
+            written = restart(() -> writeSnapshot(archive), "Cannot write snapshot " + archive.getAbsolutePath());
+        }
+        if (!written) {
+            throw new UnsupportedOperationException("Snapshots are not supported by " + getClass().getSimpleName() + ".");
+        }
+    }
+
+    @Override
+    public void restore(File archive) {
+        if (session != null) {
+            throw new IllegalStateException("The store must be stopped before restoring a snapshot.");
+        }
+        boolean restored;
+        try {
+            restored = restoreSnapshot(archive);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot restore snapshot " + archive.getAbsolutePath(), e);
+        }
+        if (!restored) {
+            throw new UnsupportedOperationException("Snapshots are not supported by " + getClass().getSimpleName() + ".");
+        }
+    }
+
+    /**
+     * Write a snapshot of the storage of the stopped store.
+     *
+     * @param archive
+     *            The archive.
+     * @return <code>true</code> if the snapshot has been written,
+     *         <code>false</code> if the store does not support snapshots.
+     * @throws IOException
+     *             If the snapshot cannot be written.
+     */
+    protected boolean writeSnapshot(File archive) throws IOException {
+        return false;
+    }
+
+    /**
+     * Restore the storage of the stopped store from a snapshot.
+     *
+     * @param archive
+     *            The archive.
+     * @return <code>true</code> if the snapshot has been restored,
+     *         <code>false</code> if the store does not support snapshots.
+     * @throws IOException
+     *             If the snapshot cannot be restored.
+     */
+    protected boolean restoreSnapshot(File archive) throws IOException {
+        return false;
+    }
+
+    /**
+     * Delete all relations or nodes using batches which are executed in parallel
+     * on partitions of the id range.
+     *
+     * @param entities
+     *            The name of the entities for logging.
+     * @param statisticsQuery
+     *            The query returning the columns `count`, `min` and `max` of the
+     *            ids.
+     * @param deleteQuery
+     *            The query deleting a batch within an id range given by the
+     *            parameters `from`, `to` and `limit`, it must return the column
+     *            `count`.
+     * @param batchSize
+     *            The maximum number of entities deleted per transaction.
+     * @return The number of deleted entities.
+     */
+    private long delete(String entities, String statisticsQuery, String deleteQuery, int batchSize) {
+        long total;
+        Long min;
+        Long max;
+        beginTransaction();
+        try (Result<Result.CompositeRowObject> result = executeQuery(statisticsQuery)) {
+            Result.CompositeRowObject statistics = result.getSingleResult();
+            total = statistics.get("count", Long.class);
+            min = statistics.get("min", Long.class);
+            max = statistics.get("max", Long.class);
+        }
+        commitTransaction();
+        if (total == 0) {
+            return 0;
+        }
+        ResetProgress progress = new ResetProgress(entities, total);
+        int parallelism = (int) Math.max(1, Math.min(storeConfiguration.getResetParallelism(), total / batchSize + 1));
+        long partitionSize = (max - min) / parallelism + 1;
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> partitions = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism && min + i * partitionSize <= max; i++) {
+                long from = min + i * partitionSize;
+                long to = Math.min(max, from + partitionSize - 1);
+                partitions.add(executorService.submit(() -> {
+                    try (StoreSession workerSession = openSession()) {
+                        deletePartition(deleteQuery, from, to, batchSize, progress);
+                    }
+                }));
+            }
+            for (Future<?> partition : partitions) {
+                partition.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException("Cannot delete " + entities + ".", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while deleting " + entities + ".", e);
+        } finally {
+            executorService.shutdownNow();
+        }
+        return progress.getDeleted();
+    }
+
+    /**
+     * Delete the entities of a partition in batches, a failed batch (e.g. due to
+     * a deadlock with another partition) is retried.
+     */
+    private void deletePartition(String deleteQuery, long from, long to, int batchSize, ResetProgress progress) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("to", to);
+        parameters.put("limit", batchSize);
         long count;
+        int attempt = 0;
         do {
-            beginTransaction();
-            Result.CompositeRowObject result = executeQuery(query).getSingleResult();
-            count = result.get(countColumn, Long.class);
-            commitTransaction();
-        } while (count > 0);
-        return totalCount;
+            try {
+                beginTransaction();
+                try (Result<Result.CompositeRowObject> result = executeQuery(deleteQuery, parameters)) {
+                    count = result.getSingleResult().get("count", Long.class);
+                }
+                commitTransaction();
+                attempt = 0;
+            } catch (RuntimeException e) {
+                if (hasActiveTransaction()) {
+                    rollbackTransaction();
+                }
+                if (++attempt >= RESET_MAX_ATTEMPTS) {
+                    throw e;
+                }
+                LOGGER.debug("Retrying to delete batch within id range {}..{}.", from, to, e);
+                count = -1;
+                continue;
+            }
+            progress.deleted(count);
+        } while (count != 0);
+    }
+
+    /**
+     * Determine if the store can be reset by deleting its storage, see
+     * {@link #deleteStorage()}.
+     *
+     * @return <code>true</code> if the storage can be deleted.
+     */
+    protected boolean isRecreatable() {
+        return false;
+    }
+
+    /**
+     * Delete the storage of the stopped store, it is recreated on the next start.
+     *
+     * @return <code>true</code> if the storage has been deleted,
+     *         <code>false</code> if the store does not support it.
+     * @throws IOException
+     *             If the storage cannot be deleted.
+     */
+    protected boolean deleteStorage() throws IOException {
+        return false;
     }
 
     @Override
     public <K, V extends Descriptor> Cache<K, V> getCache(String cacheKey) {
-        return (Cache<K, V>) caches.computeIfAbsent(cacheKey, key -> Caffeine.newBuilder().softValues().build());
+        return (Cache<K, V>) caches.computeIfAbsent(cacheKey,
+                key -> (Cache<?, ? extends Descriptor>) Proxy.newProxyInstance(Cache.class.getClassLoader(), new Class<?>[] { Cache.class },
+                        new CacheInvocationHandler(createCache(key))));
+    }
+
+    /**
+     * Create a cache using the configured specification for the given key.
+     *
+     * @param cacheKey
+     *            The cache key.
+     * @return The {@link Cache}.
+     */
+    private Cache<Object, Descriptor> createCache(String cacheKey) {
+        String cacheSpec = storeConfiguration.getCacheSpecs().getOrDefault(cacheKey, storeConfiguration.getCacheSpec());
+        if (cacheSpec == null || cacheSpec.trim().isEmpty()) {
+            return Caffeine.newBuilder().build();
+        }
+        Caffeine<Object, Object> builder = Caffeine.from(cacheSpec);
+        if (cacheSpec.contains("maximumWeight")) {
+            return builder.<Object, Descriptor> weigher((key, value) -> key instanceof CharSequence ? 1 + ((CharSequence) key).length() : 1).build();
+        }
+        return builder.build();
     }
 
     @Override
@@ -225,6 +961,67 @@ public abstract class AbstractGraphStore implements Store {
         caches.remove(cacheKey);
     }
 
+    @Override
+    public Map<String, CacheStats> getCacheStatistics() {
+        Map<String, CacheStats> statistics = new TreeMap<>();
+        for (Map.Entry<String, Cache<?, ? extends Descriptor>> entry : caches.entrySet()) {
+            statistics.put(entry.getKey(), entry.getValue().stats());
+        }
+        return statistics;
+    }
+
+    /**
+     * Remove the descriptors which have been created within a rolled back
+     * transaction from the caches, their nodes do not exist anymore.
+     *
+     * @param createdDescriptors
+     *            The cache entries per id of the descriptors created within the
+     *            transaction.
+     */
+    private void evictCreatedDescriptors(Map<Object, List<CacheEntry>> createdDescriptors) {
+        for (List<CacheEntry> cacheEntries : createdDescriptors.values()) {
+            cacheEntries.forEach(CacheEntry::evict);
+        }
+        createdDescriptors.clear();
+    }
+
+    /**
+     * Record a cache entry if its descriptor has been created within the current
+     * transaction.
+     *
+     * @param cache
+     *            The cache.
+     * @param key
+     *            The key.
+     * @param value
+     *            The cached value, it may have been returned by a
+     *            {@link StoreWriter}.
+     */
+    private void cached(Cache<Object, Descriptor> cache, Object key, Object value) {
+        Map<Object, List<CacheEntry>> createdDescriptors = session().createdDescriptors;
+        if (value instanceof Descriptor && !createdDescriptors.isEmpty()) {
+            Object id = StoreWriter.unwrap((Descriptor) value).getId();
+            List<CacheEntry> cacheEntries = createdDescriptors.get(id);
+            if (cacheEntries != null) {
+                if (cacheEntries.isEmpty()) {
+                    cacheEntries = new ArrayList<>(1);
+                    createdDescriptors.put(id, cacheEntries);
+                }
+                cacheEntries.add(new CacheEntry(cache, key, value));
+            }
+        }
+    }
+
+    private void logCacheStatistics() {
+        for (Map.Entry<String, CacheStats> entry : getCacheStatistics().entrySet()) {
+            CacheStats stats = entry.getValue();
+            if (stats.requestCount() > 0) {
+                LOGGER.info("Cache '{}': {} requests, hit rate {}%, {} evictions.", entry.getKey(), stats.requestCount(),
+                        Math.round(stats.hitRate() * 100), stats.evictionCount());
+            }
+        }
+    }
+
     /**
      * Configure store specific options.
      */
@@ -235,6 +1032,174 @@ public abstract class AbstractGraphStore implements Store {
      */
     protected abstract void initialize(XOManagerFactory xoManagerFactory);
 
+    /**
+     * Return the store specific default for the initial auto commit threshold.
+     *
+     * @return The threshold.
+     */
     protected abstract int getAutocommitThreshold();
 
+    /**
+     * The {@link XOManager}, {@link AutoCommitController} and
+     * {@link StoreListener}s of the shared session or a session opened by a
+     * thread.
+     */
+    private static class Session {
+
+        private final XOManager xoManager;
+
+        private final AutoCommitController autoCommitController;
+
+        private final List<StoreListener> listeners = new ArrayList<>();
+
+        /**
+         * The ids of the descriptors created within the current transaction and
+         * the cache entries referring to them, evicted from the caches on rollback.
+         */
+        private final Map<Object, List<CacheEntry>> createdDescriptors = new HashMap<>();
+
+        /**
+         * The full qualified names indexed within the current transaction,
+         * removed from the index on rollback.
+         */
+        private final List<IndexedName> indexedNames = new ArrayList<>();
+
+        private volatile boolean closed = false;
+
+        private Session(XOManager xoManager, AutoCommitController autoCommitController) {
+            this.xoManager = xoManager;
+            this.autoCommitController = autoCommitController;
+        }
+    }
+
+    /**
+     * A full qualified name which has been added to an index.
+     */
+    private static class IndexedName {
+
+        private final FullQualifiedNameIndex index;
+
+        private final String name;
+
+        private final long id;
+
+        private IndexedName(FullQualifiedNameIndex index, String name, long id) {
+            this.index = index;
+            this.name = name;
+            this.id = id;
+        }
+    }
+
+    /**
+     * An entry of a cache referring to a descriptor created within the current
+     * transaction.
+     */
+    private static class CacheEntry {
+
+        private final Cache<Object, Descriptor> cache;
+
+        private final Object key;
+
+        private final Object value;
+
+        private CacheEntry(Cache<Object, Descriptor> cache, Object key, Object value) {
+            this.cache = cache;
+            this.key = key;
+            this.value = value;
+        }
+
+        private void evict() {
+            cache.asMap().remove(key, value);
+        }
+    }
+
+    /**
+     * {@link InvocationHandler} for the caches returned by
+     * {@link #getCache(String)}, records the entries which are added by
+     * {@link Cache#get(Object, java.util.function.Function)},
+     * {@link Cache#put(Object, Object)} or <code>putAll</code>. Entries added
+     * using {@link Cache#asMap()} are not recorded.
+     */
+    private class CacheInvocationHandler implements InvocationHandler {
+
+        private final Cache<Object, Descriptor> cache;
+
+        private CacheInvocationHandler(Cache<Object, Descriptor> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(cache, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            switch (method.getName()) {
+            case "get":
+                if (args.length == 2) {
+                    cached(cache, args[0], result);
+                }
+                break;
+            case "put":
+                cached(cache, args[0], args[1]);
+                break;
+            case "putAll":
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) args[0]).entrySet()) {
+                    cached(cache, entry.getKey(), entry.getValue());
+                }
+                break;
+            default:
+                break;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * An operation on the storage of a stopped store.
+     */
+    @FunctionalInterface
+    private interface StorageOperation {
+
+        boolean run() throws IOException;
+    }
+
+    /**
+     * The progress of deleting relations or nodes on reset, logged in steps of
+     * 10%.
+     */
+    static class ResetProgress {
+
+        private final String entities;
+
+        private final long total;
+
+        private final AtomicLong deleted = new AtomicLong();
+
+        private final AtomicInteger reportedStep = new AtomicInteger();
+
+        ResetProgress(String entities, long total) {
+            this.entities = entities;
+            this.total = total;
+        }
+
+        void deleted(long count) {
+            long current = deleted.addAndGet(count);
+            int step = (int) Math.min(10, current * 10 / total);
+            int reported = reportedStep.get();
+            if (step > reported && reportedStep.compareAndSet(reported, step)) {
+                LOGGER.info("Removed {} of {} {} ({}%).", current, total, entities, Math.min(100, current * 100 / total));
+            }
+        }
+
+        long getDeleted() {
+            return deleted.get();
+        }
+
+        int getReportedPercent() {
+            return reportedStep.get() * 10;
+        }
+    }
 }
@@ -0,0 +1,172 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides when the current transaction of a store shall be committed
+ * automatically.
+ *
+ * A transaction is committed if the number of pending created entities (nodes
+ * and relations) reaches a threshold. If adaptive mode is enabled this
+ * threshold is adjusted after each commit such that a commit takes
+ * approximately the configured target duration. Furthermore the heap usage is
+ * checked periodically, if it exceeds the configured limit the transaction is
+ * committed early and the threshold is reduced. The heap usage is measured
+ * after the last garbage collection of the tenured heap pools, the current
+ * usage includes garbage and would lead to commits which don't free memory.
+ */
+class AutoCommitController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AutoCommitController.class);
+
+    /**
+     * The number of created entities after which the heap usage is checked.
+     */
+    static final int HEAP_CHECK_INTERVAL = 1024;
+
+    /**
+     * The factor limiting the range of the adapted threshold relative to the
+     * initial threshold.
+     */
+    static final int THRESHOLD_RANGE = 16;
+
+    private final boolean adaptive;
+
+    private final long targetCommitNanos;
+
+    private final double maxHeapUsage;
+
+    private final DoubleSupplier heapUsage;
+
+    private final int minThreshold;
+
+    private final int maxThreshold;
+
+    private int threshold;
+
+    private int pending = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param threshold
+     *            The initial threshold.
+     * @param adaptive
+     *            If `true` the threshold is adapted.
+     * @param targetCommitMillis
+     *            The target duration of a commit in milliseconds.
+     * @param maxHeapUsage
+     *            The maximum heap usage (0..1) after garbage collection before
+     *            the transaction is committed early.
+     */
+    AutoCommitController(int threshold, boolean adaptive, long targetCommitMillis, double maxHeapUsage) {
+        this(threshold, adaptive, targetCommitMillis, maxHeapUsage, getHeapUsage(ManagementFactory.getMemoryPoolMXBeans()));
+    }
+
+    AutoCommitController(int threshold, boolean adaptive, long targetCommitMillis, double maxHeapUsage, DoubleSupplier heapUsage) {
+        this.threshold = threshold;
+        this.adaptive = adaptive;
+        this.targetCommitNanos = TimeUnit.MILLISECONDS.toNanos(targetCommitMillis);
+        this.maxHeapUsage = maxHeapUsage;
+        this.heapUsage = heapUsage;
+        this.minThreshold = Math.max(1, threshold / THRESHOLD_RANGE);
+        this.maxThreshold = threshold * THRESHOLD_RANGE;
+    }
+
+    /**
+     * Notifies the controller about a created entity.
+     *
+     * @return `true` if the current transaction shall be committed.
+     */
+    boolean created() {
+        pending++;
+        if (pending >= threshold) {
+            return true;
+        }
+        if (adaptive && pending % HEAP_CHECK_INTERVAL == 0) {
+            double usage = heapUsage.getAsDouble();
+            if (usage > maxHeapUsage) {
+                threshold = Math.max(minThreshold, pending / 2);
+                LOGGER.debug("Heap usage of {} exceeds limit, committing {} entities and reducing auto commit threshold to {}.", usage, pending, threshold);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Notifies the controller about a new transaction.
+     */
+    void begin() {
+        pending = 0;
+    }
+
+    /**
+     * Notifies the controller about a commit of the current transaction.
+     *
+     * @param commitNanos
+     *            The duration of the commit in nanoseconds.
+     */
+    void committed(long commitNanos) {
+        // Small transactions (e.g. commits of the scanner) do not provide reliable measurements
+        if (adaptive && pending >= minThreshold && commitNanos > 0) {
+            long desired = (long) ((double) pending * targetCommitNanos / commitNanos);
+            int adapted = (int) Math.max(minThreshold, Math.min(maxThreshold, (threshold + desired) / 2));
+            if (adapted > threshold && heapUsage.getAsDouble() > maxHeapUsage) {
+                adapted = threshold;
+            }
+            if (adapted != threshold) {
+                LOGGER.debug("Committed {} entities in {}ms, adapting auto commit threshold from {} to {}.", pending, TimeUnit.NANOSECONDS.toMillis(commitNanos),
+                        threshold, adapted);
+                threshold = adapted;
+            }
+        }
+        pending = 0;
+    }
+
+    /**
+     * Return the current threshold.
+     *
+     * @return The threshold.
+     */
+    int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Create a supplier for the heap usage after the last garbage collection.
+     *
+     * Only the tenured heap pools (i.e. pools supporting usage and collection
+     * usage thresholds) are considered, the highest usage of these pools is
+     * returned.
+     *
+     * @param memoryPoolMXBeans
+     *            The {@link MemoryPoolMXBean}s.
+     * @return The supplier.
+     */
+    static DoubleSupplier getHeapUsage(List<MemoryPoolMXBean> memoryPoolMXBeans) {
+        List<MemoryPoolMXBean> tenuredPools = memoryPoolMXBeans.stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported() && pool.isCollectionUsageThresholdSupported())
+                .collect(Collectors.toList());
+        return () -> {
+            double usage = 0;
+            for (MemoryPoolMXBean pool : tenuredPools) {
+                MemoryUsage collectionUsage = pool.getCollectionUsage();
+                if (collectionUsage != null && collectionUsage.getMax() > 0) {
+                    usage = Math.max(usage, (double) collectionUsage.getUsed() / collectionUsage.getMax());
+                }
+            }
+            return usage;
+        };
+    }
+}
@@ -1,6 +1,11 @@
 package com.buschmais.jqassistant.core.store.impl;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.OptionalLong;
 import java.util.Properties;
 import java.util.ServiceLoader;
 
@@ -17,6 +22,8 @@ import com.buschmais.xo.neo4j.embedded.api.EmbeddedNeo4jDatastoreSession;
 import com.buschmais.xo.neo4j.embedded.api.EmbeddedNeo4jXOProvider;
 
 import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +37,11 @@ public class EmbeddedGraphStore extends AbstractGraphStore {
 
     private static final int AUTOCOMMIT_THRESHOLD = 32678;
 
+    /**
+     * A file which is contained in the directory of a Neo4j database.
+     */
+    private static final String NEOSTORE = "neostore";
+
     private EmbeddedNeo4jServerFactory serverFactory;
 
     private EmbeddedNeo4jServer server;
@@ -88,4 +100,65 @@ public class EmbeddedGraphStore extends AbstractGraphStore {
         return AUTOCOMMIT_THRESHOLD;
     }
 
+    /**
+     * Return the id of the last committed transaction as modification epoch,
+     * read-only transactions do not get an id.
+     */
+    @Override
+    public OptionalLong getModificationEpoch() {
+        GraphDatabaseService graphDatabaseService = getXOManager().getDatastoreSession(EmbeddedNeo4jDatastoreSession.class).getGraphDatabaseService();
+        if (graphDatabaseService instanceof GraphDatabaseAPI) {
+            TransactionIdStore transactionIdStore = ((GraphDatabaseAPI) graphDatabaseService).getDependencyResolver()
+                    .resolveDependency(TransactionIdStore.class);
+            return OptionalLong.of(transactionIdStore.getLastCommittedTransactionId());
+        }
+        return OptionalLong.empty();
+    }
+
+    @Override
+    protected boolean isRecreatable() {
+        File directory = getDirectory();
+        // Only delete directories which contain a database
+        return directory != null && new File(directory, NEOSTORE).isFile();
+    }
+
+    @Override
+    protected boolean deleteStorage() throws IOException {
+        Path directory = getDirectory().toPath();
+        LOGGER.info("Deleting database in '{}'.", directory);
+        StoreArchive.delete(directory, true);
+        return true;
+    }
+
+    @Override
+    protected boolean writeSnapshot(File archive) throws IOException {
+        File directory = getDirectory();
+        if (directory == null || !directory.isDirectory()) {
+            throw new IOException("The store has no database directory.");
+        }
+        StoreArchive.write(directory.toPath(), archive.toPath());
+        return true;
+    }
+
+    @Override
+    protected boolean restoreSnapshot(File archive) throws IOException {
+        File directory = getDirectory();
+        if (directory == null) {
+            throw new IOException("The store has no database directory.");
+        }
+        StoreArchive.restore(archive.toPath(), directory.toPath());
+        return true;
+    }
+
+    /**
+     * Return the directory of the database.
+     *
+     * @return The directory or <code>null</code> if the database is not file
+     *         based.
+     */
+    private File getDirectory() {
+        URI uri = storeConfiguration.getUri();
+        return uri != null && "file".equals(uri.getScheme()) ? new File(uri) : null;
+    }
+
 }
@@ -0,0 +1,163 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An in-process index mapping full qualified names to node ids.
+ *
+ * The index uses open addressing with linear probing on parallel arrays, i.e.
+ * ids are stored as primitive values without boxing or entry objects. All
+ * methods are thread-safe.
+ */
+class FullQualifiedNameIndex {
+
+    /**
+     * The id returned for names which are not contained in the index.
+     */
+    static final long NOT_FOUND = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] names = new String[INITIAL_CAPACITY];
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    private int size = 0;
+
+    /**
+     * Return the id of the node with the given full qualified name.
+     *
+     * @param name
+     *            The full qualified name.
+     * @return The id or {@link #NOT_FOUND}.
+     */
+    synchronized long get(String name) {
+        int slot = find(name);
+        return names[slot] != null ? ids[slot] : NOT_FOUND;
+    }
+
+    /**
+     * Add or replace the node with the given full qualified name.
+     *
+     * @param name
+     *            The full qualified name.
+     * @param id
+     *            The id.
+     */
+    synchronized void put(String name, long id) {
+        int slot = find(name);
+        if (names[slot] == null) {
+            if ((size + 1) * 3 > names.length * 2) {
+                resize(names.length * 2);
+                slot = find(name);
+            }
+            names[slot] = name;
+            size++;
+        }
+        ids[slot] = id;
+    }
+
+    /**
+     * Remove the full qualified name if it is mapped to the given id.
+     *
+     * @param name
+     *            The full qualified name.
+     * @param id
+     *            The id.
+     * @return <code>true</code> if the name has been removed.
+     */
+    synchronized boolean remove(String name, long id) {
+        int slot = find(name);
+        if (names[slot] == null || ids[slot] != id) {
+            return false;
+        }
+        // Backward shift deletion, keeps probe sequences intact without tombstones
+        int mask = names.length - 1;
+        int free = slot;
+        for (int next = (free + 1) & mask; names[next] != null; next = (next + 1) & mask) {
+            int home = slot(names[next]);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                names[free] = names[next];
+                ids[free] = ids[next];
+                free = next;
+            }
+        }
+        names[free] = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * Remove the full qualified names which are mapped to one of the given ids.
+     *
+     * @param removedIds
+     *            The ids.
+     * @return The number of removed names.
+     */
+    synchronized int removeAll(Collection<Long> removedIds) {
+        List<String> removedNames = new ArrayList<>();
+        List<Long> removedNameIds = new ArrayList<>();
+        for (int slot = 0; slot < names.length; slot++) {
+            if (names[slot] != null && removedIds.contains(ids[slot])) {
+                removedNames.add(names[slot]);
+                removedNameIds.add(ids[slot]);
+            }
+        }
+        for (int i = 0; i < removedNames.size(); i++) {
+            remove(removedNames.get(i), removedNameIds.get(i));
+        }
+        return removedNames.size();
+    }
+
+    /**
+     * Remove all entries.
+     */
+    synchronized void clear() {
+        names = new String[INITIAL_CAPACITY];
+        ids = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Return the number of entries.
+     *
+     * @return The number of entries.
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Return the slot containing the name or the free slot where it would be
+     * inserted.
+     */
+    private int find(String name) {
+        int mask = names.length - 1;
+        int slot = slot(name);
+        while (names[slot] != null && !names[slot].equals(name)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int slot(String name) {
+        int hash = name.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (names.length - 1);
+    }
+
+    private void resize(int capacity) {
+        String[] oldNames = names;
+        long[] oldIds = ids;
+        names = new String[capacity];
+        ids = new long[capacity];
+        for (int i = 0; i < oldNames.length; i++) {
+            if (oldNames[i] != null) {
+                int slot = find(oldNames[i]);
+                names[slot] = oldNames[i];
+                ids[slot] = oldIds[i];
+            }
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.buschmais.jqassistant.core.store.impl;
 
+import java.io.File;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
 import com.buschmais.jqassistant.core.store.api.StoreConfiguration;
 import com.buschmais.jqassistant.core.store.spi.StorePluginRepository;
@@ -9,8 +14,27 @@ import com.buschmais.xo.api.bootstrap.XOUnit;
 import com.buschmais.xo.neo4j.remote.api.RemoteNeo4jXOProvider;
 import com.buschmais.xo.neo4j.remote.api.RemoteNeo4jXOProvider.Property;
 
+import org.neo4j.driver.v1.AuthToken;
+import org.neo4j.driver.v1.AuthTokens;
+import org.neo4j.driver.v1.Config;
+import org.neo4j.driver.v1.Driver;
+import org.neo4j.driver.v1.GraphDatabase;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Collections.emptyMap;
+
 public class RemoteGraphStore extends AbstractGraphStore {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteGraphStore.class);
+
+    /**
+     * The driver for asynchronous queries, created on demand.
+     */
+    private Driver asyncDriver;
+
     public RemoteGraphStore(StoreConfiguration configuration, StorePluginRepository storePluginRepository) {
         super(configuration, storePluginRepository);
     }
@@ -23,6 +47,18 @@ public class RemoteGraphStore extends AbstractGraphStore {
     @Override
     protected XOUnit configure(XOUnit.XOUnitBuilder builder, StoreConfiguration storeConfiguration) {
         builder.provider(RemoteNeo4jXOProvider.class);
+        builder.properties(getConnectionProperties());
+        return builder.build();
+    }
+
+    /**
+     * Determine the connection properties of the XO provider, they are used by
+     * the driver for asynchronous queries as well.
+     *
+     * @return The properties including the user defined properties of the
+     *         {@link StoreConfiguration}.
+     */
+    Properties getConnectionProperties() {
         Properties properties = new Properties();
         String username = this.storeConfiguration.getUsername();
         if (username != null) {
@@ -46,11 +82,103 @@ public class RemoteGraphStore extends AbstractGraphStore {
         if (storeConfigurationProperties != null) {
             properties.putAll(storeConfigurationProperties);
         }
-        builder.properties(properties);
-        return builder.build();
+        return properties;
     }
 
     @Override
     protected void initialize(XOManagerFactory xoManagerFactory) {
     }
+
+    @Override
+    public void stop() {
+        super.stop();
+        closeAsyncDriver();
+    }
+
+    /**
+     * Executes the query using an asynchronous session of the Bolt driver, i.e.
+     * within an auto commit transaction and without blocking a thread while
+     * waiting for the server.
+     */
+    @Override
+    public CompletionStage<List<Map<String, Object>>> executeQueryAsync(String query, Map<String, Object> parameters) {
+        Session session = getAsyncDriver().session();
+        return session.runAsync(query, parameters != null ? parameters : emptyMap()).thenCompose(cursor -> cursor.listAsync(Record::asMap))
+                .whenComplete((rows, failure) -> session.closeAsync());
+    }
+
+    private synchronized Driver getAsyncDriver() {
+        if (asyncDriver == null) {
+            Properties properties = getConnectionProperties();
+            String username = properties.getProperty(Property.USERNAME.getKey());
+            AuthToken authToken = username != null ? AuthTokens.basic(username, properties.getProperty(Property.PASSWORD.getKey())) : AuthTokens.none();
+            asyncDriver = GraphDatabase.driver(storeConfiguration.getUri(), authToken, getDriverConfig(properties));
+        }
+        return asyncDriver;
+    }
+
+    private synchronized void closeAsyncDriver() {
+        if (asyncDriver != null) {
+            try {
+                asyncDriver.close();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Cannot close driver for asynchronous queries.", e);
+            }
+            asyncDriver = null;
+        }
+    }
+
+    /**
+     * Create the configuration of the driver for asynchronous queries including
+     * encryption and connection pool settings.
+     *
+     * @param properties
+     *            The connection properties, see
+     *            {@link #getConnectionProperties()}.
+     * @return The {@link Config}.
+     */
+    Config getDriverConfig(Properties properties) {
+        Config.ConfigBuilder builder = Config.build();
+        if (Boolean.parseBoolean(properties.getProperty(Property.ENCRYPTION.getKey()))) {
+            builder.withEncryption();
+            String trustStrategy = properties.getProperty(Property.TRUST_STRATEGY.getKey());
+            if (trustStrategy != null) {
+                builder.withTrustStrategy(getTrustStrategy(trustStrategy, properties.getProperty(Property.TRUST_CERTIFICATE.getKey())));
+            }
+        } else {
+            builder.withoutEncryption();
+        }
+        Integer maxConnectionPoolSize = storeConfiguration.getMaxConnectionPoolSize();
+        if (maxConnectionPoolSize != null) {
+            builder.withMaxConnectionPoolSize(maxConnectionPoolSize);
+        }
+        Long connectionAcquisitionTimeout = storeConfiguration.getConnectionAcquisitionTimeout();
+        if (connectionAcquisitionTimeout != null) {
+            builder.withConnectionAcquisitionTimeout(connectionAcquisitionTimeout, TimeUnit.MILLISECONDS);
+        }
+        Long maxConnectionLifetime = storeConfiguration.getMaxConnectionLifetime();
+        if (maxConnectionLifetime != null) {
+            builder.withMaxConnectionLifetime(maxConnectionLifetime, TimeUnit.MILLISECONDS);
+        }
+        return builder.toConfig();
+    }
+
+    /**
+     * Determine the trust strategy, the name may be given in camel case (e.g.
+     * `trustAllCertificates`) or upper case (e.g. `TRUST_ALL_CERTIFICATES`).
+     */
+    static Config.TrustStrategy getTrustStrategy(String trustStrategy, String trustCertificate) {
+        String name = trustStrategy.replace("_", "").toLowerCase();
+        if (name.startsWith("trustall")) {
+            return Config.TrustStrategy.trustAllCertificates();
+        } else if (name.startsWith("trustcustom")) {
+            if (trustCertificate == null) {
+                throw new IllegalArgumentException("The trust strategy " + trustStrategy + " requires a trust certificate.");
+            }
+            return Config.TrustStrategy.trustCustomCertificateSignedBy(new File(trustCertificate));
+        } else if (name.startsWith("trustsystem")) {
+            return Config.TrustStrategy.trustSystemCertificates();
+        }
+        throw new IllegalArgumentException("Unknown trust strategy " + trustStrategy);
+    }
 }
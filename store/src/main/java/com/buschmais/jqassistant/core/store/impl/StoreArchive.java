@@ -0,0 +1,210 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Writes the directory of a database to an archive and restores it.
+ *
+ * The archive is a ZIP file, i.e. the entries are compressed and protected by
+ * CRC-32 checksums which are verified while reading. A manifest is written as
+ * last entry containing the number of files and their total size, so a
+ * truncated archive is detected as well. Archives are written and read as
+ * streams without intermediate files.
+ */
+final class StoreArchive {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StoreArchive.class);
+
+    static final String MANIFEST = ".jqassistant-snapshot";
+
+    private static final String FILES = "files";
+
+    private static final String BYTES = "bytes";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private StoreArchive() {
+    }
+
+    /**
+     * Write the files of a directory to an archive.
+     *
+     * @param directory
+     *            The directory.
+     * @param archive
+     *            The archive, an existing file is replaced.
+     * @throws IOException
+     *             If the archive cannot be written.
+     */
+    static void write(Path directory, Path archive) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(toList());
+        }
+        long bytes = 0;
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(archive), BUFFER_SIZE))) {
+            // Databases are large, favor speed over compression ratio
+            zip.setLevel(Deflater.BEST_SPEED);
+            for (Path file : files) {
+                zip.putNextEntry(new ZipEntry(directory.relativize(file).toString().replace(File.separatorChar, '/')));
+                bytes += Files.copy(file, zip);
+                zip.closeEntry();
+            }
+            Properties manifest = new Properties();
+            manifest.setProperty(FILES, Integer.toString(files.size()));
+            manifest.setProperty(BYTES, Long.toString(bytes));
+            zip.putNextEntry(new ZipEntry(MANIFEST));
+            manifest.store(zip, null);
+            zip.closeEntry();
+        }
+        LOGGER.info("Wrote snapshot of {} files ({} bytes) to '{}'.", files.size(), bytes, archive);
+    }
+
+    /**
+     * Restore a directory from an archive.
+     *
+     * The archive is extracted to a sibling directory which replaces the
+     * directory after it has been verified, i.e. the directory is left
+     * untouched if the archive is invalid or the extracted directory cannot be
+     * moved.
+     *
+     * @param archive
+     *            The archive.
+     * @param directory
+     *            The directory.
+     * @throws IOException
+     *             If the archive is invalid or cannot be extracted.
+     */
+    static void restore(Path archive, Path directory) throws IOException {
+        restore(archive, directory, StoreArchive::moveAtomically);
+    }
+
+    /**
+     * Restore a directory from an archive using the given operation for moving
+     * the extracted directory.
+     */
+    static void restore(Path archive, Path directory, MoveOperation moveOperation) throws IOException {
+        Path absoluteDirectory = directory.toAbsolutePath().normalize();
+        Path restoreDirectory = absoluteDirectory.resolveSibling(absoluteDirectory.getFileName() + ".restore");
+        delete(restoreDirectory, false);
+        try {
+            extract(archive, restoreDirectory);
+        } catch (IOException | RuntimeException e) {
+            delete(restoreDirectory, false);
+            throw e;
+        }
+        Path previousDirectory = absoluteDirectory.resolveSibling(absoluteDirectory.getFileName() + ".previous");
+        delete(previousDirectory, false);
+        boolean replaced = Files.exists(absoluteDirectory);
+        if (replaced) {
+            Files.move(absoluteDirectory, previousDirectory);
+        }
+        try {
+            moveOperation.move(restoreDirectory, absoluteDirectory);
+        } catch (IOException | RuntimeException e) {
+            // Put the previous directory back in place
+            try {
+                if (replaced) {
+                    Files.move(previousDirectory, absoluteDirectory);
+                }
+                delete(restoreDirectory, false);
+            } catch (IOException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+            }
+            throw e;
+        }
+        delete(previousDirectory, false);
+        LOGGER.info("Restored snapshot '{}' to '{}'.", archive, absoluteDirectory);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target);
+        }
+    }
+
+    private static void extract(Path archive, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Properties manifest = null;
+        int files = 0;
+        long bytes = 0;
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(archive), BUFFER_SIZE))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (manifest != null) {
+                    throw new IOException("Unexpected entry '" + entry.getName() + "' after the manifest of snapshot '" + archive + "'.");
+                }
+                if (MANIFEST.equals(entry.getName())) {
+                    manifest = new Properties();
+                    manifest.load(zip);
+                } else if (!entry.isDirectory()) {
+                    Path file = directory.resolve(entry.getName()).normalize();
+                    if (!file.startsWith(directory)) {
+                        throw new IOException("Invalid entry '" + entry.getName() + "' in snapshot '" + archive + "'.");
+                    }
+                    Files.createDirectories(file.getParent());
+                    // Reading the entry until its end verifies the checksum
+                    bytes += Files.copy(zip, file);
+                    files++;
+                }
+                zip.closeEntry();
+            }
+        }
+        if (manifest == null) {
+            throw new IOException("Snapshot '" + archive + "' is incomplete, the manifest is missing.");
+        }
+        if (!Integer.toString(files).equals(manifest.getProperty(FILES)) || !Long.toString(bytes).equals(manifest.getProperty(BYTES))) {
+            throw new IOException("Snapshot '" + archive + "' is inconsistent, expected " + manifest.getProperty(FILES) + " files (" + manifest.getProperty(BYTES)
+                    + " bytes) but found " + files + " files (" + bytes + " bytes).");
+        }
+    }
+
+    /**
+     * Delete a directory including all its contents.
+     *
+     * @param directory
+     *            The directory.
+     * @param keepDirectory
+     *            If <code>true</code> only the contents are deleted.
+     * @throws IOException
+     *             If a file cannot be deleted.
+     */
+    static void delete(Path directory, boolean keepDirectory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        List<Path> paths;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            paths = stream.filter(path -> !keepDirectory || !path.equals(directory)).sorted(Comparator.reverseOrder()).collect(toList());
+        }
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Moves a file or directory.
+     */
+    @FunctionalInterface
+    interface MoveOperation {
+
+        void move(Path source, Path target) throws IOException;
+    }
+}
@@ -0,0 +1,353 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.FullQualifiedNameDescriptor;
+import com.buschmais.xo.api.Query.Result;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Collections.singletonMap;
+
+/**
+ * Merges the nodes and relations of a source store (e.g. the store written by
+ * a shard of a scan) into a target store.
+ *
+ * Nodes having a full qualified name (see {@link FullQualifiedNameDescriptor})
+ * and an identifying label (see {@link #getIdentifyingLabels(Collection)}) are
+ * reconciled with existing nodes of the target store which have the same
+ * identifying label and full qualified name, i.e. they are considered to be
+ * unique like the nodes returned by {@link Store#find(Class, String)}. The
+ * other labels of such nodes may differ between the stores (e.g. a type which
+ * is only referenced by one shard but has been scanned by another one), they
+ * are added to the reconciled node. Relations between two reconciled nodes are
+ * merged as well, all other nodes and relations are copied.
+ *
+ * The source store is read by a single query for nodes and relations, the
+ * target store is written in batches using separate transactions.
+ */
+public class StoreMerger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StoreMerger.class);
+
+    private static final String FULL_QUALIFIED_NAME = "fqn";
+
+    private static final String NODES = "MATCH (n) RETURN id(n) AS id, labels(n) AS labels, properties(n) AS properties";
+
+    private static final String RELATIONS = "MATCH (s)-[r]->(t) RETURN id(s) AS source, type(r) AS type, id(t) AS target, properties(r) AS properties";
+
+    private final Store target;
+
+    private final int batchSize;
+
+    private final Set<String> identifyingLabels;
+
+    private final Map<String, Batch> batches = new HashMap<>();
+
+    private int pending = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param target
+     *            The target {@link Store}.
+     * @param batchSize
+     *            The number of nodes or relations written per transaction.
+     * @param identifyingLabels
+     *            The labels identifying nodes by their full qualified name.
+     */
+    public StoreMerger(Store target, int batchSize, Collection<String> identifyingLabels) {
+        this.target = target;
+        this.batchSize = batchSize;
+        this.identifyingLabels = new TreeSet<>(identifyingLabels);
+    }
+
+    /**
+     * Determine the labels identifying nodes by their full qualified name, i.e.
+     * the labels of the most general descriptor types extending
+     * {@link FullQualifiedNameDescriptor} (e.g. `Type` but not `Class`).
+     *
+     * @param descriptorTypes
+     *            The descriptor types.
+     * @return The identifying labels.
+     */
+    public static Set<String> getIdentifyingLabels(Collection<Class<?>> descriptorTypes) {
+        Set<String> identifyingLabels = new TreeSet<>();
+        for (Class<?> descriptorType : descriptorTypes) {
+            String label = getLabel(descriptorType);
+            if (label != null && isIdentifying(descriptorType)) {
+                identifyingLabels.add(label);
+            }
+        }
+        return identifyingLabels;
+    }
+
+    /**
+     * Checks if a descriptor type extends {@link FullQualifiedNameDescriptor}
+     * and none of its super types doing so declares a label.
+     */
+    private static boolean isIdentifying(Class<?> descriptorType) {
+        if (!FullQualifiedNameDescriptor.class.isAssignableFrom(descriptorType) || FullQualifiedNameDescriptor.class.equals(descriptorType)) {
+            return false;
+        }
+        Deque<Class<?>> superTypes = new ArrayDeque<>(Arrays.asList(descriptorType.getInterfaces()));
+        while (!superTypes.isEmpty()) {
+            Class<?> superType = superTypes.pop();
+            if (FullQualifiedNameDescriptor.class.isAssignableFrom(superType) && getLabel(superType) != null) {
+                return false;
+            }
+            superTypes.addAll(Arrays.asList(superType.getInterfaces()));
+        }
+        return true;
+    }
+
+    /**
+     * Return the label declared by a type (i.e. not by its super types) using a
+     * {@link Label} annotation or an annotation annotated with {@link Label}.
+     */
+    private static String getLabel(Class<?> type) {
+        for (Annotation annotation : type.getAnnotations()) {
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            if (annotation instanceof Label) {
+                String value = ((Label) annotation).value();
+                return value.isEmpty() ? type.getSimpleName() : value;
+            } else if (annotationType.isAnnotationPresent(Label.class)) {
+                String value = annotationType.getAnnotation(Label.class).value();
+                return value.isEmpty() ? annotationType.getSimpleName() : value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Merge the given source store into the target store.
+     *
+     * @param source
+     *            The source {@link Store}.
+     */
+    public void merge(Store source) {
+        NodeMapping nodeMapping = new NodeMapping();
+        source.beginTransaction();
+        try {
+            mergeNodes(source, nodeMapping);
+            mergeRelations(source, nodeMapping);
+        } finally {
+            source.rollbackTransaction();
+        }
+        LOGGER.info("Merged {} nodes ({} identified by full qualified name) and {} relations.", nodeMapping.nodes, nodeMapping.reconciledNodes,
+                nodeMapping.relations);
+    }
+
+    private void mergeNodes(Store source, NodeMapping nodeMapping) {
+        try (Result<CompositeRowObject> result = source.executeQuery(NODES)) {
+            for (CompositeRowObject row : result) {
+                List<String> labels = new ArrayList<>(row.get("labels", List.class));
+                Map<String, Object> properties = row.get("properties", Map.class);
+                String identifyingLabel = properties.get(FULL_QUALIFIED_NAME) != null ? getIdentifyingLabel(labels) : null;
+                Map<String, Object> node = new HashMap<>();
+                node.put("id", row.get("id", Long.class));
+                node.put("properties", properties);
+                add(getNodeBatch(labels, identifyingLabel), node, nodeMapping);
+            }
+        }
+        flush(nodeMapping);
+    }
+
+    private void mergeRelations(Store source, NodeMapping nodeMapping) {
+        try (Result<CompositeRowObject> result = source.executeQuery(RELATIONS)) {
+            for (CompositeRowObject row : result) {
+                long sourceId = row.get("source", Long.class);
+                long targetId = row.get("target", Long.class);
+                Map<String, Object> relation = new HashMap<>();
+                relation.put("source", nodeMapping.get(sourceId));
+                relation.put("target", nodeMapping.get(targetId));
+                relation.put("properties", row.get("properties", Map.class));
+                boolean reconcile = nodeMapping.isReconciled(sourceId) && nodeMapping.isReconciled(targetId);
+                add(getRelationBatch(row.get("type", String.class), reconcile), relation, nodeMapping);
+                nodeMapping.relations++;
+            }
+        }
+        flush(nodeMapping);
+    }
+
+    private void add(Batch batch, Map<String, Object> value, NodeMapping nodeMapping) {
+        batch.values.add(value);
+        if (++pending >= batchSize) {
+            flush(nodeMapping);
+        }
+    }
+
+    /**
+     * Write all pending batches within one transaction.
+     */
+    private void flush(NodeMapping nodeMapping) {
+        if (pending == 0) {
+            return;
+        }
+        inTransaction(() -> {
+            for (Batch batch : batches.values()) {
+                if (batch.values.isEmpty()) {
+                    continue;
+                }
+                try (Result<CompositeRowObject> result = target.executeQuery(batch.statement, singletonMap(batch.parameter, batch.values))) {
+                    for (CompositeRowObject row : result) {
+                        if (batch.nodes) {
+                            nodeMapping.put(row.get("source", Long.class), row.get("target", Long.class), batch.reconcile);
+                        }
+                    }
+                }
+                batch.values.clear();
+            }
+        });
+        pending = 0;
+    }
+
+    /**
+     * Return the first identifying label of a node, the identifying labels are
+     * sorted so the result is independent of the order of the labels.
+     */
+    private String getIdentifyingLabel(List<String> labels) {
+        for (String identifyingLabel : identifyingLabels) {
+            if (labels.contains(identifyingLabel)) {
+                return identifyingLabel;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the batch for creating nodes with the given labels or for merging
+     * them using the identifying label.
+     */
+    private Batch getNodeBatch(List<String> labels, String identifyingLabel) {
+        boolean reconcile = identifyingLabel != null;
+        if (reconcile) {
+            labels.remove(identifyingLabel);
+        }
+        Collections.sort(labels);
+        StringBuilder labelExpression = new StringBuilder();
+        for (String label : labels) {
+            labelExpression.append(':').append(escape(label));
+        }
+        if (!reconcile) {
+            return batches.computeIfAbsent(labelExpression.toString(), key -> new Batch(true, false,
+                    "UNWIND $nodes AS node CREATE (n" + labelExpression + ") SET n = node.properties RETURN node.id AS source, id(n) AS target"));
+        }
+        return batches.computeIfAbsent(escape(identifyingLabel) + "+" + labelExpression, key -> new Batch(true, true,
+                "UNWIND $nodes AS node MERGE (n:" + escape(identifyingLabel) + "{" + FULL_QUALIFIED_NAME + ":node.properties." + FULL_QUALIFIED_NAME
+                        + "}) ON CREATE SET n = node.properties ON MATCH SET n += node.properties " + (labels.isEmpty() ? "" : "SET n" + labelExpression + " ")
+                        + "RETURN node.id AS source, id(n) AS target"));
+    }
+
+    /**
+     * Return the batch for creating or merging relations of the given type.
+     */
+    private Batch getRelationBatch(String type, boolean reconcile) {
+        return batches.computeIfAbsent("->" + type + (reconcile ? "+" : ""), key -> new Batch(false, reconcile,
+                "UNWIND $relations AS relation MATCH (s) WHERE id(s) = relation.source MATCH (t) WHERE id(t) = relation.target "
+                        + (reconcile ? "MERGE (s)-[r:" + escape(type) + "]->(t) ON CREATE SET r = relation.properties"
+                                : "CREATE (s)-[r:" + escape(type) + "]->(t) SET r = relation.properties")));
+    }
+
+    private String escape(String name) {
+        return '`' + name.replace("`", "``") + '`';
+    }
+
+    private void inTransaction(Runnable operation) {
+        boolean activeTransaction = target.hasActiveTransaction();
+        if (!activeTransaction) {
+            target.beginTransaction();
+        }
+        try {
+            operation.run();
+        } catch (RuntimeException e) {
+            if (!activeTransaction && target.hasActiveTransaction()) {
+                target.rollbackTransaction();
+            }
+            throw e;
+        }
+        if (!activeTransaction) {
+            target.commitTransaction();
+        }
+    }
+
+    /**
+     * The nodes or relations to be written by a statement.
+     */
+    private static class Batch {
+
+        private final boolean nodes;
+
+        private final boolean reconcile;
+
+        private final String statement;
+
+        private final String parameter;
+
+        private final List<Map<String, Object>> values = new ArrayList<>();
+
+        private Batch(boolean nodes, boolean reconcile, String statement) {
+            this.nodes = nodes;
+            this.reconcile = reconcile;
+            this.statement = statement;
+            this.parameter = nodes ? "nodes" : "relations";
+        }
+    }
+
+    /**
+     * Maps the ids of the source nodes to the ids of the target nodes, the ids of
+     * the nodes of a store are dense so arrays are used.
+     */
+    private static class NodeMapping {
+
+        private long[] targetIds = new long[1024];
+
+        private final BitSet reconciled = new BitSet();
+
+        private long nodes = 0;
+
+        private long reconciledNodes = 0;
+
+        private long relations = 0;
+
+        private void put(long sourceId, long targetId, boolean reconcile) {
+            int index = toIndex(sourceId);
+            if (index >= targetIds.length) {
+                targetIds = Arrays.copyOf(targetIds, Math.max(index + 1, targetIds.length * 2));
+            }
+            // A merge may match multiple existing nodes, the first one is used
+            if (targetIds[index] == 0) {
+                targetIds[index] = targetId + 1;
+                nodes++;
+                if (reconcile) {
+                    reconciled.set(index);
+                    reconciledNodes++;
+                }
+            }
+        }
+
+        private long get(long sourceId) {
+            int index = toIndex(sourceId);
+            if (index >= targetIds.length || targetIds[index] == 0) {
+                throw new IllegalStateException("Cannot find merged node for source node " + sourceId);
+            }
+            return targetIds[index] - 1;
+        }
+
+        private boolean isReconciled(long sourceId) {
+            return reconciled.get(toIndex(sourceId));
+        }
+
+        private int toIndex(long id) {
+            if (id < 0 || id >= Integer.MAX_VALUE) {
+                throw new IllegalStateException("Node id " + id + " is out of range.");
+            }
+            return (int) id;
+        }
+    }
+}
@@ -0,0 +1,797 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreListener;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.jqassistant.core.store.api.model.FullQualifiedNameDescriptor;
+import com.buschmais.xo.api.CompositeObject;
+import com.buschmais.xo.api.Example;
+import com.buschmais.xo.api.Query.Result;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+import com.buschmais.xo.api.XOManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread-safe {@link Store} which serializes all operations on a dedicated
+ * writer thread.
+ *
+ * The underlying {@link Store} (and the {@link XOManager} it uses) is not safe
+ * to be used by multiple threads, transactions of the embedded store are even
+ * bound to the thread which started them. Therefore all methods of this
+ * {@link Store} are executed by the writer thread. This also applies to
+ * {@link Descriptor}s, query results and other store bound values returned by
+ * the delegate: they are wrapped by proxies which perform all their invocations
+ * on the writer thread as well.
+ *
+ * In write-behind mode the callers are not blocked by operations which do not
+ * provide a result, i.e. creating descriptors or relations, setting properties
+ * and transaction demarcation including the commits triggered by the auto
+ * commit of the delegate. These operations are queued and executed in order by
+ * the writer thread, so the next batch of operations is collected while the
+ * previous one is committed. Created descriptors are returned immediately as
+ * proxies which are resolved by the writer thread. As the actual types of a
+ * descriptor are not known before the operation has been executed, these
+ * proxies only implement the requested type and {@link CompositeObject}, type
+ * checks against other types must use {@link #unwrap(Object)}. Operations
+ * providing a result wait for all previously queued operations and therefore
+ * see their effects. The number of pending operations is limited,
+ * {@link #barrier()} waits until all of them have been executed.
+ *
+ * The writer thread is terminated by {@link #close()}, the delegate itself is
+ * not stopped. {@link #stop()} stops the delegate and terminates the writer
+ * thread as well.
+ *
+ * A {@link StoreWriter} created by {@link #forCurrentThread(Store)} uses the
+ * current thread as writer thread, e.g. because it owns the active transaction
+ * of the delegate. The operations of other threads are queued and executed
+ * while the current thread waits for them using {@link #await(BooleanSupplier)}.
+ */
+public class StoreWriter implements Store, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StoreWriter.class);
+
+    /**
+     * The interval for checking the condition of {@link #await(BooleanSupplier)}
+     * while no operations are queued.
+     */
+    private static final long AWAIT_INTERVAL_MILLIS = 10;
+
+    private final Store delegate;
+
+    private final ExecutorService writer;
+
+    private final Semaphore pendingOperations;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private volatile Thread writerThread;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate
+     *            The {@link Store} to delegate to.
+     */
+    public StoreWriter(Store delegate) {
+        this(delegate, 0);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate
+     *            The {@link Store} to delegate to.
+     * @param writeBehindCapacity
+     *            The maximum number of pending operations in write-behind mode,
+     *            `0` disables write-behind mode.
+     */
+    public StoreWriter(Store delegate, int writeBehindCapacity) {
+        this.delegate = delegate;
+        this.pendingOperations = writeBehindCapacity > 0 ? new Semaphore(writeBehindCapacity) : null;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jqassistant-store-writer");
+            thread.setDaemon(true);
+            writerThread = thread;
+            return thread;
+        });
+    }
+
+    /**
+     * Constructor for a {@link StoreWriter} using the given thread as writer
+     * thread.
+     *
+     * @param delegate
+     *            The {@link Store} to delegate to.
+     * @param owner
+     *            The thread executing the operations.
+     */
+    private StoreWriter(Store delegate, Thread owner) {
+        this.delegate = delegate;
+        this.pendingOperations = null;
+        this.writer = new OwnerThreadExecutor();
+        this.writerThread = owner;
+    }
+
+    /**
+     * Creates a {@link StoreWriter} which executes all operations on the current
+     * thread.
+     *
+     * This allows other threads to use the transaction of the current thread, the
+     * current thread executes their operations within
+     * {@link #await(BooleanSupplier)}.
+     *
+     * @param delegate
+     *            The {@link Store} to delegate to.
+     * @return The {@link StoreWriter}.
+     */
+    public static StoreWriter forCurrentThread(Store delegate) {
+        return new StoreWriter(delegate, Thread.currentThread());
+    }
+
+    /**
+     * Executes the queued operations of other threads until the given condition
+     * is fulfilled, must be called by the thread which created the
+     * {@link StoreWriter} using {@link #forCurrentThread(Store)}.
+     *
+     * @param condition
+     *            The condition, e.g. all threads using the {@link StoreWriter}
+     *            have completed their work.
+     * @throws InterruptedException
+     *             If the current thread has been interrupted.
+     */
+    public void await(BooleanSupplier condition) throws InterruptedException {
+        if (!(writer instanceof OwnerThreadExecutor) || Thread.currentThread() != writerThread) {
+            throw new IllegalStateException("Only the thread owning the store writer can execute its operations.");
+        }
+        OwnerThreadExecutor ownerThreadExecutor = (OwnerThreadExecutor) writer;
+        while (!condition.getAsBoolean()) {
+            ownerThreadExecutor.runNext(AWAIT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the original value for a value which has been returned by a
+     * {@link StoreWriter}.
+     *
+     * @param value
+     *            The value.
+     * @param <T>
+     *            The value type.
+     * @return The original value or the given value if it has not been provided
+     *         by a {@link StoreWriter}.
+     */
+    public static <T> T unwrap(T value) {
+        if (value != null && Proxy.isProxyClass(value.getClass())) {
+            InvocationHandler invocationHandler = Proxy.getInvocationHandler(value);
+            if (invocationHandler instanceof WriterInvocationHandler) {
+                return (T) ((WriterInvocationHandler) invocationHandler).resolve();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Wraps a store bound value which has not been returned by this
+     * {@link StoreWriter} (e.g. a {@link Descriptor} created by the thread
+     * owning the delegate before), such that all its invocations are executed
+     * on the writer thread.
+     *
+     * @param value
+     *            The value.
+     * @param <T>
+     *            The value type.
+     * @return The wrapped value or the given value if it is not store bound.
+     */
+    public <T> T wrap(T value) {
+        return (T) wrap(value, null);
+    }
+
+    @Override
+    public void start() {
+        execute(() -> {
+            delegate.start();
+            return null;
+        }, null);
+    }
+
+    /**
+     * Stops the delegate and terminates the writer thread, the
+     * {@link StoreWriter} cannot be used afterwards.
+     */
+    @Override
+    public void stop() {
+        try {
+            execute(() -> {
+                delegate.stop();
+                return null;
+            }, null);
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public XOManager getXOManager() {
+        return execute(() -> delegate.getXOManager(), XOManager.class);
+    }
+
+    @Override
+    public void reset() {
+        execute(() -> {
+            delegate.reset();
+            return null;
+        }, null);
+    }
+
+    @Override
+    public void snapshot(File archive) {
+        execute(() -> {
+            delegate.snapshot(archive);
+            return null;
+        }, null);
+    }
+
+    @Override
+    public void restore(File archive) {
+        execute(() -> {
+            delegate.restore(archive);
+            return null;
+        }, null);
+    }
+
+    @Override
+    public void beginTransaction() {
+        executeBehind(() -> delegate.beginTransaction());
+    }
+
+    @Override
+    public void commitTransaction() {
+        executeBehind(() -> delegate.commitTransaction());
+    }
+
+    @Override
+    public void rollbackTransaction() {
+        executeBehind(() -> delegate.rollbackTransaction());
+    }
+
+    @Override
+    public boolean hasActiveTransaction() {
+        // Failures of queued operations usually lead to a rollback, so don't report them here
+        return run(() -> delegate.hasActiveTransaction());
+    }
+
+    @Override
+    public OptionalLong getModificationEpoch() {
+        return execute(() -> delegate.getModificationEpoch(), null);
+    }
+
+    @Override
+    public void flush() {
+        executeBehind(() -> delegate.flush());
+    }
+
+    @Override
+    public void barrier() {
+        execute(() -> {
+            delegate.barrier();
+            return null;
+        }, null);
+    }
+
+    @Override
+    public void addListener(StoreListener listener) {
+        // The listener is notified about the transactions of the writer thread
+        execute(() -> {
+            delegate.addListener(listener);
+            return null;
+        }, null);
+    }
+
+    @Override
+    public void removeListener(StoreListener listener) {
+        execute(() -> {
+            delegate.removeListener(listener);
+            return null;
+        }, null);
+    }
+
+    @Override
+    public <T extends Descriptor> T create(Class<T> type) {
+        return executeBehind(() -> delegate.create(type), type);
+    }
+
+    @Override
+    public <T extends Descriptor> T create(Class<T> type, Example<T> example) {
+        return executeBehind(() -> delegate.create(type, writerExample(example)), type);
+    }
+
+    @Override
+    public <S extends Descriptor, R extends Descriptor, T extends Descriptor> R create(S source, Class<R> relationType, T target) {
+        return executeBehind(() -> delegate.create(unwrap(source), relationType, unwrap(target)), relationType);
+    }
+
+    @Override
+    public <S extends Descriptor, R extends Descriptor, T extends Descriptor> R create(S source, Class<R> relationType, T target, Example<R> example) {
+        return executeBehind(() -> delegate.create(unwrap(source), relationType, unwrap(target), writerExample(example)), relationType);
+    }
+
+    @Override
+    public <T extends Descriptor> List<T> createAll(Class<T> type, List<Map<String, Object>> properties) {
+        return wrapAll(execute(() -> delegate.createAll(type, properties), null));
+    }
+
+    @Override
+    public <S extends Descriptor, R extends Descriptor, T extends Descriptor> List<R> relateAll(List<S> sources, Class<R> relationType, List<T> targets,
+            List<Map<String, Object>> properties) {
+        return wrapAll(execute(() -> delegate.relateAll(unwrapAll(sources), relationType, unwrapAll(targets), properties), null));
+    }
+
+    @Override
+    public <T extends FullQualifiedNameDescriptor> T create(Class<T> type, String fullQualifiedName) {
+        return executeBehind(() -> delegate.create(type, fullQualifiedName), type);
+    }
+
+    @Override
+    public <T extends Descriptor> void delete(T descriptor) {
+        executeBehind(() -> delegate.delete(unwrap(descriptor)));
+    }
+
+    @Override
+    public void evict(Collection<Long> ids) {
+        execute(() -> {
+            delegate.evict(ids);
+            return null;
+        }, null);
+    }
+
+    @Override
+    public <T extends Descriptor, N extends Descriptor> N addDescriptorType(T descriptor, Class<?> newDescriptorType, Class<N> as) {
+        return execute(() -> delegate.addDescriptorType(unwrap(descriptor), newDescriptorType, as), as);
+    }
+
+    @Override
+    public <T extends Descriptor, N extends Descriptor> N addDescriptorType(T descriptor, Class<N> newDescriptorType) {
+        return execute(() -> delegate.addDescriptorType(unwrap(descriptor), newDescriptorType), newDescriptorType);
+    }
+
+    @Override
+    public <T extends Descriptor, N extends Descriptor> N removeDescriptorType(T descriptor, Class<?> obsoleteDescriptorType, Class<N> as) {
+        return execute(() -> delegate.removeDescriptorType(unwrap(descriptor), obsoleteDescriptorType, as), as);
+    }
+
+    @Override
+    public <T extends Descriptor> T find(Class<T> type, String value) {
+        return execute(() -> delegate.find(type, value), type);
+    }
+
+    @Override
+    public Result<CompositeRowObject> executeQuery(String query, Map<String, Object> parameters) {
+        return execute(() -> delegate.executeQuery(query, unwrapValues(parameters)), Result.class);
+    }
+
+    @Override
+    public Result<CompositeRowObject> executeQuery(String query) {
+        return execute(() -> delegate.executeQuery(query), Result.class);
+    }
+
+    /**
+     * Executes a CYPHER query asynchronously.
+     *
+     * Asynchronous queries use their own transactions, so they are not
+     * serialized by the writer thread. In write-behind mode the query is started
+     * after all queued operations have been executed, so it sees the effects of
+     * the transactions committed before.
+     */
+    @Override
+    public CompletionStage<List<Map<String, Object>>> executeQueryAsync(String query, Map<String, Object> parameters) {
+        if (isWriteBehind()) {
+            barrier();
+        }
+        return delegate.executeQueryAsync(query, unwrapValues(parameters));
+    }
+
+    @Override
+    public <Q> Result<Q> executeQuery(Class<Q> query, Map<String, Object> parameters) {
+        return execute(() -> delegate.executeQuery(query, unwrapValues(parameters)), Result.class);
+    }
+
+    @Override
+    public <K, V extends Descriptor> Cache<K, V> getCache(String cacheKey) {
+        // Caches are thread-safe, only their creation needs to be serialized
+        return execute(() -> delegate.<K, V> getCache(cacheKey), null);
+    }
+
+    @Override
+    public void invalidateCache(String cacheKey) {
+        execute(() -> {
+            delegate.invalidateCache(cacheKey);
+            return null;
+        }, null);
+    }
+
+    @Override
+    public Map<String, CacheStats> getCacheStatistics() {
+        return execute(() -> delegate.getCacheStatistics(), null);
+    }
+
+    /**
+     * Terminates the writer thread after all pending operations have been
+     * executed.
+     *
+     * If the {@link StoreWriter} has been created by
+     * {@link #forCurrentThread(Store)} the operations which have not been executed
+     * by {@link #await(BooleanSupplier)} are cancelled.
+     */
+    @Override
+    public void close() {
+        if (writer instanceof OwnerThreadExecutor) {
+            for (Runnable operation : writer.shutdownNow()) {
+                ((Future<?>) operation).cancel(false);
+            }
+            return;
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOGGER.warn("Store writer did not terminate in time.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Executes an operation on the writer thread, waits for its result and wraps
+     * it.
+     *
+     * Failures of previously queued operations are reported afterwards.
+     *
+     * @param operation
+     *            The operation.
+     * @param declaredType
+     *            The declared type of the result, used for wrapping store bound
+     *            values. If `null` the result is returned as is.
+     * @param <T>
+     *            The result type.
+     * @return The result.
+     */
+    private <T> T execute(Callable<T> operation, Class<?> declaredType) {
+        T result = run(operation);
+        Throwable pendingFailure = failure.getAndSet(null);
+        if (pendingFailure != null) {
+            throw new IllegalStateException("A queued store operation failed.", pendingFailure);
+        }
+        return declaredType != null ? (T) wrap(result, declaredType) : result;
+    }
+
+    /**
+     * Executes an operation without result, in write-behind mode it is queued.
+     *
+     * @param operation
+     *            The operation.
+     */
+    private void executeBehind(Runnable operation) {
+        Callable<Void> callable = () -> {
+            operation.run();
+            return null;
+        };
+        if (isWriteBehind()) {
+            submit(callable);
+        } else {
+            execute(callable, null);
+        }
+    }
+
+    /**
+     * Executes an operation creating a descriptor, in write-behind mode it is
+     * queued and a proxy is returned which is resolved by the writer thread. The
+     * proxy only implements the given type and {@link CompositeObject}.
+     *
+     * @param operation
+     *            The operation.
+     * @param type
+     *            The descriptor type.
+     * @param <T>
+     *            The descriptor type.
+     * @return The descriptor.
+     */
+    private <T> T executeBehind(Callable<T> operation, Class<T> type) {
+        if (isWriteBehind()) {
+            Future<T> descriptor = submit(operation);
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type, CompositeObject.class },
+                    new WriterInvocationHandler(null, descriptor));
+        }
+        return execute(operation, type);
+    }
+
+    private boolean isWriteBehind() {
+        return pendingOperations != null && Thread.currentThread() != writerThread;
+    }
+
+    /**
+     * Queues an operation for the writer thread, blocks the caller if the maximum
+     * number of pending operations is reached.
+     */
+    private <T> Future<T> submit(Callable<T> operation) {
+        try {
+            pendingOperations.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the store writer.", e);
+        }
+        return writer.submit(() -> {
+            try {
+                return operation.call();
+            } catch (Exception | Error e) {
+                if (!failure.compareAndSet(null, e)) {
+                    LOGGER.debug("Suppressing failure of queued store operation.", e);
+                }
+                throw e;
+            } finally {
+                pendingOperations.release();
+            }
+        });
+    }
+
+    /**
+     * Runs an operation on the writer thread and waits for its result.
+     *
+     * If the current thread is the writer thread itself the operation is executed
+     * directly.
+     */
+    private <T> T run(Callable<T> operation) {
+        if (Thread.currentThread() == writerThread) {
+            try {
+                return operation.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Unexpected checked exception from store.", e);
+            }
+        }
+        return get(writer.submit(operation));
+    }
+
+    /**
+     * Waits for the result of a future, exceptions are passed through to the
+     * caller.
+     */
+    private static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Unexpected checked exception from store.", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the store writer.", e);
+        }
+    }
+
+    /**
+     * Wraps a value returned by the delegate by a proxy executing all invocations
+     * on the writer thread.
+     *
+     * {@link CompositeObject}s (i.e. {@link Descriptor}s and rows) are wrapped
+     * using all their public interfaces, other values only if their declared type
+     * is an interface (e.g. collections of related descriptors or query results).
+     */
+    private Object wrap(Object value, Class<?> declaredType) {
+        if (value == null || unwrap(value) != value) {
+            return value;
+        }
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        if (value instanceof CompositeObject) {
+            collectInterfaces(value.getClass(), interfaces);
+        } else if (declaredType != null && declaredType.isInterface() && declaredType.isInstance(value)) {
+            interfaces.add(declaredType);
+        }
+        if (interfaces.isEmpty()) {
+            return value;
+        }
+        ClassLoader classLoader = value.getClass().getClassLoader();
+        if (classLoader == null) {
+            classLoader = interfaces.iterator().next().getClassLoader();
+        }
+        return Proxy.newProxyInstance(classLoader, interfaces.toArray(new Class<?>[0]), new WriterInvocationHandler(value, null));
+    }
+
+    private void collectInterfaces(Class<?> type, Set<Class<?>> interfaces) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Class<?> interfaceType : current.getInterfaces()) {
+                if (Modifier.isPublic(interfaceType.getModifiers()) && interfaces.add(interfaceType)) {
+                    collectInterfaces(interfaceType, interfaces);
+                }
+            }
+        }
+    }
+
+    private <T> List<T> wrapAll(List<T> values) {
+        List<T> wrapped = new ArrayList<>(values.size());
+        for (T value : values) {
+            wrapped.add((T) wrap(value, null));
+        }
+        return wrapped;
+    }
+
+    private static <T> List<T> unwrapAll(List<T> values) {
+        List<T> unwrapped = new ArrayList<>(values.size());
+        for (T value : values) {
+            unwrapped.add(unwrap(value));
+        }
+        return unwrapped;
+    }
+
+    private Map<String, Object> unwrapValues(Map<String, Object> parameters) {
+        if (parameters == null) {
+            return null;
+        }
+        Map<String, Object> unwrapped = new HashMap<>(parameters.size());
+        for (Map.Entry<String, Object> entry : parameters.entrySet()) {
+            unwrapped.put(entry.getKey(), unwrap(entry.getValue()));
+        }
+        return unwrapped;
+    }
+
+    /**
+     * Wraps an {@link Example} such that the instance passed to it can be used by
+     * the calling thread.
+     */
+    private <T> Example<T> writerExample(Example<T> example) {
+        return example != null ? instance -> example.prepare((T) wrap(instance, null)) : null;
+    }
+
+    /**
+     * {@link InvocationHandler} executing all invocations on the writer thread.
+     *
+     * The delegate is either known or provided by a queued operation.
+     */
+    private class WriterInvocationHandler implements InvocationHandler {
+
+        private final Object delegate;
+
+        private final Future<?> pendingDelegate;
+
+        private WriterInvocationHandler(Object delegate, Future<?> pendingDelegate) {
+            this.delegate = delegate;
+            this.pendingDelegate = pendingDelegate;
+        }
+
+        private Object resolve() {
+            return pendingDelegate != null ? get(pendingDelegate) : delegate;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("equals".equals(method.getName()) && args != null && args.length == 1) {
+                return resolve().equals(unwrap(args[0]));
+            }
+            Callable<Object> invocation = () -> {
+                Object[] unwrappedArgs = null;
+                if (args != null) {
+                    unwrappedArgs = new Object[args.length];
+                    for (int i = 0; i < args.length; i++) {
+                        unwrappedArgs[i] = unwrap(args[i]);
+                    }
+                }
+                try {
+                    return method.invoke(resolve(), unwrappedArgs);
+                } catch (InvocationTargetException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    }
+                    throw (Error) cause;
+                }
+            };
+            if (void.class.equals(method.getReturnType()) && isWriteBehind()) {
+                submit(invocation);
+                return null;
+            }
+            return wrap(run(invocation), method.getReturnType());
+        }
+    }
+
+    /**
+     * {@link ExecutorService} queueing the operations for the thread which owns a
+     * {@link StoreWriter}, see {@link #await(BooleanSupplier)}.
+     */
+    private static class OwnerThreadExecutor extends AbstractExecutorService {
+
+        private final BlockingQueue<Runnable> operations = new LinkedBlockingQueue<>();
+
+        private boolean shutdown = false;
+
+        /**
+         * Executes the next queued operation.
+         *
+         * @param timeout
+         *            The maximum time to wait for an operation.
+         * @param unit
+         *            The time unit.
+         * @throws InterruptedException
+         *             If the current thread has been interrupted.
+         */
+        private void runNext(long timeout, TimeUnit unit) throws InterruptedException {
+            Runnable operation = operations.poll(timeout, unit);
+            if (operation != null) {
+                operation.run();
+            }
+        }
+
+        @Override
+        public synchronized void execute(Runnable operation) {
+            if (shutdown) {
+                throw new RejectedExecutionException("The store writer has been closed.");
+            }
+            operations.add(operation);
+        }
+
+        @Override
+        public synchronized void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public synchronized List<Runnable> shutdownNow() {
+            shutdown = true;
+            List<Runnable> pending = new ArrayList<>();
+            operations.drainTo(pending);
+            return pending;
+        }
+
+        @Override
+        public synchronized boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public synchronized boolean isTerminated() {
+            return shutdown && operations.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            // The operations are executed by the owner thread only
+            return isTerminated();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.buschmais.jqassistant.core.store.api;
+
+import java.util.List;
+
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.api.Query.Result;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies the default implementations of the bulk operations of the
+ * {@link Store}.
+ */
+class StoreTest {
+
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        store = mock(Store.class, CALLS_REAL_METHODS);
+        Result<CompositeRowObject> result = mock(Result.class);
+        doReturn(emptyIterator()).when(result).iterator();
+        doReturn(result).when(store).executeQuery(anyString(), anyMap());
+    }
+
+    @Test
+    void createAll() {
+        Descriptor first = descriptor(1L);
+        Descriptor second = descriptor(2L);
+        doReturn(first, second).when(store).create(Descriptor.class);
+
+        List<Descriptor> descriptors = store.createAll(Descriptor.class, asList(singletonMap("name", "first"), emptyMap()));
+
+        assertThat(descriptors).containsExactly(first, second);
+        verify(store, times(2)).create(Descriptor.class);
+        // Properties are only set for the first descriptor
+        verify(store).executeQuery(eq("MATCH (n) WHERE id(n) = $id SET n += $properties"),
+                argThat(parameters -> Long.valueOf(1L).equals(parameters.get("id")) && singletonMap("name", "first").equals(parameters.get("properties"))));
+        verify(store, times(1)).executeQuery(anyString(), anyMap());
+    }
+
+    @Test
+    void relateAll() {
+        Descriptor source = descriptor(1L);
+        Descriptor target = descriptor(2L);
+        Descriptor relation = descriptor(3L);
+        doReturn(relation).when(store).create(source, Descriptor.class, target);
+
+        List<Descriptor> relations = store.relateAll(singletonList(source), Descriptor.class, singletonList(target),
+                singletonList(singletonMap("weight", 1)));
+
+        assertThat(relations).containsExactly(relation);
+        verify(store).executeQuery(eq("MATCH (s)-[r]->() WHERE id(s) = $source AND id(r) = $id SET r += $properties"), argThat(
+                parameters -> Long.valueOf(1L).equals(parameters.get("source")) && Long.valueOf(3L).equals(parameters.get("id"))));
+    }
+
+    @Test
+    void relateAllWithoutProperties() {
+        Descriptor source = descriptor(1L);
+        Descriptor target = descriptor(2L);
+        Descriptor relation = descriptor(3L);
+        doReturn(relation).when(store).create(source, Descriptor.class, target);
+
+        List<Descriptor> relations = store.relateAll(singletonList(source), Descriptor.class, singletonList(target), null);
+
+        assertThat(relations).containsExactly(relation);
+        verify(store, never()).executeQuery(anyString(), anyMap());
+    }
+
+    @Test
+    void relateAllRejectsDifferentSizes() {
+        assertThatThrownBy(() -> store.relateAll(singletonList(descriptor(1L)), Descriptor.class, emptyList(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Descriptor descriptor(long id) {
+        Descriptor descriptor = mock(Descriptor.class);
+        doReturn(id).when(descriptor).getId();
+        return descriptor;
+    }
+}
@@ -0,0 +1,121 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static com.buschmais.jqassistant.core.store.impl.AutoCommitController.HEAP_CHECK_INTERVAL;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class AutoCommitControllerTest {
+
+    @Test
+    void fixedThreshold() {
+        // given
+        AutoCommitController controller = new AutoCommitController(3, false, 100, 0.8, () -> 1.0);
+        controller.begin();
+
+        // when
+        boolean first = controller.created();
+        boolean second = controller.created();
+        boolean third = controller.created();
+        controller.committed(TimeUnit.SECONDS.toNanos(10));
+
+        // then
+        assertThat(first).isFalse();
+        assertThat(second).isFalse();
+        assertThat(third).isTrue();
+        assertThat(controller.getThreshold()).isEqualTo(3);
+    }
+
+    @Test
+    void slowCommitReducesThreshold() {
+        // given
+        AutoCommitController controller = new AutoCommitController(1000, true, 100, 0.8, () -> 0.5);
+        controller.begin();
+        createUntilCommit(controller);
+
+        // when
+        controller.committed(TimeUnit.SECONDS.toNanos(1));
+
+        // then
+        assertThat(controller.getThreshold()).isEqualTo(550);
+    }
+
+    @Test
+    void fastCommitIncreasesThreshold() {
+        // given
+        AutoCommitController controller = new AutoCommitController(1000, true, 100, 0.8, () -> 0.5);
+        controller.begin();
+        createUntilCommit(controller);
+
+        // when
+        controller.committed(TimeUnit.MILLISECONDS.toNanos(10));
+
+        // then
+        assertThat(controller.getThreshold()).isEqualTo(5500);
+    }
+
+    @Test
+    void heapPressureCommitsEarly() {
+        // given
+        AutoCommitController controller = new AutoCommitController(100000, true, 100, 0.8, () -> 0.9);
+        controller.begin();
+
+        // when
+        int created = createUntilCommit(controller);
+
+        // then
+        assertThat(created).isEqualTo(HEAP_CHECK_INTERVAL);
+        assertThat(controller.getThreshold()).isEqualTo(100000 / AutoCommitController.THRESHOLD_RANGE);
+    }
+
+    @Test
+    void heapUsageAfterCollectionOfTenuredPools() {
+        // given
+        MemoryPoolMXBean eden = pool(MemoryType.HEAP, false, new MemoryUsage(0, 90, 100, 100));
+        MemoryPoolMXBean tenured = pool(MemoryType.HEAP, true, new MemoryUsage(0, 40, 100, 100));
+        MemoryPoolMXBean metaspace = pool(MemoryType.NON_HEAP, true, new MemoryUsage(0, 95, 100, 100));
+
+        // when
+        double usage = AutoCommitController.getHeapUsage(asList(eden, tenured, metaspace)).getAsDouble();
+
+        // then
+        assertThat(usage).isEqualTo(0.4);
+    }
+
+    @Test
+    void heapUsageWithoutCollection() {
+        // given
+        MemoryPoolMXBean tenured = pool(MemoryType.HEAP, true, null);
+
+        // when
+        double usage = AutoCommitController.getHeapUsage(asList(tenured)).getAsDouble();
+
+        // then
+        assertThat(usage).isEqualTo(0.0);
+    }
+
+    private MemoryPoolMXBean pool(MemoryType type, boolean thresholdSupported, MemoryUsage collectionUsage) {
+        MemoryPoolMXBean pool = mock(MemoryPoolMXBean.class);
+        doReturn(type).when(pool).getType();
+        doReturn(thresholdSupported).when(pool).isUsageThresholdSupported();
+        doReturn(thresholdSupported).when(pool).isCollectionUsageThresholdSupported();
+        doReturn(collectionUsage).when(pool).getCollectionUsage();
+        return pool;
+    }
+
+    private int createUntilCommit(AutoCommitController controller) {
+        int created = 1;
+        while (!controller.created()) {
+            created++;
+        }
+        return created;
+    }
+}
@@ -0,0 +1,84 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static com.buschmais.jqassistant.core.store.impl.FullQualifiedNameIndex.NOT_FOUND;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FullQualifiedNameIndexTest {
+
+    @Test
+    void putAndGet() {
+        // given
+        FullQualifiedNameIndex index = new FullQualifiedNameIndex();
+
+        // when
+        for (int i = 0; i < 10000; i++) {
+            index.put("com.acme.Type" + i, i);
+        }
+        index.put("com.acme.Type42", 4242);
+
+        // then
+        assertThat(index.size()).isEqualTo(10000);
+        assertThat(index.get("com.acme.Type0")).isEqualTo(0);
+        assertThat(index.get("com.acme.Type42")).isEqualTo(4242);
+        assertThat(index.get("com.acme.Type9999")).isEqualTo(9999);
+        assertThat(index.get("com.acme.Unknown")).isEqualTo(NOT_FOUND);
+    }
+
+    @Test
+    void remove() {
+        // given
+        FullQualifiedNameIndex index = new FullQualifiedNameIndex();
+        for (int i = 0; i < 1000; i++) {
+            index.put("com.acme.Type" + i, i);
+        }
+
+        // when
+        boolean removedOtherId = index.remove("com.acme.Type1", 2);
+        for (int i = 0; i < 1000; i += 2) {
+            index.remove("com.acme.Type" + i, i);
+        }
+
+        // then
+        assertThat(removedOtherId).isFalse();
+        assertThat(index.size()).isEqualTo(500);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(index.get("com.acme.Type" + i)).isEqualTo(i % 2 == 0 ? NOT_FOUND : i);
+        }
+    }
+
+    @Test
+    void removeAll() {
+        // given
+        FullQualifiedNameIndex index = new FullQualifiedNameIndex();
+        for (int i = 0; i < 100; i++) {
+            index.put("com.acme.Type" + i, i);
+        }
+
+        // when
+        int removed = index.removeAll(asList(3L, 42L, 1000L));
+
+        // then
+        assertThat(removed).isEqualTo(2);
+        assertThat(index.size()).isEqualTo(98);
+        assertThat(index.get("com.acme.Type3")).isEqualTo(NOT_FOUND);
+        assertThat(index.get("com.acme.Type42")).isEqualTo(NOT_FOUND);
+        assertThat(index.get("com.acme.Type43")).isEqualTo(43);
+    }
+
+    @Test
+    void clear() {
+        // given
+        FullQualifiedNameIndex index = new FullQualifiedNameIndex();
+        index.put("com.acme.Type", 1);
+
+        // when
+        index.clear();
+
+        // then
+        assertThat(index.size()).isZero();
+        assertThat(index.get("com.acme.Type")).isEqualTo(NOT_FOUND);
+    }
+}
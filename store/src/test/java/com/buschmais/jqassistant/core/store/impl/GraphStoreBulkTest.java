@@ -0,0 +1,192 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreConfiguration;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.jqassistant.core.store.spi.StorePluginRepository;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+import com.buschmais.xo.neo4j.api.annotation.Relation.Incoming;
+import com.buschmais.xo.neo4j.api.annotation.Relation.Outgoing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies the bulk operations of the {@link AbstractGraphStore} using an
+ * embedded store.
+ */
+class GraphStoreBulkTest {
+
+    private static final File DIRECTORY = new File("target/graph-store-bulk");
+
+    private static final int BULK_SIZE = 2;
+
+    private Store store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StoreArchive.delete(DIRECTORY.toPath(), false);
+        store = new EmbeddedGraphStore(StoreConfiguration.builder().uri(DIRECTORY.toURI()).bulkSize(BULK_SIZE).build(), new StorePluginRepository() {
+            @Override
+            public List<Class<?>> getDescriptorTypes() {
+                return asList(ItemDescriptor.class, RelatesDescriptor.class);
+            }
+
+            @Override
+            public List<Class<?>> getProcedureTypes() {
+                return emptyList();
+            }
+
+            @Override
+            public List<Class<?>> getFunctionTypes() {
+                return emptyList();
+            }
+        });
+        store.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.stop();
+        StoreArchive.delete(DIRECTORY.toPath(), false);
+    }
+
+    @Test
+    void createAll() {
+        // given
+        List<Map<String, Object>> properties = new ArrayList<>();
+        for (int i = 0; i < 2 * BULK_SIZE + 1; i++) {
+            properties.add(item(i));
+        }
+
+        // when
+        store.beginTransaction();
+        List<ItemDescriptor> items = store.createAll(ItemDescriptor.class, properties);
+        store.commitTransaction();
+
+        // then
+        assertThat(items).hasSize(5);
+        store.beginTransaction();
+        for (int i = 0; i < items.size(); i++) {
+            assertThat(items.get(i).getName()).isEqualTo("item-" + i);
+            assertThat(items.get(i).getIndex()).isEqualTo(i);
+        }
+        assertThat(count("MATCH (n:Item) RETURN count(n) AS count")).isEqualTo(5);
+        store.commitTransaction();
+    }
+
+    @Test
+    void createAllWithoutProperties() {
+        store.beginTransaction();
+        List<ItemDescriptor> items = store.createAll(ItemDescriptor.class, emptyList());
+
+        assertThat(items).isEmpty();
+        assertThat(count("MATCH (n) RETURN count(n) AS count")).isZero();
+        store.commitTransaction();
+    }
+
+    @Test
+    void relateAll() {
+        // given
+        store.beginTransaction();
+        List<ItemDescriptor> sources = new ArrayList<>();
+        List<ItemDescriptor> targets = new ArrayList<>();
+        List<Map<String, Object>> properties = new ArrayList<>();
+        for (int i = 0; i < 2 * BULK_SIZE + 1; i++) {
+            sources.add(store.create(ItemDescriptor.class));
+            targets.add(store.create(ItemDescriptor.class));
+            Map<String, Object> relationProperties = new HashMap<>();
+            relationProperties.put("weight", (long) i);
+            properties.add(relationProperties);
+        }
+
+        // when
+        List<RelatesDescriptor> relations = store.relateAll(sources, RelatesDescriptor.class, targets, properties);
+
+        // then
+        assertThat(relations).hasSize(5);
+        for (int i = 0; i < relations.size(); i++) {
+            RelatesDescriptor relation = relations.get(i);
+            assertThat(relation.getSource()).isEqualTo(sources.get(i));
+            assertThat(relation.getTarget()).isEqualTo(targets.get(i));
+            assertThat(relation.getWeight()).isEqualTo(i);
+        }
+        assertThat(count("MATCH ()-[r:RELATES]->() RETURN count(r) AS count")).isEqualTo(5);
+        store.commitTransaction();
+    }
+
+    @Test
+    void relateAllWithoutProperties() {
+        store.beginTransaction();
+        ItemDescriptor source = store.create(ItemDescriptor.class);
+        ItemDescriptor target = store.create(ItemDescriptor.class);
+
+        List<RelatesDescriptor> relations = store.relateAll(singletonList(source), RelatesDescriptor.class, singletonList(target), null);
+        List<RelatesDescriptor> empty = store.relateAll(emptyList(), RelatesDescriptor.class, emptyList(), emptyList());
+
+        assertThat(relations).hasSize(1);
+        assertThat(relations.get(0).getSource()).isEqualTo(source);
+        assertThat(relations.get(0).getTarget()).isEqualTo(target);
+        assertThat(empty).isEmpty();
+        store.commitTransaction();
+    }
+
+    @Test
+    void relateAllRejectsDifferentSizes() {
+        store.beginTransaction();
+        ItemDescriptor source = store.create(ItemDescriptor.class);
+
+        assertThatThrownBy(() -> store.relateAll(singletonList(source), RelatesDescriptor.class, emptyList(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        store.rollbackTransaction();
+    }
+
+    private Map<String, Object> item(int index) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("name", "item-" + index);
+        properties.put("index", (long) index);
+        return properties;
+    }
+
+    private long count(String query) {
+        try (Query.Result<Query.Result.CompositeRowObject> result = store.executeQuery(query)) {
+            return result.getSingleResult().get("count", Long.class);
+        }
+    }
+
+    @Label("Item")
+    public interface ItemDescriptor extends Descriptor {
+
+        String getName();
+
+        long getIndex();
+    }
+
+    @Relation("RELATES")
+    public interface RelatesDescriptor extends Descriptor {
+
+        @Outgoing
+        ItemDescriptor getSource();
+
+        @Incoming
+        ItemDescriptor getTarget();
+
+        long getWeight();
+    }
+}
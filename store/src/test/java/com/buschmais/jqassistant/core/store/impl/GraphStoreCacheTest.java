@@ -0,0 +1,173 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreConfiguration;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.jqassistant.core.store.spi.StorePluginRepository;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the caches of the {@link AbstractGraphStore} using an embedded
+ * store.
+ */
+class GraphStoreCacheTest {
+
+    private static final File DIRECTORY = new File("target/graph-store-cache");
+
+    private Store store;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (store != null) {
+            store.stop();
+        }
+        StoreArchive.delete(DIRECTORY.toPath(), false);
+    }
+
+    @Test
+    void cacheSpecs() throws IOException {
+        Map<String, String> cacheSpecs = new HashMap<>();
+        cacheSpecs.put("weighted", "maximumWeight=10");
+        start(StoreConfiguration.builder().cacheSpec("maximumSize=2").cacheSpecs(cacheSpecs));
+        Cache<String, ItemDescriptor> sized = store.getCache("sized");
+        Cache<String, ItemDescriptor> weighted = store.getCache("weighted");
+
+        store.beginTransaction();
+        for (String key : new String[] { "a", "b", "c", "d" }) {
+            sized.get(key, k -> store.create(ItemDescriptor.class));
+        }
+        // The weight of a string key is its length + 1
+        weighted.get("abcdefghijk", k -> store.create(ItemDescriptor.class));
+        weighted.get("a", k -> store.create(ItemDescriptor.class));
+        store.commitTransaction();
+        sized.cleanUp();
+        weighted.cleanUp();
+
+        assertThat(sized.estimatedSize()).isLessThanOrEqualTo(2);
+        assertThat(weighted.getIfPresent("abcdefghijk")).isNull();
+        assertThat(weighted.getIfPresent("a")).isNotNull();
+    }
+
+    @Test
+    void evictOnRollback() throws IOException {
+        start(StoreConfiguration.builder());
+        Cache<String, ItemDescriptor> cache = store.getCache("items");
+        store.beginTransaction();
+        ItemDescriptor committed = cache.get("committed", key -> store.create(ItemDescriptor.class));
+        store.commitTransaction();
+
+        store.beginTransaction();
+        cache.get("rolledBack", key -> store.create(ItemDescriptor.class));
+        cache.put("replaced", store.create(ItemDescriptor.class));
+        store.rollbackTransaction();
+
+        assertThat(cache.getIfPresent("committed")).isSameAs(committed);
+        assertThat(cache.getIfPresent("rolledBack")).isNull();
+        assertThat(cache.getIfPresent("replaced")).isNull();
+    }
+
+    @Test
+    void evictDeletedNodes() throws IOException {
+        start(StoreConfiguration.builder());
+        Cache<String, ItemDescriptor> cache = store.getCache("items");
+        store.beginTransaction();
+        ItemDescriptor committed = cache.get("committed", key -> store.create(ItemDescriptor.class));
+        store.commitTransaction();
+
+        store.beginTransaction();
+        ItemDescriptor created = cache.get("created", key -> store.create(ItemDescriptor.class));
+        ItemDescriptor other = cache.get("other", key -> store.create(ItemDescriptor.class));
+        List<Long> ids = asIds(committed, created);
+        store.executeQuery("MATCH (n) WHERE id(n) IN $ids DETACH DELETE n", singletonMap("ids", ids)).close();
+        store.evict(ids);
+        store.commitTransaction();
+
+        assertThat(cache.getIfPresent("committed")).isNull();
+        assertThat(cache.getIfPresent("created")).isNull();
+        assertThat(cache.getIfPresent("other")).isSameAs(other);
+    }
+
+    @Test
+    void invalidateOnRestart() throws IOException {
+        start(StoreConfiguration.builder());
+        Cache<String, ItemDescriptor> cache = store.getCache("items");
+        store.beginTransaction();
+        cache.get("committed", key -> store.create(ItemDescriptor.class));
+        store.commitTransaction();
+
+        store.stop();
+        store.start();
+
+        assertThat(cache.getIfPresent("committed")).isNull();
+        assertThat(store.<String, ItemDescriptor> getCache("items").getIfPresent("committed")).isNull();
+    }
+
+    @Test
+    void cacheStatistics() throws IOException {
+        start(StoreConfiguration.builder().cacheSpec("recordStats"));
+        Cache<String, ItemDescriptor> cache = store.getCache("items");
+        store.beginTransaction();
+        cache.get("a", key -> store.create(ItemDescriptor.class));
+        cache.get("a", key -> store.create(ItemDescriptor.class));
+        cache.getIfPresent("b");
+        store.commitTransaction();
+
+        Map<String, CacheStats> statistics = store.getCacheStatistics();
+
+        assertThat(statistics).containsKey("items");
+        CacheStats stats = statistics.get("items");
+        assertThat(stats.requestCount()).isEqualTo(3);
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(2);
+    }
+
+    private void start(StoreConfiguration.StoreConfigurationBuilder builder) throws IOException {
+        StoreArchive.delete(DIRECTORY.toPath(), false);
+        store = new EmbeddedGraphStore(builder.uri(DIRECTORY.toURI()).build(), new StorePluginRepository() {
+            @Override
+            public List<Class<?>> getDescriptorTypes() {
+                return singletonList(ItemDescriptor.class);
+            }
+
+            @Override
+            public List<Class<?>> getProcedureTypes() {
+                return emptyList();
+            }
+
+            @Override
+            public List<Class<?>> getFunctionTypes() {
+                return emptyList();
+            }
+        });
+        store.start();
+    }
+
+    private List<Long> asIds(Descriptor... descriptors) {
+        List<Long> ids = new ArrayList<>();
+        for (Descriptor descriptor : descriptors) {
+            ids.add(((Number) descriptor.getId()).longValue());
+        }
+        return ids;
+    }
+
+    @Label("Item")
+    public interface ItemDescriptor extends Descriptor {
+    }
+}
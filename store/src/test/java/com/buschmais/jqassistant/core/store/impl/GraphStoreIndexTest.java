@@ -0,0 +1,132 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreConfiguration;
+import com.buschmais.jqassistant.core.store.api.model.FullQualifiedNameDescriptor;
+import com.buschmais.jqassistant.core.store.spi.StorePluginRepository;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the index of full qualified names of the {@link AbstractGraphStore}
+ * using an embedded store.
+ */
+class GraphStoreIndexTest {
+
+    private static final File DIRECTORY = new File("target/graph-store-index");
+
+    private Store store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StoreArchive.delete(DIRECTORY.toPath(), false);
+        start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (store != null) {
+            store.stop();
+        }
+        StoreArchive.delete(DIRECTORY.toPath(), false);
+    }
+
+    @Test
+    void rebuildIndexFromGraph() {
+        store.beginTransaction();
+        store.create(SpecialItemDescriptor.class, "com.acme.Special");
+        store.create(ItemDescriptor.class, "com.acme.Item");
+        store.commitTransaction();
+        store.stop();
+
+        start();
+
+        store.beginTransaction();
+        ItemDescriptor special = store.find(ItemDescriptor.class, "com.acme.Special");
+        assertThat(special).isInstanceOf(SpecialItemDescriptor.class);
+        assertThat(special.getFullQualifiedName()).isEqualTo("com.acme.Special");
+        assertThat(store.find(ItemDescriptor.class, "com.acme.Item").getFullQualifiedName()).isEqualTo("com.acme.Item");
+        assertThat(store.find(SpecialItemDescriptor.class, "com.acme.Special").getId()).isEqualTo(special.getId());
+        assertThat(store.find(SpecialItemDescriptor.class, "com.acme.Item")).isNull();
+        store.commitTransaction();
+    }
+
+    @Test
+    void createdDescriptorIsFoundBySuperType() {
+        store.beginTransaction();
+        assertThat(store.find(ItemDescriptor.class, "com.acme.Special")).isNull();
+
+        SpecialItemDescriptor special = store.create(SpecialItemDescriptor.class, "com.acme.Special");
+
+        ItemDescriptor item = store.find(ItemDescriptor.class, "com.acme.Special");
+        assertThat(item).isInstanceOf(SpecialItemDescriptor.class);
+        assertThat(item.getId()).isEqualTo(special.getId());
+        store.commitTransaction();
+    }
+
+    @Test
+    void rollbackRemovesIndexedNames() {
+        store.beginTransaction();
+        store.create(ItemDescriptor.class, "com.acme.First");
+        store.create(SpecialItemDescriptor.class, "com.acme.Second");
+        store.rollbackTransaction();
+
+        store.beginTransaction();
+        assertThat(store.find(ItemDescriptor.class, "com.acme.First")).isNull();
+        assertThat(store.find(ItemDescriptor.class, "com.acme.Second")).isNull();
+        assertThat(store.find(SpecialItemDescriptor.class, "com.acme.Second")).isNull();
+        store.commitTransaction();
+    }
+
+    @Test
+    void deleteRemovesIndexedName() {
+        store.beginTransaction();
+        ItemDescriptor item = store.create(ItemDescriptor.class, "com.acme.Item");
+        assertThat(store.find(ItemDescriptor.class, "com.acme.Item").getId()).isEqualTo(item.getId());
+
+        store.delete(item);
+
+        assertThat(store.find(ItemDescriptor.class, "com.acme.Item")).isNull();
+        store.commitTransaction();
+    }
+
+    private void start() {
+        store = new EmbeddedGraphStore(StoreConfiguration.builder().uri(DIRECTORY.toURI()).fullQualifiedNameIndex(true).build(),
+                new StorePluginRepository() {
+                    @Override
+                    public List<Class<?>> getDescriptorTypes() {
+                        return asList(ItemDescriptor.class, SpecialItemDescriptor.class);
+                    }
+
+                    @Override
+                    public List<Class<?>> getProcedureTypes() {
+                        return emptyList();
+                    }
+
+                    @Override
+                    public List<Class<?>> getFunctionTypes() {
+                        return emptyList();
+                    }
+                });
+        store.start();
+    }
+
+    @Label("Item")
+    public interface ItemDescriptor extends FullQualifiedNameDescriptor {
+    }
+
+    @Label("Special")
+    public interface SpecialItemDescriptor extends ItemDescriptor {
+    }
+}
@@ -0,0 +1,131 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.StoreConfiguration;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.jqassistant.core.store.spi.StorePluginRepository;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies resetting an embedded store.
+ */
+class GraphStoreResetTest {
+
+    private static final File DIRECTORY = new File("target/graph-store-reset");
+
+    /**
+     * A file within the database directory which is only removed if the
+     * database is recreated.
+     */
+    private static final File MARKER = new File(DIRECTORY, "marker");
+
+    private Store store;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (store != null) {
+            store.stop();
+        }
+        StoreArchive.delete(DIRECTORY.toPath(), false);
+    }
+
+    @Test
+    void resetDeletesNodesAndRelations() throws IOException {
+        start(StoreConfiguration.builder().recreateOnReset(false).resetParallelism(4));
+        createGraph(30000);
+
+        store.reset();
+
+        assertThat(count("MATCH (n) RETURN count(n) AS count")).isEqualTo(0L);
+        assertThat(count("MATCH ()-[r]->() RETURN count(r) AS count")).isEqualTo(0L);
+        assertThat(MARKER).exists();
+    }
+
+    @Test
+    void resetRecreatesDatabase() throws IOException {
+        start(StoreConfiguration.builder());
+        createGraph(100);
+
+        store.reset();
+
+        assertThat(MARKER).doesNotExist();
+        assertThat(count("MATCH (n) RETURN count(n) AS count")).isEqualTo(0L);
+        // The store is started again
+        store.beginTransaction();
+        store.create(ItemDescriptor.class);
+        store.commitTransaction();
+        assertThat(count("MATCH (n:Item) RETURN count(n) AS count")).isEqualTo(1L);
+    }
+
+    @Test
+    void resetProgress() {
+        AbstractGraphStore.ResetProgress progress = new AbstractGraphStore.ResetProgress("nodes", 100);
+
+        progress.deleted(5);
+        assertThat(progress.getReportedPercent()).isEqualTo(0);
+        progress.deleted(30);
+        assertThat(progress.getReportedPercent()).isEqualTo(30);
+        // Entities created while resetting are deleted as well
+        progress.deleted(80);
+
+        assertThat(progress.getDeleted()).isEqualTo(115L);
+        assertThat(progress.getReportedPercent()).isEqualTo(100);
+    }
+
+    private void start(StoreConfiguration.StoreConfigurationBuilder builder) throws IOException {
+        StoreArchive.delete(DIRECTORY.toPath(), false);
+        store = new EmbeddedGraphStore(builder.uri(DIRECTORY.toURI()).build(), new StorePluginRepository() {
+            @Override
+            public List<Class<?>> getDescriptorTypes() {
+                return singletonList(ItemDescriptor.class);
+            }
+
+            @Override
+            public List<Class<?>> getProcedureTypes() {
+                return emptyList();
+            }
+
+            @Override
+            public List<Class<?>> getFunctionTypes() {
+                return emptyList();
+            }
+        });
+        store.start();
+        Files.write(MARKER.toPath(), new byte[0]);
+    }
+
+    /**
+     * Create pairs of nodes connected by a relation.
+     */
+    private void createGraph(int pairs) {
+        store.beginTransaction();
+        store.executeQuery("UNWIND range(1, $pairs) AS i CREATE (:Item)-[:NEXT]->(:Item)", singletonMap("pairs", pairs)).close();
+        store.commitTransaction();
+    }
+
+    private long count(String query) {
+        store.beginTransaction();
+        try {
+            return store.executeQuery(query).getSingleResult().get("count", Long.class);
+        } finally {
+            store.commitTransaction();
+        }
+    }
+
+    @Label("Item")
+    public interface ItemDescriptor extends Descriptor {
+    }
+}
@@ -0,0 +1,77 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.net.URI;
+import java.util.Properties;
+
+import com.buschmais.jqassistant.core.store.api.StoreConfiguration;
+import com.buschmais.jqassistant.core.store.spi.StorePluginRepository;
+import com.buschmais.xo.neo4j.remote.api.RemoteNeo4jXOProvider.Property;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.v1.Config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class RemoteGraphStoreTest {
+
+    private static final URI BOLT_URI = URI.create("bolt://localhost:7687");
+
+    @Test
+    void connectionProperties() {
+        Properties userProperties = new Properties();
+        userProperties.setProperty(Property.ENCRYPTION.getKey(), "true");
+        RemoteGraphStore store = createStore(
+                StoreConfiguration.builder().uri(BOLT_URI).username("neo4j").password("secret").trustStrategy("trustAllCertificates").properties(userProperties));
+
+        Properties properties = store.getConnectionProperties();
+
+        assertThat(properties.getProperty(Property.USERNAME.getKey())).isEqualTo("neo4j");
+        assertThat(properties.getProperty(Property.PASSWORD.getKey())).isEqualTo("secret");
+        assertThat(properties.getProperty(Property.TRUST_STRATEGY.getKey())).isEqualTo("trustAllCertificates");
+        // User defined properties override the configuration
+        assertThat(properties.getProperty(Property.ENCRYPTION.getKey())).isEqualTo("true");
+    }
+
+    @Test
+    void driverConfig() {
+        Properties userProperties = new Properties();
+        userProperties.setProperty(Property.ENCRYPTION.getKey(), "true");
+        RemoteGraphStore store = createStore(StoreConfiguration.builder().uri(BOLT_URI).trustStrategy("TRUST_SYSTEM_CA_SIGNED_CERTIFICATES")
+                .properties(userProperties).maxConnectionPoolSize(5).connectionAcquisitionTimeout(1000L).maxConnectionLifetime(60000L));
+
+        Config config = store.getDriverConfig(store.getConnectionProperties());
+
+        assertThat(config.encrypted()).isTrue();
+        assertThat(config.trustStrategy().strategy()).isEqualTo(Config.TrustStrategy.Strategy.TRUST_SYSTEM_CA_SIGNED_CERTIFICATES);
+        assertThat(config.maxConnectionPoolSize()).isEqualTo(5);
+        assertThat(config.connectionAcquisitionTimeoutMillis()).isEqualTo(1000L);
+        assertThat(config.maxConnectionLifetimeMillis()).isEqualTo(60000L);
+    }
+
+    @Test
+    void driverConfigWithoutEncryption() {
+        RemoteGraphStore store = createStore(StoreConfiguration.builder().uri(BOLT_URI).trustStrategy("trustAllCertificates"));
+
+        Config config = store.getDriverConfig(store.getConnectionProperties());
+
+        assertThat(config.encrypted()).isFalse();
+    }
+
+    @Test
+    void trustStrategy() {
+        assertThat(RemoteGraphStore.getTrustStrategy("trustAllCertificates", null).strategy())
+                .isEqualTo(Config.TrustStrategy.Strategy.TRUST_ALL_CERTIFICATES);
+        assertThat(RemoteGraphStore.getTrustStrategy("TRUST_ALL_CERTIFICATES", null).strategy())
+                .isEqualTo(Config.TrustStrategy.Strategy.TRUST_ALL_CERTIFICATES);
+        assertThat(RemoteGraphStore.getTrustStrategy("trustCustomCaSignedCertificates", "target/ca.crt").strategy())
+                .isEqualTo(Config.TrustStrategy.Strategy.TRUST_CUSTOM_CA_SIGNED_CERTIFICATES);
+        assertThatThrownBy(() -> RemoteGraphStore.getTrustStrategy("trustCustomCaSignedCertificates", null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RemoteGraphStore.getTrustStrategy("unknown", null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private RemoteGraphStore createStore(StoreConfiguration.StoreConfigurationBuilder builder) {
+        return new RemoteGraphStore(builder.build(), mock(StorePluginRepository.class));
+    }
+}
@@ -0,0 +1,107 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StoreArchiveTest {
+
+    private static final Path DIRECTORY = Paths.get("target/store-archive");
+
+    private final Path database = DIRECTORY.resolve("database");
+
+    private final Path archive = DIRECTORY.resolve("snapshot.zip");
+
+    private final Path restored = DIRECTORY.resolve("restored");
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StoreArchive.delete(DIRECTORY, false);
+        Files.createDirectories(database.resolve("schema"));
+        write(database.resolve("neostore"), "store");
+        write(database.resolve("schema/index"), "index");
+    }
+
+    @Test
+    void snapshotAndRestore() throws IOException {
+        // given
+        StoreArchive.write(database, archive);
+
+        // when
+        StoreArchive.restore(archive, restored);
+
+        // then
+        assertThat(read(restored.resolve("neostore"))).isEqualTo("store");
+        assertThat(read(restored.resolve("schema/index"))).isEqualTo("index");
+        assertThat(Files.exists(DIRECTORY.resolve("restored.restore"))).isFalse();
+        assertThat(Files.exists(DIRECTORY.resolve("restored.previous"))).isFalse();
+    }
+
+    @Test
+    void restoreReplacesExistingDirectory() throws IOException {
+        // given
+        StoreArchive.write(database, archive);
+        Files.createDirectories(restored);
+        write(restored.resolve("obsolete"), "obsolete");
+
+        // when
+        StoreArchive.restore(archive, restored);
+
+        // then
+        assertThat(Files.exists(restored.resolve("obsolete"))).isFalse();
+        assertThat(read(restored.resolve("neostore"))).isEqualTo("store");
+    }
+
+    @Test
+    void truncatedArchiveIsRejected() throws IOException {
+        // given
+        StoreArchive.write(database, archive);
+        try (RandomAccessFile file = new RandomAccessFile(archive.toFile(), "rw")) {
+            file.setLength(file.length() / 2);
+        }
+        Files.createDirectories(restored);
+        write(restored.resolve("neostore"), "existing");
+
+        // when
+        assertThatThrownBy(() -> StoreArchive.restore(archive, restored)).isInstanceOf(IOException.class);
+
+        // then
+        assertThat(read(restored.resolve("neostore"))).isEqualTo("existing");
+        assertThat(Files.exists(DIRECTORY.resolve("restored.restore"))).isFalse();
+    }
+
+    @Test
+    void failedMoveRestoresExistingDirectory() throws IOException {
+        // given
+        StoreArchive.write(database, archive);
+        Files.createDirectories(restored);
+        write(restored.resolve("neostore"), "existing");
+
+        // when
+        assertThatThrownBy(() -> StoreArchive.restore(archive, restored, (source, target) -> {
+            throw new IOException("Cannot move " + source);
+        })).isInstanceOf(IOException.class);
+
+        // then
+        assertThat(read(restored.resolve("neostore"))).isEqualTo("existing");
+        assertThat(Files.exists(DIRECTORY.resolve("restored.restore"))).isFalse();
+        assertThat(Files.exists(DIRECTORY.resolve("restored.previous"))).isFalse();
+    }
+
+    private void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,153 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.util.*;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.jqassistant.core.store.api.model.FullQualifiedNameDescriptor;
+import com.buschmais.xo.api.Query.Result;
+import com.buschmais.xo.api.Query.Result.CompositeRowObject;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class StoreMergerTest {
+
+    private final Store target = mock(Store.class);
+
+    /**
+     * The statements executed on the target store and their parameters.
+     */
+    private final Map<String, List<Map<String, Object>>> statements = new LinkedHashMap<>();
+
+    /**
+     * The ids of the target nodes per identifying label and full qualified
+     * name, i.e. the nodes matched by a merge.
+     */
+    private final Map<String, Long> mergedNodes = new HashMap<>();
+
+    private long nextId = 100;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            String statement = invocation.getArgument(0);
+            Map<String, Object> parameters = invocation.getArgument(1);
+            List<Map<String, Object>> values = (List<Map<String, Object>>) parameters.values().iterator().next();
+            statements.computeIfAbsent(statement, key -> new ArrayList<>()).addAll(values);
+            List<Map<String, Object>> rows = new ArrayList<>();
+            if (parameters.containsKey("nodes")) {
+                for (Map<String, Object> node : values) {
+                    Map<String, Object> properties = (Map<String, Object>) node.get("properties");
+                    long id = statement.contains("MERGE") ? mergedNodes.computeIfAbsent(statement.substring(0, statement.indexOf('{')) + properties.get("fqn"),
+                            key -> nextId++) : nextId++;
+                    Map<String, Object> row = new HashMap<>();
+                    row.put("source", node.get("id"));
+                    row.put("target", id);
+                    rows.add(row);
+                }
+            }
+            return result(rows);
+        }).when(target).executeQuery(anyString(), anyMap());
+    }
+
+    @Test
+    void identifyingLabels() {
+        // when
+        Set<String> identifyingLabels = StoreMerger
+                .getIdentifyingLabels(asList(TestDescriptor.class, TypeDescriptor.class, ClassDescriptor.class, FullQualifiedNameDescriptor.class));
+
+        // then
+        assertThat(identifyingLabels).containsExactly("Type");
+    }
+
+    @Test
+    void mergeOverlappingFullQualifiedNames() {
+        // given
+        StoreMerger storeMerger = new StoreMerger(target, 100, singletonList("Type"));
+        Store referencingShard = source(asList(node(0, asList("Test", "Type"), "a.A"), node(1, asList("Test", "Type"), "a.B")),
+                asList(relation(0, "DEPENDS_ON", 1)));
+        Store declaringShard = source(asList(node(0, asList("Class", "File", "Test", "Type"), "a.A"), node(1, asList("File"), "a.A")),
+                asList(relation(0, "DEPENDS_ON", 1)));
+
+        // when
+        storeMerger.merge(referencingShard);
+        storeMerger.merge(declaringShard);
+
+        // then
+        String mergeType = "UNWIND $nodes AS node MERGE (n:`Type`{fqn:node.properties.fqn}) ON CREATE SET n = node.properties ON MATCH SET n += node.properties ";
+        assertThat(statements.get(mergeType + "SET n:`Test` RETURN node.id AS source, id(n) AS target")).hasSize(2);
+        assertThat(statements.get(mergeType + "SET n:`Class`:`File`:`Test` RETURN node.id AS source, id(n) AS target")).hasSize(1);
+        // The file node has a full qualified name but no identifying label
+        assertThat(statements.get("UNWIND $nodes AS node CREATE (n:`File`) SET n = node.properties RETURN node.id AS source, id(n) AS target")).hasSize(1);
+        assertThat(mergedNodes).hasSize(2);
+        // Relations between reconciled nodes are merged, the relation to the copied node is created
+        String relation = "UNWIND $relations AS relation MATCH (s) WHERE id(s) = relation.source MATCH (t) WHERE id(t) = relation.target ";
+        List<Map<String, Object>> mergedRelations = statements.get(relation + "MERGE (s)-[r:`DEPENDS_ON`]->(t) ON CREATE SET r = relation.properties");
+        assertThat(mergedRelations).hasSize(1);
+        assertThat(mergedRelations.get(0).get("source")).isEqualTo(100L);
+        assertThat(mergedRelations.get(0).get("target")).isEqualTo(101L);
+        List<Map<String, Object>> createdRelations = statements.get(relation + "CREATE (s)-[r:`DEPENDS_ON`]->(t) SET r = relation.properties");
+        assertThat(createdRelations).hasSize(1);
+        assertThat(createdRelations.get(0).get("source")).isEqualTo(100L);
+        assertThat(createdRelations.get(0).get("target")).isEqualTo(102L);
+    }
+
+    private Store source(List<Map<String, Object>> nodes, List<Map<String, Object>> relations) {
+        Store source = mock(Store.class);
+        doAnswer(invocation -> result(nodes)).when(source).executeQuery(startsWith("MATCH (n)"));
+        doAnswer(invocation -> result(relations)).when(source).executeQuery(startsWith("MATCH (s)"));
+        return source;
+    }
+
+    private Map<String, Object> node(long id, List<String> labels, String fqn) {
+        Map<String, Object> node = new HashMap<>();
+        node.put("id", id);
+        node.put("labels", labels);
+        node.put("properties", singletonMap("fqn", fqn));
+        return node;
+    }
+
+    private Map<String, Object> relation(long source, String type, long target) {
+        Map<String, Object> relation = new HashMap<>();
+        relation.put("source", source);
+        relation.put("type", type);
+        relation.put("target", target);
+        relation.put("properties", emptyMap());
+        return relation;
+    }
+
+    private Result<CompositeRowObject> result(List<Map<String, Object>> values) {
+        List<CompositeRowObject> rows = new ArrayList<>();
+        for (Map<String, Object> value : values) {
+            CompositeRowObject row = mock(CompositeRowObject.class);
+            doAnswer(invocation -> value.get(invocation.<String> getArgument(0))).when(row).get(anyString(), any(Class.class));
+            rows.add(row);
+        }
+        Result<CompositeRowObject> result = mock(Result.class);
+        doAnswer(invocation -> rows.iterator()).when(result).iterator();
+        return result;
+    }
+
+    @Label("Test")
+    interface TestDescriptor extends Descriptor {
+    }
+
+    @Label("Type")
+    interface TypeDescriptor extends TestDescriptor, FullQualifiedNameDescriptor {
+    }
+
+    @Label("Class")
+    interface ClassDescriptor extends TypeDescriptor {
+    }
+}
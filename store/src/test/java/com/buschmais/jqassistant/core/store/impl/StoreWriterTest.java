@@ -0,0 +1,177 @@
+package com.buschmais.jqassistant.core.store.impl;
+
+import java.util.concurrent.*;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class StoreWriterTest {
+
+    private final Store delegate = mock(Store.class);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final ExecutorService caller = Executors.newSingleThreadExecutor();
+
+    private StoreWriter storeWriter;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        caller.shutdownNow();
+        if (storeWriter != null) {
+            storeWriter.close();
+        }
+    }
+
+    @Test
+    void writeBehind() {
+        storeWriter = new StoreWriter(delegate, 10);
+        Descriptor descriptor = mock(Descriptor.class);
+        doReturn(1L).when(descriptor).getId();
+        doReturn(descriptor).when(delegate).create(Descriptor.class);
+        blockOnBeginTransaction();
+
+        // The operations are queued while the writer thread is blocked
+        storeWriter.beginTransaction();
+        Descriptor created = storeWriter.create(Descriptor.class);
+        storeWriter.commitTransaction();
+        verify(delegate, never()).create(Descriptor.class);
+        release.countDown();
+
+        assertThat(created.getId()).isEqualTo(1L);
+        assertThat(StoreWriter.unwrap(created)).isSameAs(descriptor);
+        storeWriter.barrier();
+        InOrder inOrder = inOrder(delegate);
+        inOrder.verify(delegate).beginTransaction();
+        inOrder.verify(delegate).create(Descriptor.class);
+        inOrder.verify(delegate).commitTransaction();
+        inOrder.verify(delegate).barrier();
+    }
+
+    @Test
+    void writeBehindProxyImplementsOnlyRequestedType() {
+        storeWriter = new StoreWriter(delegate, 10);
+        SpecialDescriptor descriptor = mock(SpecialDescriptor.class);
+        doReturn(descriptor).when(delegate).create(Descriptor.class);
+
+        Descriptor created = storeWriter.create(Descriptor.class);
+
+        // The type of the created descriptor is not known before the operation has been executed
+        assertThat(created).isNotInstanceOf(SpecialDescriptor.class);
+        assertThat(StoreWriter.unwrap(created)).isInstanceOf(SpecialDescriptor.class);
+    }
+
+    @Test
+    void backPressure() throws Exception {
+        storeWriter = new StoreWriter(delegate, 1);
+        blockOnBeginTransaction();
+        storeWriter.beginTransaction();
+
+        // The capacity is exhausted, the next operation blocks until the pending one has been executed
+        Future<?> commit = caller.submit(() -> storeWriter.commitTransaction());
+        assertThatThrownBy(() -> commit.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        release.countDown();
+
+        commit.get(1, TimeUnit.MINUTES);
+        storeWriter.barrier();
+        verify(delegate).commitTransaction();
+    }
+
+    @Test
+    void barrierWaitsForPendingOperations() throws Exception {
+        storeWriter = new StoreWriter(delegate, 10);
+        blockOnBeginTransaction();
+        storeWriter.beginTransaction();
+        storeWriter.commitTransaction();
+
+        Future<?> barrier = caller.submit(() -> storeWriter.barrier());
+        assertThatThrownBy(() -> barrier.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        verify(delegate, never()).commitTransaction();
+        release.countDown();
+
+        barrier.get(1, TimeUnit.MINUTES);
+        verify(delegate).commitTransaction();
+        verify(delegate).barrier();
+    }
+
+    @Test
+    void executeQueryAsyncWaitsForPendingOperations() throws Exception {
+        storeWriter = new StoreWriter(delegate, 10);
+        blockOnBeginTransaction();
+        storeWriter.beginTransaction();
+        storeWriter.commitTransaction();
+
+        Future<?> query = caller.submit(() -> storeWriter.executeQueryAsync("MATCH (n) RETURN n", null));
+        assertThatThrownBy(() -> query.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        verify(delegate, never()).executeQueryAsync(anyString(), any());
+        release.countDown();
+
+        query.get(1, TimeUnit.MINUTES);
+        InOrder inOrder = inOrder(delegate);
+        inOrder.verify(delegate).commitTransaction();
+        inOrder.verify(delegate).executeQueryAsync("MATCH (n) RETURN n", null);
+    }
+
+    @Test
+    void pendingFailureIsReportedOnce() {
+        storeWriter = new StoreWriter(delegate, 10);
+        IllegalStateException failure = new IllegalStateException("Commit failed");
+        doThrow(failure).when(delegate).commitTransaction();
+
+        // The failure of a queued operation is not visible to the caller
+        storeWriter.commitTransaction();
+
+        assertThatThrownBy(() -> storeWriter.barrier()).isInstanceOf(IllegalStateException.class).hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("queued");
+        storeWriter.barrier();
+        verify(delegate, times(2)).barrier();
+    }
+
+    @Test
+    void stopTerminatesWriter() {
+        storeWriter = new StoreWriter(delegate);
+
+        storeWriter.stop();
+
+        verify(delegate).stop();
+        assertThatThrownBy(() -> storeWriter.beginTransaction()).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void forCurrentThreadExecutesOperationsOnOwner() throws Exception {
+        storeWriter = StoreWriter.forCurrentThread(delegate);
+        Thread owner = Thread.currentThread();
+        Descriptor descriptor = mock(Descriptor.class);
+        doAnswer(invocation -> {
+            assertThat(Thread.currentThread()).isSameAs(owner);
+            return descriptor;
+        }).when(delegate).create(Descriptor.class);
+
+        Future<Descriptor> created = caller.submit(() -> StoreWriter.unwrap(storeWriter.create(Descriptor.class)));
+        storeWriter.await(created::isDone);
+
+        assertThat(created.get()).isSameAs(descriptor);
+        // Operations of the owner are executed directly
+        storeWriter.hasActiveTransaction();
+        verify(delegate).hasActiveTransaction();
+    }
+
+    private void blockOnBeginTransaction() {
+        doAnswer(invocation -> release.await(1, TimeUnit.MINUTES)).when(delegate).beginTransaction();
+    }
+
+    /**
+     * A descriptor type which is not requested when creating a descriptor.
+     */
+    public interface SpecialDescriptor extends Descriptor {
+    }
+}